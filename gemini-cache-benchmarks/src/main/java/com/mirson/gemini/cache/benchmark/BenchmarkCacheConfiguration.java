@@ -0,0 +1,20 @@
+package com.mirson.gemini.cache.benchmark;
+
+import com.mirson.gemini.cache.config.CacheConfiguration;
+import com.mirson.gemini.cache.service.codec.CacheCodecRegistry;
+import org.redisson.api.RedissonClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 基准测试缓存配置： 除Redis连接采用进程内替身外， 与组件配置一致
+ */
+@Configuration
+public class BenchmarkCacheConfiguration extends CacheConfiguration {
+
+    @Bean
+    @Override
+    public RedissonClient redissonClient(CacheCodecRegistry cacheCodecRegistry) {
+        return InMemoryRedissonClient.create(cacheCodecRegistry.getDefaultCodec());
+    }
+}
@@ -0,0 +1,46 @@
+package com.mirson.gemini.cache.benchmark;
+
+import com.mirson.gemini.cache.config.CacheConfigProperties;
+import com.mirson.gemini.cache.service.CacheManagerAspect;
+import com.mirson.gemini.cache.service.operation.CacheOperationSource;
+import com.mirson.gemini.cache.utils.SpringExpressionParserUtil;
+import com.mirson.gemini.cache.utils.SpringUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基准测试的Spring容器： 加载缓存组件与注解服务， Redis采用进程内替身
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * 启动容器
+     * @param overrides 覆盖默认配置的参数
+     * @return
+     */
+    public static AnnotationConfigApplicationContext start(Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("app.cache.enable", "true");
+        properties.put("app.cache.enableSecondCache", "true");
+        properties.put("app.cache.redis.host", "127.0.0.1");
+        properties.put("app.cache.redis.port", "6379");
+        properties.put("app.cache.redis.database", "0");
+        properties.put("app.cache.redis.global.expire", "86400");
+        properties.put("app.cache.redis.useCompression", "false");
+        properties.putAll(overrides);
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.register(SpringUtils.class, SpringExpressionParserUtil.class, CacheConfigProperties.class,
+                BenchmarkCacheConfiguration.class, CacheOperationSource.class, CacheManagerAspect.class,
+                BenchmarkOrderService.class);
+        context.refresh();
+        return context;
+    }
+}
@@ -0,0 +1,41 @@
+package com.mirson.gemini.cache.benchmark;
+
+import java.io.Serializable;
+
+/**
+ * 基准测试使用的订单对象
+ */
+public class BenchmarkOrder implements Serializable {
+
+    private String orderNo;
+
+    private long customerId;
+
+    private String status;
+
+    public BenchmarkOrder() {
+    }
+
+    public BenchmarkOrder(String orderNo, long customerId, String status) {
+        this.orderNo = orderNo;
+        this.customerId = customerId;
+        this.status = status;
+    }
+
+    public String getOrderNo() {
+        return orderNo;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return "BenchmarkOrder{orderNo='" + orderNo + "', customerId=" + customerId + ", status='" + status + "'}";
+    }
+}
@@ -0,0 +1,29 @@
+package com.mirson.gemini.cache.benchmark;
+
+import com.mirson.gemini.cache.annotation.CachePut;
+import com.mirson.gemini.cache.annotation.Cacheable;
+
+/**
+ * 基准测试使用的缓存注解服务
+ */
+public class BenchmarkOrderService {
+
+    public static final String CACHE_NAME = "benchmark_order";
+
+    @Cacheable(cacheName = CACHE_NAME, keyExpression = "#param1", TTL = 600)
+    public BenchmarkOrder getOrder(String orderNo) {
+        return loadOrder(orderNo);
+    }
+
+    @CachePut(cacheNames = CACHE_NAME, keyExpression = "#param1.orderNo", TTL = 600)
+    public BenchmarkOrder saveOrder(BenchmarkOrder order) {
+        return order;
+    }
+
+    /**
+     * 无缓存注解的同一方法， 作为对照
+     */
+    public BenchmarkOrder loadOrder(String orderNo) {
+        return new BenchmarkOrder(orderNo, 10086L, "PAID");
+    }
+}
@@ -0,0 +1,81 @@
+package com.mirson.gemini.cache.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存注解完整调用基准测试： 代理Bean -> CacheManagerAspect -> CacheService -> 进程内Redis替身
+ * uncached为同一代理Bean上无缓存注解的方法， 作为代理本身开销的对照。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheAspectBenchmark {
+
+    /**
+     * 是否开启二级缓存： true（命中Caffeine）， false（只用Redis）
+     */
+    @Param({"true", "false"})
+    private String secondCache;
+
+    private static final int KEYS = 1024;
+
+    private AnnotationConfigApplicationContext context;
+
+    private BenchmarkOrderService orderService;
+
+    private String[] orderNos;
+
+    private BenchmarkOrder[] orders;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkContext.start(Collections.<String, Object>singletonMap("app.cache.enableSecondCache", secondCache));
+        orderService = context.getBean(BenchmarkOrderService.class);
+        orderNos = new String[KEYS];
+        orders = new BenchmarkOrder[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            orderNos[i] = "SO-20211017-" + i;
+            orders[i] = new BenchmarkOrder(orderNos[i], 10086L + i, "PAID");
+            orderService.getOrder(orderNos[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object cacheableHit() {
+        return orderService.getOrder(orderNos[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Benchmark
+    public Object cachePut() {
+        return orderService.saveOrder(orders[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Benchmark
+    public Object uncached() {
+        return orderService.loadOrder(orderNos[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+}
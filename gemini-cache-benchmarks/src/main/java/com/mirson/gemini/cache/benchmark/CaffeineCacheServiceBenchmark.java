@@ -0,0 +1,89 @@
+package com.mirson.gemini.cache.benchmark;
+
+import com.mirson.gemini.cache.service.cache.CacheService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 二级缓存读取基准测试（CaffeineCacheServiceImpl.getFromCache）， Redis采用进程内替身：
+ * localHit 本地命中； remoteHit 本地容量远小于KEY数量， 绝大部分请求本地未命中、从Redis读取并写入本地；
+ * absent 本地与Redis均不存在。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CaffeineCacheServiceBenchmark {
+
+    private static final String HIT_CACHE = "benchmark_hit";
+
+    private static final String MISS_CACHE = "benchmark_miss";
+
+    private static final int HIT_KEYS = 1024;
+
+    private static final int MISS_KEYS = 65536;
+
+    private static final String[] CACHE_NAMES_HIT = {HIT_CACHE};
+
+    private static final String[] CACHE_NAMES_MISS = {MISS_CACHE};
+
+    private AnnotationConfigApplicationContext context;
+
+    private CacheService cacheService;
+
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("app.cache.caches." + MISS_CACHE + ".maximumSize", String.valueOf(HIT_KEYS));
+        context = BenchmarkContext.start(properties);
+        cacheService = context.getBean(CacheService.class);
+        keys = new String[MISS_KEYS];
+        for (int i = 0; i < MISS_KEYS; i++) {
+            keys[i] = "SO-20211017-" + i;
+            BenchmarkOrder order = new BenchmarkOrder(keys[i], 10086L + i, "PAID");
+            cacheService.save(i < HIT_KEYS ? CACHE_NAMES_HIT : CACHE_NAMES_MISS, keys[i], order, 0);
+        }
+        for (int i = 0; i < HIT_KEYS; i++) {
+            cacheService.getFromCache(HIT_CACHE, keys[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object localHit() {
+        return cacheService.getFromCache(HIT_CACHE, keys[ThreadLocalRandom.current().nextInt(HIT_KEYS)]);
+    }
+
+    @Benchmark
+    public Object remoteHit() {
+        return cacheService.getFromCache(MISS_CACHE, keys[HIT_KEYS + ThreadLocalRandom.current().nextInt(MISS_KEYS - HIT_KEYS)]);
+    }
+
+    @Benchmark
+    public Object absent() {
+        return cacheService.getFromCache(HIT_CACHE, "SO-ABSENT-" + ThreadLocalRandom.current().nextInt(HIT_KEYS));
+    }
+}
@@ -0,0 +1,201 @@
+package com.mirson.gemini.cache.benchmark;
+
+import com.mirson.gemini.cache.example.vo.ResponseData;
+import com.mirson.gemini.cache.service.codec.CacheCompressors;
+import com.mirson.gemini.cache.service.codec.CompressingCacheCodec;
+import com.mirson.gemini.cache.service.codec.CompressionType;
+import com.mirson.gemini.cache.service.codec.FstCacheCodec;
+import com.mirson.gemini.cache.service.codec.JacksonCacheCodec;
+import com.mirson.gemini.cache.service.codec.KryoCacheCodec;
+import com.mirson.gemini.cache.service.codec.RedissonCodecAdapter;
+import com.mirson.gemini.cache.service.version.VersionedValue;
+import com.mirson.gemini.cache.utils.GenericGZIPRedisSerializer;
+import com.mirson.gemini.cache.utils.PooledGzipRedisSerializer;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.FstCodec;
+import org.redisson.codec.JsonJacksonCodec;
+import org.redisson.codec.LZ4Codec;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存值编解码基准测试： Redisson JSON（默认编码）、FST、LZ4 / 组件编码（FST、Kryo、Smile、CBOR、JSON） / FST + 自适应压缩（LZ4、Zstd、Snappy） / GZIP（原有与池化实现）
+ * 缓存值与实际存储一致， 采用VersionedValue包装； 编码后的大小通过 {@link #main(String[])} 单独输出， 不混入JMH结果。
+ * 建议配合 -prof gc 查看每次调用的内存分配。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    /**
+     * REDISSON_JSON为默认编码（Redisson JsonJacksonCodec）， REDISSON_FST、REDISSON_LZ4为Redisson原有编码， KRYO_REGISTERED为注册示例类的Kryo编码，
+     * FST_LZ4等为超过压缩阈值（默认512字节）时压缩的FST编码， GZIP_POOLED为PooledGzipRedisSerializer
+     */
+    @Param({"REDISSON_JSON", "REDISSON_FST", "REDISSON_LZ4", "FST", "FST_LZ4", "FST_ZSTD", "FST_SNAPPY", "KRYO", "KRYO_REGISTERED",
+            "SMILE", "CBOR", "JSON", "GZIP", "GZIP_POOLED"})
+    private String codecName;
+
+    /**
+     * 压缩阈值（单位：字节）
+     */
+    @Param({"512"})
+    private int compressionThreshold;
+
+    /**
+     * 缓存值： 单个订单 / 100个订单的列表 / 示例工程的响应对象（单个订单、100个订单）
+     */
+    @Param({"order", "orderList", "response", "responseList"})
+    private String payload;
+
+    private Codec codec;
+
+    private RedisSerializer<Object> gzipSerializer;
+
+    private Object value;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        switch (payload) {
+            case "orderList":
+                value = orders(100);
+                break;
+            case "response":
+                value = response(new BenchmarkOrder("SO-20211017-000001", 10086L, "PAID"));
+                break;
+            case "responseList":
+                value = response(orders(100));
+                break;
+            default:
+                value = new BenchmarkOrder("SO-20211017-000001", 10086L, "PAID");
+        }
+        value = new VersionedValue(value, System.currentTimeMillis() << 16);
+        if ("GZIP".equals(codecName)) {
+            gzipSerializer = new GenericGZIPRedisSerializer();
+        } else if ("GZIP_POOLED".equals(codecName)) {
+            gzipSerializer = new PooledGzipRedisSerializer();
+        } else {
+            codec = createCodec(codecName, compressionThreshold);
+        }
+        encoded = serialize();
+    }
+
+    /**
+     * 输出每种编码与缓存值编码后的大小（单位：字节）
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        String[] codecNames = params("codecName");
+        String[] payloads = params("payload");
+        int compressionThreshold = Integer.parseInt(params("compressionThreshold")[0]);
+        System.out.printf("%-16s", "codec");
+        for (String payload : payloads) {
+            System.out.printf("%14s", payload);
+        }
+        System.out.println();
+        for (String codecName : codecNames) {
+            System.out.printf("%-16s", codecName);
+            for (String payload : payloads) {
+                CodecBenchmark benchmark = new CodecBenchmark();
+                benchmark.codecName = codecName;
+                benchmark.compressionThreshold = compressionThreshold;
+                benchmark.payload = payload;
+                benchmark.setup();
+                System.out.printf("%14d", benchmark.encoded.length);
+            }
+            System.out.println();
+        }
+    }
+
+    private static String[] params(String field) throws NoSuchFieldException {
+        return CodecBenchmark.class.getDeclaredField(field).getAnnotation(Param.class).value();
+    }
+
+    private static Codec createCodec(String codecName, int compressionThreshold) {
+        if (codecName.startsWith("FST_")) {
+            CompressionType compression = CompressionType.from(codecName.substring("FST_".length()));
+            return new RedissonCodecAdapter(new CompressingCacheCodec(new FstCacheCodec(),
+                    CacheCompressors.get(compression), compressionThreshold));
+        }
+        switch (codecName) {
+            case "REDISSON_JSON":
+                return new JsonJacksonCodec();
+            case "REDISSON_FST":
+                return new FstCodec();
+            case "REDISSON_LZ4":
+                return new LZ4Codec();
+            case "FST":
+                return new RedissonCodecAdapter(new FstCacheCodec());
+            case "KRYO":
+                return new RedissonCodecAdapter(new KryoCacheCodec());
+            case "KRYO_REGISTERED":
+                return new RedissonCodecAdapter(new KryoCacheCodec(
+                        Arrays.<Class<?>>asList(BenchmarkOrder.class, ResponseData.class), true));
+            case "SMILE":
+                return new RedissonCodecAdapter(new JacksonCacheCodec(JacksonCacheCodec.Format.SMILE));
+            case "CBOR":
+                return new RedissonCodecAdapter(new JacksonCacheCodec(JacksonCacheCodec.Format.CBOR));
+            case "JSON":
+                return new RedissonCodecAdapter(new JacksonCacheCodec(JacksonCacheCodec.Format.JSON));
+            default:
+                throw new IllegalArgumentException("Unknown codec: " + codecName);
+        }
+    }
+
+    private static List<BenchmarkOrder> orders(int size) {
+        List<BenchmarkOrder> orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            orders.add(new BenchmarkOrder("SO-20211017-" + i, 10086L + i, i % 2 == 0 ? "PAID" : "SHIPPED"));
+        }
+        return orders;
+    }
+
+    private static <T> ResponseData<T> response(T data) {
+        ResponseData<T> response = new ResponseData<>();
+        response.setCode(0);
+        response.setMsg("success");
+        response.setData(data);
+        response.setRespTime(new Date());
+        return response;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        if (gzipSerializer != null) {
+            return gzipSerializer.serialize(value);
+        }
+        return codec.getMapValueEncoder().encode(value);
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException {
+        if (gzipSerializer != null) {
+            return gzipSerializer.deserialize(encoded);
+        }
+        return codec.getMapValueDecoder().decode(Unpooled.wrappedBuffer(encoded), new org.redisson.client.handler.State(false));
+    }
+}
@@ -0,0 +1,392 @@
+package com.mirson.gemini.cache.benchmark;
+
+import io.netty.buffer.Unpooled;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RScriptAsync;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.handler.State;
+import org.redisson.config.Config;
+import org.redisson.misc.RedissonPromise;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内的Redisson替身（基准测试使用， 无需启动Redis）
+ * 实现缓存组件用到的 RMapCache、RBatch、RScript、RTopic 操作： 缓存数据按配置的编码器序列化后保存在内存中，
+ * 读取时反序列化， 保留编解码开销而不包括网络往返； 批量操作在execute时依次执行， 脚本执行直接返回成功， 消息同步投递给本进程的监听器。
+ * 其余接口调用抛出 UnsupportedOperationException。
+ */
+public final class InMemoryRedissonClient implements InvocationHandler {
+
+    private final Config config;
+
+    /**
+     * 缓存名称 -> 序列化后的KEY -> 缓存条目
+     */
+    private final Map<String, Map<ByteBuffer, StoredEntry>> maps = new ConcurrentHashMap<>();
+
+    /**
+     * 通道名称 -> 消息监听器
+     */
+    private final Map<String, List<MessageListener<Object>>> listeners = new ConcurrentHashMap<>();
+
+    private final AtomicInteger listenerIds = new AtomicInteger();
+
+    private volatile boolean shutdown;
+
+    private InMemoryRedissonClient(Codec codec) {
+        this.config = new Config();
+        this.config.setCodec(codec);
+    }
+
+    /**
+     * 创建Redisson替身
+     * @param codec 缓存数据的编码器
+     * @return
+     */
+    public static RedissonClient create(Codec codec) {
+        return proxy(RedissonClient.class, new InMemoryRedissonClient(codec));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "getMapCache":
+                return proxy(RMapCache.class, new MapHandler((String) args[0], codec(args), null));
+            case "createBatch":
+                return proxy(RBatch.class, new BatchHandler());
+            case "getTopic":
+                return proxy(RTopic.class, new TopicHandler((String) args[0]));
+            case "getConfig":
+                return config;
+            case "shutdown":
+                shutdown = true;
+                return null;
+            case "isShutdown":
+            case "isShuttingDown":
+                return shutdown;
+            default:
+                return objectMethod(proxy, method, args, "RedissonClient");
+        }
+    }
+
+    private Codec codec(Object[] args) {
+        return args.length > 1 && args[1] instanceof Codec ? (Codec) args[1] : config.getCodec();
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class StoredEntry {
+
+        private final byte[] value;
+
+        /**
+         * 过期时间， 0为不过期
+         */
+        private final long expireAt;
+
+        private StoredEntry(byte[] value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expireAt > 0 && expireAt <= now;
+        }
+    }
+
+    /**
+     * RMapCache / RMapCacheAsync
+     */
+    private final class MapHandler implements InvocationHandler {
+
+        private final String name;
+
+        private final Codec codec;
+
+        /**
+         * 所属批次， 为空时直接执行
+         */
+        private final BatchHandler batch;
+
+        private MapHandler(String name, Codec codec, BatchHandler batch) {
+            this.name = name;
+            this.codec = codec;
+            this.batch = batch;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            if (methodName.endsWith("Async")) {
+                // 异步方法按同名同步方法执行
+                String syncName = methodName.substring(0, methodName.length() - "Async".length());
+                return async(() -> dispatch(proxy, method, syncName, args));
+            }
+            return dispatch(proxy, method, methodName, args);
+        }
+
+        private Object dispatch(Object proxy, Method method, String methodName, Object[] args) throws IOException {
+            switch (methodName) {
+                case "getName":
+                    return name;
+                case "getCodec":
+                    return codec;
+                case "get":
+                    return get(args[0]);
+                case "getAll":
+                    return getAll((Collection<?>) args[0]);
+                case "put":
+                case "fastPut":
+                    return put(methodName, args);
+                case "remove":
+                    return remove(args[0]);
+                case "fastRemove":
+                    return fastRemove((Object[]) args[0]);
+                case "delete":
+                    return maps.remove(name) != null;
+                case "size":
+                    return map().size();
+                case "containsKey":
+                    return get(args[0]) != null;
+                case "isExists":
+                    return !map().isEmpty();
+                default:
+                    return objectMethod(proxy, method, args, "RMapCache");
+            }
+        }
+
+        private RFuture<Object> async(Call call) {
+            if (batch != null) {
+                return batch.enqueue(call);
+            }
+            return completed(call);
+        }
+
+        private Map<ByteBuffer, StoredEntry> map() {
+            return maps.computeIfAbsent(name, key -> new ConcurrentHashMap<>());
+        }
+
+        private ByteBuffer encodeKey(Object key) throws IOException {
+            return ByteBuffer.wrap(codec.getMapKeyEncoder().encode(key));
+        }
+
+        private Object decodeValue(StoredEntry entry) throws IOException {
+            if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+                return null;
+            }
+            return codec.getMapValueDecoder().decode(Unpooled.wrappedBuffer(entry.value), new State(false));
+        }
+
+        private Object get(Object key) throws IOException {
+            return decodeValue(map().get(encodeKey(key)));
+        }
+
+        private Map<Object, Object> getAll(Collection<?> keys) throws IOException {
+            Map<Object, Object> result = new HashMap<>(keys.size() * 2);
+            for (Object key : keys) {
+                Object value = get(key);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * put(key, value[, ttl, unit]) / fastPut(key, value[, ttl, unit])
+         */
+        private Object put(String methodName, Object[] args) throws IOException {
+            long expireAt = 0;
+            if (args.length >= 4 && ((Number) args[2]).longValue() > 0) {
+                expireAt = System.currentTimeMillis() + ((TimeUnit) args[3]).toMillis(((Number) args[2]).longValue());
+            }
+            StoredEntry previous = map().put(encodeKey(args[0]),
+                    new StoredEntry(codec.getMapValueEncoder().encode(args[1]), expireAt));
+            if ("fastPut".equals(methodName)) {
+                return previous == null;
+            }
+            return decodeValue(previous);
+        }
+
+        private Object remove(Object key) throws IOException {
+            return decodeValue(map().remove(encodeKey(key)));
+        }
+
+        private long fastRemove(Object[] keys) throws IOException {
+            long removed = 0;
+            for (Object key : keys) {
+                if (map().remove(encodeKey(key)) != null) {
+                    removed++;
+                }
+            }
+            return removed;
+        }
+    }
+
+    /**
+     * RBatch： 操作在execute时依次执行
+     */
+    private final class BatchHandler implements InvocationHandler {
+
+        private final List<Runnable> operations = new ArrayList<>();
+
+        private final List<Object> results = new ArrayList<>();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getMapCache":
+                    return proxy(RMapCache.class, new MapHandler((String) args[0], codec(args), this));
+                case "getScript":
+                    return proxy(RScriptAsync.class, (scriptProxy, scriptMethod, scriptArgs) -> {
+                        if (scriptMethod.getName().startsWith("eval")) {
+                            // 脚本（超时时间设置）直接返回成功
+                            return enqueue(() -> Boolean.TRUE);
+                        }
+                        return objectMethod(scriptProxy, scriptMethod, scriptArgs, "RScript");
+                    });
+                case "execute":
+                    return execute();
+                case "executeAsync":
+                    return completed(this::execute);
+                case "executeSkipResult":
+                    execute();
+                    return null;
+                case "executeSkipResultAsync":
+                    return completed(() -> {
+                        execute();
+                        return null;
+                    });
+                default:
+                    return objectMethod(proxy, method, args, "RBatch");
+            }
+        }
+
+        private RFuture<Object> enqueue(Call call) {
+            RedissonPromise<Object> promise = new RedissonPromise<>();
+            operations.add(() -> {
+                try {
+                    Object result = call.call();
+                    results.add(result);
+                    promise.trySuccess(result);
+                } catch (Throwable e) {
+                    promise.tryFailure(e);
+                }
+            });
+            return promise;
+        }
+
+        private List<?> execute() {
+            for (Runnable operation : operations) {
+                operation.run();
+            }
+            operations.clear();
+            return Collections.unmodifiableList(new ArrayList<>(results));
+        }
+    }
+
+    /**
+     * RTopic： 消息同步投递给本进程的监听器
+     */
+    private final class TopicHandler implements InvocationHandler {
+
+        private final String channel;
+
+        private TopicHandler(String channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            List<MessageListener<Object>> channelListeners =
+                    listeners.computeIfAbsent(channel, key -> new CopyOnWriteArrayList<>());
+            switch (method.getName()) {
+                case "getChannelNames":
+                    return Collections.singletonList(channel);
+                case "publish":
+                    return publish(channelListeners, args[0]);
+                case "publishAsync":
+                    return completed(() -> publish(channelListeners, args[0]));
+                case "addListener":
+                    if (args[0] instanceof MessageListener) {
+                        channelListeners.add((MessageListener<Object>) args[0]);
+                    }
+                    return listenerIds.incrementAndGet();
+                case "removeListener":
+                    if (args[0] instanceof MessageListener) {
+                        channelListeners.remove(args[0]);
+                    }
+                    return null;
+                case "removeAllListeners":
+                    channelListeners.clear();
+                    return null;
+                default:
+                    return objectMethod(proxy, method, args, "RTopic");
+            }
+        }
+
+        private long publish(List<MessageListener<Object>> channelListeners, Object message) {
+            for (MessageListener<Object> listener : channelListeners) {
+                listener.onMessage(channel, message);
+            }
+            return channelListeners.size();
+        }
+    }
+
+    /**
+     * 可抛出异常的调用
+     */
+    private interface Call {
+        Object call() throws Throwable;
+    }
+
+    private static RFuture<Object> completed(Call call) {
+        RedissonPromise<Object> promise = new RedissonPromise<>();
+        try {
+            promise.trySuccess(call.call());
+        } catch (Throwable e) {
+            promise.tryFailure(e);
+        }
+        return promise;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InMemoryRedissonClient.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object objectMethod(Object proxy, Method method, Object[] args, String type) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "InMemory" + type + "@" + Integer.toHexString(System.identityHashCode(proxy));
+            default:
+                throw new UnsupportedOperationException(type + "." + method.getName() + " is not supported in benchmark");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.mirson.gemini.cache.benchmark;
+
+import com.mirson.gemini.cache.utils.KeyGenerators;
+import com.mirson.gemini.cache.utils.SpringExpressionParserUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存KEY表达式解析基准测试： 原有逐次解析 vs 按方法预编译执行计划
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyExpressionBenchmark {
+
+    @Param({"#param1", "#param1.orderNo", "#param1.orderNo,#param2", "#result.orderNo"})
+    private String keyExpression;
+
+    @Param({"SHA", "CONCAT"})
+    private KeyGenerators keyGenerator;
+
+    private LegacyKeyExpressionParser legacyParser;
+
+    private SpringExpressionParserUtil planParser;
+
+    private Method method;
+
+    private Object[] args;
+
+    private BenchmarkOrder result;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        legacyParser = new LegacyKeyExpressionParser();
+        planParser = new SpringExpressionParserUtil();
+        method = KeyExpressionBenchmark.class.getDeclaredMethod("getOrder", BenchmarkOrder.class, String.class);
+        result = new BenchmarkOrder("SO-20211009-000001", 10086L, "PAID");
+        args = new Object[]{result, "CN"};
+    }
+
+    @Benchmark
+    public Object legacyParse() {
+        return legacyParser.parseAndGetCacheKeyFromExpression(keyExpression, result, args, keyGenerator);
+    }
+
+    @Benchmark
+    public Object compiledPlan() {
+        return planParser.parseAndGetCacheKey(method, keyExpression, result, args, keyGenerator);
+    }
+
+    /**
+     * 模拟注解方法
+     */
+    public BenchmarkOrder getOrder(BenchmarkOrder order, String region) {
+        return order;
+    }
+}
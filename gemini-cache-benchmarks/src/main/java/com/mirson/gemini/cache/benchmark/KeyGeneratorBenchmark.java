@@ -0,0 +1,55 @@
+package com.mirson.gemini.cache.benchmark;
+
+import com.mirson.gemini.cache.utils.CacheUtil;
+import com.mirson.gemini.cache.utils.KeyGenerators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存KEY生成器基准测试： SHA / CONCAT / XXHASH / XXHASH128 / COMPOSITE
+ * 建议配合 -prof gc 查看每次调用的内存分配。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyGeneratorBenchmark {
+
+    @Param({"SHA", "CONCAT", "XXHASH", "XXHASH128", "COMPOSITE"})
+    private KeyGenerators keyGenerator;
+
+    /**
+     * 参数组合： 单个订单号 / 订单号+客户ID+状态
+     */
+    @Param({"single", "multi"})
+    private String argShape;
+
+    private Object[] args;
+
+    @Setup
+    public void setup() {
+        if ("single".equals(argShape)) {
+            args = new Object[]{"SO-20211011-000001"};
+        } else {
+            args = new Object[]{"SO-20211011-000001", 10086L, 3};
+        }
+    }
+
+    @Benchmark
+    public Object buildCacheKey() {
+        return CacheUtil.buildCacheKey(keyGenerator, args);
+    }
+}
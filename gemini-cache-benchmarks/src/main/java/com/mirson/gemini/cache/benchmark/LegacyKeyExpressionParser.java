@@ -0,0 +1,70 @@
+package com.mirson.gemini.cache.benchmark;
+
+import com.mirson.gemini.cache.utils.CacheUtil;
+import com.mirson.gemini.cache.utils.KeyGenerators;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * 原有KEY表达式解析实现（每次调用都重新解析表达式）， 作为基准对比
+ */
+public class LegacyKeyExpressionParser {
+
+    public static class RootObject {
+
+        private final Object[] args;
+
+        private RootObject(Object[] args) {
+            this.args = args;
+        }
+
+        public Object[] getArgs() {
+            return args;
+        }
+    }
+
+    public Object parseAndGetCacheKeyFromExpression(String input, final Object returnedObject,
+                                                    Object[] args, KeyGenerators keyGenerator) {
+        ExpressionParser parser = new SpelExpressionParser();
+        StandardEvaluationContext standardEvaluationContext;
+        input = input.trim();
+        List<Object> params = new LinkedList<>();
+        if (input.startsWith("#result")) {
+            Expression exp = parser.parseExpression(input);
+            standardEvaluationContext = new StandardEvaluationContext();
+            standardEvaluationContext.setVariable("result", returnedObject);
+            params.add(exp.getValue(standardEvaluationContext, Object.class));
+        } else if (input.startsWith("#param")) {
+            String[] paramsArr = input.split(",");
+            for (String param : paramsArr) {
+                standardEvaluationContext = new StandardEvaluationContext(new RootObject(args));
+                Expression expressionObj = parser.parseExpression(convertAnnotationInputToSpringExpression(param));
+                params.add(expressionObj.getValue(standardEvaluationContext, Object.class));
+            }
+        } else {
+            throw new IllegalArgumentException("Invalid key expression");
+        }
+        switch (keyGenerator) {
+            case CONCAT:
+                return CacheUtil.buildStringCacheKey(params.toArray());
+            case SHA:
+            default:
+                return CacheUtil.buildCacheKey(params);
+        }
+    }
+
+    private String convertAnnotationInputToSpringExpression(String inputString) {
+        inputString = inputString.trim();
+        String[] inputStringArr = inputString.split("\\.");
+        int indexNumber = Integer.valueOf(inputStringArr[0].replace("#param", "")) - 1;
+        if (inputStringArr.length > 1) {
+            return "args[" + indexNumber + "]" + "." + inputStringArr[1];
+        }
+        return "args[" + indexNumber + "]";
+    }
+}
@@ -0,0 +1,82 @@
+package com.mirson.gemini.cache.benchmark;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mirson.gemini.cache.config.LocalStoreType;
+import com.mirson.gemini.cache.service.cache.CaffeineLocalCacheStore;
+import com.mirson.gemini.cache.service.cache.LocalCacheStore;
+import com.mirson.gemini.cache.service.cache.OffHeapLocalCacheStore;
+import com.mirson.gemini.cache.service.version.VersionedValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.redisson.codec.FstCodec;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地缓存存储GC对比基准测试： Caffeine堆内缓存 vs 堆外缓存
+ * 预先写入大量订单对象后按 读:写 = 9:1 持续访问， 写入会替换已有条目产生老年代垃圾。
+ * 需配合 -prof gc 运行， 对比 gc.count 与 gc.time（GC停顿总时间）， 例如：
+ * java -jar target/benchmarks.jar LocalStoreGcBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-XX:+UseG1GC"})
+@Threads(4)
+public class LocalStoreGcBenchmark {
+
+    @Param({"CAFFEINE", "OFF_HEAP"})
+    private LocalStoreType storeType;
+
+    @Param({"500000"})
+    private int entries;
+
+    private LocalCacheStore store;
+
+    private final AtomicLong version = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        if (storeType == LocalStoreType.OFF_HEAP) {
+            store = new OffHeapLocalCacheStore("benchmark", new FstCodec(), 512L * 1024 * 1024, 16, 0);
+        } else {
+            store = new CaffeineLocalCacheStore(Caffeine.newBuilder().maximumSize(entries).build());
+        }
+        for (int i = 0; i < entries; i++) {
+            store.putIfNewer(key(i), new VersionedValue(order(i), version.incrementAndGet()));
+        }
+    }
+
+    @Benchmark
+    public Object readWrite() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(entries);
+        if (random.nextInt(10) == 0) {
+            store.putIfNewer(key(i), new VersionedValue(order(i), version.incrementAndGet()));
+            return null;
+        }
+        return store.get(key(i));
+    }
+
+    private static String key(int i) {
+        return "SO-20211016-" + i;
+    }
+
+    private static BenchmarkOrder order(int i) {
+        return new BenchmarkOrder("SO-20211016-" + i, 10086L + i, i % 2 == 0 ? "PAID" : "SHIPPED");
+    }
+}
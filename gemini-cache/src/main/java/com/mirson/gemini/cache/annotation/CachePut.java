@@ -30,6 +30,12 @@ public @interface CachePut {
      */
     long TTL() default 0;
 
+    /**
+     * 缓存生命周期随机抖动（如10%或0-5， 单位：秒）， 为空时采用缓存或全局配置
+     * @return
+     */
+    String ttlJitter() default "";
+
     /**
      * 缓存key（唯一性）
      * @return
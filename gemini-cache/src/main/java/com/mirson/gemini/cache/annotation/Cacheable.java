@@ -30,6 +30,12 @@ public @interface Cacheable {
      */
     long TTL() default 0;
 
+    /**
+     * 缓存生命周期随机抖动（如10%或0-5， 单位：秒）， 为空时采用缓存或全局配置
+     * @return
+     */
+    String ttlJitter() default "";
+
     /**
      * 缓存KEY(唯一性）
      * @return
@@ -48,4 +54,50 @@ public @interface Cacheable {
      */
     KeyGenerators keyGenerator() default SHA;
 
+    /**
+     * 是否合并并发加载（同一缓存KEY的并发未命中请求， 只允许一个调用执行加载）
+     * @return
+     */
+    boolean sync() default false;
+
+    /**
+     * 是否采用分布式锁合并加载（需开启sync， 集群内同一缓存KEY只允许一个节点执行加载）
+     * @return
+     */
+    boolean distributedLock() default false;
+
+    /**
+     * 是否缓存空结果（原有方法返回空时存储空值标记， 防止不存在的KEY反复查询数据库）
+     * @return
+     */
+    boolean cacheNulls() default false;
+
+    /**
+     * 空结果的缓存生命周期（单位：秒， 默认60）， 需开启cacheNulls
+     * @return
+     */
+    long nullTTL() default 60;
+
+    /**
+     * 是否开启过期前提前刷新（stale-while-revalidate， 需设置TTL）：
+     * 接近过期时按XFetch算法概率触发一次后台加载， 加载期间继续返回原有数据。
+     * 后台加载在刷新线程上直接调用目标对象的方法， 不经过其他切面（如事务）， 也没有调用线程的事务、安全上下文与请求属性，
+     * 依赖这些线程绑定状态的方法不能开启
+     * @return
+     */
+    boolean staleWhileRevalidate() default false;
+
+    /**
+     * XFetch参数（默认1.0）， 大于1时更早刷新， 小于1时更晚刷新
+     * @return
+     */
+    double refreshBeta() default 1.0;
+
+    /**
+     * 超过TTL后仍可返回旧数据的最长时间（单位：秒， 默认0）， 需开启staleWhileRevalidate；
+     * 在此期间返回旧数据并后台刷新， 超过后同步加载
+     * @return
+     */
+    long maxStale() default 0;
+
 }
\ No newline at end of file
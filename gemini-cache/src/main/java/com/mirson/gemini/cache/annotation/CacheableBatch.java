@@ -0,0 +1,68 @@
+package com.mirson.gemini.cache.annotation;
+
+
+import com.mirson.gemini.cache.utils.KeyGenerators;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static com.mirson.gemini.cache.utils.KeyGenerators.SHA;
+
+
+/**
+ * 批量缓存（按元素缓存， 列表入参/列表或Map出参）
+ * 入参中已缓存的ID直接从缓存获取， 只有未命中的ID才调用原有方法。
+ * 单个元素的缓存KEY与 @Cacheable(keyExpression = "#param1") 的单ID查询方法一致， 两者可共用缓存。
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheableBatch {
+
+    /**
+     * 缓存名称
+     * @return
+     */
+    String cacheName();
+
+    /**
+     * 缓存生命周期 (单位：秒）
+     * @return
+     */
+    long TTL() default 0;
+
+    /**
+     * 缓存生命周期随机抖动（如10%或0-5， 单位：秒）， 为空时采用缓存或全局配置
+     * @return
+     */
+    String ttlJitter() default "";
+
+    /**
+     * ID集合参数的位置（从1开始， 对应#paramN）， 参数类型需为Collection、List或Set（未命中的ID以ArrayList或LinkedHashSet传入）
+     * @return
+     */
+    int keyParam() default 1;
+
+    /**
+     * 返回类型需为List、Collection或Map（结果以ArrayList或LinkedHashMap返回）。
+     * 返回结果为List时， 获取元素ID的表达式， 如 #result.orderNo（#result代表单个元素）；
+     * 返回结果为Map时， 以Map的KEY作为ID， 无需配置。
+     * 元素ID需与入参ID类型一致。
+     * @return
+     */
+    String resultKeyExpression() default "";
+
+    /**
+     * 是否异步
+     * @return
+     */
+    boolean isAsync() default false;
+
+    /**
+     * key生成器
+     * @return
+     */
+    KeyGenerators keyGenerator() default SHA;
+
+}
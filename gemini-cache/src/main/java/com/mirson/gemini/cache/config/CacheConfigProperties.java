@@ -59,6 +59,30 @@ public class CacheConfigProperties {
     @Value("${app.cache.redis.executor.queueCapacity: 1000}")
     private int executorQueueCapacity;
 
+    /**
+     * 线程池运行模式： platform（平台线程 + 有界队列）或 virtual（每个任务一个虚拟线程， 需JDK 21及以上， 默认platform）
+     */
+    @Value("${app.cache.redis.executor.mode: platform}")
+    private String executorMode;
+
+    /**
+     * 线程池饱和处理策略： abort、caller-runs、drop-oldest、block（默认abort）
+     */
+    @Value("${app.cache.redis.executor.rejectionPolicy: abort}")
+    private String executorRejectionPolicy;
+
+    /**
+     * virtual模式下最大并发任务数（默认256）
+     */
+    @Value("${app.cache.redis.executor.maxConcurrency: 256}")
+    private int executorMaxConcurrency;
+
+    /**
+     * block策略下提交任务的最长等待时间（单位：毫秒， 默认1000）
+     */
+    @Value("${app.cache.redis.executor.blockTimeout: 1000}")
+    private long executorBlockTimeout;
+
     /**
      * 连接池最大连接数（默认100）
      */
@@ -89,6 +113,13 @@ public class CacheConfigProperties {
      */
     @Value("${app.cache.redis.global.expire: 24*3600 }")
     private long expire;
+
+    /**
+     * 全局过期时间随机抖动， 作用于Redis缓存条目TTL、Redis全局超时时间与Caffeine expireAfterWrite；
+     * 百分比（如10%， 在原过期时间上下10%内随机）或范围（单位：秒， 如0-5， 在原过期时间基础上增加0~5秒）， 默认不抖动
+     */
+    @Value("${app.cache.ttlJitter:}")
+    private String ttlJitter;
     /**
      *  Redis 集群连接信息
      */
@@ -125,6 +156,24 @@ public class CacheConfigProperties {
     @Value("${app.cache.caffeine.topic: cache:redis:caffeine:topic}")
     private String topic;
 
+    /**
+     * 是否合并批量发送缓存变更消息（默认开启）
+     */
+    @Value("${app.cache.caffeine.publish.batch:true}")
+    private boolean publishBatch;
+
+    /**
+     * 缓存变更消息合并时间窗口（单位：毫秒， 默认10毫秒）
+     */
+    @Value("${app.cache.caffeine.publish.window:10}")
+    private long publishWindow;
+
+    /**
+     * 单个批次最大消息条目数（默认256， 达到后立即发送）
+     */
+    @Value("${app.cache.caffeine.publish.maxBatch:256}")
+    private int publishMaxBatch;
+
 
     /**
      * 访问后过期时间，单位毫秒
@@ -156,4 +205,199 @@ public class CacheConfigProperties {
     @Value("${app.cache.caffeine.maximumSize:0}")
     private long maximumSize;
 
+    /**
+     * 本地缓存堆内存预算（单位：字节， 默认0不限制）， 未单独配置maximumSize/maximumWeight的缓存
+     * 按heapShare比例分配该预算， 并按估算的对象大小计算权重
+     */
+    @Value("${app.cache.caffeine.heapBudget:0}")
+    private long heapBudget;
+
+    /**
+     * Caffeine缓存是否记录命中统计（默认关闭， 开启监控指标时自动记录）
+     */
+    @Value("${app.cache.caffeine.recordStats:false}")
+    private boolean recordStats;
+
+    /**
+     * 堆外本地缓存默认容量（单位：字节， 默认64M）
+     */
+    @Value("${app.cache.offheap.capacity:67108864}")
+    private long offHeapCapacity;
+
+    /**
+     * 堆外本地缓存分段数量（默认16）， 每段独立加锁与淘汰
+     */
+    @Value("${app.cache.offheap.segments:16}")
+    private int offHeapSegments;
+
+    /**
+     * 二级缓存变更的集群同步方式（INVALIDATE：广播清理， PUSH：广播缓存值）， 可通过
+     * app.cache.caches.缓存名称.replicationMode 按缓存单独配置
+     */
+    @Value("${app.cache.caffeine.replicationMode:INVALIDATE}")
+    private ReplicationMode replicationMode;
+
+    /**
+     * PUSH模式下推送缓存值的最大字节数（默认4096）， 超过时降级为广播清理
+     */
+    @Value("${app.cache.caffeine.push.maxBytes:4096}")
+    private int pushMaxBytes;
+
+    /**
+     * 本地缓存保留最近变更版本的时间（单位：毫秒， 默认10秒）， 用于丢弃乱序到达的旧值
+     */
+    @Value("${app.cache.caffeine.version.retention:10000}")
+    private long versionRetention;
+
+    /**
+     * 分布式加载锁最大等待时间（单位：毫秒， 默认3秒）
+     */
+    @Value("${app.cache.loader.lockWaitTime:3000}")
+    private long loadLockWaitTime;
+
+    /**
+     * 分布式加载锁租约时间（单位：毫秒， 默认10秒， 超时自动释放）
+     */
+    @Value("${app.cache.loader.lockLeaseTime:10000}")
+    private long loadLockLeaseTime;
+
+    /**
+     * 合并加载时等待其他调用加载结果的最长时间（单位：毫秒， 默认10秒， 0代表一直等待）， 超时后自行加载
+     */
+    @Value("${app.cache.loader.waitTimeout:10000}")
+    private long loadWaitTimeout;
+
+    /**
+     * 缓存提前刷新（staleWhileRevalidate）的后台线程数（默认4）
+     */
+    @Value("${app.cache.loader.refreshThreads:4}")
+    private int refreshThreads;
+
+    /**
+     * 缓存提前刷新的等待队列大小（默认1000， 队列满时放弃本次刷新）
+     */
+    @Value("${app.cache.loader.refreshQueueCapacity:1000}")
+    private int refreshQueueCapacity;
+
+    /**
+     * 缓存提前刷新的超时时间（单位：毫秒， 默认60秒， 0代表不超时）， 超时未完成时允许同一KEY再次刷新
+     */
+    @Value("${app.cache.loader.refreshTimeout:60000}")
+    private long refreshTimeout;
+
+    /**
+     * 启动时是否扫描Bean预热缓存注解元数据（默认开启）
+     */
+    @Value("${app.cache.metadata.prewarm:true}")
+    private boolean prewarmMetadata;
+
+    /**
+     * 布隆过滤器预计元素数量（默认100万）
+     */
+    @Value("${app.cache.bloom.expectedInsertions:1000000}")
+    private long bloomExpectedInsertions;
+
+    /**
+     * 布隆过滤器误判率（默认0.01）
+     */
+    @Value("${app.cache.bloom.falsePositiveRate:0.01}")
+    private double bloomFalsePositiveRate;
+
+    /**
+     * 布隆过滤器重建间隔（单位：毫秒， 默认1小时， 0代表只在启动时构建）
+     */
+    @Value("${app.cache.bloom.rebuildInterval:3600000}")
+    private long bloomRebuildInterval;
+
+    /**
+     * 布隆过滤器新增KEY的广播通道
+     */
+    @Value("${app.cache.bloom.topic:cache:bloom:topic}")
+    private String bloomTopic;
+
+    /**
+     * 只开启Redis缓存时， 是否将热点KEY保存在本地（默认关闭）
+     */
+    @Value("${app.cache.hotKey.enable:false}")
+    private boolean hotKeyEnable;
+
+    /**
+     * 最多保存的热点KEY数量（默认100）
+     */
+    @Value("${app.cache.hotKey.topN:100}")
+    private int hotKeyTopN;
+
+    /**
+     * 统计窗口内成为热点KEY的访问次数（默认1000）
+     */
+    @Value("${app.cache.hotKey.threshold:1000}")
+    private long hotKeyThreshold;
+
+    /**
+     * 热点KEY统计窗口（单位：毫秒， 默认10秒）
+     */
+    @Value("${app.cache.hotKey.window:10000}")
+    private long hotKeyWindow;
+
+    /**
+     * 热点KEY本地数据保存时间（单位：毫秒， 默认1秒）
+     */
+    @Value("${app.cache.hotKey.localTTL:1000}")
+    private long hotKeyLocalTtl;
+
+    /**
+     * 热点KEY统计采样率（默认0.1）
+     */
+    @Value("${app.cache.hotKey.sampleRate:0.1}")
+    private double hotKeySampleRate;
+
+    /**
+     * 全局缓存编码： default（Redisson JsonJacksonCodec）、fst、kryo、smile、cbor、json、lz4（Redisson LZ4Codec），
+     * 或实现CacheCodec、Redisson Codec的Bean名称、类名（为空时采用default， 与原有数据兼容）
+     */
+    @Value("${app.cache.codec.type:}")
+    private String codecType;
+
+    /**
+     * Kryo编码是否只允许已注册的类（默认关闭）
+     */
+    @Value("${app.cache.codec.kryo.registrationRequired:false}")
+    private boolean kryoRegistrationRequired;
+
+    /**
+     * Kryo编码注册的类名， 多个以逗号分隔， 按顺序分配编号， 所有节点须一致
+     */
+    @Value("${app.cache.codec.kryo.classes:}")
+    private String kryoClasses;
+
+    /**
+     * 缓存值压缩算法： none、lz4、zstd、snappy（为空时， 配置了app.cache.codec.type且开启压缩采用lz4， 否则不压缩）
+     */
+    @Value("${app.cache.codec.compression.type:}")
+    private String compressionType;
+
+    /**
+     * 压缩阈值（单位：字节， 默认512）， 编码结果小于阈值时不压缩
+     */
+    @Value("${app.cache.codec.compression.threshold:512}")
+    private int compressionThreshold;
+
+    /**
+     * Zstd压缩级别（默认3）
+     */
+    @Value("${app.cache.codec.compression.zstdLevel:3}")
+    private int zstdLevel;
+
+    /**
+     * 是否开启缓存监控指标（默认开启， 需引入micrometer-core并存在MeterRegistry Bean）
+     */
+    @Value("${app.cache.metrics.enable:true}")
+    private boolean metricsEnable;
+
+    /**
+     * Redis操作耗时与加载耗时是否发布百分位直方图（默认关闭）
+     */
+    @Value("${app.cache.metrics.histogram:false}")
+    private boolean metricsHistogram;
+
 }
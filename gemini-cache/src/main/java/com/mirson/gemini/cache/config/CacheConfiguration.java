@@ -1,31 +1,43 @@
 package com.mirson.gemini.cache.config;
 
+import com.mirson.gemini.cache.service.bloom.CacheBloomFilter;
 import com.mirson.gemini.cache.service.cache.*;
+import com.mirson.gemini.cache.service.codec.CacheCodecRegistry;
+import com.mirson.gemini.cache.service.executor.ExecutorMode;
+import com.mirson.gemini.cache.service.executor.MeteredExecutor;
+import com.mirson.gemini.cache.service.executor.MeteredThreadPoolExecutor;
+import com.mirson.gemini.cache.service.executor.RejectionPolicy;
+import com.mirson.gemini.cache.service.executor.VirtualThreadExecutor;
+import com.mirson.gemini.cache.service.hotkey.HotKeyCache;
 import com.mirson.gemini.cache.service.listener.CacheMessageListener;
+import com.mirson.gemini.cache.service.loader.EarlyRefreshLoader;
+import com.mirson.gemini.cache.service.loader.SingleFlightLoader;
+import com.mirson.gemini.cache.service.metrics.CacheMetrics;
+import com.mirson.gemini.cache.service.metrics.MicrometerCacheMetrics;
+import com.mirson.gemini.cache.service.version.HybridLogicalClock;
 import com.mirson.gemini.cache.utils.SpringUtils;
 import org.redisson.Redisson;
 import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
-import org.redisson.codec.FstCodec;
-import org.redisson.codec.LZ4Codec;
 import org.redisson.config.ClusterServersConfig;
 import org.redisson.config.Config;
 import org.redisson.config.SingleServerConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.core.annotation.Order;
+import org.springframework.util.ClassUtils;
 
 import javax.annotation.PostConstruct;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -33,6 +45,7 @@ import java.util.concurrent.TimeUnit;
  */
 @Configuration
 @EnableAspectJAutoProxy
+@EnableConfigurationProperties(CacheRegionProperties.class)
 @ConditionalOnProperty(name = "app.cache.enable", havingValue = "true")
 @Order(10)
 public class CacheConfiguration {
@@ -45,25 +58,75 @@ public class CacheConfiguration {
     @Autowired
     private CacheConfigProperties cacheConfigProperties;
 
+    /**
+     * 按缓存名称的配置
+     */
+    @Autowired
+    private CacheRegionProperties cacheRegionProperties;
+
+    @Autowired
+    private BeanFactory beanFactory;
+
     /**
      * 线程池等待结束时间
      */
     private static final int awaitTerminationSeconds = 60;
 
+    private static final String MICROMETER_CLASS_NAME = "io.micrometer.core.instrument.MeterRegistry";
+
+    private static final String EXECUTOR_NAME = "Redisson-Pool";
+
     /**
-     * 线程池配置
+     * 缓存监控指标， 未开启、未引入micrometer-core或不存在MeterRegistry Bean时不记录
      * @return
      */
     @Bean
-    public ExecutorService redisExecutor() {
+    public CacheMetrics cacheMetrics() {
+        if (!cacheConfigProperties.isMetricsEnable()) {
+            return CacheMetrics.NONE;
+        }
+        if (!ClassUtils.isPresent(MICROMETER_CLASS_NAME, getClass().getClassLoader())) {
+            logger.info("cacheMetrics # micrometer-core not found, cache metrics disabled.");
+            return CacheMetrics.NONE;
+        }
+        return MicrometerCacheMetrics.create(beanFactory, cacheConfigProperties);
+    }
 
-        return new ThreadPoolExecutor(
+    /**
+     * 线程池配置， 用于异步写入Redis（saveInRedisAsync、invalidateCacheAsync）， 写入完成前占用线程池的并发额度
+     * 不交给Redisson： Redisson的回调与订阅消息分发在自身线程池执行， 不受有界队列与饱和策略影响
+     * @param cacheMetrics
+     * @return
+     */
+    @Bean
+    public ExecutorService redisExecutor(CacheMetrics cacheMetrics) {
+        MeteredExecutor executor = createExecutor();
+        cacheMetrics.bindExecutor(EXECUTOR_NAME, executor);
+        return executor;
+    }
+
+    private MeteredExecutor createExecutor() {
+        ExecutorMode mode = ExecutorMode.from(cacheConfigProperties.getExecutorMode());
+        RejectionPolicy rejectionPolicy = RejectionPolicy.from(cacheConfigProperties.getExecutorRejectionPolicy());
+        if (mode == ExecutorMode.VIRTUAL) {
+            if (VirtualThreadExecutor.isSupported()) {
+                return new VirtualThreadExecutor(
+                        EXECUTOR_NAME,
+                        cacheConfigProperties.getExecutorMaxConcurrency(),
+                        cacheConfigProperties.getExecutorQueueCapacity(),
+                        rejectionPolicy,
+                        cacheConfigProperties.getExecutorBlockTimeout());
+            }
+            logger.warn("redisExecutor # virtual threads are not supported by this JVM, fall back to platform mode.");
+        }
+        return new MeteredThreadPoolExecutor(
                 cacheConfigProperties.getExecutorCoreSize(),
                 cacheConfigProperties.getExecutorMaxSize(),
                 cacheConfigProperties.getExecutorAliveTime(),
-                TimeUnit.SECONDS,
-                new ArrayBlockingQueue<>(cacheConfigProperties.getExecutorQueueCapacity()),
-                new NamedThreadFactory("Redisson-Pool"));
+                cacheConfigProperties.getExecutorQueueCapacity(),
+                new NamedThreadFactory(EXECUTOR_NAME),
+                rejectionPolicy,
+                cacheConfigProperties.getExecutorBlockTimeout());
     }
 
     /**
@@ -92,9 +155,20 @@ public class CacheConfiguration {
         }
     }
 
+    /**
+     * 缓存编码注册表
+     * @return
+     */
     @Bean
-    public RedissonClient redissonClient(ExecutorService redisExecutor){
+    public CacheCodecRegistry cacheCodecRegistry() {
+        return new CacheCodecRegistry(cacheRegionProperties, cacheConfigProperties, beanFactory);
+    }
+
+    @Bean
+    public RedissonClient redissonClient(CacheCodecRegistry cacheCodecRegistry){
         Config config = new Config();
+        // Redisson在创建时读取编码配置， 需在create之前设置
+        config.setCodec(cacheCodecRegistry.getDefaultCodec());
         RedissonClient redisson = null;
         if(null != cacheConfigProperties.getHost()) {
             // 单机连接方式
@@ -123,15 +197,6 @@ public class CacheConfiguration {
             serversConfig.setPassword(cacheConfigProperties.getPassword());
             redisson = Redisson.create(config);
         }
-        redisson.getConfig().setExecutor(redisExecutor);
-        if(cacheConfigProperties.isUseCompression()) {
-            // 开启压缩, 采用LZ4压缩
-            redisson.getConfig().setCodec(new LZ4Codec());
-        }else {
-            // 高速序列化编码
-            redisson.getConfig().setCodec(new FstCodec());
-
-        }
         return redisson;
     }
 
@@ -142,12 +207,25 @@ public class CacheConfiguration {
      * Redis缓存更新消息发送接口
      * @param cacheConfigProperties
      * @param redissonClient
+     * @param cacheCodecRegistry
+     * @param cacheMetrics
      * @return
      */
     @Bean
     public RedisSendService redisSendService(CacheConfigProperties cacheConfigProperties,
-                                             RedissonClient redissonClient) {
-        RedisSendService redisSendService = new RedisSendServiceImpl(cacheConfigProperties, redissonClient);
+                                             RedissonClient redissonClient,
+                                             CacheCodecRegistry cacheCodecRegistry,
+                                             CacheMetrics cacheMetrics) {
+        RedisSendServiceImpl redisSendService = new RedisSendServiceImpl(cacheConfigProperties, redissonClient,
+                cacheCodecRegistry);
+        cacheMetrics.bindSendService(redisSendService);
+        if (cacheConfigProperties.isPublishBatch()) {
+            // 合并批量异步发送
+            BatchRedisSendServiceImpl batchRedisSendService = new BatchRedisSendServiceImpl(redisSendService,
+                    cacheConfigProperties);
+            cacheMetrics.bindSendService(batchRedisSendService);
+            return batchRedisSendService;
+        }
         return redisSendService;
     }
 
@@ -158,32 +236,106 @@ public class CacheConfiguration {
     @Bean
     public CacheService cacheService(RedissonClient redissonClient,
                                      RedisSendService redisSendService,
+                                     HybridLogicalClock hybridLogicalClock,
+                                     CacheCodecRegistry cacheCodecRegistry,
+                                     CacheMetrics cacheMetrics,
                                      ExecutorService redisExecutor) {
         CacheService cacheService = null;
         // 判断是否开启二级缓存
         if(cacheConfigProperties.isEnableSecondCache()) {
-            CacheService redisCacheService = new RedisCacheServiceImpl(redissonClient, redisExecutor, cacheConfigProperties);
-            cacheService = new CaffeineCacheServiceImpl(redisCacheService, redisSendService, cacheConfigProperties);
+            if (cacheConfigProperties.isHotKeyEnable()) {
+                logger.warn("cacheService # second cache is enabled, app.cache.hotKey.enable is ignored");
+            }
+            CacheService redisCacheService = cacheMetrics.instrumentRemote(new RedisCacheServiceImpl(redissonClient,
+                    cacheConfigProperties, hybridLogicalClock, cacheCodecRegistry, null, redisExecutor));
+            CaffeineCacheServiceImpl caffeineCacheService = new CaffeineCacheServiceImpl(redisCacheService,
+                    redisSendService, cacheConfigProperties, hybridLogicalClock, cacheRegionProperties, beanFactory,
+                    cacheMetrics);
+            cacheMetrics.bindLocalService(caffeineCacheService);
+            cacheService = caffeineCacheService;
         }else {
-            cacheService = new RedisCacheServiceImpl(redissonClient, redisExecutor, cacheConfigProperties);
+            if (!cacheRegionProperties.getCaches().isEmpty()) {
+                logger.warn("cacheService # second cache is disabled, cache regions only take effect on redis: "
+                        + cacheRegionProperties.getCaches().keySet());
+            }
+            cacheService = cacheMetrics.instrumentRemote(new RedisCacheServiceImpl(redissonClient,
+                    cacheConfigProperties, hybridLogicalClock, cacheCodecRegistry, hotKeyCache(), redisExecutor));
         }
         return cacheService;
     }
 
+    /**
+     * 热点KEY本地缓存（只开启Redis缓存时生效）
+     * @return 未开启时返回空
+     */
+    private HotKeyCache hotKeyCache() {
+        if (!cacheConfigProperties.isHotKeyEnable()) {
+            return null;
+        }
+        return new HotKeyCache(cacheConfigProperties.getHotKeyTopN(), cacheConfigProperties.getHotKeyThreshold(),
+                cacheConfigProperties.getHotKeyWindow(), cacheConfigProperties.getHotKeyLocalTtl(),
+                cacheConfigProperties.getHotKeySampleRate());
+    }
+
+    /**
+     * 缓存版本时钟
+     * @return
+     */
+    @Bean
+    public HybridLogicalClock hybridLogicalClock() {
+        return new HybridLogicalClock();
+    }
+
+
+    /**
+     * 缓存加载合并处理
+     * @param redissonClient
+     * @param cacheMetrics
+     * @return
+     */
+    @Bean
+    public SingleFlightLoader singleFlightLoader(RedissonClient redissonClient, CacheMetrics cacheMetrics) {
+        SingleFlightLoader singleFlightLoader = new SingleFlightLoader(redissonClient, cacheConfigProperties);
+        cacheMetrics.bindLoader(singleFlightLoader);
+        return singleFlightLoader;
+    }
+
+    /**
+     * 缓存提前刷新处理
+     * @return
+     */
+    @Bean(destroyMethod = "shutdown")
+    public EarlyRefreshLoader earlyRefreshLoader() {
+        return new EarlyRefreshLoader(cacheConfigProperties);
+    }
+
+    /**
+     * 缓存布隆过滤器
+     * @param redissonClient
+     * @return
+     */
+    @Bean
+    public CacheBloomFilter cacheBloomFilter(RedissonClient redissonClient) {
+        return new CacheBloomFilter(cacheRegionProperties, cacheConfigProperties, redissonClient, beanFactory);
+    }
 
     /**
      * 设置消息监听器
      * @param redissonClient
      * @param caffeineCacheService
+     * @param cacheCodecRegistry
+     * @param cacheMetrics
      * @return
      */
     @ConditionalOnProperty(
             value = "app.cache.enableSecondCache",
             havingValue = "true")
     @Bean
-    public RTopic subscribe(RedissonClient redissonClient, CacheService caffeineCacheService) {
+    public RTopic subscribe(RedissonClient redissonClient, CacheService caffeineCacheService,
+                            CacheCodecRegistry cacheCodecRegistry, CacheMetrics cacheMetrics) {
         RTopic rTopic = redissonClient.getTopic(cacheConfigProperties.getTopic());
-        CacheMessageListener messageListener = new CacheMessageListener((CaffeineCacheServiceImpl)caffeineCacheService);
+        CacheMessageListener messageListener = new CacheMessageListener((CaffeineCacheServiceImpl)caffeineCacheService,
+                cacheCodecRegistry, cacheMetrics);
         rTopic.addListener(messageListener);
         return rTopic;
     }
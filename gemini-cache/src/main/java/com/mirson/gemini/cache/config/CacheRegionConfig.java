@@ -0,0 +1,172 @@
+package com.mirson.gemini.cache.config;
+
+import lombok.Data;
+
+/**
+ * 单个缓存的Caffeine配置， 未配置的参数采用 app.cache.caffeine.* 全局配置
+ */
+@Data
+public class CacheRegionConfig {
+
+    /**
+     * 最大缓存对象个数
+     */
+    private Long maximumSize;
+
+    /**
+     * 最大缓存权重， 需配合weigher使用， 配置后maximumSize不生效
+     */
+    private Long maximumWeight;
+
+    /**
+     * 权重计算器， Spring Bean名称或实现 com.github.benmanes.caffeine.cache.Weigher 的类名，
+     * 未指定时按估算的对象大小（字节）计算
+     */
+    private String weigher;
+
+    /**
+     * 写入后过期时间，单位毫秒
+     */
+    private Long expireAfterWrite;
+
+    /**
+     * 访问后过期时间，单位毫秒
+     */
+    private Long expireAfterAccess;
+
+    /**
+     * 写入后刷新时间（从Redis重新加载），单位毫秒
+     */
+    private Long refreshAfterWrite;
+
+    /**
+     * 初始化大小
+     */
+    private Integer initialCapacity;
+
+    /**
+     * 过期时间随机抖动（如10%或0-5）， 默认为 app.cache.ttlJitter
+     */
+    private String ttlJitter;
+
+    /**
+     * 分配堆内存预算（app.cache.caffeine.heapBudget）的比例权重， 默认1
+     */
+    private Integer heapShare;
+
+    /**
+     * 是否由堆内存预算限制大小（合并全局配置时计算， 无需配置）
+     */
+    private boolean heapBudgeted;
+
+    /**
+     * 存储层级
+     */
+    private CacheTier tier;
+
+    /**
+     * 本地缓存存储实现， 默认CAFFEINE
+     */
+    private LocalStoreType localStore;
+
+    /**
+     * 堆外本地缓存容量（单位：字节）， 默认为 app.cache.offheap.capacity
+     */
+    private Long offHeapCapacity;
+
+    /**
+     * 集群同步方式
+     */
+    private ReplicationMode replicationMode;
+
+    /**
+     * 是否开启布隆过滤器， 查询一定不存在的KEY时直接返回空， 不访问Redis与原有方法（需配置bloomKeySource）
+     */
+    private boolean bloomFilter;
+
+    /**
+     * 布隆过滤器KEY数据源（实现 BloomKeySource 的Spring Bean名称）
+     */
+    private String bloomKeySource;
+
+    /**
+     * 布隆过滤器预计元素数量， 默认为 app.cache.bloom.expectedInsertions
+     */
+    private Long bloomExpectedInsertions;
+
+    /**
+     * 布隆过滤器误判率， 默认为 app.cache.bloom.falsePositiveRate
+     */
+    private Double bloomFalsePositiveRate;
+
+    /**
+     * 布隆过滤器重建间隔（单位：毫秒）， 默认为 app.cache.bloom.rebuildInterval
+     */
+    private Long bloomRebuildInterval;
+
+    /**
+     * Redis与堆外缓存的值编码， 默认为 app.cache.codec.type
+     */
+    private String codec;
+
+    /**
+     * 压缩算法（none、lz4、zstd、snappy）， 默认为 app.cache.codec.compression.type
+     */
+    private String compression;
+
+    /**
+     * 压缩阈值（单位：字节）， 默认为 app.cache.codec.compression.threshold
+     */
+    private Integer compressionThreshold;
+
+    /**
+     * 训练好的Zstd字典位置（如classpath:zstd/order.dict、file:/data/order.dict）， 只对zstd压缩生效
+     */
+    private String zstdDictionary;
+
+    /**
+     * 合并全局配置， 生成完整的缓存配置
+     * @param defaults 全局配置
+     * @return
+     */
+    public CacheRegionConfig withDefaults(CacheConfigProperties defaults) {
+        CacheRegionConfig resolved = new CacheRegionConfig();
+        resolved.tier = tier != null ? tier : CacheTier.TWO_TIER;
+        resolved.localStore = localStore != null ? localStore : LocalStoreType.CAFFEINE;
+        resolved.offHeapCapacity = offHeapCapacity != null ? offHeapCapacity : defaults.getOffHeapCapacity();
+        resolved.heapShare = heapShare != null && heapShare > 0 ? heapShare : 1;
+        resolved.heapBudgeted = defaults.getHeapBudget() > 0 && resolved.tier != CacheTier.REDIS
+                && resolved.localStore == LocalStoreType.CAFFEINE
+                && maximumWeight == null && maximumSize == null;
+        if (resolved.heapBudgeted) {
+            // 最大权重在所有预算内的缓存之间分配
+            resolved.maximumWeight = defaults.getHeapBudget();
+            resolved.maximumSize = 0L;
+        } else {
+            resolved.maximumWeight = maximumWeight != null ? maximumWeight : 0L;
+            resolved.maximumSize = resolved.maximumWeight > 0 ? 0L
+                    : (maximumSize != null ? maximumSize : defaults.getMaximumSize());
+        }
+        resolved.weigher = weigher;
+        resolved.expireAfterWrite = expireAfterWrite != null ? expireAfterWrite : defaults.getExpireAfterWrite();
+        resolved.expireAfterAccess = expireAfterAccess != null ? expireAfterAccess : defaults.getExpireAfterAccess();
+        resolved.refreshAfterWrite = refreshAfterWrite != null ? refreshAfterWrite : defaults.getRefreshAfterWrite();
+        resolved.initialCapacity = initialCapacity != null ? initialCapacity : defaults.getInitialCapacity();
+        resolved.ttlJitter = ttlJitter != null ? ttlJitter : defaults.getTtlJitter();
+        resolved.replicationMode = replicationMode != null ? replicationMode
+                : (defaults.getReplicationMode() != null ? defaults.getReplicationMode() : ReplicationMode.INVALIDATE);
+        resolved.codec = codec;
+        resolved.compression = compression;
+        resolved.compressionThreshold = compressionThreshold;
+        resolved.zstdDictionary = zstdDictionary;
+        resolved.bloomFilter = bloomFilter;
+        resolved.bloomKeySource = bloomKeySource;
+        resolved.bloomExpectedInsertions = bloomExpectedInsertions != null ? bloomExpectedInsertions
+                : defaults.getBloomExpectedInsertions();
+        resolved.bloomFalsePositiveRate = bloomFalsePositiveRate != null ? bloomFalsePositiveRate
+                : defaults.getBloomFalsePositiveRate();
+        resolved.bloomRebuildInterval = bloomRebuildInterval != null ? bloomRebuildInterval
+                : defaults.getBloomRebuildInterval();
+        return resolved;
+    }
+}
@@ -0,0 +1,31 @@
+package com.mirson.gemini.cache.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按缓存名称的配置（app.cache.caches.缓存名称.*）
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheRegionProperties {
+
+    /**
+     * 缓存名称 -> 缓存配置
+     */
+    private Map<String, CacheRegionConfig> caches = new LinkedHashMap<>();
+
+    /**
+     * 获取指定缓存的完整配置， 未单独配置时采用全局配置
+     * @param cacheName
+     * @param defaults
+     * @return
+     */
+    public CacheRegionConfig resolve(String cacheName, CacheConfigProperties defaults) {
+        CacheRegionConfig config = caches.get(cacheName);
+        return (config != null ? config : new CacheRegionConfig()).withDefaults(defaults);
+    }
+}
@@ -0,0 +1,22 @@
+package com.mirson.gemini.cache.config;
+
+/**
+ * 缓存存储层级
+ */
+public enum CacheTier {
+
+    /**
+     * 只使用本地Caffeine缓存（变更消息仍会广播）
+     */
+    LOCAL,
+
+    /**
+     * 只使用Redis缓存
+     */
+    REDIS,
+
+    /**
+     * Caffeine + Redis 二级缓存
+     */
+    TWO_TIER
+}
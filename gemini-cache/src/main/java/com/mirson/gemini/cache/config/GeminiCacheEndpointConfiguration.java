@@ -0,0 +1,45 @@
+package com.mirson.gemini.cache.config;
+
+import com.mirson.gemini.cache.endpoint.GeminiCacheEndpoint;
+import com.mirson.gemini.cache.endpoint.GeminiCacheMvcEndpoint;
+import com.mirson.gemini.cache.service.cache.CacheService;
+import com.mirson.gemini.cache.service.cache.CaffeineCacheServiceImpl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 二级缓存管理端点配置， 应用引入spring-boot-actuator且开启二级缓存时生效
+ * 端点路径为 management.context-path + /geminicache， 默认需认证（endpoints.geminicache.sensitive）。
+ */
+@Configuration
+@ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.AbstractEndpoint")
+@ConditionalOnProperty(name = {"app.cache.enable", "app.cache.enableSecondCache"}, havingValue = "true")
+public class GeminiCacheEndpointConfiguration {
+
+    /**
+     * 缓存管理端点
+     * @param cacheService
+     * @return
+     */
+    @Bean
+    public GeminiCacheEndpoint geminiCacheEndpoint(CacheService cacheService) {
+        return new GeminiCacheEndpoint((CaffeineCacheServiceImpl) cacheService);
+    }
+
+    /**
+     * 缓存管理端点的MVC适配（GET之外的调整与清理操作）
+     */
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.web.servlet.DispatcherServlet")
+    @ConditionalOnWebApplication
+    static class GeminiCacheMvcEndpointConfiguration {
+
+        @Bean
+        public GeminiCacheMvcEndpoint geminiCacheMvcEndpoint(GeminiCacheEndpoint geminiCacheEndpoint) {
+            return new GeminiCacheMvcEndpoint(geminiCacheEndpoint);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.mirson.gemini.cache.config;
+
+/**
+ * 本地缓存存储实现
+ */
+public enum LocalStoreType {
+
+    /**
+     * Caffeine堆内缓存
+     */
+    CAFFEINE,
+
+    /**
+     * 堆外缓存， 存储与Redis相同的序列化数据， 读取时反序列化
+     */
+    OFF_HEAP
+}
@@ -0,0 +1,17 @@
+package com.mirson.gemini.cache.config;
+
+/**
+ * 二级缓存变更的集群同步方式
+ */
+public enum ReplicationMode {
+
+    /**
+     * 广播清理消息， 其他节点下次读取时从Redis加载
+     */
+    INVALIDATE,
+
+    /**
+     * 广播序列化后的缓存值， 其他节点直接写入本地缓存（超过大小阈值时降级为INVALIDATE）
+     */
+    PUSH
+}
@@ -0,0 +1,271 @@
+package com.mirson.gemini.cache.endpoint;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mirson.gemini.cache.config.CacheTier;
+import com.mirson.gemini.cache.config.LocalStoreType;
+import com.mirson.gemini.cache.config.ReplicationMode;
+import com.mirson.gemini.cache.service.cache.CacheRegion;
+import com.mirson.gemini.cache.service.cache.CaffeineCacheServiceImpl;
+import com.mirson.gemini.cache.service.cache.CaffeineLocalCacheStore;
+import com.mirson.gemini.cache.service.cache.LocalCacheStore;
+import com.mirson.gemini.cache.utils.Hash128CacheKey;
+import lombok.Data;
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 二级缓存管理端点（geminicache）
+ * 列出本节点的缓存区域（条目数、权重、命中率、淘汰次数与热点KEY）， 按缓存名称或KEY清理缓存（同时清理Redis并广播给其他节点），
+ * 运行时调整本节点的本地缓存上限与过期时间。
+ */
+@ConfigurationProperties(prefix = "endpoints.geminicache")
+public class GeminiCacheEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+    public static final String ID = "geminicache";
+
+    public static final String KEY_TYPE_STRING = "string";
+
+    public static final String KEY_TYPE_INT = "int";
+
+    public static final String KEY_TYPE_LONG = "long";
+
+    public static final String KEY_TYPE_HASH128 = "hash128";
+
+    private final CaffeineCacheServiceImpl caffeineCacheService;
+
+    /**
+     * 每个缓存列出的热点KEY数量（默认10）
+     */
+    private int hotKeys = 10;
+
+    public GeminiCacheEndpoint(CaffeineCacheServiceImpl caffeineCacheService) {
+        super(ID);
+        this.caffeineCacheService = caffeineCacheService;
+    }
+
+    public int getHotKeys() {
+        return hotKeys;
+    }
+
+    public void setHotKeys(int hotKeys) {
+        this.hotKeys = hotKeys;
+    }
+
+    @Override
+    public Map<String, Object> invoke() {
+        List<RegionDescriptor> regions = new ArrayList<>();
+        for (CacheRegion region : caffeineCacheService.getRegions()) {
+            regions.add(describe(region));
+        }
+        regions.sort(Comparator.comparing(RegionDescriptor::getName));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("regions", regions);
+        result.put("staleMessages", caffeineCacheService.getStaleMessages());
+        result.put("staleLoads", caffeineCacheService.getStaleLoads());
+        result.put("pushedValues", caffeineCacheService.getPushedValues());
+        return result;
+    }
+
+    /**
+     * 获取单个缓存区域
+     * @param cacheName
+     * @return 本节点未使用该缓存时返回空
+     */
+    public RegionDescriptor getRegion(String cacheName) {
+        for (CacheRegion region : caffeineCacheService.getRegions()) {
+            if (region.getName().equals(cacheName)) {
+                return describe(region);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 清理缓存（Redis与本地缓存）， 并广播给其他节点
+     * @param cacheName
+     * @param key 为空时清理该缓存下的所有条目
+     * @param keyType KEY类型， 与缓存注解的keyGenerator对应： string（默认， CONCAT）、int（SHA）、long（XXHASH）、hash128（XXHASH128）
+     */
+    public void invalidate(String cacheName, String key, String keyType) {
+        String[] cacheNames = {cacheName};
+        if (key == null) {
+            caffeineCacheService.invalidateCache(cacheNames);
+        } else {
+            caffeineCacheService.invalidateCache(cacheNames, toKey(key, keyType));
+        }
+    }
+
+    /**
+     * 调整本节点的本地缓存上限与过期时间
+     * @param cacheName
+     * @param maximum
+     * @param expireAfterWrite
+     * @param expireAfterAccess
+     * @return 调整后的缓存区域
+     */
+    public RegionDescriptor update(String cacheName, Long maximum, Long expireAfterWrite, Long expireAfterAccess) {
+        return describe(caffeineCacheService.updateRegion(cacheName, maximum, expireAfterWrite, expireAfterAccess));
+    }
+
+    private RegionDescriptor describe(CacheRegion region) {
+        RegionDescriptor descriptor = new RegionDescriptor();
+        descriptor.setName(region.getName());
+        descriptor.setTier(region.getTier());
+        descriptor.setReplicationMode(region.getReplicationMode());
+        LocalCacheStore store = region.getStore();
+        if (store == null) {
+            return descriptor;
+        }
+        descriptor.setLocalStore(region.getConfig().getLocalStore());
+        descriptor.setSize(region.getEstimatedSize());
+        descriptor.setWeight(region.getWeightedSize());
+        descriptor.setMaximum(region.getMaximum());
+        if (store instanceof CaffeineLocalCacheStore) {
+            descriptor.setExpireAfterWrite(((CaffeineLocalCacheStore) store).getExpireAfterWrite());
+            descriptor.setExpireAfterAccess(((CaffeineLocalCacheStore) store).getExpireAfterAccess());
+        } else if (region.getConfig().getExpireAfterWrite() > 0) {
+            descriptor.setExpireAfterWrite(region.getConfig().getExpireAfterWrite());
+        }
+        CacheStats stats = store.stats();
+        descriptor.setHitCount(stats.hitCount());
+        descriptor.setMissCount(stats.missCount());
+        // 未记录统计或没有访问时不计算命中率
+        descriptor.setHitRate(stats.requestCount() > 0 ? stats.hitRate() : null);
+        descriptor.setEvictionCount(stats.evictionCount());
+        descriptor.setPuts(region.getPuts());
+        descriptor.setInvalidations(region.getInvalidations());
+        List<KeyDescriptor> keys = new ArrayList<>();
+        for (Object key : store.hottestKeys(hotKeys)) {
+            keys.add(new KeyDescriptor(String.valueOf(key), keyType(key)));
+        }
+        descriptor.setHotKeys(keys);
+        return descriptor;
+    }
+
+    private static String keyType(Object key) {
+        if (key instanceof String) {
+            return KEY_TYPE_STRING;
+        }
+        if (key instanceof Integer) {
+            return KEY_TYPE_INT;
+        }
+        if (key instanceof Long) {
+            return KEY_TYPE_LONG;
+        }
+        if (key instanceof Hash128CacheKey) {
+            return KEY_TYPE_HASH128;
+        }
+        return key.getClass().getSimpleName();
+    }
+
+    /**
+     * 将请求中的KEY转换为缓存KEY
+     */
+    private static Object toKey(String key, String keyType) {
+        if (keyType == null || KEY_TYPE_STRING.equalsIgnoreCase(keyType)) {
+            return key;
+        }
+        try {
+            if (KEY_TYPE_INT.equalsIgnoreCase(keyType)) {
+                return Integer.valueOf(key);
+            }
+            if (KEY_TYPE_LONG.equalsIgnoreCase(keyType)) {
+                return Long.valueOf(key);
+            }
+            if (KEY_TYPE_HASH128.equalsIgnoreCase(keyType) && key.length() == 32) {
+                return new Hash128CacheKey(Long.parseUnsignedLong(key.substring(0, 16), 16),
+                        Long.parseUnsignedLong(key.substring(16), 16));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + keyType + " key: " + key, e);
+        }
+        throw new IllegalArgumentException("Unsupported key type: " + keyType + ", key: " + key);
+    }
+
+    /**
+     * 缓存区域信息
+     */
+    @Data
+    public static class RegionDescriptor {
+
+        private String name;
+
+        private CacheTier tier;
+
+        private LocalStoreType localStore;
+
+        private ReplicationMode replicationMode;
+
+        /**
+         * 条目数量（估算值）
+         */
+        private long size;
+
+        /**
+         * 当前总权重， 未按权重限制时为-1
+         */
+        private long weight = -1;
+
+        /**
+         * 当前上限， 不限制时为-1
+         */
+        private long maximum = -1;
+
+        /**
+         * 写入后过期时间（单位：毫秒）， 未配置时为-1
+         */
+        private long expireAfterWrite = -1;
+
+        /**
+         * 访问后过期时间（单位：毫秒）， 未配置时为-1
+         */
+        private long expireAfterAccess = -1;
+
+        private long hitCount;
+
+        private long missCount;
+
+        /**
+         * 命中率， Caffeine缓存需开启监控指标或app.cache.caffeine.recordStats
+         */
+        private Double hitRate;
+
+        /**
+         * 容量或过期淘汰次数
+         */
+        private long evictionCount;
+
+        /**
+         * 写入本地缓存的次数
+         */
+        private long puts;
+
+        /**
+         * 按KEY或整体清除的次数
+         */
+        private long invalidations;
+
+        /**
+         * 访问最频繁的KEY（只支持按条目数或权重限制的Caffeine缓存）
+         */
+        private List<KeyDescriptor> hotKeys = Collections.emptyList();
+    }
+
+    /**
+     * 缓存KEY及其类型（清理时作为keyType参数）
+     */
+    @Data
+    public static class KeyDescriptor {
+
+        private final String key;
+
+        private final String type;
+    }
+}
@@ -0,0 +1,92 @@
+package com.mirson.gemini.cache.endpoint;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.mvc.ActuatorMediaTypes;
+import org.springframework.boot.actuate.endpoint.mvc.EndpointMvcAdapter;
+import org.springframework.boot.actuate.endpoint.mvc.HypermediaDisabled;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 二级缓存管理端点的MVC适配
+ * <ul>
+ *     <li>GET /geminicache： 列出所有缓存区域</li>
+ *     <li>GET /geminicache/{cacheName}： 单个缓存区域</li>
+ *     <li>POST /geminicache/{cacheName}： 调整本节点的上限与过期时间， 如 {"maximum": 10000, "expireAfterWrite": 60000}</li>
+ *     <li>DELETE /geminicache/{cacheName}?key=&amp;keyType=： 清理缓存， 未指定key时清理整个缓存</li>
+ * </ul>
+ */
+@ConfigurationProperties(prefix = "endpoints.geminicache")
+public class GeminiCacheMvcEndpoint extends EndpointMvcAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiCacheMvcEndpoint.class);
+
+    private final GeminiCacheEndpoint delegate;
+
+    public GeminiCacheMvcEndpoint(GeminiCacheEndpoint delegate) {
+        super(delegate);
+        this.delegate = delegate;
+    }
+
+    @RequestMapping(value = "/{cacheName:.+}", method = RequestMethod.GET, produces = {
+            ActuatorMediaTypes.APPLICATION_ACTUATOR_V1_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @ResponseBody
+    @HypermediaDisabled
+    public Object get(@PathVariable String cacheName) {
+        if (!delegate.isEnabled()) {
+            return getDisabledResponse();
+        }
+        GeminiCacheEndpoint.RegionDescriptor region = delegate.getRegion(cacheName);
+        return region == null ? ResponseEntity.notFound().build() : region;
+    }
+
+    @RequestMapping(value = "/{cacheName:.+}", method = RequestMethod.POST, consumes = {
+            ActuatorMediaTypes.APPLICATION_ACTUATOR_V1_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE}, produces = {
+            ActuatorMediaTypes.APPLICATION_ACTUATOR_V1_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @ResponseBody
+    @HypermediaDisabled
+    public Object update(@PathVariable String cacheName, @RequestBody Map<String, Long> configuration) {
+        if (!delegate.isEnabled()) {
+            return getDisabledResponse();
+        }
+        try {
+            return delegate.update(cacheName, configuration.get("maximum"), configuration.get("expireAfterWrite"),
+                    configuration.get("expireAfterAccess"));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    @RequestMapping(value = "/{cacheName:.+}", method = RequestMethod.DELETE, produces = {
+            ActuatorMediaTypes.APPLICATION_ACTUATOR_V1_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @ResponseBody
+    @HypermediaDisabled
+    public Object invalidate(@PathVariable String cacheName, @RequestParam(required = false) String key,
+                             @RequestParam(required = false) String keyType) {
+        if (!delegate.isEnabled()) {
+            return getDisabledResponse();
+        }
+        try {
+            delegate.invalidate(cacheName, key, keyType);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+        logger.info("invalidate # cache invalidated by endpoint, cacheName: " + cacheName + ", key: " + key);
+        return ResponseEntity.ok().build();
+    }
+
+    private static ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Collections.singletonMap("message", e.getMessage()));
+    }
+}
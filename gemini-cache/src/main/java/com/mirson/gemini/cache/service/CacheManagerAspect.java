@@ -3,11 +3,22 @@ package com.mirson.gemini.cache.service;
 import com.mirson.gemini.cache.annotation.CacheDelete;
 import com.mirson.gemini.cache.annotation.CachePut;
 import com.mirson.gemini.cache.annotation.Cacheable;
+import com.mirson.gemini.cache.annotation.CacheableBatch;
 import com.mirson.gemini.cache.config.CacheConfigProperties;
+import com.mirson.gemini.cache.service.bloom.CacheBloomFilter;
 import com.mirson.gemini.cache.service.cache.CacheService;
-import com.mirson.gemini.cache.utils.CacheUtil;
-import com.mirson.gemini.cache.utils.KeyGenerators;
-import com.mirson.gemini.cache.utils.SpringExpressionParserUtil;
+import com.mirson.gemini.cache.service.cache.NullValue;
+import com.mirson.gemini.cache.service.loader.EarlyRefreshLoader;
+import com.mirson.gemini.cache.service.loader.SingleFlightLoader;
+import com.mirson.gemini.cache.service.loader.ValueLoader;
+import com.mirson.gemini.cache.service.metrics.CacheMetrics;
+import com.mirson.gemini.cache.service.operation.AsyncReturnType;
+import com.mirson.gemini.cache.service.operation.CacheOperation;
+import com.mirson.gemini.cache.service.operation.CacheOperationMetadata;
+import com.mirson.gemini.cache.service.operation.CacheOperationSource;
+import com.mirson.gemini.cache.service.version.HybridLogicalClock;
+import com.mirson.gemini.cache.service.version.VersionedValue;
+import com.mirson.gemini.cache.utils.MonoSupport;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -16,14 +27,23 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
 /**
  * AOP切面，缓存拦截处理
@@ -36,7 +56,7 @@ import java.lang.reflect.Method;
 public class CacheManagerAspect {
 
     @Autowired
-    SpringExpressionParserUtil springExpressionParserUtil;
+    CacheOperationSource cacheOperationSource;
 
     @Autowired
     CacheService redisCacheService;
@@ -44,6 +64,21 @@ public class CacheManagerAspect {
     @Autowired
     private CacheConfigProperties cacheConfigProperties;
 
+    @Autowired
+    private SingleFlightLoader singleFlightLoader;
+
+    @Autowired
+    private EarlyRefreshLoader earlyRefreshLoader;
+
+    @Autowired
+    private CacheBloomFilter cacheBloomFilter;
+
+    @Autowired
+    private CacheMetrics cacheMetrics;
+
+    @Autowired
+    private HybridLogicalClock hybridLogicalClock;
+
     @Pointcut("execution(* com.mirson..*.*(..)) && @annotation(com.mirson.gemini.cache.annotation.Cacheable)")
     public void executionOfCacheableMethod() {
     }
@@ -56,6 +91,10 @@ public class CacheManagerAspect {
     public void executionOfCacheDeleteMethod() {
     }
 
+    @Pointcut("execution(* com.mirson..*.*(..)) && @annotation(com.mirson.gemini.cache.annotation.CacheableBatch)")
+    public void executionOfCacheableBatchMethod() {
+    }
+
     @AfterReturning(pointcut = "executionOfCachePutMethod()", returning = "returnObject")
     public void putInCache(final JoinPoint joinPoint, final Object returnObject) {
 
@@ -67,15 +106,18 @@ public class CacheManagerAspect {
             if (!cacheConfigProperties.isEnableCache()) {
                 return;
             }
-            CachePut cachePutAnnotation = getAnnotation(joinPoint, CachePut.class);
-            Object cacheKey = springExpressionParserUtil
-                    .parseAndGetCacheKeyFromExpression(cachePutAnnotation.keyExpression(), returnObject,
-                            joinPoint.getArgs(), cachePutAnnotation.keyGenerator());
+            CacheOperation<CachePut> operation = cacheOperationSource.getMetadata(joinPoint).getCachePut();
+            Object cacheKey = operation.buildCacheKey(joinPoint.getArgs(), returnObject);
 
-            if (cachePutAnnotation.isAsync()) {
-                redisCacheService.saveInRedisAsync(cachePutAnnotation.cacheNames(), cacheKey, returnObject, cachePutAnnotation.TTL());
+            if (operation.isAsync()) {
+                redisCacheService.saveInRedisAsync(operation.getCacheNames(), cacheKey, returnObject,
+                        operation.nextTtlMillis(), TimeUnit.MILLISECONDS);
             } else {
-                redisCacheService.save(cachePutAnnotation.cacheNames(), cacheKey, returnObject, cachePutAnnotation.TTL());
+                redisCacheService.save(operation.getCacheNames(), cacheKey, returnObject,
+                        operation.nextTtlMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (cacheBloomFilter.isGuarded(operation.getCacheNames())) {
+                cacheBloomFilter.put(operation.getCacheNames(), operation.keyValues(joinPoint.getArgs(), returnObject));
             }
 
         } catch (Exception e) {
@@ -90,16 +132,15 @@ public class CacheManagerAspect {
             if (!cacheConfigProperties.isEnableCache()) {
                 return;
             }
-            CacheDelete cacheDeleteAnnotation = getAnnotation(joinPoint, CacheDelete.class);
+            CacheOperation<CacheDelete> operation = cacheOperationSource.getMetadata(joinPoint).getCacheDelete();
+            CacheDelete cacheDeleteAnnotation = operation.getAnnotation();
 
-            String[] cacheNames = cacheDeleteAnnotation.cacheNames();
+            String[] cacheNames = operation.getCacheNames();
             Object cacheKey = null;
             if (!cacheDeleteAnnotation.removeAll()) {
-                cacheKey = springExpressionParserUtil
-                        .parseAndGetCacheKeyFromExpression(cacheDeleteAnnotation.keyExpression(), returnObject,
-                                joinPoint.getArgs(), cacheDeleteAnnotation.keyGenerator());
+                cacheKey = operation.buildCacheKey(joinPoint.getArgs(), returnObject);
             }
-            if (cacheDeleteAnnotation.isAsync()) {
+            if (operation.isAsync()) {
                 if (cacheDeleteAnnotation.removeAll())
                     redisCacheService.invalidateCache(cacheNames);
             } else {
@@ -120,68 +161,500 @@ public class CacheManagerAspect {
 
         Object returnObject = null;
 
-        Cacheable cacheableAnnotation = null;
+        CacheOperation<Cacheable> operation = null;
         Object cacheKey = null;
         try {
-            cacheableAnnotation = getAnnotation(proceedingJoinPoint, Cacheable.class);
-
-            KeyGenerators keyGenerator = cacheableAnnotation.keyGenerator();
-
-            if (StringUtils.isEmpty(cacheableAnnotation.keyExpression())) {
-                cacheKey = CacheUtil.buildCacheKey(proceedingJoinPoint.getArgs());
+            CacheOperationMetadata metadata = cacheOperationSource.getMetadata(proceedingJoinPoint);
+            operation = metadata.getCacheable();
+            cacheKey = operation.buildCacheKey(proceedingJoinPoint.getArgs(), null);
+
+            if (cacheBloomFilter.isGuarded(operation.getCacheName()) && !cacheBloomFilter.mightContain(
+                    operation.getCacheName(), operation.keyValues(proceedingJoinPoint.getArgs(), null))) {
+                // 布隆过滤器判断KEY一定不存在， 不访问Redis与原有方法
+                return absentResult(metadata.getAsyncReturnType());
+            }
+            if (metadata.getAsyncReturnType() != AsyncReturnType.NONE) {
+                // 异步方法， 不阻塞等待Redis
+                return getAndSaveInCacheAsync(proceedingJoinPoint, metadata.getAsyncReturnType(), operation, cacheKey);
+            }
+            if (isVersionChecked(operation)) {
+                VersionedValue cached = redisCacheService.getVersionedFromCache(operation.getCacheName(), cacheKey);
+                returnObject = revalidate(proceedingJoinPoint, AsyncReturnType.NONE, operation, cacheKey, cached);
             } else {
-                cacheKey = springExpressionParserUtil
-                        .parseAndGetCacheKeyFromExpression(cacheableAnnotation.keyExpression(), null,
-                                proceedingJoinPoint.getArgs(), keyGenerator);
+                returnObject = redisCacheService.getFromCache(operation.getCacheName(), cacheKey);
             }
 
-            returnObject = redisCacheService.getFromCache(cacheableAnnotation.cacheName(), cacheKey);
-
         } catch (Exception e) {
             log.error("getAndSaveInCache # Redis op Exception while trying to get from cache ## " + e.getMessage(), e);
         }
         if (returnObject != null) {
-            return returnObject;
-        } else {
-            returnObject = callActualMethod(proceedingJoinPoint);
+            return fromStored(operation.getCacheName(), returnObject);
+        }
+
+        if (null != operation && null != cacheKey && operation.getAnnotation().sync()) {
+            // 合并同一缓存KEY的并发加载
+            final CacheOperation<Cacheable> cacheable = operation;
+            final Object key = cacheKey;
+            return fromStored(cacheable.getCacheName(), singleFlightLoader.load(cacheable.getCacheName(), key, cacheable.getAnnotation().distributedLock(),
+                    () -> redisCacheService.getFromCache(cacheable.getCacheName(), key),
+                    () -> loadAndSaveInCache(() -> callActualMethod(proceedingJoinPoint), cacheable, key)));
+        }
+        return loadAndSaveInCache(() -> callActualMethod(proceedingJoinPoint), operation, cacheKey);
+    }
+
+    /**
+     * 布隆过滤器拦截时的返回结果， 异步方法返回空结果的 CompletableFuture 或 Mono
+     * @param asyncReturnType
+     * @return
+     */
+    private Object absentResult(AsyncReturnType asyncReturnType) {
+        if (asyncReturnType == AsyncReturnType.MONO) {
+            return MonoSupport.defer(() -> CompletableFuture.completedFuture(null));
+        }
+        if (asyncReturnType == AsyncReturnType.COMPLETION_STAGE) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return null;
+    }
+
+    /**
+     * 异步方法的缓存处理， 返回与原方法相同类型的 CompletableFuture 或 Mono
+     * @param proceedingJoinPoint
+     * @param asyncReturnType
+     * @param operation
+     * @param cacheKey
+     * @return
+     */
+    private Object getAndSaveInCacheAsync(ProceedingJoinPoint proceedingJoinPoint, AsyncReturnType asyncReturnType,
+                                          CacheOperation<Cacheable> operation, Object cacheKey) {
+        if (asyncReturnType == AsyncReturnType.MONO) {
+            // Mono为延迟执行， 订阅时才查询缓存
+            return MonoSupport.defer(() -> getOrLoadAsync(proceedingJoinPoint, asyncReturnType, operation, cacheKey));
+        }
+        return getOrLoadAsync(proceedingJoinPoint, asyncReturnType, operation, cacheKey);
+    }
+
+    /**
+     * 异步查询缓存， 未命中时调用原有方法并异步保存结果
+     */
+    private CompletableFuture<Object> getOrLoadAsync(ProceedingJoinPoint proceedingJoinPoint,
+                                                     AsyncReturnType asyncReturnType,
+                                                     CacheOperation<Cacheable> operation, Object cacheKey) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        CompletionStage<Object> cached;
+        try {
+            cached = isVersionChecked(operation)
+                    ? redisCacheService.getVersionedFromCacheAsync(operation.getCacheName(), cacheKey)
+                            .thenApply(versioned -> revalidate(proceedingJoinPoint, asyncReturnType, operation, cacheKey, versioned))
+                    : redisCacheService.getFromCacheAsync(operation.getCacheName(), cacheKey);
+        } catch (Exception e) {
+            log.error("getOrLoadAsync # Redis op Exception while trying to get from cache ## " + e.getMessage(), e);
+            cached = CompletableFuture.completedFuture(null);
+        }
+        cached.whenComplete((value, e) -> {
+            if (e != null) {
+                log.error("getOrLoadAsync # Redis op Exception while trying to get from cache ## " + e.getMessage(), e);
+            }
+            if (value != null) {
+                result.complete(fromStored(operation.getCacheName(), value));
+                return;
+            }
+            CompletionStage<Object> loaded;
+            try {
+                loaded = operation.getAnnotation().sync()
+                        // 合并同一缓存KEY的并发加载（只合并本节点内的加载）
+                        ? singleFlightLoader.loadAsync(operation.getCacheName(), cacheKey,
+                                () -> loadAndSaveInCacheAsync(() -> callActualMethod(proceedingJoinPoint), asyncReturnType,
+                                        operation, cacheKey))
+                        : loadAndSaveInCacheAsync(() -> callActualMethod(proceedingJoinPoint), asyncReturnType,
+                                operation, cacheKey);
+            } catch (Throwable loadError) {
+                result.completeExceptionally(loadError);
+                return;
+            }
+            loaded.whenComplete((loadedValue, loadError) -> {
+                if (loadError != null) {
+                    result.completeExceptionally(loadError);
+                } else {
+                    result.complete(loadedValue);
+                }
+            });
+        });
+        return result;
+    }
 
-            if (returnObject != null) {
+    /**
+     * 调用原有异步方法， 完成后异步保存结果
+     */
+    private CompletionStage<Object> loadAndSaveInCacheAsync(ValueLoader methodInvoker,
+                                                            AsyncReturnType asyncReturnType,
+                                                            CacheOperation<Cacheable> operation, Object cacheKey) {
+        CompletionStage<Object> loaded;
+        long startTime = System.nanoTime();
+        try {
+            Object returnObject = methodInvoker.load();
+            if (returnObject == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            loaded = asyncReturnType == AsyncReturnType.MONO ? MonoSupport.toFuture(returnObject)
+                    : castStage(returnObject);
+        } catch (Throwable e) {
+            recordLoadFailure(operation.getCacheName(), startTime);
+            CompletableFuture<Object> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return loaded.whenComplete((returnObject, e) -> {
+            if (e != null) {
+                recordLoadFailure(operation.getCacheName(), startTime);
+            }
+        }).thenApply(returnObject -> {
+            recordLoadTime(operation, startTime);
+            if (returnObject != null || operation.getAnnotation().cacheNulls()) {
                 try {
-                    if (cacheableAnnotation.isAsync()) {
-                        redisCacheService
-                                .saveInRedisAsync(new String[]{cacheableAnnotation.cacheName()}, cacheKey,
-                                        returnObject, cacheableAnnotation.TTL());
-                    } else {
-                        redisCacheService
-                                .save(new String[]{cacheableAnnotation.cacheName()}, cacheKey,
-                                        returnObject, cacheableAnnotation.TTL());
+                    if (returnObject == null) {
+                        cacheMetrics.recordNegative(operation.getCacheName(), false);
                     }
+                    Object stored = toStored(operation, returnObject);
+                    redisCacheService.saveAsync(operation.getCacheNames(), cacheKey, stored,
+                                    storeTtlMillis(operation, stored), TimeUnit.MILLISECONDS)
+                            .whenComplete((saved, e) -> {
+                                if (e != null) {
+                                    log.error("loadAndSaveInCacheAsync # Exception occurred while trying to save data in redis##"
+                                            + e.getMessage(), e);
+                                }
+                            });
                 } catch (Exception e) {
-                    log.error("getAndSaveInCache # Exception occurred while trying to save data in redis##" + e.getMessage(),
-                            e);
+                    log.error("loadAndSaveInCacheAsync # Exception occurred while trying to save data in redis##"
+                            + e.getMessage(), e);
                 }
             }
+            return returnObject;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletionStage<Object> castStage(Object returnObject) {
+        return (CompletionStage<Object>) returnObject;
+    }
+
+    /**
+     * 调用原有方法， 并将结果保存至缓存
+     * @param proceedingJoinPoint
+     * @param operation
+     * @param cacheKey
+     * @return
+     * @throws Throwable
+     */
+    private Object loadAndSaveInCache(ValueLoader methodInvoker, CacheOperation<Cacheable> operation,
+                                      Object cacheKey) throws Throwable {
+        long startTime = System.nanoTime();
+        Object returnObject;
+        try {
+            returnObject = methodInvoker.load();
+        } catch (Throwable e) {
+            recordLoadFailure(operation.getCacheName(), startTime);
+            throw e;
+        }
+        recordLoadTime(operation, startTime);
+
+        if (returnObject != null || operation.getAnnotation().cacheNulls()) {
+            try {
+                if (returnObject == null) {
+                    cacheMetrics.recordNegative(operation.getCacheName(), false);
+                }
+                Object stored = toStored(operation, returnObject);
+                if (operation.isAsync()) {
+                    redisCacheService
+                            .saveInRedisAsync(operation.getCacheNames(), cacheKey, stored,
+                                    storeTtlMillis(operation, stored), TimeUnit.MILLISECONDS);
+                } else {
+                    redisCacheService
+                            .save(operation.getCacheNames(), cacheKey, stored,
+                                    storeTtlMillis(operation, stored), TimeUnit.MILLISECONDS);
+                }
+            } catch (Exception e) {
+                log.error("getAndSaveInCache # Exception occurred while trying to save data in redis##" + e.getMessage(),
+                        e);
+            }
         }
         return returnObject;
     }
 
-    private Object callActualMethod(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+    /**
+     * 是否开启过期前提前刷新
+     */
+    private static boolean isRevalidating(CacheOperation<Cacheable> operation) {
+        return operation.getAnnotation().staleWhileRevalidate() && operation.getTtl() > 0;
+    }
 
-        return proceedingJoinPoint.proceed();
+    /**
+     * 是否需要按版本号（写入时间）检查缓存数据
+     */
+    private static boolean isVersionChecked(CacheOperation<Cacheable> operation) {
+        return isRevalidating(operation) || operation.getAnnotation().cacheNulls();
+    }
+
+    /**
+     * 缓存的实际存储时间（单位：毫秒， 按抖动配置随机计算）， 空结果采用nullTTL；
+     * 开启提前刷新时按版本号计算TTL（读取时可还原）， 并在TTL基础上保留maxStale
+     */
+    private static long storeTtlMillis(CacheOperation<Cacheable> operation, Object stored) {
+        if (NullValue.isNull(stored)) {
+            return operation.getTtlJitter().apply(nullTtlMillis(operation));
+        }
+        if (stored instanceof VersionedValue) {
+            return operation.ttlMillis(((VersionedValue) stored).getVersion())
+                    + TimeUnit.SECONDS.toMillis(Math.max(0L, operation.getAnnotation().maxStale()));
+        }
+        return operation.nextTtlMillis();
+    }
+
+    private static long nullTtlMillis(CacheOperation<Cacheable> operation) {
+        return TimeUnit.SECONDS.toMillis(Math.max(0L, operation.getAnnotation().nullTTL()));
+    }
+
+    /**
+     * 空结果转换为空值标记， 开启提前刷新时在写入前生成版本号， 用于计算抖动后的TTL
+     */
+    private Object toStored(CacheOperation<Cacheable> operation, Object returnObject) {
+        if (returnObject == null) {
+            return NullValue.INSTANCE;
+        }
+        return isRevalidating(operation) ? new VersionedValue(returnObject, hybridLogicalClock.next()) : returnObject;
+    }
+
+    /**
+     * 空值标记还原为空
+     */
+    private Object fromStored(String cacheName, Object cached) {
+        if (NullValue.isNull(cached)) {
+            cacheMetrics.recordNegative(cacheName, true);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * 检查缓存数据的写入时间： 空值标记超过nullTTL（本地缓存保留时间可能更长）视为未命中；
+     * 开启提前刷新时按XFetch算法判断是否需要后台刷新， 超过maxStale的数据视为未命中
+     * @return 可返回的缓存对象（可能为空值标记）， 需要同步加载时为空
+     */
+    private Object revalidate(ProceedingJoinPoint proceedingJoinPoint, AsyncReturnType asyncReturnType,
+                              CacheOperation<Cacheable> operation, Object cacheKey, VersionedValue cached) {
+        if (cached == null || cached.getVersion() == VersionedValue.NO_VERSION) {
+            // 旧格式数据没有写入时间
+            return VersionedValue.unwrap(cached);
+        }
+        long writeTime = HybridLogicalClock.physicalTime(cached.getVersion());
+        long now = System.currentTimeMillis();
+        if (NullValue.isNull(cached.getValue())) {
+            long nullTtlMillis = nullTtlMillis(operation);
+            return nullTtlMillis > 0 && now >= writeTime + nullTtlMillis ? null : cached.getValue();
+        }
+        if (!isRevalidating(operation)) {
+            return cached.getValue();
+        }
+        Cacheable cacheable = operation.getAnnotation();
+        // 与写入时相同的抖动后TTL
+        long ttlMillis = operation.ttlMillis(cached.getVersion());
+        if (now >= writeTime + ttlMillis + TimeUnit.SECONDS.toMillis(Math.max(0L, cacheable.maxStale()))) {
+            // 超过允许的最长过期时间（如本地缓存保留时间长于TTL）
+            return null;
+        }
+        if (earlyRefreshLoader.shouldRefresh(operation.getCacheName(), writeTime, ttlMillis, cacheable.refreshBeta(), now)) {
+            ValueLoader methodInvoker = refreshInvoker(proceedingJoinPoint);
+            earlyRefreshLoader.refresh(operation.getCacheName(), cacheKey, () -> {
+                if (asyncReturnType != AsyncReturnType.NONE) {
+                    return loadAndSaveInCacheAsync(methodInvoker, asyncReturnType, operation, cacheKey);
+                }
+                CompletableFuture<Object> refreshed = new CompletableFuture<>();
+                try {
+                    refreshed.complete(loadAndSaveInCache(methodInvoker, operation, cacheKey));
+                } catch (Throwable e) {
+                    refreshed.completeExceptionally(e);
+                }
+                return refreshed;
+            });
+        }
+        return cached.getValue();
+    }
+
+    /**
+     * 后台刷新的方法调用： 在当前线程取出目标对象、方法与参数， 刷新线程上直接反射调用目标对象，
+     * 不再通过连接点执行后续的拦截器链， 也不依赖线程绑定的状态（事务、安全上下文、请求属性等在刷新线程上均不存在）
+     */
+    private static ValueLoader refreshInvoker(ProceedingJoinPoint proceedingJoinPoint) {
+        Object target = proceedingJoinPoint.getTarget();
+        Method method = ((MethodSignature) proceedingJoinPoint.getSignature()).getMethod();
+        Object[] args = proceedingJoinPoint.getArgs();
+        return () -> AopUtils.invokeJoinpointUsingReflection(target, method, args);
+    }
+
+    /**
+     * 记录原有方法的加载耗时， 作为提前刷新的依据
+     */
+    private void recordLoadTime(CacheOperation<Cacheable> operation, long startTime) {
+        long loadTime = System.nanoTime() - startTime;
+        cacheMetrics.recordLoad(operation.getCacheName(), loadTime, true);
+        if (isRevalidating(operation)) {
+            earlyRefreshLoader.recordLoadTime(operation.getCacheName(), loadTime);
+        }
+    }
+
+    private void recordLoadFailure(String cacheName, long startTime) {
+        cacheMetrics.recordLoad(cacheName, System.nanoTime() - startTime, false);
+    }
+
+    @Around("executionOfCacheableBatchMethod()")
+    public Object getAllAndSaveInCache(final ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+
+        if (!cacheConfigProperties.isEnableCache()) {
+            return callActualMethod(proceedingJoinPoint);
+        }
+
+        CacheOperation<CacheableBatch> operation;
+        Class<?> returnType;
+        Class<?> keyParamType;
+        Object[] args = proceedingJoinPoint.getArgs();
+        int keyParamIndex;
+        // 元素ID -> 缓存KEY（保持入参顺序）
+        Map<Object, Object> idKeys = new LinkedHashMap<>();
+        Map<Object, Object> cached;
+        try {
+            CacheOperationMetadata metadata = cacheOperationSource.getMetadata(proceedingJoinPoint);
+            operation = metadata.getCacheableBatch();
+            returnType = metadata.getTargetMethod().getReturnType();
+            keyParamIndex = operation.getAnnotation().keyParam() - 1;
+            keyParamType = metadata.getTargetMethod().getParameterTypes()[keyParamIndex];
+            Object ids = args[keyParamIndex];
+            if (!(ids instanceof Collection) || ((Collection<?>) ids).isEmpty()) {
+                return callActualMethod(proceedingJoinPoint);
+            }
+            for (Object id : (Collection<?>) ids) {
+                idKeys.put(id, operation.buildElementKey(id));
+            }
+            cached = redisCacheService.getAll(operation.getCacheName(), idKeys.values());
+        } catch (Exception e) {
+            log.error("getAllAndSaveInCache # Redis op Exception while trying to get from cache ## " + e.getMessage(), e);
+            return callActualMethod(proceedingJoinPoint);
+        }
 
+        // 元素ID -> 元素值
+        Map<Object, Object> values = new LinkedHashMap<>();
+        List<Object> missingIds = new ArrayList<>();
+        for (Map.Entry<Object, Object> idKey : idKeys.entrySet()) {
+            Object value = cached.get(idKey.getValue());
+            if (NullValue.isNull(value)) {
+                // 单ID查询缓存的空结果， 不再调用原有方法
+                cacheMetrics.recordNegative(operation.getCacheName(), true);
+            } else if (value != null) {
+                values.put(idKey.getKey(), value);
+            } else {
+                missingIds.add(idKey.getKey());
+            }
+        }
+
+        if (!missingIds.isEmpty()) {
+            // 只针对未命中的ID调用原有方法
+            Object[] missingArgs = args.clone();
+            // 参数类型已在解析元数据时检查， 可接收ArrayList或LinkedHashSet
+            missingArgs[keyParamIndex] = args[keyParamIndex] instanceof Set
+                    || !keyParamType.isAssignableFrom(ArrayList.class) ? new LinkedHashSet<>(missingIds) : missingIds;
+            long startTime = System.nanoTime();
+            Object loaded;
+            try {
+                loaded = proceedingJoinPoint.proceed(missingArgs);
+            } catch (Throwable e) {
+                recordLoadFailure(operation.getCacheName(), startTime);
+                throw e;
+            }
+            cacheMetrics.recordLoad(operation.getCacheName(), System.nanoTime() - startTime, true);
+            Map<Object, Object> loadedValues = toElementMap(operation, loaded);
+            values.putAll(loadedValues);
+            saveElements(operation, idKeys, loadedValues);
+        }
+
+        // 按入参顺序组装返回结果， 返回类型已在解析元数据时检查， 可接收LinkedHashMap或ArrayList
+        if (Map.class.isAssignableFrom(returnType)) {
+            Map<Object, Object> result = new LinkedHashMap<>();
+            for (Object id : idKeys.keySet()) {
+                Object value = values.get(id);
+                if (value != null) {
+                    result.put(id, value);
+                }
+            }
+            return result;
+        }
+        List<Object> result = new ArrayList<>(values.size());
+        for (Object id : idKeys.keySet()) {
+            Object value = values.get(id);
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result;
     }
 
-    private <T extends Annotation> T getAnnotation(JoinPoint proceedingJoinPoint,
-                                                   Class<T> annotationClass) throws NoSuchMethodException {
+    /**
+     * 将原有方法的返回结果转换为 元素ID -> 元素值
+     */
+    private Map<Object, Object> toElementMap(CacheOperation<CacheableBatch> operation, Object loaded) {
+        Map<Object, Object> elements = new LinkedHashMap<>();
+        if (loaded instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) loaded).entrySet()) {
+                if (entry.getValue() != null) {
+                    elements.put(entry.getKey(), entry.getValue());
+                }
+            }
+        } else if (loaded instanceof Collection) {
+            // 返回集合时resultKeyExpression已在解析元数据时检查
+            for (Object element : (Collection<?>) loaded) {
+                if (element != null) {
+                    elements.put(operation.getElementId(element), element);
+                }
+            }
+        }
+        return elements;
+    }
 
-        MethodSignature signature = (MethodSignature) proceedingJoinPoint.getSignature();
-        Method method = signature.getMethod();
-        String methodName = method.getName();
-        if (method.getDeclaringClass().isInterface()) {
-            method = proceedingJoinPoint.getTarget().getClass().getDeclaredMethod(methodName,
-                    method.getParameterTypes());
+    /**
+     * 保存批量缓存中加载的元素， 所有元素在同一批次写入
+     * @param operation
+     * @param idKeys 元素ID -> 缓存KEY
+     * @param loadedValues 元素ID -> 元素值
+     */
+    private void saveElements(CacheOperation<CacheableBatch> operation, Map<Object, Object> idKeys,
+                              Map<Object, Object> loadedValues) {
+        if (loadedValues.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Object, Object> elements = new LinkedHashMap<>(loadedValues.size() * 2);
+            for (Map.Entry<Object, Object> entry : loadedValues.entrySet()) {
+                Object cacheKey = idKeys.get(entry.getKey());
+                elements.put(cacheKey != null ? cacheKey : operation.buildElementKey(entry.getKey()), entry.getValue());
+            }
+            if (operation.isAsync()) {
+                redisCacheService.saveAllAsync(operation.getCacheNames(), elements, operation::ttlMillis)
+                        .whenComplete((result, e) -> {
+                            if (e != null) {
+                                log.error("getAllAndSaveInCache # Exception occurred while trying to save data in redis##"
+                                        + e.getMessage(), e);
+                            }
+                        });
+            } else {
+                redisCacheService.saveAll(operation.getCacheNames(), elements, operation::ttlMillis);
+            }
+        } catch (Exception e) {
+            log.error("getAllAndSaveInCache # Exception occurred while trying to save data in redis##" + e.getMessage(), e);
         }
-        return method.getAnnotation(annotationClass);
+    }
+
+    private Object callActualMethod(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+
+        return proceedingJoinPoint.proceed();
+
     }
 
 }
@@ -0,0 +1,38 @@
+package com.mirson.gemini.cache.service.bloom;
+
+import com.mirson.gemini.cache.config.CacheConfigProperties;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 布隆过滤器新增KEY的广播消息
+ */
+@Data
+public class BloomFilterMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 系统唯一标识
+     */
+    private String systemId = CacheConfigProperties.SYSTEM_ID;
+
+    /**
+     * 缓存名称
+     */
+    private String[] cacheNames;
+
+    /**
+     * 过滤器KEY
+     */
+    private String key;
+
+    public BloomFilterMessage() {
+    }
+
+    public BloomFilterMessage(String[] cacheNames, String key) {
+        this.cacheNames = cacheNames;
+        this.key = key;
+    }
+}
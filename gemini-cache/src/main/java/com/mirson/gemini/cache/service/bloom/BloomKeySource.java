@@ -0,0 +1,16 @@
+package com.mirson.gemini.cache.service.bloom;
+
+/**
+ * 布隆过滤器的KEY数据源（由业务实现并注册为Spring Bean）， 用于启动时与定期重建过滤器
+ * KEY取值与缓存注解keyExpression的取值一致， 如 keyExpression = "#param1" 时返回所有订单编号；
+ * keyExpression有多个组成部分时返回 Object[]。
+ */
+public interface BloomKeySource {
+
+    /**
+     * 加载缓存的所有有效KEY
+     * @param cacheName 缓存名称
+     * @return
+     */
+    Iterable<?> loadKeys(String cacheName);
+}
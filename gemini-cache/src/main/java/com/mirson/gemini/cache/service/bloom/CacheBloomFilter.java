@@ -0,0 +1,314 @@
+package com.mirson.gemini.cache.service.bloom;
+
+import com.mirson.gemini.cache.config.CacheConfigProperties;
+import com.mirson.gemini.cache.config.CacheRegionConfig;
+import com.mirson.gemini.cache.config.CacheRegionProperties;
+import com.mirson.gemini.cache.config.NamedThreadFactory;
+import com.mirson.gemini.cache.utils.CacheUtil;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存布隆过滤器（防止缓存穿透）
+ * 按缓存名称配置（app.cache.caches.缓存名称.bloomFilter）， 每个节点在本地维护位数组：
+ * 启动后与按重建间隔从 {@link BloomKeySource} 全量构建， @CachePut 新增的KEY实时加入并通过Redis广播给其他节点；
+ * 过滤器构建完成前所有查询放行， 判断一定不存在的KEY直接返回空， 不访问Redis与原有方法。
+ */
+public class CacheBloomFilter implements SmartInitializingSingleton, DisposableBean, MessageListener<BloomFilterMessage> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheBloomFilter.class);
+
+    /**
+     * 缓存名称 -> 过滤器
+     */
+    private final Map<String, Guard> guards;
+
+    private final BeanFactory beanFactory;
+
+    /**
+     * 新增KEY的广播通道
+     */
+    private RTopic<BloomFilterMessage> topic;
+
+    private int listenerId;
+
+    /**
+     * 重建线程
+     */
+    private ScheduledThreadPoolExecutor rebuilder;
+
+    /**
+     * 判断一定不存在而直接返回的查询次数
+     */
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * 判断可能存在而放行的查询次数
+     */
+    private final AtomicLong passed = new AtomicLong();
+
+    public CacheBloomFilter(CacheRegionProperties regionProperties, CacheConfigProperties cacheConfigProperties,
+                            RedissonClient redissonClient, BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+        Map<String, Guard> configured = new HashMap<>();
+        for (String cacheName : regionProperties.getCaches().keySet()) {
+            CacheRegionConfig config = regionProperties.resolve(cacheName, cacheConfigProperties);
+            if (!config.isBloomFilter()) {
+                continue;
+            }
+            if (StringUtils.isEmpty(config.getBloomKeySource())) {
+                logger.warn("CacheBloomFilter # bloomKeySource is required, bloom filter disabled for cache: " + cacheName);
+                continue;
+            }
+            configured.put(cacheName, new Guard(cacheName, config));
+        }
+        this.guards = Collections.unmodifiableMap(configured);
+        if (!guards.isEmpty()) {
+            this.topic = redissonClient.getTopic(cacheConfigProperties.getBloomTopic());
+            this.listenerId = topic.addListener(this);
+        }
+    }
+
+    /**
+     * 容器初始化完成后开始构建过滤器
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (guards.isEmpty()) {
+            return;
+        }
+        rebuilder = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("Cache-Bloom"));
+        for (Guard guard : guards.values()) {
+            long interval = guard.config.getBloomRebuildInterval();
+            if (interval > 0) {
+                rebuilder.scheduleWithFixedDelay(() -> rebuild(guard), 0, interval, TimeUnit.MILLISECONDS);
+            } else {
+                rebuilder.execute(() -> rebuild(guard));
+            }
+        }
+    }
+
+    /**
+     * 缓存是否开启了布隆过滤器
+     * @param cacheNames
+     * @return
+     */
+    public boolean isGuarded(String... cacheNames) {
+        if (guards.isEmpty()) {
+            return false;
+        }
+        for (String cacheName : cacheNames) {
+            if (guards.containsKey(cacheName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * KEY是否可能存在， 未开启过滤器或过滤器尚未构建完成时返回true
+     * @param cacheName 缓存名称
+     * @param keyValues 缓存KEY表达式的取值
+     * @return
+     */
+    public boolean mightContain(String cacheName, Object[] keyValues) {
+        Guard guard = guards.get(cacheName);
+        if (guard == null) {
+            return true;
+        }
+        LocalBloomFilter filter = guard.current;
+        if (filter == null) {
+            return true;
+        }
+        if (filter.mightContain(membershipKey(keyValues))) {
+            passed.incrementAndGet();
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * 新增KEY， 并广播给其他节点
+     * @param cacheNames 缓存名称
+     * @param keyValues 缓存KEY表达式的取值
+     */
+    public void put(String[] cacheNames, Object[] keyValues) {
+        String key = membershipKey(keyValues);
+        List<String> guarded = new ArrayList<>(cacheNames.length);
+        for (String cacheName : cacheNames) {
+            Guard guard = guards.get(cacheName);
+            if (guard != null) {
+                guard.put(key);
+                guarded.add(cacheName);
+            }
+        }
+        if (!guarded.isEmpty()) {
+            try {
+                topic.publish(new BloomFilterMessage(guarded.toArray(new String[0]), key));
+            } catch (Exception e) {
+                logger.error("put # publish bloom filter key failed ## " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 接收其他节点新增的KEY
+     * @param channel
+     * @param message
+     */
+    @Override
+    public void onMessage(String channel, BloomFilterMessage message) {
+        if (CacheConfigProperties.SYSTEM_ID.equals(message.getSystemId()) || message.getCacheNames() == null) {
+            return;
+        }
+        for (String cacheName : message.getCacheNames()) {
+            Guard guard = guards.get(cacheName);
+            if (guard != null) {
+                guard.put(message.getKey());
+            }
+        }
+    }
+
+    /**
+     * 从KEY数据源全量重建过滤器， 重建期间新增的KEY同时写入新旧过滤器， 失败时保留原有过滤器
+     * @param cacheName
+     */
+    public void rebuild(String cacheName) {
+        Guard guard = guards.get(cacheName);
+        if (guard != null) {
+            rebuild(guard);
+        }
+    }
+
+    private void rebuild(Guard guard) {
+        long start = System.currentTimeMillis();
+        LocalBloomFilter next = new LocalBloomFilter(guard.config.getBloomExpectedInsertions(),
+                guard.config.getBloomFalsePositiveRate());
+        synchronized (guard) {
+            guard.building = next;
+        }
+        try {
+            BloomKeySource keySource = beanFactory.getBean(guard.config.getBloomKeySource(), BloomKeySource.class);
+            Iterable<?> keys = keySource.loadKeys(guard.cacheName);
+            long loaded = 0;
+            if (keys != null) {
+                for (Object key : keys) {
+                    next.put(membershipKey(key));
+                    loaded++;
+                }
+            }
+            synchronized (guard) {
+                guard.current = next;
+                guard.building = null;
+            }
+            if (loaded > next.getExpectedInsertions()) {
+                logger.warn("rebuild # keys exceed bloomExpectedInsertions, false positive rate increased, cache: "
+                        + guard.cacheName + ", keys: " + loaded + ", expected fpp: " + next.expectedFalsePositiveRate());
+            }
+            logger.info("rebuild # bloom filter rebuilt, cache: " + guard.cacheName + ", keys: " + loaded
+                    + ", bits: " + next.getBitSize() + ", hashes: " + next.getHashCount()
+                    + ", cost: " + (System.currentTimeMillis() - start) + "ms");
+        } catch (Exception e) {
+            synchronized (guard) {
+                guard.building = null;
+            }
+            logger.error("rebuild # bloom filter rebuild failed, cache: " + guard.cacheName + " ## " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 过滤器KEY： 单个取值为其字符串， 多个取值按CONCAT方式拼接
+     */
+    private static String membershipKey(Object key) {
+        if (key instanceof Object[]) {
+            return membershipKey((Object[]) key);
+        }
+        return String.valueOf(key);
+    }
+
+    private static String membershipKey(Object[] keyValues) {
+        if (keyValues.length == 1) {
+            return String.valueOf(keyValues[0]);
+        }
+        return CacheUtil.buildStringCacheKey(keyValues);
+    }
+
+    @Override
+    public void destroy() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+        if (topic != null) {
+            topic.removeListener(listenerId);
+        }
+    }
+
+    /**
+     * 缓存的当前过滤器， 未开启或尚未构建完成时为空
+     * @param cacheName
+     * @return
+     */
+    public LocalBloomFilter getFilter(String cacheName) {
+        Guard guard = guards.get(cacheName);
+        return guard != null ? guard.current : null;
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getPassed() {
+        return passed.get();
+    }
+
+    /**
+     * 单个缓存的过滤器
+     */
+    private static final class Guard {
+
+        private final String cacheName;
+
+        private final CacheRegionConfig config;
+
+        /**
+         * 当前生效的过滤器
+         */
+        private volatile LocalBloomFilter current;
+
+        /**
+         * 正在重建的过滤器
+         */
+        private volatile LocalBloomFilter building;
+
+        private Guard(String cacheName, CacheRegionConfig config) {
+            this.cacheName = cacheName;
+            this.config = config;
+        }
+
+        private synchronized void put(String key) {
+            if (current != null) {
+                current.put(key);
+            }
+            if (building != null) {
+                building.put(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.mirson.gemini.cache.service.bloom;
+
+import net.openhft.hashing.LongHashFunction;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 本地布隆过滤器（线程安全）， 按预计元素数量与误判率计算位数组大小与哈希次数，
+ * 两个64位xxHash组合生成k个位置（Kirsch-Mitzenmacher）。
+ */
+public class LocalBloomFilter {
+
+    private static final LongHashFunction HASH_FUNCTION = LongHashFunction.xx();
+
+    private static final LongHashFunction SECOND_HASH_FUNCTION = LongHashFunction.xx(0x9E3779B97F4A7C15L);
+
+    /**
+     * 位数组
+     */
+    private final AtomicLongArray bits;
+
+    /**
+     * 位数量
+     */
+    private final long bitSize;
+
+    /**
+     * 哈希次数
+     */
+    private final int hashCount;
+
+    /**
+     * 预计元素数量
+     */
+    private final long expectedInsertions;
+
+    /**
+     * 已添加的元素数量（新置位的添加才计数）
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * @param expectedInsertions 预计元素数量
+     * @param falsePositiveRate 误判率（0 ~ 1）
+     */
+    public LocalBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Bloom filter false positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        this.expectedInsertions = Math.max(1L, expectedInsertions);
+        long optimalBits = (long) Math.ceil(-this.expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE, Math.max(1L, (optimalBits + 63) >>> 6));
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / this.expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * 添加元素
+     * @param key
+     * @return 是否有新的置位（false代表元素可能已存在）
+     */
+    public boolean put(String key) {
+        long hash1 = HASH_FUNCTION.hashChars(key);
+        long hash2 = SECOND_HASH_FUNCTION.hashChars(key);
+        boolean changed = false;
+        long combined = hash1;
+        for (int i = 0; i < hashCount; i++) {
+            changed |= setBit((combined & Long.MAX_VALUE) % bitSize);
+            combined += hash2;
+        }
+        if (changed) {
+            count.incrementAndGet();
+        }
+        return changed;
+    }
+
+    /**
+     * 元素是否可能存在， 返回false时一定不存在
+     * @param key
+     * @return
+     */
+    public boolean mightContain(String key) {
+        long hash1 = HASH_FUNCTION.hashChars(key);
+        long hash2 = SECOND_HASH_FUNCTION.hashChars(key);
+        long combined = hash1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitSize;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += hash2;
+        }
+        return true;
+    }
+
+    private boolean setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        for (;;) {
+            long current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (bits.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 按当前元素数量估算的误判率
+     * @return
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashCount * (double) count.get() / bitSize), hashCount);
+    }
+
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+}
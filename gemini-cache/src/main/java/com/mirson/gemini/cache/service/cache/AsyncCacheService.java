@@ -0,0 +1,78 @@
+package com.mirson.gemini.cache.service.cache;
+
+import com.mirson.gemini.cache.service.version.VersionedValue;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 非阻塞缓存服务接口， 基于Redisson异步接口实现， 等待Redis响应期间不占用线程；
+ * 结果在Redis响应线程上完成， 后续耗时处理需切换到业务线程池（如thenApplyAsync）。
+ */
+public interface AsyncCacheService {
+
+    /**
+     * 获取缓存对象
+     * @param cacheName
+     * @param cacheKey
+     * @return 未命中时结果为空
+     */
+    CompletionStage<Object> getFromCacheAsync(String cacheName, Object cacheKey);
+
+    /**
+     * 获取带版本号的缓存对象
+     * @param cacheName
+     * @param cacheKey
+     * @return 未命中时结果为空
+     */
+    CompletionStage<VersionedValue> getVersionedFromCacheAsync(String cacheName, Object cacheKey);
+
+    /**
+     * 保存缓存对象
+     * @param cacheNames
+     * @param cacheKey
+     * @param cacheValue
+     * @param ttl 单位：秒
+     * @return
+     */
+    default CompletionStage<Boolean> saveAsync(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl) {
+        return saveAsync(cacheNames, cacheKey, cacheValue, ttl, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 保存缓存对象
+     * @param cacheNames
+     * @param cacheKey
+     * @param cacheValue
+     * @param ttl 0代表无限周期
+     * @param unit ttl的时间单位
+     * @return
+     */
+    CompletionStage<Boolean> saveAsync(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl, TimeUnit unit);
+
+    /**
+     * 批量保存缓存对象， 所有KEY在同一批次写入， 一次网络往返
+     * @param cacheNames
+     * @param values 缓存KEY -> 缓存对象， 为 VersionedValue 时采用其版本号， 否则生成新的版本号
+     * @param ttlMillis 按缓存对象的版本号计算生命周期（单位：毫秒）， 0代表无限周期
+     * @return
+     */
+    CompletionStage<Boolean> saveAllAsync(String[] cacheNames, Map<Object, ?> values, LongUnaryOperator ttlMillis);
+
+    /**
+     * 清理指定KEY的缓存
+     * @param cacheNames
+     * @param cacheKey
+     * @return
+     */
+    CompletionStage<Boolean> invalidateAsync(String[] cacheNames, Object cacheKey);
+
+    /**
+     * 清理缓存下的所有条目
+     * @param cacheNames
+     * @return
+     */
+    CompletionStage<Boolean> invalidateAllAsync(String[] cacheNames);
+}
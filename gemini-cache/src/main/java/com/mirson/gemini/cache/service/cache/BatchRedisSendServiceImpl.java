@@ -0,0 +1,386 @@
+package com.mirson.gemini.cache.service.cache;
+
+import com.mirson.gemini.cache.config.CacheConfigProperties;
+import com.mirson.gemini.cache.config.NamedThreadFactory;
+import com.mirson.gemini.cache.service.listener.CacheBatchMessage;
+import com.mirson.gemini.cache.service.version.VersionedValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis批量发送服务实现接口
+ * 缓存变更消息先进入待发送队列， 达到时间窗口（publishWindow）或最大批次（publishMaxBatch）后，
+ * 由后台线程按KEY合并去重（保留最大版本号）为一条 {@link CacheBatchMessage} 发送， 调用线程不再等待RTopic.publish的网络往返。
+ */
+public class BatchRedisSendServiceImpl implements RedisSendService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchRedisSendServiceImpl.class);
+
+    /**
+     * 实际发送消息的服务
+     */
+    private final RedisSendServiceImpl redisSendService;
+
+    /**
+     * 合并时间窗口（单位：毫秒）
+     */
+    private final long window;
+
+    /**
+     * 单个批次最大条目数
+     */
+    private final int maxBatch;
+
+    /**
+     * 批量发送线程
+     */
+    private final ScheduledExecutorService publisher;
+
+    private final Object lock = new Object();
+
+    /**
+     * 待发送的KEY变更（缓存名称 -> （KEY -> 版本号））
+     */
+    private LinkedHashMap<String, Map<Object, Long>> pendingKeys = new LinkedHashMap<>();
+
+    /**
+     * 待发送的整体清理（缓存名称 -> 版本号）
+     */
+    private LinkedHashMap<String, Long> pendingClears = new LinkedHashMap<>();
+
+    /**
+     * 待推送的缓存值（缓存名称 -> （KEY -> 序列化后的缓存值））
+     */
+    private LinkedHashMap<String, Map<Object, byte[]>> pendingValues = new LinkedHashMap<>();
+
+    /**
+     * 待发送条目数量
+     */
+    private int pendingSize;
+
+    /**
+     * 当前批次第一条消息的入队时间
+     */
+    private long firstEnqueueNanos;
+
+    /**
+     * 是否已安排窗口到期发送
+     */
+    private boolean flushScheduled;
+
+    /**
+     * 是否已提交立即发送
+     */
+    private boolean flushSubmitted;
+
+    /**
+     * 入队的消息条目数量
+     */
+    private final AtomicLong enqueuedMessages = new AtomicLong();
+
+    /**
+     * 合并去重的消息条目数量
+     */
+    private final AtomicLong coalescedMessages = new AtomicLong();
+
+    /**
+     * 已发送批次数量
+     */
+    private final AtomicLong publishedBatches = new AtomicLong();
+
+    /**
+     * 已发送的消息条目数量
+     */
+    private final AtomicLong publishedMessages = new AtomicLong();
+
+    /**
+     * 发送失败的批次数量
+     */
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    /**
+     * 最大批次条目数量
+     */
+    private final AtomicLong maxBatchSize = new AtomicLong();
+
+    /**
+     * 发送延迟累计（入队至发送完成， 单位：纳秒）
+     */
+    private final AtomicLong totalPublishLagNanos = new AtomicLong();
+
+    /**
+     * 最大发送延迟（单位：纳秒）
+     */
+    private final AtomicLong maxPublishLagNanos = new AtomicLong();
+
+    public BatchRedisSendServiceImpl(RedisSendServiceImpl redisSendService,
+                                     CacheConfigProperties cacheConfigProperties) {
+        this.redisSendService = redisSendService;
+        this.window = Math.max(1L, cacheConfigProperties.getPublishWindow());
+        this.maxBatch = Math.max(1, cacheConfigProperties.getPublishMaxBatch());
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("Cache-Publisher"));
+        executor.setRemoveOnCancelPolicy(true);
+        this.publisher = executor;
+    }
+
+    @Override
+    public void sendMessage(String[] cacheNames) {
+        sendMessage(cacheNames, null);
+    }
+
+    @Override
+    public void sendMessage(String cacheName) {
+        sendMessage(new String[]{cacheName}, null);
+    }
+
+    @Override
+    public void sendMessage(String cacheName, Object key) {
+        sendMessage(new String[]{cacheName}, key);
+    }
+
+    @Override
+    public void sendMessage(String[] cacheNames, Object key) {
+        sendMessage(cacheNames, key, VersionedValue.NO_VERSION);
+    }
+
+    /**
+     * 带版本号的缓存变更消息进入待发送队列
+     * @param cacheNames
+     * @param key
+     * @param version
+     */
+    @Override
+    public void sendMessage(String[] cacheNames, Object key, long version) {
+        enqueue(cacheNames, key, version, null);
+    }
+
+    /**
+     * 缓存值进入待推送队列， 序列化后超过大小阈值时只发送变更版本
+     * @param cacheNames
+     * @param key
+     * @param value
+     * @param version
+     */
+    @Override
+    public void sendValue(String[] cacheNames, Object key, Object value, long version) {
+        enqueue(cacheNames, key, version, redisSendService.encodeValue(cacheNames[0], value));
+    }
+
+    private void enqueue(String[] cacheNames, Object key, long version, byte[] value) {
+        boolean flushNow = false;
+        boolean scheduleFlush = false;
+        synchronized (lock) {
+            if (pendingSize == 0) {
+                firstEnqueueNanos = System.nanoTime();
+            }
+            for (String cacheName : cacheNames) {
+                enqueuedMessages.incrementAndGet();
+                if (!addPending(cacheName, key, version, value)) {
+                    coalescedMessages.incrementAndGet();
+                }
+            }
+            if (pendingSize >= maxBatch) {
+                if (!flushSubmitted) {
+                    flushSubmitted = true;
+                    flushNow = true;
+                }
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduleFlush = true;
+            }
+        }
+        try {
+            if (flushNow) {
+                publisher.execute(this::flush);
+            } else if (scheduleFlush) {
+                publisher.schedule(this::flush, window, TimeUnit.MILLISECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            // 发送线程已关闭， 直接在调用线程发送
+            flush();
+        }
+    }
+
+    /**
+     * 合并缓存变更条目， 同一KEY保留最大的版本号（及该版本推送的缓存值）， 整体清理覆盖之前的KEY变更
+     * @return 是否新增了条目
+     */
+    private boolean addPending(String cacheName, Object key, long version, byte[] value) {
+        Long clearVersion = pendingClears.get(cacheName);
+        if (key == null) {
+            Map<Object, Long> keys = pendingKeys.remove(cacheName);
+            pendingValues.remove(cacheName);
+            if (keys != null) {
+                pendingSize -= keys.size();
+                coalescedMessages.addAndGet(keys.size());
+            }
+            if (clearVersion == null) {
+                pendingClears.put(cacheName, version);
+                pendingSize++;
+                return true;
+            }
+            pendingClears.put(cacheName, Math.max(clearVersion, version));
+            return false;
+        }
+        if (clearVersion != null && clearVersion >= version) {
+            // 已有更新版本的整体清理， 包含了该KEY
+            return false;
+        }
+        Map<Object, Long> keys = pendingKeys.get(cacheName);
+        if (keys == null) {
+            keys = new HashMap<>();
+            pendingKeys.put(cacheName, keys);
+        }
+        Long previous = keys.get(key);
+        if (previous != null && previous >= version) {
+            // 已有更新版本的变更
+            return false;
+        }
+        keys.put(key, version);
+        Map<Object, byte[]> values = pendingValues.get(cacheName);
+        if (value != null) {
+            if (values == null) {
+                values = new HashMap<>();
+                pendingValues.put(cacheName, values);
+            }
+            values.put(key, value);
+        } else if (values != null) {
+            values.remove(key);
+        }
+        if (previous == null) {
+            pendingSize++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 发送当前批次
+     */
+    private void flush() {
+        LinkedHashMap<String, Map<Object, Long>> batchKeys;
+        LinkedHashMap<String, Long> batchClears;
+        LinkedHashMap<String, Map<Object, byte[]>> batchValues;
+        int batchSize;
+        long startNanos;
+        synchronized (lock) {
+            flushScheduled = false;
+            flushSubmitted = false;
+            if (pendingSize == 0) {
+                return;
+            }
+            batchKeys = pendingKeys;
+            batchClears = pendingClears;
+            batchValues = pendingValues;
+            batchSize = pendingSize;
+            startNanos = firstEnqueueNanos;
+            pendingKeys = new LinkedHashMap<>();
+            pendingClears = new LinkedHashMap<>();
+            pendingValues = new LinkedHashMap<>();
+            pendingSize = 0;
+        }
+        try {
+            long receive = redisSendService.publish(new CacheBatchMessage(batchKeys, batchClears, batchValues));
+            long lag = System.nanoTime() - startNanos;
+            publishedBatches.incrementAndGet();
+            publishedMessages.addAndGet(batchSize);
+            totalPublishLagNanos.addAndGet(lag);
+            updateMax(maxBatchSize, batchSize);
+            updateMax(maxPublishLagNanos, lag);
+            if (logger.isDebugEnabled()) {
+                logger.debug("flush # publish batch message, size: " + batchSize + ", receive clients: " + receive);
+            }
+        } catch (Exception e) {
+            failedBatches.incrementAndGet();
+            logger.error("flush # publish batch message failed, size: " + batchSize + " ## " + e.getMessage(), e);
+        }
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 关闭时发送剩余消息
+     */
+    @Override
+    public void destroy() {
+        publisher.shutdown();
+        flush();
+    }
+
+    public long getEnqueuedMessages() {
+        return enqueuedMessages.get();
+    }
+
+    public long getCoalescedMessages() {
+        return coalescedMessages.get();
+    }
+
+    public long getPublishedBatches() {
+        return publishedBatches.get();
+    }
+
+    public long getPublishedMessages() {
+        return publishedMessages.get();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    /**
+     * 平均批次条目数量
+     * @return
+     */
+    public double getAverageBatchSize() {
+        long batches = publishedBatches.get();
+        return batches == 0 ? 0 : (double) publishedMessages.get() / batches;
+    }
+
+    /**
+     * 平均发送延迟（单位：毫秒）
+     * @return
+     */
+    public double getAveragePublishLagMillis() {
+        long batches = publishedBatches.get();
+        return batches == 0 ? 0 : totalPublishLagNanos.get() / 1e6 / batches;
+    }
+
+    /**
+     * 最大发送延迟（单位：毫秒）
+     * @return
+     */
+    public double getMaxPublishLagMillis() {
+        return maxPublishLagNanos.get() / 1e6;
+    }
+
+    /**
+     * 待发送条目数量
+     * @return
+     */
+    public int getPendingSize() {
+        synchronized (lock) {
+            return pendingSize;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.mirson.gemini.cache.service.cache;
+
+import com.mirson.gemini.cache.config.CacheRegionConfig;
+import com.mirson.gemini.cache.config.CacheTier;
+import com.mirson.gemini.cache.config.ReplicationMode;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓存区域， 对应一个缓存名称的本地缓存与配置
+ */
+public final class CacheRegion {
+
+    /**
+     * 缓存名称
+     */
+    private final String name;
+
+    /**
+     * 缓存配置（已合并全局配置）
+     */
+    private final CacheRegionConfig config;
+
+    /**
+     * 本地缓存存储， REDIS层级时为空
+     */
+    private final LocalCacheStore store;
+
+    /**
+     * 写入本地缓存的次数
+     */
+    private final LongAdder puts = new LongAdder();
+
+    /**
+     * 按KEY或整体清除本地缓存的次数
+     */
+    private final LongAdder invalidations = new LongAdder();
+
+    CacheRegion(String name, CacheRegionConfig config, LocalCacheStore store) {
+        this.name = name;
+        this.config = config;
+        this.store = store;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CacheRegionConfig getConfig() {
+        return config;
+    }
+
+    public LocalCacheStore getStore() {
+        return store;
+    }
+
+    public CacheTier getTier() {
+        return config.getTier();
+    }
+
+    public ReplicationMode getReplicationMode() {
+        return config.getReplicationMode();
+    }
+
+    /**
+     * 本地缓存条目数量（估算值）
+     * @return
+     */
+    public long getEstimatedSize() {
+        return store != null ? store.estimatedSize() : 0;
+    }
+
+    /**
+     * 本地缓存当前总权重（按大小估算时为字节数， 堆外缓存为已使用字节数）， 未按权重限制时返回-1
+     * @return
+     */
+    public long getWeightedSize() {
+        return store != null ? store.weightedSize() : -1;
+    }
+
+    /**
+     * 本地缓存当前上限（条目数、权重或字节数）， 不限制时返回-1
+     * @return
+     */
+    public long getMaximum() {
+        return store != null ? store.getMaximum() : -1;
+    }
+
+    /**
+     * 调整本地缓存上限
+     * @param maximum
+     */
+    void setMaximum(long maximum) {
+        if (store != null) {
+            store.setMaximum(maximum);
+        }
+    }
+
+    /**
+     * 写入本地缓存的次数
+     * @return
+     */
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    /**
+     * 按KEY或整体清除本地缓存的次数
+     * @return
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    void recordPut() {
+        puts.increment();
+    }
+
+    void recordInvalidation() {
+        invalidations.increment();
+    }
+
+    /**
+     * 是否使用本地缓存
+     * @return
+     */
+    public boolean isLocal() {
+        return config.getTier() != CacheTier.REDIS;
+    }
+
+    /**
+     * 是否使用Redis缓存
+     * @return
+     */
+    public boolean isRemote() {
+        return config.getTier() != CacheTier.LOCAL;
+    }
+}
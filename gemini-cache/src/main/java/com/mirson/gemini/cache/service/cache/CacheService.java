@@ -1,19 +1,84 @@
 package com.mirson.gemini.cache.service.cache;
 
+import com.mirson.gemini.cache.service.version.VersionedValue;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+
 /**
  * 缓存服务接口
  */
-public interface CacheService {
+public interface CacheService extends AsyncCacheService {
 
     Object getFromCache(String cacheName, Object cacheKey);
 
-    boolean save(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl);
+    /**
+     * 批量获取缓存对象， 只返回命中的KEY
+     * @param cacheName
+     * @param cacheKeys
+     * @return
+     */
+    Map<Object, Object> getAll(String cacheName, Collection<?> cacheKeys);
+
+    /**
+     * 获取带版本号的缓存对象
+     * @param cacheName
+     * @param cacheKey
+     * @return
+     */
+    VersionedValue getVersionedFromCache(String cacheName, Object cacheKey);
+
+    /**
+     * 批量获取带版本号的缓存对象， 只返回命中的KEY
+     * @param cacheName
+     * @param cacheKeys
+     * @return
+     */
+    Map<Object, VersionedValue> getAllVersioned(String cacheName, Collection<?> cacheKeys);
+
+    /**
+     * 保存缓存对象
+     * @param cacheNames
+     * @param cacheKey
+     * @param cacheValue
+     * @param ttl 单位：秒， 0代表无限周期
+     * @return
+     */
+    default boolean save(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl) {
+        return save(cacheNames, cacheKey, cacheValue, ttl, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 保存缓存对象
+     * @param cacheNames
+     * @param cacheKey
+     * @param cacheValue 为 VersionedValue 时采用其版本号， 否则生成新的版本号
+     * @param ttl 0代表无限周期
+     * @param unit ttl的时间单位
+     * @return
+     */
+    boolean save(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl, TimeUnit unit);
+
+    /**
+     * 批量保存缓存对象， 所有KEY在同一批次写入， 一次网络往返
+     * @param cacheNames
+     * @param values 缓存KEY -> 缓存对象， 为 VersionedValue 时采用其版本号， 否则生成新的版本号
+     * @param ttlMillis 按缓存对象的版本号计算生命周期（单位：毫秒）， 0代表无限周期
+     * @return
+     */
+    boolean saveAll(String[] cacheNames, Map<Object, ?> values, LongUnaryOperator ttlMillis);
 
     boolean invalidateCache(String[] cacheNames, Object cacheKey);
 
     boolean invalidateCache(String[] cacheNames);
 
-    boolean saveInRedisAsync(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl);
+    default boolean saveInRedisAsync(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl) {
+        return saveInRedisAsync(cacheNames, cacheKey, cacheValue, ttl, TimeUnit.SECONDS);
+    }
+
+    boolean saveInRedisAsync(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl, TimeUnit unit);
 
     boolean invalidateCacheAsync(String[] cacheNames, Object cacheKey);
 
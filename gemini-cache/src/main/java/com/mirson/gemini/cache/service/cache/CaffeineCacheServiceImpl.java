@@ -1,17 +1,52 @@
 package com.mirson.gemini.cache.service.cache;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
 import com.mirson.gemini.cache.config.CacheConfigProperties;
+import com.mirson.gemini.cache.config.CacheRegionConfig;
+import com.mirson.gemini.cache.config.CacheRegionProperties;
+import com.mirson.gemini.cache.config.CacheTier;
+import com.mirson.gemini.cache.config.LocalStoreType;
+import com.mirson.gemini.cache.config.ReplicationMode;
+import com.mirson.gemini.cache.service.codec.CacheCodecRegistry;
+import com.mirson.gemini.cache.service.expiry.ExpiryHistogram;
+import com.mirson.gemini.cache.service.expiry.JitteredExpiry;
+import com.mirson.gemini.cache.service.expiry.TtlJitter;
+import com.mirson.gemini.cache.service.metrics.CacheMetrics;
+import com.mirson.gemini.cache.service.version.HybridLogicalClock;
+import com.mirson.gemini.cache.service.version.VersionedValue;
+import org.redisson.client.codec.Codec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
 
 /**
- * 
+ * Caffeine二级缓存实现
+ * 本地缓存以 {@link VersionedValue} 存储， 变更消息携带版本号： 收到的消息版本不高于本地条目时直接丢弃，
+ * 从Redis读取的值低于最近收到的变更版本时不写入本地缓存， 避免消息乱序导致旧值覆盖新值。
+ * 每个缓存名称对应一个 {@link CacheRegion}， 按 app.cache.caches.缓存名称.* 配置大小、过期、刷新与存储层级，
+ * 已配置的缓存在启动时创建， 其余缓存在首次使用时按全局配置创建；
+ * 本地缓存默认为Caffeine堆内缓存， 可按缓存配置为堆外存储（localStore: OFF_HEAP）。
  *
  * @author mirson
  * @date 2021/9/26
@@ -21,9 +56,24 @@ public class CaffeineCacheServiceImpl extends SecondCacheService {
     private static final Logger logger = LoggerFactory.getLogger(CaffeineCacheServiceImpl.class);
 
     /**
-     *  Caffeine内部缓存
+     * 每个缓存保留的最近变更版本最大数量
      */
-    private ConcurrentMap<String, Cache> cacheMap = new ConcurrentHashMap<String, Cache>();
+    private static final long MAX_RETAINED_VERSIONS = 100000L;
+
+    /**
+     *  缓存区域（缓存名称 -> 本地缓存与配置）
+     */
+    private ConcurrentMap<String, CacheRegion> regions = new ConcurrentHashMap<>();
+
+    /**
+     * 最近收到的KEY变更版本（缓存名称 -> （KEY -> 版本号））
+     */
+    private ConcurrentMap<String, Cache<Object, Long>> invalidationVersions = new ConcurrentHashMap<>();
+
+    /**
+     * 最近收到的整体清理版本（缓存名称 -> 版本号）
+     */
+    private Cache<String, Long> clearVersions;
 
     /**
      * Redis 发送服务接口
@@ -35,12 +85,67 @@ public class CaffeineCacheServiceImpl extends SecondCacheService {
      */
     private CacheConfigProperties cacheConfigProperties;
 
+    /**
+     * 缓存版本时钟
+     */
+    private HybridLogicalClock clock;
+
+    /**
+     * 按缓存名称的配置
+     */
+    private CacheRegionProperties regionProperties;
+
+    /**
+     * 用于获取权重计算器与缓存编码注册表
+     */
+    private BeanFactory beanFactory;
+
+    /**
+     * 缓存监控指标， 开启时本地缓存记录命中统计
+     */
+    private CacheMetrics cacheMetrics;
+
+    /**
+     * 因本地版本更新而丢弃的变更消息数量
+     */
+    private final AtomicLong staleMessages = new AtomicLong();
+
+    /**
+     * 因版本过旧未写入本地缓存的Redis读取数量
+     */
+    private final AtomicLong staleLoads = new AtomicLong();
+
+    /**
+     * 写入本地缓存的推送值数量
+     */
+    private final AtomicLong pushedValues = new AtomicLong();
+
+    /**
+     * 本地缓存条目的过期时间分布（只统计按条目抖动过期时间的缓存）
+     */
+    private final ExpiryHistogram localExpiryHistogram = new ExpiryHistogram();
+
     public CaffeineCacheServiceImpl(CacheService cacheService,
                                     RedisSendService redisSendService,
-                                    CacheConfigProperties cacheConfigProperties) {
+                                    CacheConfigProperties cacheConfigProperties,
+                                    HybridLogicalClock clock,
+                                    CacheRegionProperties regionProperties,
+                                    BeanFactory beanFactory,
+                                    CacheMetrics cacheMetrics) {
         super(cacheService);
         this.redisSendService = redisSendService;
         this.cacheConfigProperties = cacheConfigProperties;
+        this.clock = clock;
+        this.regionProperties = regionProperties;
+        this.beanFactory = beanFactory;
+        this.cacheMetrics = cacheMetrics;
+        this.clearVersions = versionCache();
+        // 启动时创建已配置的缓存
+        for (String cacheName : regionProperties.getCaches().keySet()) {
+            regions.put(cacheName, buildRegion(cacheName));
+            logger.info("CaffeineCacheServiceImpl # cache region created: " + cacheName);
+        }
+        rebalanceHeapBudget();
     }
 
     /**
@@ -48,11 +153,12 @@ public class CaffeineCacheServiceImpl extends SecondCacheService {
      * @param cacheNames
      */
     private void clearAndSend(String[] cacheNames) {
+        long version = clock.next();
         for(String cacheName : cacheNames) {
-            clearAndSend(cacheName, null, false);
+            clearLocal(cacheName, version);
         }
         // 发送Redis缓存更新消息
-        redisSendService.sendMessage(cacheNames, null);
+        redisSendService.sendMessage(cacheNames, null, version);
     }
 
     /**
@@ -61,11 +167,12 @@ public class CaffeineCacheServiceImpl extends SecondCacheService {
      * @param key
      */
     private void clearAndSend(String[] cacheNames, Object key) {
+        long version = clock.next();
         for(String cacheName : cacheNames) {
-            clearAndSend(cacheName, key, false);
+            invalidateLocal(cacheName, key, version);
         }
         // 发送Redis缓存更新消息
-        redisSendService.sendMessage(cacheNames, key);
+        redisSendService.sendMessage(cacheNames, key, version);
     }
 
 
@@ -74,12 +181,37 @@ public class CaffeineCacheServiceImpl extends SecondCacheService {
      * @param cacheNames
      * @param key
      */
-    private void saveAndSend(String[] cacheNames, Object key, Object cacheValue) {
+    private void saveAndSend(String[] cacheNames, Object key, VersionedValue cacheValue) {
+        List<String> pushCacheNames = null;
+        List<String> invalidateCacheNames = null;
         for(String cacheName : cacheNames) {
-            saveAndSend(cacheName, key, cacheValue,false);
+            CacheRegion region = getRegion(cacheName);
+            saveLocal(region, key, cacheValue);
+            if (region.getReplicationMode() == ReplicationMode.PUSH) {
+                pushCacheNames = add(pushCacheNames, cacheName);
+            } else {
+                invalidateCacheNames = add(invalidateCacheNames, cacheName);
+            }
+        }
+        // 发送Redis缓存更新消息, 同一同步方式的cacheNames统一发送
+        if (pushCacheNames != null) {
+            redisSendService.sendValue(toArray(pushCacheNames), key, cacheValue.getValue(), cacheValue.getVersion());
+        }
+        if (invalidateCacheNames != null) {
+            redisSendService.sendMessage(toArray(invalidateCacheNames), key, cacheValue.getVersion());
         }
-        // 发送Redis缓存更新消息, 所有cacheNames统一发送
-        redisSendService.sendMessage(cacheNames, key);
+    }
+
+    private static List<String> add(List<String> cacheNames, String cacheName) {
+        if (cacheNames == null) {
+            cacheNames = new ArrayList<>(2);
+        }
+        cacheNames.add(cacheName);
+        return cacheNames;
+    }
+
+    private static String[] toArray(List<String> cacheNames) {
+        return cacheNames.toArray(new String[cacheNames.size()]);
     }
 
 
@@ -89,82 +221,400 @@ public class CaffeineCacheServiceImpl extends SecondCacheService {
      * @param key
      */
     public void clearNotSend(String[] cacheNames, Object key) {
+        clearNotSend(cacheNames, key, VersionedValue.NO_VERSION);
+    }
+
+    /**
+     * 按版本清理缓存， 本地条目版本不低于消息版本时保留
+     * @param cacheNames
+     * @param key 为空代表清理该缓存下的所有条目
+     * @param version
+     */
+    public void clearNotSend(String[] cacheNames, Object key, long version) {
         for(String cacheName : cacheNames) {
-            clearAndSend(cacheName, key, false);
+            clearNotSend(cacheName, key, version);
         }
     }
 
+    /**
+     * 按版本清理缓存， 本地条目版本不低于消息版本时保留
+     * @param cacheName
+     * @param key 为空代表清理该缓存下的所有条目
+     * @param version
+     */
+    public void clearNotSend(String cacheName, Object key, long version) {
+        clock.update(version);
+        if (key == null) {
+            clearLocal(cacheName, version);
+        } else {
+            invalidateLocal(cacheName, key, version);
+        }
+    }
 
     /**
-     * 保存本地缓存
+     * 写入其他节点推送的缓存值（不发送消息）， 本地未使用该缓存时只记录变更版本
      * @param cacheName
      * @param key
+     * @param value
      */
-    private void saveAndSend(String cacheName, Object key, Object value, boolean isNeedSend) {
-        // 获取缓存对象
-        Cache caffeineCache = cacheMap.get(cacheName);
-        if (caffeineCache == null) {
-            caffeineCache = caffeineCache();
-            cacheMap.putIfAbsent(cacheName, caffeineCache);
+    public void putNotSend(String cacheName, Object key, VersionedValue value) {
+        clock.update(value.getVersion());
+        recordVersion(cacheName, key, value.getVersion());
+        CacheRegion region = regions.get(cacheName);
+        if (region == null || !region.isLocal()) {
+            return;
         }
-        caffeineCache.put(key, value);
+        saveLocal(region, key, value);
+        pushedValues.incrementAndGet();
+    }
+
 
-        if(isNeedSend) {
-            // 发送Redis缓存更新消息
-            redisSendService.sendMessage(cacheName, key);
+    /**
+     * 保存本地缓存， 已有更新版本的条目时保留原条目
+     * @param region
+     * @param key
+     */
+    private void saveLocal(CacheRegion region, Object key, VersionedValue value) {
+        String cacheName = region.getName();
+        if (isStale(cacheName, key, value.getVersion())) {
+            staleLoads.incrementAndGet();
+            return;
+        }
+        LocalCacheStore store = region.getStore();
+        store.putIfNewer(key, value);
+        region.recordPut();
+        if (isStale(cacheName, key, value.getVersion())) {
+            // 写入期间收到了更新版本的变更消息
+            store.remove(key, value);
+            staleLoads.incrementAndGet();
         }
     }
 
+    /**
+     * 值的版本是否低于最近收到的变更版本
+     */
+    private boolean isStale(String cacheName, Object key, long version) {
+        Long clearVersion = clearVersions.getIfPresent(cacheName);
+        if (clearVersion != null && version < clearVersion) {
+            return true;
+        }
+        Cache<Object, Long> versions = invalidationVersions.get(cacheName);
+        if (versions == null) {
+            return false;
+        }
+        Long invalidationVersion = versions.getIfPresent(key);
+        return invalidationVersion != null && version < invalidationVersion;
+    }
+
+    /**
+     * 获取缓存区域， 不存在时按全局配置创建
+     * @param cacheName
+     * @return
+     */
+    public CacheRegion getRegion(String cacheName) {
+        CacheRegion region = regions.get(cacheName);
+        if (region == null) {
+            region = regions.computeIfAbsent(cacheName, this::buildRegion);
+            if (region.getConfig().isHeapBudgeted()) {
+                rebalanceHeapBudget();
+            }
+        }
+        return region;
+    }
+
+    /**
+     * 按heapShare比例将堆内存预算分配给预算内的缓存
+     */
+    private synchronized void rebalanceHeapBudget() {
+        long budget = cacheConfigProperties.getHeapBudget();
+        if (budget <= 0) {
+            return;
+        }
+        long totalShares = 0;
+        for (CacheRegion region : regions.values()) {
+            if (region.getConfig().isHeapBudgeted()) {
+                totalShares += region.getConfig().getHeapShare();
+            }
+        }
+        for (CacheRegion region : regions.values()) {
+            if (region.getConfig().isHeapBudgeted()) {
+                long maximum = budget * region.getConfig().getHeapShare() / totalShares;
+                if (region.getMaximum() != maximum) {
+                    region.setMaximum(maximum);
+                    logger.info("rebalanceHeapBudget # cache: " + region.getName() + ", maximum weight: " + maximum);
+                }
+            }
+        }
+    }
+
+    /**
+     * 当前所有缓存区域
+     * @return
+     */
+    public Collection<CacheRegion> getRegions() {
+        return Collections.unmodifiableCollection(regions.values());
+    }
+
+    /**
+     * 运行时调整本节点的本地缓存上限与过期时间（不广播， 重启后恢复配置值）
+     * 参与堆内存预算分配的缓存， 调整的上限在新的缓存参与分配时会被重新计算。
+     * @param cacheName
+     * @param maximum 上限（条目数、权重或字节数）， 为空时不调整
+     * @param expireAfterWrite 写入后过期时间（单位：毫秒）， 为空时不调整
+     * @param expireAfterAccess 访问后过期时间（单位：毫秒）， 为空时不调整
+     * @return 调整后的缓存区域
+     */
+    public CacheRegion updateRegion(String cacheName, Long maximum, Long expireAfterWrite, Long expireAfterAccess) {
+        if (maximum != null && maximum <= 0 || expireAfterWrite != null && expireAfterWrite <= 0
+                || expireAfterAccess != null && expireAfterAccess <= 0) {
+            throw new IllegalArgumentException("Maximum and expiration must be positive: " + cacheName);
+        }
+        CacheRegion region = regions.get(cacheName);
+        if (region == null || !region.isLocal()) {
+            throw new IllegalArgumentException("Local cache region not found: " + cacheName);
+        }
+        if (maximum != null && region.getMaximum() < 0) {
+            throw new IllegalArgumentException("Cache is not bounded by size or weight: " + cacheName);
+        }
+        if (expireAfterWrite != null || expireAfterAccess != null) {
+            if (!(region.getStore() instanceof CaffeineLocalCacheStore)) {
+                throw new IllegalArgumentException("Expiration can only be changed for caffeine cache: " + cacheName);
+            }
+            CaffeineLocalCacheStore store = (CaffeineLocalCacheStore) region.getStore();
+            // 只能调整创建时已配置的过期方式
+            if (expireAfterWrite != null && store.getExpireAfterWrite() < 0) {
+                throw new IllegalArgumentException("Cache is not configured with expireAfterWrite: " + cacheName);
+            }
+            if (expireAfterAccess != null && store.getExpireAfterAccess() < 0) {
+                throw new IllegalArgumentException("Cache is not configured with expireAfterAccess: " + cacheName);
+            }
+            if (expireAfterWrite != null) {
+                store.setExpireAfterWrite(expireAfterWrite);
+            }
+            if (expireAfterAccess != null) {
+                store.setExpireAfterAccess(expireAfterAccess);
+            }
+        }
+        if (maximum != null) {
+            region.setMaximum(maximum);
+        }
+        logger.info("updateRegion # cache: " + cacheName + ", maximum: " + maximum + ", expireAfterWrite: "
+                + expireAfterWrite + ", expireAfterAccess: " + expireAfterAccess);
+        return region;
+    }
+
+    /**
+     * 创建缓存区域
+     * @param cacheName
+     * @return
+     */
+    private CacheRegion buildRegion(String cacheName) {
+        CacheRegionConfig config = regionProperties.resolve(cacheName, cacheConfigProperties);
+        LocalCacheStore store = null;
+        if (config.getTier() != CacheTier.REDIS) {
+            if (config.getLocalStore() == LocalStoreType.OFF_HEAP) {
+                store = offHeapStore(cacheName, config);
+            } else {
+                JitteredExpiry jitteredExpiry = jitteredExpiry(cacheName, config);
+                store = new CaffeineLocalCacheStore(caffeineCache(cacheName, config, jitteredExpiry), jitteredExpiry);
+            }
+        }
+        CacheRegion region = new CacheRegion(cacheName, config, store);
+        cacheMetrics.bindRegion(region);
+        return region;
+    }
+
+    /**
+     * 初始化堆外缓存存储， 采用与Redis相同的缓存编码
+     * @param cacheName
+     * @param config
+     * @return
+     */
+    private LocalCacheStore offHeapStore(String cacheName, CacheRegionConfig config) {
+        if (beanFactory == null) {
+            throw new IllegalStateException("Off-heap cache '" + cacheName + "' requires a CacheCodecRegistry bean!");
+        }
+        if (config.getRefreshAfterWrite() > 0 || config.getExpireAfterAccess() > 0) {
+            logger.warn("offHeapStore # refreshAfterWrite/expireAfterAccess ignored for off-heap cache: " + cacheName);
+        }
+        Codec codec = beanFactory.getBean(CacheCodecRegistry.class).getCodec(cacheName);
+        return new OffHeapLocalCacheStore(cacheName, codec, config.getOffHeapCapacity(),
+                cacheConfigProperties.getOffHeapSegments(), config.getExpireAfterWrite());
+    }
+
+    /**
+     * 按条目抖动的过期策略
+     * @param cacheName
+     * @param config
+     * @return 未配置expireAfterWrite与ttlJitter， 或配置了expireAfterAccess时返回空
+     */
+    private JitteredExpiry jitteredExpiry(String cacheName, CacheRegionConfig config) {
+        TtlJitter jitter = TtlJitter.parse(config.getTtlJitter());
+        if (config.getExpireAfterWrite() <= 0 || jitter.isNone()) {
+            return null;
+        }
+        if (config.getExpireAfterAccess() > 0) {
+            logger.warn("caffeineCache # ttlJitter ignored when expireAfterAccess is set: " + cacheName);
+            return null;
+        }
+        return new JitteredExpiry(config.getExpireAfterWrite(), jitter, localExpiryHistogram);
+    }
 
     /**
      * 初始化caffeine缓存对象
+     * @param cacheName
+     * @param config
+     * @param jitteredExpiry 按条目抖动的过期策略， 为空时按固定时间过期
      * @return
      */
-    public Cache<Object, Object> caffeineCache() {
+    private Cache<Object, Object> caffeineCache(String cacheName, CacheRegionConfig config,
+                                                JitteredExpiry jitteredExpiry) {
         Caffeine<Object, Object> cacheBuilder = Caffeine.newBuilder();
+        if (cacheMetrics.isEnabled() || cacheConfigProperties.isRecordStats()) {
+            cacheBuilder.recordStats();
+        }
         // Caffeine 缓存初始化参数配置
-        if (cacheConfigProperties.getExpireAfterAccess() > 0) {
-            cacheBuilder.expireAfterAccess(cacheConfigProperties.getExpireAfterAccess(), TimeUnit.MILLISECONDS);
+        if (config.getExpireAfterAccess() > 0) {
+            cacheBuilder.expireAfterAccess(config.getExpireAfterAccess(), TimeUnit.MILLISECONDS);
         }
-        if (cacheConfigProperties.getExpireAfterWrite() > 0) {
-            cacheBuilder.expireAfterWrite(cacheConfigProperties.getExpireAfterWrite(), TimeUnit.MILLISECONDS);
+        if (jitteredExpiry != null) {
+            // 按条目计算过期时间， 每次写入时随机抖动
+            cacheBuilder.expireAfter(jitteredExpiry);
+        } else if (config.getExpireAfterWrite() > 0) {
+            cacheBuilder.expireAfterWrite(config.getExpireAfterWrite(), TimeUnit.MILLISECONDS);
         }
-        if (cacheConfigProperties.getInitialCapacity() > 0) {
-            cacheBuilder.initialCapacity(cacheConfigProperties.getInitialCapacity());
+        if (config.getInitialCapacity() > 0) {
+            cacheBuilder.initialCapacity(config.getInitialCapacity());
         }
-        if (cacheConfigProperties.getMaximumSize() > 0) {
-            cacheBuilder.maximumSize(cacheConfigProperties.getMaximumSize());
+        if (config.getMaximumWeight() > 0) {
+            if (StringUtils.isEmpty(config.getWeigher())) {
+                // 默认按估算的对象大小计算权重
+                cacheBuilder.maximumWeight(config.getMaximumWeight()).weigher(new SizeEstimatingWeigher());
+            } else {
+                Weigher<Object, Object> weigher = resolveWeigher(config.getWeigher());
+                cacheBuilder.maximumWeight(config.getMaximumWeight())
+                        .weigher((key, value) -> weigher.weigh(key, VersionedValue.unwrap(value)));
+            }
+        } else if (config.getMaximumSize() > 0) {
+            cacheBuilder.maximumSize(config.getMaximumSize());
         }
-        if (cacheConfigProperties.getRefreshAfterWrite() > 0) {
-            cacheBuilder.refreshAfterWrite(cacheConfigProperties.getRefreshAfterWrite(), TimeUnit.MILLISECONDS);
+        if (config.getRefreshAfterWrite() > 0) {
+            if (config.getTier() == CacheTier.TWO_TIER) {
+                // 到达刷新时间后读取时从Redis异步重新加载
+                cacheBuilder.refreshAfterWrite(config.getRefreshAfterWrite(), TimeUnit.MILLISECONDS);
+                return cacheBuilder.build(new RedisReloader(cacheName));
+            }
+            logger.warn("caffeineCache # refreshAfterWrite ignored for local only cache: " + cacheName);
         }
         return cacheBuilder.build();
     }
 
     /**
-     * 清除本地缓存
+     * 获取权重计算器， 优先按Bean名称查找， 其次按类名创建
+     */
+    @SuppressWarnings("unchecked")
+    private Weigher<Object, Object> resolveWeigher(String weigher) {
+        if (beanFactory != null && beanFactory.containsBean(weigher)) {
+            return beanFactory.getBean(weigher, Weigher.class);
+        }
+        try {
+            Class<?> weigherClass = ClassUtils.forName(weigher, ClassUtils.getDefaultClassLoader());
+            return (Weigher<Object, Object>) BeanUtils.instantiateClass(weigherClass);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Cache weigher not found: " + weigher, e);
+        }
+    }
+
+    /**
+     * 从Redis重新加载本地缓存， 加载结果版本低于本地条目时保留本地条目
+     */
+    private final class RedisReloader implements CacheLoader<Object, Object> {
+
+        private final String cacheName;
+
+        private RedisReloader(String cacheName) {
+            this.cacheName = cacheName;
+        }
+
+        @Override
+        public Object load(Object key) {
+            return cacheService.getVersionedFromCache(cacheName, key);
+        }
+
+        @Override
+        public Object reload(Object key, Object oldValue) {
+            VersionedValue loaded = cacheService.getVersionedFromCache(cacheName, key);
+            if (loaded == null) {
+                return null;
+            }
+            VersionedValue current = (VersionedValue) oldValue;
+            if (loaded.getVersion() < current.getVersion() || isStale(cacheName, key, loaded.getVersion())) {
+                return current;
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * 最近变更版本记录， 保留时间为app.cache.caffeine.version.retention
+     */
+    private <K> Cache<K, Long> versionCache() {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(cacheConfigProperties.getVersionRetention(), TimeUnit.MILLISECONDS)
+                .maximumSize(MAX_RETAINED_VERSIONS)
+                .build();
+    }
+
+    /**
+     * 清除本地缓存中低于指定版本的条目
      * @param cacheName
      * @param key
+     * @param version 为0时无条件清除
      */
-    private void clearAndSend(String cacheName, Object key, boolean isNeedSend) {
-        // 获取缓存对象
-        Cache caffeineCache = cacheMap.get(cacheName);
-        if (caffeineCache == null) {
+    private void invalidateLocal(String cacheName, Object key, long version) {
+        CacheRegion region = regions.get(cacheName);
+        if (version != VersionedValue.NO_VERSION) {
+            recordVersion(cacheName, key, version);
+        }
+        if (region == null || !region.isLocal()) {
             return;
         }
-
-        if (key == null) {
-            // key键值为空， 则清空该缓存下面的所有条目
-            caffeineCache.invalidateAll();
+        if (region.getStore().invalidate(key, version)) {
+            region.recordInvalidation();
+        } else {
+            // 本地条目更新， 丢弃该消息
+            staleMessages.incrementAndGet();
         }
-        else {
-            // 清除指定键值的缓存
-            caffeineCache.invalidate(key);
+    }
+
+    /**
+     * 记录变更版本， 防止之后读取到的旧值写入本地缓存
+     */
+    private void recordVersion(String cacheName, Object key, long version) {
+        Cache<Object, Long> versions = invalidationVersions.get(cacheName);
+        if (versions == null) {
+            versions = versionCache();
+            Cache<Object, Long> existing = invalidationVersions.putIfAbsent(cacheName, versions);
+            if (existing != null) {
+                versions = existing;
+            }
         }
+        versions.asMap().merge(key, version, Math::max);
+    }
 
-        if(isNeedSend) {
-            // 发送Redis缓存更新消息
-            redisSendService.sendMessage(cacheName, key);
+    /**
+     * 清除本地缓存中低于指定版本的所有条目
+     * @param cacheName
+     * @param version 为0时无条件清除
+     */
+    private void clearLocal(String cacheName, long version) {
+        CacheRegion region = regions.get(cacheName);
+        if (version != VersionedValue.NO_VERSION) {
+            clearVersions.asMap().merge(cacheName, version, Math::max);
+        }
+        if (region != null && region.isLocal()) {
+            region.getStore().invalidateAll(version);
+            region.recordInvalidation();
         }
     }
 
@@ -176,70 +626,292 @@ public class CaffeineCacheServiceImpl extends SecondCacheService {
      */
     @Override
     public Object getFromCache(final String cacheName, final Object cacheKey) {
-        Object result = null;
-        Cache caffeineCache = cacheMap.get(cacheName);
-        if(null != caffeineCache) {
+        CacheRegion region = getRegion(cacheName);
+        if (region.isLocal()) {
             // 先从本地缓存获取
-            result = caffeineCache.getIfPresent(cacheKey);
+            VersionedValue result = region.getStore().get(cacheKey);
+            if (null != result) {
+                return result.getValue();
+            }
+        }
+        if (!region.isRemote()) {
+            return null;
         }
 
-        if(null == result ) {
-            // 从Redis缓存获取
-            result = cacheService.getFromCache(cacheName, cacheKey);
-            logger.info("getFromCache # fetch data from redis cache.");
+        // 从Redis缓存获取
+        VersionedValue result = cacheService.getVersionedFromCache(cacheName, cacheKey);
+        if (null == result) {
+            return null;
+        }
+        if (region.isLocal()) {
             // 保存更新Caffeine缓存
-            saveCaffeineCache(cacheName, cacheKey, result, caffeineCache);
+            saveLocal(region, cacheKey, result);
         }
-
-        return result;
+        return result.getValue();
     }
 
     /**
-     * 保存更新Caffeine缓存
+     * 批量获取缓存对象， 本地缓存命中的直接返回， 未命中的KEY一次性从Redis获取
      * @param cacheName
-     * @param cacheKey
-     * @param result
-     * @param caffeineCache
+     * @param cacheKeys
+     * @return
      */
-    private void saveCaffeineCache(String cacheName, Object cacheKey, Object result, Cache caffeineCache) {
-        if(null !=  result) {
-            // 获取缓存对象
-            if (caffeineCache == null) {
-                caffeineCache = caffeineCache();
-                cacheMap.putIfAbsent(cacheName, caffeineCache);
+    @Override
+    public Map<Object, Object> getAll(final String cacheName, final Collection<?> cacheKeys) {
+        CacheRegion region = getRegion(cacheName);
+        if (!region.isLocal()) {
+            return cacheService.getAll(cacheName, cacheKeys);
+        }
+        Map<Object, Object> result = new HashMap<>();
+        for (Map.Entry<Object, VersionedValue> entry : region.getStore().getAll(cacheKeys).entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getValue());
+        }
+        if (result.size() == cacheKeys.size() || !region.isRemote()) {
+            return result;
+        }
+
+        List<Object> missingKeys = new ArrayList<>(cacheKeys.size() - result.size());
+        for (Object cacheKey : cacheKeys) {
+            if (!result.containsKey(cacheKey)) {
+                missingKeys.add(cacheKey);
             }
-            caffeineCache.put(cacheKey, result);
         }
+        Map<Object, VersionedValue> redisResult = cacheService.getAllVersioned(cacheName, missingKeys);
+        for (Map.Entry<Object, VersionedValue> entry : redisResult.entrySet()) {
+            // 保存更新Caffeine缓存
+            saveLocal(region, entry.getKey(), entry.getValue());
+            result.put(entry.getKey(), entry.getValue().getValue());
+        }
+        return result;
     }
 
     @Override
-    public boolean save(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl) {
-        boolean result = super.save(cacheNames, cacheKey, cacheValue, ttl);
-        // 保存并广播更新二级缓存
-        saveAndSend(cacheNames, cacheKey, cacheValue);
+    public boolean save(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl, TimeUnit unit) {
+        VersionedValue versionedValue = toVersioned(cacheValue);
+        String[] remoteCacheNames = filter(cacheNames, CacheTier.LOCAL);
+        boolean result = remoteCacheNames.length == 0
+                || super.save(remoteCacheNames, cacheKey, versionedValue, ttl, unit);
+        String[] localCacheNames = filter(cacheNames, CacheTier.REDIS);
+        if (localCacheNames.length > 0) {
+            // 保存并广播更新二级缓存
+            saveAndSend(localCacheNames, cacheKey, versionedValue);
+        }
         return result;
     }
 
     @Override
-    public boolean saveInRedisAsync(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl) {
-        boolean result = super.saveInRedisAsync(cacheNames, cacheKey, cacheValue, ttl);
-        // 保存并广播更新二级缓存
-        saveAndSend(cacheNames, cacheKey, cacheValue);
+    public boolean saveInRedisAsync(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl, TimeUnit unit) {
+        VersionedValue versionedValue = toVersioned(cacheValue);
+        String[] remoteCacheNames = filter(cacheNames, CacheTier.LOCAL);
+        boolean result = remoteCacheNames.length == 0
+                || super.saveInRedisAsync(remoteCacheNames, cacheKey, versionedValue, ttl, unit);
+        String[] localCacheNames = filter(cacheNames, CacheTier.REDIS);
+        if (localCacheNames.length > 0) {
+            // 保存并广播更新二级缓存
+            saveAndSend(localCacheNames, cacheKey, versionedValue);
+        }
         return result;
     }
 
+    @Override
+    public boolean saveAll(String[] cacheNames, Map<Object, ?> values, LongUnaryOperator ttlMillis) {
+        Map<Object, VersionedValue> versionedValues = toVersioned(values);
+        String[] remoteCacheNames = filter(cacheNames, CacheTier.LOCAL);
+        boolean result = remoteCacheNames.length == 0 || super.saveAll(remoteCacheNames, versionedValues, ttlMillis);
+        saveAndSendAll(cacheNames, versionedValues);
+        return result;
+    }
+
+    @Override
+    public CompletionStage<Boolean> saveAllAsync(String[] cacheNames, Map<Object, ?> values,
+                                                 LongUnaryOperator ttlMillis) {
+        Map<Object, VersionedValue> versionedValues = toVersioned(values);
+        String[] remoteCacheNames = filter(cacheNames, CacheTier.LOCAL);
+        CompletionStage<Boolean> result = remoteCacheNames.length == 0 ? CompletableFuture.completedFuture(true)
+                : super.saveAllAsync(remoteCacheNames, versionedValues, ttlMillis);
+        saveAndSendAll(cacheNames, versionedValues);
+        return result;
+    }
+
+    /**
+     * 批量保存并广播更新二级缓存
+     */
+    private void saveAndSendAll(String[] cacheNames, Map<Object, VersionedValue> versionedValues) {
+        String[] localCacheNames = filter(cacheNames, CacheTier.REDIS);
+        if (localCacheNames.length == 0) {
+            return;
+        }
+        for (Map.Entry<Object, VersionedValue> entry : versionedValues.entrySet()) {
+            saveAndSend(localCacheNames, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private Map<Object, VersionedValue> toVersioned(Map<Object, ?> values) {
+        Map<Object, VersionedValue> versionedValues = new LinkedHashMap<>(values.size() * 2);
+        for (Map.Entry<Object, ?> entry : values.entrySet()) {
+            versionedValues.put(entry.getKey(), toVersioned(entry.getValue()));
+        }
+        return versionedValues;
+    }
+
+    /**
+     * 缓存对象与版本号一同存储， 已带版本号（如提前刷新的缓存数据）时直接采用
+     */
+    private VersionedValue toVersioned(Object cacheValue) {
+        return cacheValue instanceof VersionedValue ? (VersionedValue) cacheValue
+                : new VersionedValue(cacheValue, clock.next());
+    }
+
     @Override
     public boolean invalidateCache(String[] cacheNames, Object cacheKey) {
-        boolean result = super.invalidateCache(cacheNames, cacheKey);
-        clearAndSend(cacheNames, cacheKey);
+        String[] remoteCacheNames = filter(cacheNames, CacheTier.LOCAL);
+        boolean result = remoteCacheNames.length == 0 || super.invalidateCache(remoteCacheNames, cacheKey);
+        String[] localCacheNames = filter(cacheNames, CacheTier.REDIS);
+        if (localCacheNames.length > 0) {
+            clearAndSend(localCacheNames, cacheKey);
+        }
         return result;
     }
 
     @Override
     public boolean invalidateCache(String[] cacheNames) {
-        boolean result = super.invalidateCache(cacheNames);
-        clearAndSend(cacheNames);
+        String[] remoteCacheNames = filter(cacheNames, CacheTier.LOCAL);
+        boolean result = remoteCacheNames.length == 0 || super.invalidateCache(remoteCacheNames);
+        String[] localCacheNames = filter(cacheNames, CacheTier.REDIS);
+        if (localCacheNames.length > 0) {
+            clearAndSend(localCacheNames);
+        }
+        return result;
+    }
+
+    /**
+     * 获取缓存对象（非阻塞）， 本地缓存命中时直接返回， 未命中时异步读取Redis并写入本地缓存
+     * @param cacheName
+     * @param cacheKey
+     * @return
+     */
+    @Override
+    public CompletionStage<Object> getFromCacheAsync(final String cacheName, final Object cacheKey) {
+        return getVersionedFromCacheAsync(cacheName, cacheKey)
+                .thenApply(result -> result != null ? result.getValue() : null);
+    }
+
+    @Override
+    public CompletionStage<VersionedValue> getVersionedFromCacheAsync(final String cacheName, final Object cacheKey) {
+        CacheRegion region = getRegion(cacheName);
+        if (region.isLocal()) {
+            VersionedValue result = region.getStore().get(cacheKey);
+            if (null != result) {
+                return CompletableFuture.completedFuture(result);
+            }
+        }
+        if (!region.isRemote()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return cacheService.getVersionedFromCacheAsync(cacheName, cacheKey).thenApply(result -> {
+            if (null != result && region.isLocal()) {
+                // 保存更新Caffeine缓存
+                saveLocal(region, cacheKey, result);
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletionStage<Boolean> saveAsync(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl,
+                                              TimeUnit unit) {
+        VersionedValue versionedValue = toVersioned(cacheValue);
+        String[] remoteCacheNames = filter(cacheNames, CacheTier.LOCAL);
+        CompletionStage<Boolean> result = remoteCacheNames.length == 0 ? CompletableFuture.completedFuture(true)
+                : super.saveAsync(remoteCacheNames, cacheKey, versionedValue, ttl, unit);
+        String[] localCacheNames = filter(cacheNames, CacheTier.REDIS);
+        if (localCacheNames.length > 0) {
+            // 保存并广播更新二级缓存
+            saveAndSend(localCacheNames, cacheKey, versionedValue);
+        }
         return result;
     }
 
+    @Override
+    public CompletionStage<Boolean> invalidateAsync(String[] cacheNames, Object cacheKey) {
+        String[] remoteCacheNames = filter(cacheNames, CacheTier.LOCAL);
+        CompletionStage<Boolean> result = remoteCacheNames.length == 0 ? CompletableFuture.completedFuture(true)
+                : super.invalidateAsync(remoteCacheNames, cacheKey);
+        String[] localCacheNames = filter(cacheNames, CacheTier.REDIS);
+        if (localCacheNames.length > 0) {
+            clearAndSend(localCacheNames, cacheKey);
+        }
+        return result;
+    }
+
+    @Override
+    public CompletionStage<Boolean> invalidateAllAsync(String[] cacheNames) {
+        String[] remoteCacheNames = filter(cacheNames, CacheTier.LOCAL);
+        CompletionStage<Boolean> result = remoteCacheNames.length == 0 ? CompletableFuture.completedFuture(true)
+                : super.invalidateAllAsync(remoteCacheNames);
+        String[] localCacheNames = filter(cacheNames, CacheTier.REDIS);
+        if (localCacheNames.length > 0) {
+            clearAndSend(localCacheNames);
+        }
+        return result;
+    }
+
+    /**
+     * 过滤指定存储层级的缓存名称
+     * @param cacheNames
+     * @param excludedTier 需要排除的层级
+     * @return 无需排除时返回原数组
+     */
+    private String[] filter(String[] cacheNames, CacheTier excludedTier) {
+        int excluded = 0;
+        for (String cacheName : cacheNames) {
+            if (getRegion(cacheName).getTier() == excludedTier) {
+                excluded++;
+            }
+        }
+        if (excluded == 0) {
+            return cacheNames;
+        }
+        String[] result = new String[cacheNames.length - excluded];
+        int index = 0;
+        for (String cacheName : cacheNames) {
+            if (getRegion(cacheName).getTier() != excludedTier) {
+                result[index++] = cacheName;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 因本地版本更新而丢弃的变更消息数量
+     * @return
+     */
+    public long getStaleMessages() {
+        return staleMessages.get();
+    }
+
+    /**
+     * 因版本过旧未写入本地缓存的Redis读取数量
+     * @return
+     */
+    public long getStaleLoads() {
+        return staleLoads.get();
+    }
+
+    /**
+     * 写入本地缓存的推送值数量
+     * @return
+     */
+    public long getPushedValues() {
+        return pushedValues.get();
+    }
+
+    /**
+     * 本地缓存条目的过期时间分布
+     * @return
+     */
+    public ExpiryHistogram getLocalExpiryHistogram() {
+        return localExpiryHistogram;
+    }
+
 }
@@ -0,0 +1,184 @@
+package com.mirson.gemini.cache.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mirson.gemini.cache.service.expiry.JitteredExpiry;
+import com.mirson.gemini.cache.service.version.VersionedValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caffeine堆内缓存存储
+ */
+public final class CaffeineLocalCacheStore implements LocalCacheStore {
+
+    /**
+     * Caffeine缓存（KEY -> VersionedValue）
+     */
+    private final Cache<Object, Object> cache;
+
+    /**
+     * 按条目抖动的过期策略， 未开启抖动时为空
+     */
+    private final JitteredExpiry jitteredExpiry;
+
+    public CaffeineLocalCacheStore(Cache<Object, Object> cache) {
+        this(cache, null);
+    }
+
+    public CaffeineLocalCacheStore(Cache<Object, Object> cache, JitteredExpiry jitteredExpiry) {
+        this.cache = cache;
+        this.jitteredExpiry = jitteredExpiry;
+    }
+
+    public Cache<Object, Object> getCache() {
+        return cache;
+    }
+
+    @Override
+    public VersionedValue get(Object key) {
+        return (VersionedValue) cache.getIfPresent(key);
+    }
+
+    @Override
+    public Map<Object, VersionedValue> getAll(Collection<?> keys) {
+        Map<Object, Object> present = cache.getAllPresent(keys);
+        Map<Object, VersionedValue> result = new HashMap<>(present.size() * 2);
+        for (Map.Entry<Object, Object> entry : present.entrySet()) {
+            result.put(entry.getKey(), (VersionedValue) entry.getValue());
+        }
+        return result;
+    }
+
+    @Override
+    public void putIfNewer(Object key, VersionedValue value) {
+        cache.asMap().merge(key, value, (current, update) ->
+                ((VersionedValue) update).getVersion() >= ((VersionedValue) current).getVersion() ? update : current);
+    }
+
+    @Override
+    public void remove(Object key, VersionedValue value) {
+        cache.asMap().remove(key, value);
+    }
+
+    @Override
+    public boolean invalidate(Object key, long version) {
+        if (version == VersionedValue.NO_VERSION) {
+            cache.invalidate(key);
+            return true;
+        }
+        boolean[] removed = {true};
+        cache.asMap().computeIfPresent(key, (k, current) -> {
+            if (((VersionedValue) current).getVersion() >= version) {
+                removed[0] = false;
+                return current;
+            }
+            return null;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public void invalidateAll(long version) {
+        if (version == VersionedValue.NO_VERSION) {
+            cache.invalidateAll();
+            return;
+        }
+        cache.asMap().values().removeIf(current -> ((VersionedValue) current).getVersion() < version);
+    }
+
+    @Override
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public long weightedSize() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(-1))
+                .orElse(-1L);
+    }
+
+    @Override
+    public long getMaximum() {
+        return cache.policy().eviction().map(eviction -> eviction.getMaximum()).orElse(-1L);
+    }
+
+    @Override
+    public void setMaximum(long maximum) {
+        cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maximum));
+    }
+
+    @Override
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public List<Object> hottestKeys(int limit) {
+        return cache.policy().eviction()
+                .map(eviction -> (List<Object>) new ArrayList<>(eviction.hottest(limit).keySet()))
+                .orElse(Collections.emptyList());
+    }
+
+    /**
+     * 写入后过期时间（单位：毫秒）， 未配置时返回-1
+     * @return
+     */
+    public long getExpireAfterWrite() {
+        if (jitteredExpiry != null) {
+            return jitteredExpiry.getExpireAfterWrite();
+        }
+        return cache.policy().expireAfterWrite()
+                .map(expiration -> expiration.getExpiresAfter(TimeUnit.MILLISECONDS))
+                .orElse(-1L);
+    }
+
+    /**
+     * 调整写入后过期时间， 按条目抖动时只作用于之后写入的条目
+     * @param millis
+     * @return 创建时未配置写入后过期时返回false
+     */
+    public boolean setExpireAfterWrite(long millis) {
+        if (jitteredExpiry != null) {
+            jitteredExpiry.setExpireAfterWrite(millis);
+            return true;
+        }
+        return cache.policy().expireAfterWrite()
+                .map(expiration -> {
+                    expiration.setExpiresAfter(millis, TimeUnit.MILLISECONDS);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * 访问后过期时间（单位：毫秒）， 未配置时返回-1
+     * @return
+     */
+    public long getExpireAfterAccess() {
+        return cache.policy().expireAfterAccess()
+                .map(expiration -> expiration.getExpiresAfter(TimeUnit.MILLISECONDS))
+                .orElse(-1L);
+    }
+
+    /**
+     * 调整访问后过期时间
+     * @param millis
+     * @return 创建时未配置访问后过期时返回false
+     */
+    public boolean setExpireAfterAccess(long millis) {
+        return cache.policy().expireAfterAccess()
+                .map(expiration -> {
+                    expiration.setExpiresAfter(millis, TimeUnit.MILLISECONDS);
+                    return true;
+                })
+                .orElse(false);
+    }
+}
@@ -0,0 +1,93 @@
+package com.mirson.gemini.cache.service.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mirson.gemini.cache.service.version.VersionedValue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 本地缓存存储接口， 条目以 {@link VersionedValue} 存储， 写入与清除均按版本判断
+ */
+public interface LocalCacheStore {
+
+    /**
+     * 获取缓存条目
+     * @param key
+     * @return 不存在时返回空
+     */
+    VersionedValue get(Object key);
+
+    /**
+     * 批量获取缓存条目
+     * @param keys
+     * @return 只包含存在的KEY
+     */
+    Map<Object, VersionedValue> getAll(Collection<?> keys);
+
+    /**
+     * 写入缓存条目， 已有更新版本的条目时保留原条目
+     * @param key
+     * @param value
+     */
+    void putIfNewer(Object key, VersionedValue value);
+
+    /**
+     * 删除与指定值版本相同的条目
+     * @param key
+     * @param value
+     */
+    void remove(Object key, VersionedValue value);
+
+    /**
+     * 删除低于指定版本的条目
+     * @param key
+     * @param version 为0时无条件删除
+     * @return 本地条目版本不低于指定版本而保留时返回false
+     */
+    boolean invalidate(Object key, long version);
+
+    /**
+     * 删除低于指定版本的所有条目
+     * @param version 为0时无条件删除
+     */
+    void invalidateAll(long version);
+
+    /**
+     * 条目数量（估算值）
+     * @return
+     */
+    long estimatedSize();
+
+    /**
+     * 当前总权重， 未按权重限制时返回-1
+     * @return
+     */
+    long weightedSize();
+
+    /**
+     * 当前上限（条目数、权重或字节数）， 不限制时返回-1
+     * @return
+     */
+    long getMaximum();
+
+    /**
+     * 调整上限
+     * @param maximum
+     */
+    void setMaximum(long maximum);
+
+    /**
+     * 命中、未命中与容量淘汰统计（Caffeine缓存未开启统计时为空统计）
+     * @return
+     */
+    CacheStats stats();
+
+    /**
+     * 访问最频繁的KEY（按淘汰策略的访问频率排序）， 不支持时返回空列表
+     * @param limit
+     * @return
+     */
+    List<Object> hottestKeys(int limit);
+}
@@ -0,0 +1,47 @@
+package com.mirson.gemini.cache.service.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.io.Serializable;
+
+/**
+ * 空值缓存标记（@Cacheable(cacheNulls = true)）， 原有方法返回空时以此对象存储， 读取时还原为空
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY)
+public final class NullValue implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final NullValue INSTANCE = new NullValue();
+
+    private NullValue() {
+    }
+
+    /**
+     * 是否为空值标记
+     * @param value
+     * @return
+     */
+    public static boolean isNull(Object value) {
+        return value instanceof NullValue;
+    }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof NullValue;
+    }
+
+    @Override
+    public int hashCode() {
+        return NullValue.class.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "NullValue";
+    }
+}
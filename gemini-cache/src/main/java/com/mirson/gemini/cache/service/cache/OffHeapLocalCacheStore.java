@@ -0,0 +1,658 @@
+package com.mirson.gemini.cache.service.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mirson.gemini.cache.service.version.VersionedValue;
+import io.netty.buffer.Unpooled;
+import net.openhft.hashing.LongHashFunction;
+import org.redisson.client.codec.Codec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 堆外缓存存储
+ * KEY与值采用与Redis相同的编码（缓存对应RMapCache的Codec）序列化后存放在直接内存中， 堆上只保留基本类型数组的索引，
+ * 大量缓存条目不会进入老年代， 代价是每次读取需要反序列化。
+ * 按KEY哈希分段， 每段包含：
+ * 1. 一块环形写入的直接内存， 条目顺序追加， 不产生碎片；
+ * 2. 开放寻址（线性探测）索引， 记录KEY哈希与条目偏移；
+ * 3. CLOCK淘汰： 空间不足时从最早写入的条目开始回收， 被访问过的条目清除访问标记后重新追加到尾部（第二次机会）。
+ */
+public final class OffHeapLocalCacheStore implements LocalCacheStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapLocalCacheStore.class);
+
+    private static final LongHashFunction HASH_FUNCTION = LongHashFunction.xx();
+
+    /**
+     * 单段最小容量
+     */
+    private static final int MIN_SEGMENT_CAPACITY = 64 * 1024;
+
+    /**
+     * 缓存名称
+     */
+    private final String name;
+
+    /**
+     * 序列化编码， 与Redis存储一致
+     */
+    private final Codec codec;
+
+    /**
+     * 写入后过期时间（单位：毫秒）， 0为不过期
+     */
+    private final long expireAfterWrite;
+
+    private final Segment[] segments;
+
+    private final int segmentMask;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 超过单条最大大小未写入的条目数量
+     */
+    private final AtomicLong rejections = new AtomicLong();
+
+    /**
+     * @param name 缓存名称
+     * @param codec 序列化编码
+     * @param capacity 总容量（单位：字节）
+     * @param segmentCount 分段数量， 向下取2的幂
+     * @param expireAfterWrite 写入后过期时间（单位：毫秒）， 0为不过期
+     */
+    public OffHeapLocalCacheStore(String name, Codec codec, long capacity, int segmentCount, long expireAfterWrite) {
+        this.name = name;
+        this.codec = codec;
+        this.expireAfterWrite = expireAfterWrite;
+        int count = Integer.highestOneBit(Math.max(1, segmentCount));
+        while (count > 1 && capacity / count < MIN_SEGMENT_CAPACITY) {
+            count >>= 1;
+        }
+        long segmentCapacity = Math.max(MIN_SEGMENT_CAPACITY, capacity / count);
+        if (segmentCapacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap cache '" + name + "' segment capacity exceeds 2G, increase segments!");
+        }
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment((int) segmentCapacity);
+        }
+        this.segmentMask = count - 1;
+    }
+
+    @Override
+    public VersionedValue get(Object key) {
+        byte[] keyBytes = encodeKey(key);
+        if (keyBytes == null) {
+            return null;
+        }
+        long hash = HASH_FUNCTION.hashBytes(keyBytes);
+        Record record = segment(hash).get(hash, keyBytes, System.currentTimeMillis(), expireAfterWrite);
+        if (record == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        Object value = decodeValue(record.value);
+        if (value == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return new VersionedValue(value, record.version);
+    }
+
+    @Override
+    public Map<Object, VersionedValue> getAll(Collection<?> keys) {
+        Map<Object, VersionedValue> result = new HashMap<>(keys.size() * 2);
+        for (Object key : keys) {
+            VersionedValue value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void putIfNewer(Object key, VersionedValue value) {
+        byte[] keyBytes = encodeKey(key);
+        if (keyBytes == null) {
+            return;
+        }
+        long hash = HASH_FUNCTION.hashBytes(keyBytes);
+        byte[] valueBytes;
+        try {
+            valueBytes = codec.getMapValueEncoder().encode(value.getValue());
+        } catch (Exception e) {
+            logger.error("putIfNewer # encode value failed, cache: " + name + " ## " + e.getMessage(), e);
+            segment(hash).invalidate(hash, keyBytes, VersionedValue.NO_VERSION);
+            return;
+        }
+        if (!segment(hash).put(hash, keyBytes, value.getVersion(), valueBytes, System.currentTimeMillis())) {
+            rejections.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void remove(Object key, VersionedValue value) {
+        byte[] keyBytes = encodeKey(key);
+        if (keyBytes != null) {
+            long hash = HASH_FUNCTION.hashBytes(keyBytes);
+            segment(hash).remove(hash, keyBytes, value.getVersion());
+        }
+    }
+
+    @Override
+    public boolean invalidate(Object key, long version) {
+        byte[] keyBytes = encodeKey(key);
+        if (keyBytes == null) {
+            return true;
+        }
+        long hash = HASH_FUNCTION.hashBytes(keyBytes);
+        return segment(hash).invalidate(hash, keyBytes, version);
+    }
+
+    @Override
+    public void invalidateAll(long version) {
+        for (Segment segment : segments) {
+            segment.invalidateAll(version);
+        }
+    }
+
+    @Override
+    public long estimatedSize() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.count;
+        }
+        return size;
+    }
+
+    /**
+     * 已使用的直接内存字节数
+     * @return
+     */
+    @Override
+    public long weightedSize() {
+        long used = 0;
+        for (Segment segment : segments) {
+            used += segment.used();
+        }
+        return used;
+    }
+
+    @Override
+    public long getMaximum() {
+        long maximum = 0;
+        for (Segment segment : segments) {
+            maximum += segment.limit;
+        }
+        return maximum;
+    }
+
+    /**
+     * 调整可使用的字节数， 不超过创建时分配的容量
+     * @param maximum
+     */
+    @Override
+    public void setMaximum(long maximum) {
+        long segmentLimit = maximum / segments.length;
+        for (Segment segment : segments) {
+            segment.setLimit(segmentLimit);
+        }
+    }
+
+    /**
+     * 已分配的直接内存字节数
+     * @return
+     */
+    public long getCapacity() {
+        return (long) segments[0].capacity * segments.length;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        long evictions = 0;
+        for (Segment segment : segments) {
+            evictions += segment.evictions;
+        }
+        return evictions;
+    }
+
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return new CacheStats(hits.get(), misses.get(), 0, 0, 0, getEvictions(), 0);
+    }
+
+    /**
+     * 堆外存储不记录访问频率
+     */
+    @Override
+    public List<Object> hottestKeys(int limit) {
+        return Collections.emptyList();
+    }
+
+    private Segment segment(long hash) {
+        return segments[(int) (hash >>> 32) & segmentMask];
+    }
+
+    private byte[] encodeKey(Object key) {
+        try {
+            return codec.getMapKeyEncoder().encode(key);
+        } catch (Exception e) {
+            logger.error("encodeKey # encode key failed, cache: " + name + " ## " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private Object decodeValue(byte[] value) {
+        try {
+            return codec.getMapValueDecoder().decode(Unpooled.wrappedBuffer(value), null);
+        } catch (Exception e) {
+            logger.error("decodeValue # decode value failed, cache: " + name + " ## " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 读取结果
+     */
+    private static final class Record {
+
+        private final long version;
+
+        private final byte[] value;
+
+        private Record(long version, byte[] value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+
+    /**
+     * 缓存分段
+     * 条目格式： KEY长度(4) | 值长度(4) | KEY哈希(8) | 版本号(8) | 写入时间(8) | 标记(1) | KEY | 值，
+     * 写入位置与回收位置为递增的逻辑位置， 对容量取模得到物理偏移， 条目不跨越尾部边界（不足时填充）。
+     */
+    private static final class Segment {
+
+        private static final int HEADER_SIZE = 33;
+
+        private static final int OFFSET_VALUE_LENGTH = 4;
+
+        private static final int OFFSET_HASH = 8;
+
+        private static final int OFFSET_VERSION = 16;
+
+        private static final int OFFSET_WRITE_TIME = 24;
+
+        private static final int OFFSET_FLAGS = 32;
+
+        /**
+         * 填充标记， 写在条目长度位置
+         */
+        private static final int PADDING = -1;
+
+        private static final byte FLAG_LIVE = 1;
+
+        private static final byte FLAG_REFERENCED = 2;
+
+        private static final int EMPTY = -1;
+
+        private final ByteBuffer buffer;
+
+        /**
+         * 批量读写使用的视图（持有段锁时使用）
+         */
+        private final ByteBuffer view;
+
+        private final int capacity;
+
+        /**
+         * 可使用的字节数
+         */
+        private volatile int limit;
+
+        /**
+         * 最早写入条目的逻辑位置
+         */
+        private long head;
+
+        /**
+         * 下次写入的逻辑位置
+         */
+        private long tail;
+
+        /**
+         * 索引： KEY哈希
+         */
+        private long[] slotHashes;
+
+        /**
+         * 索引： 条目物理偏移， EMPTY为空槽
+         */
+        private int[] slotOffsets;
+
+        private volatile int count;
+
+        private volatile long evictions;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            this.limit = capacity;
+            this.buffer = ByteBuffer.allocateDirect(capacity);
+            this.view = buffer.duplicate();
+            // 按平均每条256字节预估索引大小
+            int slots = Integer.highestOneBit(Math.max(64, capacity / 256 * 2));
+            this.slotHashes = new long[slots];
+            this.slotOffsets = new int[slots];
+            Arrays.fill(slotOffsets, EMPTY);
+        }
+
+        synchronized long used() {
+            return tail - head;
+        }
+
+        synchronized Record get(long hash, byte[] key, long now, long expireAfterWrite) {
+            int slot = find(hash, key);
+            if (slot == EMPTY) {
+                return null;
+            }
+            int offset = slotOffsets[slot];
+            if (isExpired(offset, now, expireAfterWrite)) {
+                kill(slot);
+                return null;
+            }
+            buffer.put(offset + OFFSET_FLAGS, (byte) (buffer.get(offset + OFFSET_FLAGS) | FLAG_REFERENCED));
+            byte[] value = new byte[buffer.getInt(offset + OFFSET_VALUE_LENGTH)];
+            read(offset + HEADER_SIZE + key.length, value);
+            return new Record(buffer.getLong(offset + OFFSET_VERSION), value);
+        }
+
+        /**
+         * 写入条目， 已有更新版本的条目时保留原条目
+         * @return 条目超过单条最大大小未写入时返回false
+         */
+        synchronized boolean put(long hash, byte[] key, long version, byte[] value, long now) {
+            int slot = find(hash, key);
+            if (slot != EMPTY) {
+                if (buffer.getLong(slotOffsets[slot] + OFFSET_VERSION) > version) {
+                    return true;
+                }
+                kill(slot);
+            }
+            int size = HEADER_SIZE + key.length + value.length;
+            if (size > limit / 4) {
+                return false;
+            }
+            ensureSpace(size);
+            int offset = append(size);
+            buffer.putInt(offset, key.length);
+            buffer.putInt(offset + OFFSET_VALUE_LENGTH, value.length);
+            buffer.putLong(offset + OFFSET_HASH, hash);
+            buffer.putLong(offset + OFFSET_VERSION, version);
+            buffer.putLong(offset + OFFSET_WRITE_TIME, now);
+            buffer.put(offset + OFFSET_FLAGS, FLAG_LIVE);
+            write(offset + HEADER_SIZE, key);
+            write(offset + HEADER_SIZE + key.length, value);
+            insert(hash, offset);
+            return true;
+        }
+
+        synchronized void remove(long hash, byte[] key, long version) {
+            int slot = find(hash, key);
+            if (slot != EMPTY && buffer.getLong(slotOffsets[slot] + OFFSET_VERSION) == version) {
+                kill(slot);
+            }
+        }
+
+        synchronized boolean invalidate(long hash, byte[] key, long version) {
+            int slot = find(hash, key);
+            if (slot == EMPTY) {
+                return true;
+            }
+            if (version != VersionedValue.NO_VERSION && buffer.getLong(slotOffsets[slot] + OFFSET_VERSION) >= version) {
+                return false;
+            }
+            kill(slot);
+            return true;
+        }
+
+        synchronized void invalidateAll(long version) {
+            if (version == VersionedValue.NO_VERSION) {
+                Arrays.fill(slotOffsets, EMPTY);
+                count = 0;
+                head = tail;
+                return;
+            }
+            int slot = 0;
+            while (slot < slotOffsets.length) {
+                int offset = slotOffsets[slot];
+                if (offset != EMPTY && buffer.getLong(offset + OFFSET_VERSION) < version) {
+                    // 删除后后续条目可能移动到当前槽位， 需要重新检查
+                    kill(slot);
+                } else {
+                    slot++;
+                }
+            }
+        }
+
+        synchronized void setLimit(long segmentLimit) {
+            limit = (int) Math.max(MIN_SEGMENT_CAPACITY / 4, Math.min(capacity, segmentLimit));
+            while (tail - head > limit) {
+                evictHead(false);
+            }
+        }
+
+        private void read(int offset, byte[] dst) {
+            view.limit(offset + dst.length).position(offset);
+            view.get(dst);
+        }
+
+        private void write(int offset, byte[] src) {
+            view.limit(offset + src.length).position(offset);
+            view.put(src);
+        }
+
+        private boolean isExpired(int offset, long now, long expireAfterWrite) {
+            return expireAfterWrite > 0 && now - buffer.getLong(offset + OFFSET_WRITE_TIME) > expireAfterWrite;
+        }
+
+        /**
+         * 从指定逻辑位置写入条目所需的字节数（包括尾部填充）
+         */
+        private long required(long position, int size) {
+            int remaining = capacity - (int) (position % capacity);
+            return remaining < size ? remaining + size : size;
+        }
+
+        /**
+         * 回收最早写入的条目， 直到可以写入指定大小的条目
+         */
+        private void ensureSpace(int size) {
+            while (tail + required(tail, size) - head > limit) {
+                evictHead(true);
+            }
+        }
+
+        /**
+         * 在尾部分配条目空间， 剩余空间不足时填充到边界后从头开始
+         * @return 条目物理偏移
+         */
+        private int append(int size) {
+            int offset = (int) (tail % capacity);
+            int remaining = capacity - offset;
+            if (remaining < size) {
+                if (remaining >= 4) {
+                    buffer.putInt(offset, PADDING);
+                }
+                tail += remaining;
+                offset = 0;
+            }
+            tail += size;
+            return offset;
+        }
+
+        /**
+         * 回收最早写入的条目（CLOCK）， 被访问过的条目清除访问标记后重新追加到尾部
+         * @param secondChance 是否允许重新追加
+         */
+        private void evictHead(boolean secondChance) {
+            int offset = (int) (head % capacity);
+            int remaining = capacity - offset;
+            if (remaining < HEADER_SIZE || buffer.getInt(offset) == PADDING) {
+                head += remaining;
+                return;
+            }
+            int size = HEADER_SIZE + buffer.getInt(offset) + buffer.getInt(offset + OFFSET_VALUE_LENGTH);
+            byte flags = buffer.get(offset + OFFSET_FLAGS);
+            if ((flags & FLAG_LIVE) != 0) {
+                long hash = buffer.getLong(offset + OFFSET_HASH);
+                int slot = slotOf(hash, offset);
+                if (secondChance && (flags & FLAG_REFERENCED) != 0
+                        && tail + required(tail, size) - (head + size) <= limit) {
+                    byte[] record = new byte[size];
+                    read(offset, record);
+                    record[OFFSET_FLAGS] = FLAG_LIVE;
+                    head += size;
+                    int newOffset = append(size);
+                    write(newOffset, record);
+                    slotOffsets[slot] = newOffset;
+                    return;
+                }
+                delete(slot);
+                evictions++;
+            }
+            head += size;
+        }
+
+        /**
+         * 查找KEY对应的索引槽位
+         */
+        private int find(long hash, byte[] key) {
+            int mask = slotOffsets.length - 1;
+            for (int slot = index(hash, mask); slotOffsets[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (slotHashes[slot] == hash && keyEquals(slotOffsets[slot], key)) {
+                    return slot;
+                }
+            }
+            return EMPTY;
+        }
+
+        /**
+         * 查找指向指定条目的索引槽位
+         */
+        private int slotOf(long hash, int offset) {
+            int mask = slotOffsets.length - 1;
+            int slot = index(hash, mask);
+            while (slotOffsets[slot] != offset) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private boolean keyEquals(int offset, byte[] key) {
+            if (buffer.getInt(offset) != key.length) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (buffer.get(offset + HEADER_SIZE + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int index(long hash, int mask) {
+            return (int) (hash ^ (hash >>> 29)) & mask;
+        }
+
+        private void insert(long hash, int offset) {
+            if ((count + 1) * 4L > slotOffsets.length * 3L) {
+                resize();
+            }
+            int mask = slotOffsets.length - 1;
+            int slot = index(hash, mask);
+            while (slotOffsets[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slotHashes[slot] = hash;
+            slotOffsets[slot] = offset;
+            count++;
+        }
+
+        private void resize() {
+            long[] oldHashes = slotHashes;
+            int[] oldOffsets = slotOffsets;
+            slotHashes = new long[oldHashes.length * 2];
+            slotOffsets = new int[oldOffsets.length * 2];
+            Arrays.fill(slotOffsets, EMPTY);
+            int mask = slotOffsets.length - 1;
+            for (int i = 0; i < oldOffsets.length; i++) {
+                if (oldOffsets[i] != EMPTY) {
+                    int slot = index(oldHashes[i], mask);
+                    while (slotOffsets[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slotHashes[slot] = oldHashes[i];
+                    slotOffsets[slot] = oldOffsets[i];
+                }
+            }
+        }
+
+        /**
+         * 删除条目： 清除存活标记并删除索引， 空间在回收时释放
+         */
+        private void kill(int slot) {
+            int offset = slotOffsets[slot];
+            buffer.put(offset + OFFSET_FLAGS, (byte) 0);
+            delete(slot);
+        }
+
+        /**
+         * 删除索引槽位， 后续槽位向前移动（线性探测的删除方式， 无需墓碑）
+         */
+        private void delete(int slot) {
+            int mask = slotOffsets.length - 1;
+            int hole = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (slotOffsets[next] == EMPTY) {
+                    break;
+                }
+                int ideal = index(slotHashes[next], mask);
+                boolean movable = hole <= next ? (ideal <= hole || ideal > next) : (ideal <= hole && ideal > next);
+                if (movable) {
+                    slotHashes[hole] = slotHashes[next];
+                    slotOffsets[hole] = slotOffsets[next];
+                    hole = next;
+                }
+            }
+            slotOffsets[hole] = EMPTY;
+            count--;
+        }
+    }
+}
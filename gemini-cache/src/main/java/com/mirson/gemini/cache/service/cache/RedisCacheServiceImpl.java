@@ -1,6 +1,12 @@
 package com.mirson.gemini.cache.service.cache;
 
 import com.mirson.gemini.cache.config.CacheConfigProperties;
+import com.mirson.gemini.cache.service.codec.CacheCodecRegistry;
+import com.mirson.gemini.cache.service.expiry.ExpiryHistogram;
+import com.mirson.gemini.cache.service.expiry.TtlJitter;
+import com.mirson.gemini.cache.service.hotkey.HotKeyCache;
+import com.mirson.gemini.cache.service.version.HybridLogicalClock;
+import com.mirson.gemini.cache.service.version.VersionedValue;
 import org.redisson.api.RBatch;
 import org.redisson.api.RMapCache;
 import org.redisson.api.RMapCacheAsync;
@@ -9,8 +15,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
 
-import java.util.concurrent.ExecutorService;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
 
 /**
  * Redis缓存服务管理实现类
@@ -19,24 +38,101 @@ public class RedisCacheServiceImpl implements CacheService {
 
     private static final Logger logger = LoggerFactory.getLogger(RedisCacheServiceImpl.class);
 
-    private ExecutorService serviceCallExecutorService;
-
     private RedissonClient redissonClient;
 
     private CacheConfigProperties cacheConfigProperties;
 
+    /**
+     * 缓存版本时钟
+     */
+    private HybridLogicalClock clock;
+
+    /**
+     * 全局超时时间的随机抖动
+     */
+    private final TtlJitter expireJitter;
+
+    /**
+     * 缓存条目的过期时间分布
+     */
+    private final ExpiryHistogram expiryHistogram = new ExpiryHistogram();
+
+    /**
+     * 缓存名称 -> 超时时间的截止时间（单位：毫秒）， 截止前已确认缓存设置了超时时间， 保存时不再检查
+     */
+    private final ConcurrentMap<String, Long> expireDeadlines = new ConcurrentHashMap<>();
+
+    /**
+     * 热点KEY本地缓存， 未开启时为空
+     */
+    private final HotKeyCache hotKeyCache;
+
+    /**
+     * 缓存编码注册表， 为空时采用Redisson默认编码
+     */
+    private final CacheCodecRegistry codecRegistry;
+
+    /**
+     * 异步写入（saveInRedisAsync、invalidateCacheAsync）的执行线程池， 为空时直接提交Redisson异步命令
+     */
+    private final Executor writeExecutor;
+
     /**
      * 初始化
      */
     public RedisCacheServiceImpl(RedissonClient redissonClient,
-                                 ExecutorService serviceCallExecutorService,
-                                 CacheConfigProperties cacheConfigProperties) {
+                                 CacheConfigProperties cacheConfigProperties,
+                                 HybridLogicalClock clock) {
+        this(redissonClient, cacheConfigProperties, clock, null, null, null);
+    }
+
+    /**
+     * 初始化
+     * @param codecRegistry 缓存编码注册表， 为空时采用Redisson默认编码
+     * @param hotKeyCache 热点KEY本地缓存， 为空时不开启
+     * @param writeExecutor 异步写入线程池， 写入完成前占用线程池的并发额度， 饱和时按线程池的拒绝策略处理
+     */
+    public RedisCacheServiceImpl(RedissonClient redissonClient,
+                                 CacheConfigProperties cacheConfigProperties,
+                                 HybridLogicalClock clock,
+                                 CacheCodecRegistry codecRegistry,
+                                 HotKeyCache hotKeyCache,
+                                 Executor writeExecutor) {
         this.redissonClient = redissonClient;
-        this.serviceCallExecutorService = serviceCallExecutorService;
         this.cacheConfigProperties = cacheConfigProperties;
+        this.clock = clock;
+        this.codecRegistry = codecRegistry;
+        this.expireJitter = TtlJitter.parse(cacheConfigProperties.getTtlJitter());
+        this.hotKeyCache = hotKeyCache;
+        this.writeExecutor = writeExecutor;
     }
 
 
+    /**
+     * 获取缓存对应的RMapCache， 采用缓存配置的编码
+     * @param cacheName
+     * @return
+     */
+    private RMapCache<Object, Object> getMapCache(String cacheName) {
+        if (codecRegistry == null) {
+            return redissonClient.getMapCache(cacheName);
+        }
+        return redissonClient.getMapCache(cacheName, codecRegistry.getCodec(cacheName));
+    }
+
+    /**
+     * 获取批量操作中缓存对应的RMapCache， 采用缓存配置的编码
+     * @param batch
+     * @param cacheName
+     * @return
+     */
+    private RMapCacheAsync<Object, Object> getMapCache(RBatch batch, String cacheName) {
+        if (codecRegistry == null) {
+            return batch.getMapCache(cacheName);
+        }
+        return batch.getMapCache(cacheName, codecRegistry.getCodec(cacheName));
+    }
+
     /**
      * 获取缓存对象
      * @param cacheName
@@ -45,11 +141,77 @@ public class RedisCacheServiceImpl implements CacheService {
      */
     @Override
     public Object getFromCache(final String cacheName, final Object cacheKey) {
+        return VersionedValue.unwrap(getStored(cacheName, cacheKey));
+    }
+
+    /**
+     * 获取带版本号的缓存对象
+     * @param cacheName
+     * @param cacheKey
+     * @return
+     */
+    @Override
+    public VersionedValue getVersionedFromCache(final String cacheName, final Object cacheKey) {
+        return VersionedValue.of(getStored(cacheName, cacheKey));
+    }
+
+    private Object getStored(final String cacheName, final Object cacheKey) {
         if (StringUtils.isEmpty(cacheName) || cacheKey == null) {
             throw new IllegalArgumentException("Cache name or cache key can not be null!");
         }
+        if (hotKeyCache == null) {
+            return getMapCache(cacheName).get(cacheKey);
+        }
+        Object stored = hotKeyCache.get(cacheName, cacheKey);
+        if (stored == null) {
+            stored = getMapCache(cacheName).get(cacheKey);
+            hotKeyCache.record(cacheName, cacheKey, stored);
+        }
+        return stored;
+    }
+
+    /**
+     * 批量获取缓存对象（一次网络请求）
+     * @param cacheName
+     * @param cacheKeys
+     * @return
+     */
+    @Override
+    public Map<Object, Object> getAll(final String cacheName, final Collection<?> cacheKeys) {
+        Map<Object, Object> stored = getAllStored(cacheName, cacheKeys);
+        Map<Object, Object> result = new HashMap<>(stored.size() * 2);
+        for (Map.Entry<Object, Object> entry : stored.entrySet()) {
+            result.put(entry.getKey(), VersionedValue.unwrap(entry.getValue()));
+        }
+        return result;
+    }
 
-        return redissonClient.getMapCache(cacheName).get(cacheKey);
+    /**
+     * 批量获取带版本号的缓存对象（一次网络请求）
+     * @param cacheName
+     * @param cacheKeys
+     * @return
+     */
+    @Override
+    public Map<Object, VersionedValue> getAllVersioned(final String cacheName, final Collection<?> cacheKeys) {
+        Map<Object, Object> stored = getAllStored(cacheName, cacheKeys);
+        Map<Object, VersionedValue> result = new HashMap<>(stored.size() * 2);
+        for (Map.Entry<Object, Object> entry : stored.entrySet()) {
+            result.put(entry.getKey(), VersionedValue.of(entry.getValue()));
+        }
+        return result;
+    }
+
+    private Map<Object, Object> getAllStored(final String cacheName, final Collection<?> cacheKeys) {
+        if (StringUtils.isEmpty(cacheName) || cacheKeys == null) {
+            throw new IllegalArgumentException("Cache name or cache keys can not be null!");
+        }
+        if (cacheKeys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        RMapCache<Object, Object> mapCache = getMapCache(cacheName);
+        Set<Object> keySet = new HashSet<>(cacheKeys);
+        return mapCache.getAll(keySet);
     }
 
     /**
@@ -57,11 +219,13 @@ public class RedisCacheServiceImpl implements CacheService {
      * @param cacheNames
      * @param cacheKey
      * @param cacheValue
+     * @param ttl
+     * @param unit
      * @return
      */
     @Override
     public boolean save(final String[] cacheNames, final Object cacheKey,
-                        final Object cacheValue, final long ttl) {
+                        final Object cacheValue, final long ttl, final TimeUnit unit) {
 
         // 校验判断
         if (cacheNames == null || cacheNames.length == 0) {
@@ -69,26 +233,173 @@ public class RedisCacheServiceImpl implements CacheService {
                     "Cache names list can not be null or empty for save operation!!");
         }
 
-        for(String cacheName : cacheNames) {
-            RMapCache mapCache = redissonClient.getMapCache(cacheName);
-            boolean isExists = mapCache.isExists();
-            if(!isExists) {
-                // 第一次保存， 并设定超时时间
-                firstSave(cacheName, cacheKey, cacheValue, ttl);
-            }else {
-                mapCache.put(cacheKey, cacheValue, ttl, TimeUnit.SECONDS);
-            }
+        saveBatch(cacheNames, cacheKey, cacheValue, unit.toMillis(ttl)).execute();
+        expireIfNotSet(cacheNames);
+        invalidateHotKey(cacheNames, cacheKey);
+        return true;
+    }
+
+    /**
+     * 保存至REDIS缓存（非阻塞）
+     * @param cacheNames
+     * @param cacheKey
+     * @param cacheValue
+     * @param ttl
+     * @param unit
+     * @return
+     */
+    @Override
+    public CompletionStage<Boolean> saveAsync(final String[] cacheNames, final Object cacheKey,
+                                              final Object cacheValue, final long ttl, final TimeUnit unit) {
+        if (cacheNames == null || cacheNames.length == 0) {
+            throw new IllegalArgumentException(
+                    "Cache names list can not be null or empty for save operation!!");
+        }
+        return saveBatch(cacheNames, cacheKey, cacheValue, unit.toMillis(ttl)).executeAsync().thenApply(result -> {
+            expireIfNotSet(cacheNames);
+            invalidateHotKey(cacheNames, cacheKey);
+            return true;
+        });
+    }
+
+    /**
+     * 批量保存至REDIS缓存， 所有KEY与缓存名称的写入放在同一批次
+     * @param cacheNames
+     * @param values
+     * @param ttlMillis
+     * @return
+     */
+    @Override
+    public boolean saveAll(final String[] cacheNames, final Map<Object, ?> values, final LongUnaryOperator ttlMillis) {
+        if (cacheNames == null || cacheNames.length == 0) {
+            throw new IllegalArgumentException(
+                    "Cache names list can not be null or empty for save operation!!");
+        }
+        if (values.isEmpty()) {
+            return true;
+        }
+        saveAllBatch(cacheNames, values, ttlMillis).execute();
+        expireIfNotSet(cacheNames);
+        for (Object cacheKey : values.keySet()) {
+            invalidateHotKey(cacheNames, cacheKey);
         }
         return true;
     }
 
-    private void firstSave(String cacheName, final Object cacheKey,
-                           final Object cacheValue, final long ttl) {
+    /**
+     * 批量保存至REDIS缓存（非阻塞）
+     * @param cacheNames
+     * @param values
+     * @param ttlMillis
+     * @return
+     */
+    @Override
+    public CompletionStage<Boolean> saveAllAsync(final String[] cacheNames, final Map<Object, ?> values,
+                                                 final LongUnaryOperator ttlMillis) {
+        if (cacheNames == null || cacheNames.length == 0) {
+            throw new IllegalArgumentException(
+                    "Cache names list can not be null or empty for save operation!!");
+        }
+        if (values.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return saveAllBatch(cacheNames, values, ttlMillis).executeAsync().thenApply(result -> {
+            expireIfNotSet(cacheNames);
+            for (Object cacheKey : values.keySet()) {
+                invalidateHotKey(cacheNames, cacheKey);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * 创建保存批次， 所有缓存名称的写入放在同一批次， 一次网络往返
+     * @param ttlMillis 单位：毫秒
+     */
+    private RBatch saveBatch(final String[] cacheNames, final Object cacheKey,
+                             final Object cacheValue, final long ttlMillis) {
         RBatch batch = redissonClient.createBatch();
-        RMapCacheAsync rMapCacheAsync = batch.getMapCache(cacheName);
-        rMapCacheAsync.putAsync(cacheKey, cacheValue, ttl, TimeUnit.SECONDS);
-        rMapCacheAsync.expireAsync(cacheConfigProperties.getExpire(), TimeUnit.SECONDS);
-        batch.execute();
+        addSave(batch, cacheNames, cacheKey, toVersioned(cacheValue), ttlMillis);
+        return batch;
+    }
+
+    /**
+     * 创建批量保存批次， 生命周期按每个缓存对象的版本号计算
+     */
+    private RBatch saveAllBatch(final String[] cacheNames, final Map<Object, ?> values,
+                                final LongUnaryOperator ttlMillis) {
+        RBatch batch = redissonClient.createBatch();
+        for (Map.Entry<Object, ?> entry : values.entrySet()) {
+            VersionedValue versionedValue = toVersioned(entry.getValue());
+            addSave(batch, cacheNames, entry.getKey(), versionedValue,
+                    ttlMillis.applyAsLong(versionedValue.getVersion()));
+        }
+        return batch;
+    }
+
+    private void addSave(RBatch batch, String[] cacheNames, Object cacheKey, VersionedValue versionedValue,
+                         long ttlMillis) {
+        for(String cacheName : cacheNames) {
+            RMapCacheAsync<Object, Object> mapCache = getMapCache(batch, cacheName);
+            mapCache.fastPutAsync(cacheKey, versionedValue, ttlMillis, TimeUnit.MILLISECONDS);
+            expiryHistogram.record(ttlMillis);
+        }
+    }
+
+    /**
+     * 缓存对象与版本号一同存储， 已带版本号时直接采用
+     */
+    private VersionedValue toVersioned(Object cacheValue) {
+        return cacheValue instanceof VersionedValue ? (VersionedValue) cacheValue
+                : new VersionedValue(cacheValue, clock.next());
+    }
+
+    /**
+     * 缓存未设置超时时间时（第一次保存）设定超时时间， 不同缓存的超时时间随机抖动， 避免同时过期
+     * 通过RMapCache的公开接口检查剩余时间并设置（RMapCache.expire同时处理条目超时集合）， 确认已设置后截止前不再检查，
+     * 每个缓存每个超时周期只增加一次网络往返； 多个节点同时第一次保存时可能各自设置一次， 超时时间相差无几
+     * @param cacheNames
+     */
+    private void expireIfNotSet(final String[] cacheNames) {
+        final long expireMillis = TimeUnit.SECONDS.toMillis(cacheConfigProperties.getExpire());
+        if (expireMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (final String cacheName : cacheNames) {
+            Long deadline = expireDeadlines.get(cacheName);
+            if (deadline != null && now < deadline) {
+                continue;
+            }
+            // 检查期间其他保存不再重复检查
+            boolean checking = deadline == null ? expireDeadlines.putIfAbsent(cacheName, now + expireMillis) == null
+                    : expireDeadlines.replace(cacheName, deadline, now + expireMillis);
+            if (!checking) {
+                continue;
+            }
+            final RMapCache<Object, Object> mapCache = getMapCache(cacheName);
+            mapCache.remainTimeToLiveAsync().thenCompose(remainMillis -> {
+                if (remainMillis == -1) {
+                    // 未设置超时时间
+                    long jitteredMillis = expireJitter.apply(expireMillis);
+                    expireDeadlines.put(cacheName, System.currentTimeMillis() + jitteredMillis);
+                    return mapCache.expireAsync(jitteredMillis, TimeUnit.MILLISECONDS);
+                }
+                if (remainMillis > 0) {
+                    expireDeadlines.put(cacheName, System.currentTimeMillis() + remainMillis);
+                } else {
+                    // 缓存已被清理， 下次保存时再检查
+                    expireDeadlines.remove(cacheName);
+                }
+                return CompletableFuture.completedFuture(Boolean.FALSE);
+            }).whenComplete((result, e) -> {
+                if (e != null) {
+                    expireDeadlines.remove(cacheName);
+                    logger.error("expireIfNotSet # set cache expire failed, cacheName: " + cacheName + " ## "
+                            + e.getMessage(), e);
+                }
+            });
+        }
     }
 
     /**
@@ -108,11 +419,12 @@ public class RedisCacheServiceImpl implements CacheService {
             if (StringUtils.isEmpty(cacheName)) {
                 continue;
             }
-            if (null == redissonClient.getMapCache(cacheName)) {
+            if (null == getMapCache(cacheName)) {
                 continue;
             }
-            redissonClient.getMapCache(cacheName).remove(cacheKey);
+            getMapCache(cacheName).remove(cacheKey);
         }
+        invalidateHotKey(cacheNames, cacheKey);
         return true;
     }
 
@@ -124,23 +436,18 @@ public class RedisCacheServiceImpl implements CacheService {
     @Override
     public boolean invalidateCache(final String[] cacheNames) {
         for (String cacheName : cacheNames) {
-            redissonClient.getMapCache(cacheName).delete();
+            getMapCache(cacheName).delete();
+            expireDeadlines.remove(cacheName);
         }
+        invalidateHotKeys(cacheNames);
         return true;
     }
 
     @Override
     public boolean saveInRedisAsync(final String[] cacheNames, final Object cacheKey,
-                                    final Object cacheValue, long ttl) {
-
-        // 异步线程池执行处理
-        serviceCallExecutorService.execute(new Runnable() {
-            @Override
-            public void run() {
-                save(cacheNames, cacheKey, cacheValue, ttl);
-            }
-        });
-        return true;
+                                    final Object cacheValue, long ttl, TimeUnit unit) {
+        return submitWrite("saveInRedisAsync # Data save failed",
+                () -> saveAsync(cacheNames, cacheKey, cacheValue, ttl, unit));
     }
 
     /**
@@ -151,15 +458,7 @@ public class RedisCacheServiceImpl implements CacheService {
      */
     @Override
     public boolean invalidateCacheAsync(final String[] cacheNames, final Object cacheKey) {
-
-        serviceCallExecutorService.execute(new Runnable() {
-            @Override
-            public void run() {
-                invalidateCache(cacheNames, cacheKey);
-            }
-        });
-
-        return true;
+        return submitWrite("invalidateCacheAsync # Data delete failed", () -> invalidateAsync(cacheNames, cacheKey));
     }
 
     /**
@@ -169,13 +468,155 @@ public class RedisCacheServiceImpl implements CacheService {
      */
     @Override
     public boolean invalidateCacheAsync(final String[] cacheNames) {
-        serviceCallExecutorService.execute(new Runnable() {
-            @Override
-            public void run() {
-                invalidateCache(cacheNames);
+        return submitWrite("invalidateCacheAsync # Data delete failed", () -> invalidateAllAsync(cacheNames));
+    }
+
+    /**
+     * 执行异步写入， 配置了写入线程池时在线程池中执行并等待写入完成， 线程池饱和时按其拒绝策略处理
+     * （caller-runs时由调用线程执行， block时调用线程等待， abort或等待超时时放弃本次写入）
+     * @param failureMessage 写入失败的日志信息
+     * @param write 写入操作
+     * @return 放弃写入时返回false
+     */
+    private boolean submitWrite(final String failureMessage, final Supplier<CompletionStage<Boolean>> write) {
+        if (writeExecutor == null) {
+            write.get().whenComplete((result, e) -> {
+                if (e != null) {
+                    logger.error(failureMessage + " ## " + e.getMessage(), e);
+                }
+            });
+            return true;
+        }
+        try {
+            writeExecutor.execute(() -> {
+                try {
+                    write.get().toCompletableFuture().join();
+                } catch (Exception e) {
+                    logger.error(failureMessage + " ## " + e.getMessage(), e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.error(failureMessage + ", rejected by redis executor ## " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 获取缓存对象（非阻塞）
+     * @param cacheName
+     * @param cacheKey
+     * @return
+     */
+    @Override
+    public CompletionStage<Object> getFromCacheAsync(final String cacheName, final Object cacheKey) {
+        return getStoredAsync(cacheName, cacheKey).thenApply(VersionedValue::unwrap);
+    }
+
+    /**
+     * 获取带版本号的缓存对象（非阻塞）
+     * @param cacheName
+     * @param cacheKey
+     * @return
+     */
+    @Override
+    public CompletionStage<VersionedValue> getVersionedFromCacheAsync(final String cacheName, final Object cacheKey) {
+        return getStoredAsync(cacheName, cacheKey).thenApply(VersionedValue::of);
+    }
+
+    private CompletionStage<Object> getStoredAsync(final String cacheName, final Object cacheKey) {
+        if (StringUtils.isEmpty(cacheName) || cacheKey == null) {
+            throw new IllegalArgumentException("Cache name or cache key can not be null!");
+        }
+        if (hotKeyCache == null) {
+            return getMapCache(cacheName).getAsync(cacheKey);
+        }
+        Object hot = hotKeyCache.get(cacheName, cacheKey);
+        if (hot != null) {
+            return CompletableFuture.completedFuture(hot);
+        }
+        return getMapCache(cacheName).getAsync(cacheKey).thenApply(stored -> {
+            hotKeyCache.record(cacheName, cacheKey, stored);
+            return stored;
+        });
+    }
+
+    /**
+     * 清理缓存（非阻塞， 所有缓存名称在同一批次中执行）
+     * @param cacheNames
+     * @param cacheKey
+     * @return
+     */
+    @Override
+    public CompletionStage<Boolean> invalidateAsync(final String[] cacheNames, final Object cacheKey) {
+        if (cacheNames == null || cacheNames.length == 0) {
+            throw new IllegalArgumentException(
+                    "Cache names list can not be null or empty for save operation!!");
+        }
+        RBatch batch = redissonClient.createBatch();
+        for (String cacheName : cacheNames) {
+            if (!StringUtils.isEmpty(cacheName)) {
+                getMapCache(batch, cacheName).fastRemoveAsync(cacheKey);
             }
+        }
+        return batch.executeAsync().thenApply(result -> {
+            invalidateHotKey(cacheNames, cacheKey);
+            return true;
         });
-        return true;
     }
 
+    /**
+     * 清理缓存下的所有条目（非阻塞， 所有缓存名称在同一批次中执行）
+     * @param cacheNames
+     * @return
+     */
+    @Override
+    public CompletionStage<Boolean> invalidateAllAsync(final String[] cacheNames) {
+        RBatch batch = redissonClient.createBatch();
+        for (String cacheName : cacheNames) {
+            getMapCache(batch, cacheName).deleteAsync();
+            expireDeadlines.remove(cacheName);
+        }
+        return batch.executeAsync().thenApply(result -> {
+            invalidateHotKeys(cacheNames);
+            return true;
+        });
+    }
+
+    /**
+     * 清除热点KEY的本地数据
+     */
+    private void invalidateHotKey(final String[] cacheNames, final Object cacheKey) {
+        if (hotKeyCache != null) {
+            for (String cacheName : cacheNames) {
+                if (!StringUtils.isEmpty(cacheName)) {
+                    hotKeyCache.invalidate(cacheName, cacheKey);
+                }
+            }
+        }
+    }
+
+    private void invalidateHotKeys(final String[] cacheNames) {
+        if (hotKeyCache != null) {
+            for (String cacheName : cacheNames) {
+                hotKeyCache.invalidateAll(cacheName);
+            }
+        }
+    }
+
+    /**
+     * 热点KEY本地缓存， 未开启时为空
+     * @return
+     */
+    public HotKeyCache getHotKeyCache() {
+        return hotKeyCache;
+    }
+
+    /**
+     * 本节点写入的缓存条目过期时间分布
+     * @return
+     */
+    public ExpiryHistogram getExpiryHistogram() {
+        return expiryHistogram;
+    }
 }
@@ -32,4 +32,21 @@ public interface RedisSendService {
       * @param key
       */
      void sendMessage(String[] cacheNames, Object key);
+
+     /**
+      * 发送带版本号的缓存变更消息
+      * @param cacheNames
+      * @param key
+      * @param version
+      */
+     void sendMessage(String[] cacheNames, Object key, long version);
+
+     /**
+      * 推送缓存值（PUSH模式）， 序列化后超过大小阈值时降级为发送变更消息
+      * @param cacheNames
+      * @param key
+      * @param value
+      * @param version
+      */
+     void sendValue(String[] cacheNames, Object key, Object value, long version);
  }
@@ -1,12 +1,16 @@
 package com.mirson.gemini.cache.service.cache;
 
 import com.mirson.gemini.cache.config.CacheConfigProperties;
+import com.mirson.gemini.cache.service.codec.CacheCodecRegistry;
 import com.mirson.gemini.cache.service.listener.CacheMessage;
+import com.mirson.gemini.cache.service.version.VersionedValue;
 import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  *  Redis发送服务实现接口
  *
@@ -27,10 +31,27 @@ public class RedisSendServiceImpl implements RedisSendService {
       */
      private RedissonClient redissonClient;
 
+     /**
+      * 缓存编码注册表
+      */
+     private CacheCodecRegistry codecRegistry;
+
+     /**
+      * 已发布的消息数量
+      */
+     private final AtomicLong publishedMessages = new AtomicLong();
+
+     /**
+      * 发布消息的接收客户端累计数量
+      */
+     private final AtomicLong receivers = new AtomicLong();
+
      public RedisSendServiceImpl(CacheConfigProperties cacheConfigProperties,
-                                 RedissonClient redissonClient){
+                                 RedissonClient redissonClient,
+                                 CacheCodecRegistry codecRegistry){
          this.cacheConfigProperties = cacheConfigProperties;
          this.redissonClient = redissonClient;
+         this.codecRegistry = codecRegistry;
      }
     /**
      * 发送缓存变更消息
@@ -67,9 +88,83 @@ public class RedisSendServiceImpl implements RedisSendService {
      */
     @Override
     public void sendMessage(String[] cacheNames, Object key) {
-        RTopic rTopic = redissonClient.getTopic(cacheConfigProperties.getTopic());
-        long receive = rTopic.publish(new CacheMessage(cacheNames, key));
-        logger.info("sendMessage receive clients: " + receive);
+        sendMessage(cacheNames, key, VersionedValue.NO_VERSION);
+    }
+
+    /**
+     * 发送带版本号的缓存变更消息
+     * @param cacheNames
+     * @param key
+     * @param version
+     */
+    @Override
+    public void sendMessage(String[] cacheNames, Object key, long version) {
+        publish(new CacheMessage(cacheNames, key, version));
+    }
+
+    /**
+     * 推送缓存值（PUSH模式）， 序列化后超过大小阈值时降级为发送变更消息
+     * @param cacheNames
+     * @param key
+     * @param value
+     * @param version
+     */
+    @Override
+    public void sendValue(String[] cacheNames, Object key, Object value, long version) {
+        byte[] bytes = encodeValue(cacheNames[0], value);
+        if (bytes == null) {
+            sendMessage(cacheNames, key, version);
+            return;
+        }
+        publish(new CacheMessage(cacheNames, key, version, bytes));
+    }
+
+    /**
+     * 采用缓存配置的编码序列化缓存值
+     * @param cacheName
+     * @param value
+     * @return 序列化结果， 超过推送大小阈值或序列化失败时返回空
+     */
+    public byte[] encodeValue(String cacheName, Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            byte[] bytes = codecRegistry.getCodec(cacheName).getMapValueEncoder().encode(value);
+            return bytes.length <= cacheConfigProperties.getPushMaxBytes() ? bytes : null;
+        } catch (Exception e) {
+            logger.error("encodeValue # value encode failed, fall back to invalidation ## " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 发布缓存变更消息
+     * @param cacheMessage
+     * @return 接收消息的客户端数量
+     */
+    public long publish(CacheMessage cacheMessage) {
+        RTopic<CacheMessage> rTopic = redissonClient.getTopic(cacheConfigProperties.getTopic());
+        long receive = rTopic.publish(cacheMessage);
+        publishedMessages.incrementAndGet();
+        receivers.addAndGet(receive);
+        return receive;
+    }
+
+    /**
+     * 已发布的消息数量（批量发送时一个批次计为一条）
+     * @return
+     */
+    public long getPublishedMessages() {
+        return publishedMessages.get();
+    }
+
+    /**
+     * 发布消息的接收客户端累计数量
+     * @return
+     */
+    public long getReceivers() {
+        return receivers.get();
     }
 
 }
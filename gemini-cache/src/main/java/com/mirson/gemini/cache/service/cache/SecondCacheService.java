@@ -1,4 +1,12 @@
 package com.mirson.gemini.cache.service.cache;
+
+import com.mirson.gemini.cache.service.version.VersionedValue;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
  /**
  * 
  *
@@ -19,8 +27,28 @@ public abstract class SecondCacheService implements CacheService{
      }
 
      @Override
-     public boolean save(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl) {
-         return cacheService.save(cacheNames, cacheKey, cacheValue, ttl);
+     public Map<Object, Object> getAll(String cacheName, Collection<?> cacheKeys) {
+         return cacheService.getAll(cacheName, cacheKeys);
+     }
+
+     @Override
+     public VersionedValue getVersionedFromCache(String cacheName, Object cacheKey) {
+         return cacheService.getVersionedFromCache(cacheName, cacheKey);
+     }
+
+     @Override
+     public Map<Object, VersionedValue> getAllVersioned(String cacheName, Collection<?> cacheKeys) {
+         return cacheService.getAllVersioned(cacheName, cacheKeys);
+     }
+
+     @Override
+     public boolean save(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl, TimeUnit unit) {
+         return cacheService.save(cacheNames, cacheKey, cacheValue, ttl, unit);
+     }
+
+     @Override
+     public boolean saveAll(String[] cacheNames, Map<Object, ?> values, LongUnaryOperator ttlMillis) {
+         return cacheService.saveAll(cacheNames, values, ttlMillis);
      }
 
      @Override
@@ -34,8 +62,8 @@ public abstract class SecondCacheService implements CacheService{
      }
 
      @Override
-     public boolean saveInRedisAsync(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl) {
-         return cacheService.saveInRedisAsync(cacheNames, cacheKey, cacheValue, ttl);
+     public boolean saveInRedisAsync(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl, TimeUnit unit) {
+         return cacheService.saveInRedisAsync(cacheNames, cacheKey, cacheValue, ttl, unit);
      }
 
      @Override
@@ -47,4 +75,36 @@ public abstract class SecondCacheService implements CacheService{
      public boolean invalidateCacheAsync(String[] cacheNames) {
          return cacheService.invalidateCacheAsync(cacheNames);
      }
+
+     @Override
+     public CompletionStage<Object> getFromCacheAsync(String cacheName, Object cacheKey) {
+         return cacheService.getFromCacheAsync(cacheName, cacheKey);
+     }
+
+     @Override
+     public CompletionStage<VersionedValue> getVersionedFromCacheAsync(String cacheName, Object cacheKey) {
+         return cacheService.getVersionedFromCacheAsync(cacheName, cacheKey);
+     }
+
+     @Override
+     public CompletionStage<Boolean> saveAsync(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl,
+                                               TimeUnit unit) {
+         return cacheService.saveAsync(cacheNames, cacheKey, cacheValue, ttl, unit);
+     }
+
+     @Override
+     public CompletionStage<Boolean> saveAllAsync(String[] cacheNames, Map<Object, ?> values,
+                                                  LongUnaryOperator ttlMillis) {
+         return cacheService.saveAllAsync(cacheNames, values, ttlMillis);
+     }
+
+     @Override
+     public CompletionStage<Boolean> invalidateAsync(String[] cacheNames, Object cacheKey) {
+         return cacheService.invalidateAsync(cacheNames, cacheKey);
+     }
+
+     @Override
+     public CompletionStage<Boolean> invalidateAllAsync(String[] cacheNames) {
+         return cacheService.invalidateAllAsync(cacheNames);
+     }
 }
@@ -0,0 +1,33 @@
+package com.mirson.gemini.cache.service.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.mirson.gemini.cache.service.version.VersionedValue;
+import com.mirson.gemini.cache.utils.ObjectSizeEstimator;
+
+/**
+ * 按缓存对象的大小（字节）计算缓存权重， 配置maximumWeight未指定weigher时的默认权重计算器
+ * 优先采用读写Redis时编码记录的序列化长度， 只有未经过序列化的缓存值（如只使用本地缓存）才按反射估算堆内存占用。
+ */
+public class SizeEstimatingWeigher implements Weigher<Object, Object> {
+
+    /**
+     * 缓存条目固定开销（Caffeine节点与版本包装对象）
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long size = ENTRY_OVERHEAD + ObjectSizeEstimator.estimate(key) + valueSize(value);
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    private static long valueSize(Object value) {
+        if (value instanceof VersionedValue) {
+            int serializedSize = ((VersionedValue) value).getSerializedSize();
+            if (serializedSize > 0) {
+                return serializedSize;
+            }
+        }
+        return ObjectSizeEstimator.estimate(VersionedValue.unwrap(value));
+    }
+}
@@ -0,0 +1,29 @@
+package com.mirson.gemini.cache.service.codec;
+
+import java.io.IOException;
+
+/**
+ * 缓存值编码接口（KEY与值采用同一编码）
+ * 可通过 app.cache.codec.type 全局配置或 app.cache.caches.缓存名称.codec 按缓存配置，
+ * 配置值为内置编码名称、实现本接口的Spring Bean名称或类名； 实现需线程安全。
+ */
+public interface CacheCodec {
+
+    /**
+     * 序列化
+     * @param value
+     * @return
+     * @throws IOException
+     */
+    byte[] encode(Object value) throws IOException;
+
+    /**
+     * 反序列化， 返回后不再引用传入的数组（数组可能被复用）
+     * @param bytes
+     * @param offset
+     * @param length
+     * @return
+     * @throws IOException
+     */
+    Object decode(byte[] bytes, int offset, int length) throws IOException;
+}
@@ -0,0 +1,312 @@
+package com.mirson.gemini.cache.service.codec;
+
+import com.mirson.gemini.cache.config.CacheConfigProperties;
+import com.mirson.gemini.cache.config.CacheRegionConfig;
+import com.mirson.gemini.cache.config.CacheRegionProperties;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.JsonJacksonCodec;
+import org.redisson.codec.LZ4Codec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 缓存编码注册表， 按缓存名称获取Redis与堆外缓存使用的编码
+ * 缓存未单独配置codec/压缩时采用全局编码（app.cache.codec.type）与压缩算法（app.cache.codec.compression.type），
+ * 开启压缩时在原有编码外增加自适应压缩（{@link CompressingCacheCodec}）。
+ * 未配置全局编码时采用Redisson默认编码（JsonJacksonCodec）且不压缩， 与原有版本实际写入的数据兼容；
+ * 其他编码与压缩需显式配置， 切换后与已有缓存数据、未升级节点的消息互不兼容， 需清理缓存并整体升级。
+ */
+public class CacheCodecRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheCodecRegistry.class);
+
+    /**
+     * Redisson默认编码（JsonJacksonCodec）， 未配置全局编码时采用
+     */
+    public static final String DEFAULT = "default";
+
+    public static final String FST = "fst";
+
+    public static final String KRYO = "kryo";
+
+    public static final String SMILE = "smile";
+
+    public static final String CBOR = "cbor";
+
+    public static final String JSON = "json";
+
+    /**
+     * Redisson LZ4Codec（FST编码 + LZ4压缩， 自带压缩格式， 不再叠加压缩）
+     */
+    public static final String LZ4 = "lz4";
+
+    private static final String KRYO_CLASS_NAME = "com.esotericsoftware.kryo.Kryo";
+
+    private final CacheRegionProperties regionProperties;
+
+    private final CacheConfigProperties cacheConfigProperties;
+
+    private final BeanFactory beanFactory;
+
+    /**
+     * 全局编码名称
+     */
+    private final String defaultCodecName;
+
+    /**
+     * 全局压缩算法
+     */
+    private final CompressionType defaultCompression;
+
+    /**
+     * 全局编码（包括压缩）
+     */
+    private volatile Codec defaultCodec;
+
+    /**
+     * 编码名称 -> 编码（不包括压缩）
+     */
+    private final Map<String, Codec> codecs = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存名称 -> 编码
+     */
+    private final Map<String, Codec> cacheCodecs = new ConcurrentHashMap<>();
+
+    public CacheCodecRegistry(CacheRegionProperties regionProperties, CacheConfigProperties cacheConfigProperties,
+                              BeanFactory beanFactory) {
+        this.regionProperties = regionProperties;
+        this.cacheConfigProperties = cacheConfigProperties;
+        this.beanFactory = beanFactory;
+        if (StringUtils.hasText(cacheConfigProperties.getCodecType())) {
+            this.defaultCodecName = cacheConfigProperties.getCodecType().trim();
+        } else {
+            this.defaultCodecName = DEFAULT;
+        }
+        if (StringUtils.hasText(cacheConfigProperties.getCompressionType())) {
+            this.defaultCompression = CompressionType.from(cacheConfigProperties.getCompressionType());
+        } else {
+            // 原有的useCompression只在显式配置了编码时生效， 避免改变默认编码的数据格式
+            this.defaultCompression = cacheConfigProperties.isUseCompression() && !DEFAULT.equals(defaultCodecName)
+                    && !LZ4.equalsIgnoreCase(defaultCodecName) ? CompressionType.LZ4 : CompressionType.NONE;
+        }
+    }
+
+    /**
+     * 全局编码， 用于Redisson默认编码与未单独配置的缓存
+     * @return
+     */
+    public Codec getDefaultCodec() {
+        Codec codec = defaultCodec;
+        if (codec == null) {
+            synchronized (this) {
+                if (defaultCodec == null) {
+                    defaultCodec = compose(defaultCodecName, defaultCompression,
+                            cacheConfigProperties.getCompressionThreshold(), null);
+                }
+                codec = defaultCodec;
+            }
+        }
+        return codec;
+    }
+
+    /**
+     * 获取缓存使用的编码， 读写缓存值时记录其序列化长度， 用于本地缓存的权重计算
+     * @param cacheName
+     * @return
+     */
+    public Codec getCodec(String cacheName) {
+        Codec codec = cacheCodecs.get(cacheName);
+        if (codec == null) {
+            codec = cacheCodecs.computeIfAbsent(cacheName, name -> new SizeRecordingCodec(createCacheCodec(name)));
+        }
+        return codec;
+    }
+
+    private Codec createCacheCodec(String cacheName) {
+        CacheRegionConfig config = regionProperties.getCaches().get(cacheName);
+        if (config == null || (!StringUtils.hasText(config.getCodec()) && !StringUtils.hasText(config.getCompression())
+                && config.getCompressionThreshold() == null && !StringUtils.hasText(config.getZstdDictionary()))) {
+            return getDefaultCodec();
+        }
+        String codecName = getCodecName(cacheName);
+        CompressionType compression;
+        if (StringUtils.hasText(config.getCompression())) {
+            compression = CompressionType.from(config.getCompression());
+        } else if (StringUtils.hasText(config.getCodec())) {
+            compression = LZ4.equalsIgnoreCase(codecName) ? CompressionType.NONE : defaultCompression;
+        } else {
+            compression = defaultCompression;
+        }
+        int threshold = config.getCompressionThreshold() != null ? config.getCompressionThreshold()
+                : cacheConfigProperties.getCompressionThreshold();
+        return compose(codecName, compression, threshold, loadDictionary(config.getZstdDictionary()));
+    }
+
+    /**
+     * 在编码外增加压缩
+     * @param codecName 编码名称
+     * @param compression 压缩算法
+     * @param threshold 压缩阈值
+     * @param zstdDictionary Zstd字典
+     * @return
+     */
+    private Codec compose(String codecName, CompressionType compression, int threshold, byte[] zstdDictionary) {
+        Codec codec = getCodecByName(codecName);
+        if (compression == CompressionType.NONE) {
+            return codec;
+        }
+        if (!(codec instanceof RedissonCodecAdapter)) {
+            logger.warn("compose # compression is only supported by CacheCodec, ignored for codec: " + codecName);
+            return codec;
+        }
+        CacheCompressor compressor = zstdDictionary == null
+                && cacheConfigProperties.getZstdLevel() == ZstdCacheCompressor.DEFAULT_LEVEL
+                ? CacheCompressors.get(compression)
+                : CacheCompressors.create(compression, cacheConfigProperties.getZstdLevel(), zstdDictionary);
+        return new RedissonCodecAdapter(new CompressingCacheCodec(
+                ((RedissonCodecAdapter) codec).getCacheCodec(), compressor, threshold));
+    }
+
+    /**
+     * 加载Zstd字典
+     * @param location
+     * @return 未配置时返回空
+     */
+    private byte[] loadDictionary(String location) {
+        if (!StringUtils.hasText(location)) {
+            return null;
+        }
+        Resource resource = new DefaultResourceLoader().getResource(location.trim());
+        try (InputStream input = resource.getInputStream()) {
+            return StreamUtils.copyToByteArray(input);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Zstd dictionary not found: " + location, e);
+        }
+    }
+
+    /**
+     * 按缓存的编码（不压缩）编码样本， 训练Zstd字典
+     * 样本应为缓存中实际保存的对象（如RMapCache.values()返回的VersionedValue）， 训练结果保存后通过
+     * app.cache.caches.缓存名称.zstdDictionary 配置， 所有节点须一致。
+     * @param cacheName
+     * @param samples
+     * @param dictionarySize 字典大小（单位：字节）
+     * @return
+     * @throws IOException
+     */
+    public byte[] trainZstdDictionary(String cacheName, Iterable<?> samples, int dictionarySize) throws IOException {
+        Codec codec = getCodecByName(getCodecName(cacheName));
+        List<byte[]> encoded = new ArrayList<>();
+        for (Object sample : samples) {
+            encoded.add(codec.getMapValueEncoder().encode(sample));
+        }
+        return ZstdCacheCompressor.trainDictionary(encoded, dictionarySize);
+    }
+
+    /**
+     * 获取缓存配置的编码名称
+     * @param cacheName
+     * @return
+     */
+    public String getCodecName(String cacheName) {
+        CacheRegionConfig config = regionProperties.getCaches().get(cacheName);
+        if (config != null && StringUtils.hasText(config.getCodec())) {
+            return config.getCodec().trim();
+        }
+        return defaultCodecName;
+    }
+
+    /**
+     * 按名称获取编码
+     * @param codecName 内置编码名称、Spring Bean名称或类名
+     * @return
+     */
+    public Codec getCodecByName(String codecName) {
+        Codec codec = codecs.get(codecName);
+        if (codec == null) {
+            codec = codecs.computeIfAbsent(codecName, this::createCodec);
+        }
+        return codec;
+    }
+
+    private Codec createCodec(String codecName) {
+        switch (codecName.toLowerCase()) {
+            case DEFAULT:
+                return new JsonJacksonCodec();
+            case LZ4:
+                return new LZ4Codec();
+            case FST:
+                return new RedissonCodecAdapter(new FstCacheCodec());
+            case KRYO:
+                return new RedissonCodecAdapter(createKryoCodec());
+            case SMILE:
+                return new RedissonCodecAdapter(new JacksonCacheCodec(JacksonCacheCodec.Format.SMILE));
+            case CBOR:
+                return new RedissonCodecAdapter(new JacksonCacheCodec(JacksonCacheCodec.Format.CBOR));
+            case JSON:
+                return new RedissonCodecAdapter(new JacksonCacheCodec(JacksonCacheCodec.Format.JSON));
+            default:
+                return resolveCodec(codecName);
+        }
+    }
+
+    private CacheCodec createKryoCodec() {
+        if (!ClassUtils.isPresent(KRYO_CLASS_NAME, getClass().getClassLoader())) {
+            throw new IllegalStateException("Codec kryo requires " + KRYO_CLASS_NAME + " on the classpath");
+        }
+        List<Class<?>> registrations = new ArrayList<>();
+        for (String className : StringUtils.commaDelimitedListToStringArray(cacheConfigProperties.getKryoClasses())) {
+            if (!StringUtils.hasText(className)) {
+                continue;
+            }
+            try {
+                registrations.add(ClassUtils.forName(className.trim(), ClassUtils.getDefaultClassLoader()));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("Kryo registration class not found: " + className, e);
+            }
+        }
+        return new KryoCacheCodec(registrations, cacheConfigProperties.isKryoRegistrationRequired());
+    }
+
+    /**
+     * 按Spring Bean名称或类名获取自定义编码
+     * @param codecName
+     * @return
+     */
+    private Codec resolveCodec(String codecName) {
+        Object codec;
+        if (beanFactory != null && beanFactory.containsBean(codecName)) {
+            codec = beanFactory.getBean(codecName);
+        } else {
+            try {
+                Class<?> codecClass = ClassUtils.forName(codecName, ClassUtils.getDefaultClassLoader());
+                codec = BeanUtils.instantiateClass(codecClass);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("Cache codec not found: " + codecName, e);
+            }
+        }
+        if (codec instanceof Codec) {
+            return (Codec) codec;
+        }
+        if (codec instanceof CacheCodec) {
+            return new RedissonCodecAdapter((CacheCodec) codec);
+        }
+        throw new IllegalArgumentException("Cache codec " + codecName + " must implement "
+                + CacheCodec.class.getName() + " or " + Codec.class.getName());
+    }
+}
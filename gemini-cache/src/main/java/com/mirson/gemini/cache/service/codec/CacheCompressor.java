@@ -0,0 +1,36 @@
+package com.mirson.gemini.cache.service.codec;
+
+import java.io.IOException;
+
+/**
+ * 缓存值压缩接口， 在调用方提供的数组上压缩与解压， 实现需线程安全
+ */
+public interface CacheCompressor {
+
+    /**
+     * 压缩算法
+     * @return
+     */
+    CompressionType getType();
+
+    /**
+     * 压缩结果的最大长度
+     * @param length 原始长度
+     * @return
+     */
+    int maxCompressedLength(int length);
+
+    /**
+     * 压缩
+     * @return 压缩后的长度
+     * @throws IOException
+     */
+    int compress(byte[] src, int srcOffset, int srcLength, byte[] dest, int destOffset) throws IOException;
+
+    /**
+     * 解压， 解压结果的长度必须为原始长度
+     * @throws IOException
+     */
+    void decompress(byte[] src, int srcOffset, int srcLength, byte[] dest, int destOffset, int originalLength)
+            throws IOException;
+}
@@ -0,0 +1,63 @@
+package com.mirson.gemini.cache.service.codec;
+
+import org.springframework.util.ClassUtils;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 压缩算法实例， 未配置字典的默认实例在所有缓存间共享
+ */
+public final class CacheCompressors {
+
+    private static final Map<CompressionType, CacheCompressor> DEFAULTS = new EnumMap<>(CompressionType.class);
+
+    private CacheCompressors() {
+    }
+
+    /**
+     * 获取默认配置的压缩算法
+     * @param type
+     * @return 不压缩时返回空
+     */
+    public static synchronized CacheCompressor get(CompressionType type) {
+        if (type == CompressionType.NONE) {
+            return null;
+        }
+        CacheCompressor compressor = DEFAULTS.get(type);
+        if (compressor == null) {
+            compressor = create(type, ZstdCacheCompressor.DEFAULT_LEVEL, null);
+            DEFAULTS.put(type, compressor);
+        }
+        return compressor;
+    }
+
+    /**
+     * 创建压缩算法
+     * @param type
+     * @param zstdLevel Zstd压缩级别
+     * @param zstdDictionary Zstd字典， 为空时不使用字典
+     * @return 不压缩时返回空
+     */
+    public static CacheCompressor create(CompressionType type, int zstdLevel, byte[] zstdDictionary) {
+        switch (type) {
+            case LZ4:
+                return new Lz4CacheCompressor();
+            case ZSTD:
+                checkPresent(type, "com.github.luben.zstd.Zstd");
+                return new ZstdCacheCompressor(zstdLevel, zstdDictionary);
+            case SNAPPY:
+                checkPresent(type, "org.xerial.snappy.Snappy");
+                return new SnappyCacheCompressor();
+            default:
+                return null;
+        }
+    }
+
+    private static void checkPresent(CompressionType type, String className) {
+        if (!ClassUtils.isPresent(className, CacheCompressors.class.getClassLoader())) {
+            throw new IllegalStateException("Compression " + type.name().toLowerCase()
+                    + " requires " + className + " on the classpath");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.mirson.gemini.cache.service.codec;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * 编解码使用的线程本地缓冲区， 超过保留上限的缓冲区使用后释放， 避免长期占用内存
+ */
+public final class CodecBuffers {
+
+    /**
+     * 初始缓冲区大小
+     */
+    public static final int INITIAL_SIZE = 4096;
+
+    /**
+     * 线程保留缓冲区的最大字节数
+     */
+    public static final int MAX_RETAINED_SIZE = 256 * 1024;
+
+    private static final ThreadLocal<ReusableOutputStream> OUTPUTS =
+            ThreadLocal.withInitial(() -> new ReusableOutputStream(INITIAL_SIZE));
+
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[INITIAL_SIZE]);
+
+    private static final ThreadLocal<byte[]> WORK = ThreadLocal.withInitial(() -> new byte[INITIAL_SIZE]);
+
+    private CodecBuffers() {
+    }
+
+    /**
+     * 获取当前线程的输出流（已清空）， 使用完成后调用 {@link #release(ReusableOutputStream)}
+     * @return
+     */
+    public static ReusableOutputStream output() {
+        ReusableOutputStream output = OUTPUTS.get();
+        output.reset();
+        return output;
+    }
+
+    /**
+     * 输出流使用完成， 超过保留上限时释放
+     * @param output
+     */
+    public static void release(ReusableOutputStream output) {
+        if (output.capacity() > MAX_RETAINED_SIZE) {
+            OUTPUTS.remove();
+        }
+    }
+
+    /**
+     * 获取当前线程不小于指定长度的临时数组， 超过保留上限时直接分配
+     * @param length
+     * @return
+     */
+    public static byte[] scratch(int length) {
+        return get(SCRATCH, length);
+    }
+
+    /**
+     * 获取当前线程不小于指定长度的压缩/解压数组（与 {@link #scratch(int)} 相互独立， 可同时使用）
+     * @param length
+     * @return
+     */
+    public static byte[] work(int length) {
+        return get(WORK, length);
+    }
+
+    private static byte[] get(ThreadLocal<byte[]> buffers, int length) {
+        if (length > MAX_RETAINED_SIZE) {
+            return new byte[length];
+        }
+        byte[] buffer = buffers.get();
+        if (buffer.length < length) {
+            buffer = new byte[Math.min(Math.max(length, buffer.length * 2), MAX_RETAINED_SIZE)];
+            buffers.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * 可复用的字节输出流
+     */
+    public static final class ReusableOutputStream extends ByteArrayOutputStream {
+
+        private ReusableOutputStream(int size) {
+            super(size);
+        }
+
+        public int capacity() {
+            return buf.length;
+        }
+
+        /**
+         * 内部数组（有效长度为 {@link #size()}）
+         * @return
+         */
+        public byte[] buffer() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.mirson.gemini.cache.service.codec;
+
+import java.io.IOException;
+
+/**
+ * 按大小自适应压缩的编码， 在原有编码结果前增加一个字节的帧头：
+ * <pre>
+ * 0x00 + 原始数据                      小于阈值或压缩后未变小
+ * 算法编号 + 原始长度（4字节） + 压缩数据   其他
+ * </pre>
+ * 解码时按帧头中的算法解压， 切换压缩算法后原有数据仍可读取（Zstd字典需一致）。
+ */
+public class CompressingCacheCodec implements CacheCodec {
+
+    /**
+     * 压缩帧头长度（算法编号 + 原始长度）
+     */
+    private static final int HEADER_LENGTH = 5;
+
+    private final CacheCodec delegate;
+
+    private final CacheCompressor compressor;
+
+    /**
+     * 压缩阈值（单位：字节）， 小于阈值的数据不压缩
+     */
+    private final int threshold;
+
+    /**
+     * @param delegate 原有编码
+     * @param compressor 压缩算法， 为空时不压缩
+     * @param threshold 压缩阈值（单位：字节）
+     */
+    public CompressingCacheCodec(CacheCodec delegate, CacheCompressor compressor, int threshold) {
+        this.delegate = delegate;
+        this.compressor = compressor;
+        this.threshold = threshold;
+    }
+
+    public CacheCodec getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        byte[] raw = delegate.encode(value);
+        if (compressor != null && raw.length >= threshold) {
+            byte[] work = CodecBuffers.work(HEADER_LENGTH + compressor.maxCompressedLength(raw.length));
+            int compressed = compressor.compress(raw, 0, raw.length, work, HEADER_LENGTH);
+            if (compressed + HEADER_LENGTH < raw.length + 1) {
+                work[0] = compressor.getType().getId();
+                writeInt(work, 1, raw.length);
+                byte[] bytes = new byte[HEADER_LENGTH + compressed];
+                System.arraycopy(work, 0, bytes, 0, bytes.length);
+                return bytes;
+            }
+        }
+        byte[] bytes = new byte[raw.length + 1];
+        bytes[0] = CompressionType.NONE.getId();
+        System.arraycopy(raw, 0, bytes, 1, raw.length);
+        return bytes;
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) throws IOException {
+        if (length < 1) {
+            throw new IOException("Empty cache value");
+        }
+        byte id = bytes[offset];
+        if (id == CompressionType.NONE.getId()) {
+            return delegate.decode(bytes, offset + 1, length - 1);
+        }
+        if (length < HEADER_LENGTH) {
+            throw new IOException("Corrupted compressed cache value");
+        }
+        int originalLength = readInt(bytes, offset + 1);
+        if (originalLength < 0) {
+            throw new IOException("Corrupted compressed cache value");
+        }
+        byte[] work = CodecBuffers.work(originalLength);
+        decompressor(id).decompress(bytes, offset + HEADER_LENGTH, length - HEADER_LENGTH, work, 0, originalLength);
+        return delegate.decode(work, 0, originalLength);
+    }
+
+    /**
+     * 帧头中的算法与当前算法一致时采用当前配置（如Zstd字典）， 否则采用默认配置
+     * @param id
+     * @return
+     * @throws IOException
+     */
+    private CacheCompressor decompressor(byte id) throws IOException {
+        if (compressor != null && compressor.getType().getId() == id) {
+            return compressor;
+        }
+        CompressionType type = CompressionType.fromId(id);
+        if (type == null || type == CompressionType.NONE) {
+            throw new IOException("Unknown compression type: " + id);
+        }
+        return CacheCompressors.get(type);
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+}
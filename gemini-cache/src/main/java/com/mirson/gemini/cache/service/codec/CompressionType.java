@@ -0,0 +1,60 @@
+package com.mirson.gemini.cache.service.codec;
+
+/**
+ * 缓存值压缩算法， 编号写入编码结果的首字节
+ */
+public enum CompressionType {
+
+    /**
+     * 不压缩
+     */
+    NONE((byte) 0),
+
+    /**
+     * LZ4（net.jpountz.lz4）， 速度最快
+     */
+    LZ4((byte) 1),
+
+    /**
+     * Zstandard（需引入 com.github.luben:zstd-jni）， 压缩率高， 支持按缓存训练的字典
+     */
+    ZSTD((byte) 2),
+
+    /**
+     * Snappy（需引入 org.xerial.snappy:snappy-java）
+     */
+    SNAPPY((byte) 3);
+
+    private final byte id;
+
+    CompressionType(byte id) {
+        this.id = id;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    /**
+     * 按编号获取压缩算法
+     * @param id
+     * @return 未知编号返回空
+     */
+    public static CompressionType fromId(byte id) {
+        for (CompressionType type : values()) {
+            if (type.id == id) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 解析配置值（不区分大小写）
+     * @param value
+     * @return
+     */
+    public static CompressionType from(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,46 @@
+package com.mirson.gemini.cache.service.codec;
+
+import org.nustaq.serialization.FSTConfiguration;
+import org.nustaq.serialization.FSTObjectInput;
+import org.nustaq.serialization.FSTObjectOutput;
+
+import java.io.IOException;
+
+/**
+ * FST编码（与Redisson FstCodec的数据格式一致）， 采用FST线程本地的输入输出对象
+ * 注意： FST已停止维护， 在JDK 16及以上版本需开放模块访问， 新部署建议采用Kryo。
+ */
+public class FstCacheCodec implements CacheCodec {
+
+    private final FSTConfiguration configuration;
+
+    public FstCacheCodec() {
+        this(FSTConfiguration.createDefaultConfiguration());
+    }
+
+    public FstCacheCodec(FSTConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        FSTObjectOutput output = configuration.getObjectOutput();
+        output.writeObject(value);
+        return output.getCopyOfWrittenBuffer();
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) throws IOException {
+        FSTObjectInput input;
+        if (offset == 0) {
+            input = configuration.getObjectInput(bytes, length);
+        } else {
+            input = configuration.getObjectInputCopyFrom(bytes, offset, length);
+        }
+        try {
+            return input.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mirson.gemini.cache.service.codec;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Jackson编码： JSON、Smile（二进制JSON， 需引入jackson-dataformat-smile）、CBOR（需引入jackson-dataformat-cbor）
+ * 按字段读写（不依赖getter/setter）， 除JSON原生类型外均写入类名， 解码时还原原有类型； 编码写入线程本地缓冲区。
+ */
+public class JacksonCacheCodec implements CacheCodec {
+
+    /**
+     * 编码格式
+     */
+    public enum Format {
+
+        JSON("com.fasterxml.jackson.core.JsonFactory"),
+
+        SMILE("com.fasterxml.jackson.dataformat.smile.SmileFactory"),
+
+        CBOR("com.fasterxml.jackson.dataformat.cbor.CBORFactory");
+
+        private final String factoryClassName;
+
+        Format(String factoryClassName) {
+            this.factoryClassName = factoryClassName;
+        }
+    }
+
+    /**
+     * JSON原生类型， 解码时可直接还原， 无需写入类名
+     */
+    private static final Set<Class<?>> NATURAL_TYPES = new HashSet<>(Arrays.<Class<?>>asList(
+            String.class, Boolean.class, Integer.class, Double.class));
+
+    private final ObjectWriter writer;
+
+    private final ObjectReader reader;
+
+    public JacksonCacheCodec(Format format) {
+        this(createMapper(format));
+    }
+
+    public JacksonCacheCodec(ObjectMapper mapper) {
+        // 按Object类型写入， 根对象同样写入类名
+        this.writer = mapper.writerFor(Object.class);
+        this.reader = mapper.readerFor(Object.class);
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        CodecBuffers.ReusableOutputStream output = CodecBuffers.output();
+        try {
+            writer.writeValue(output, value);
+            return output.toByteArray();
+        } finally {
+            CodecBuffers.release(output);
+        }
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) throws IOException {
+        return reader.readValue(bytes, offset, length);
+    }
+
+    /**
+     * 创建编码使用的ObjectMapper
+     * @param format
+     * @return
+     */
+    public static ObjectMapper createMapper(Format format) {
+        JsonFactory factory;
+        try {
+            Class<?> factoryClass = ClassUtils.forName(format.factoryClassName, JacksonCacheCodec.class.getClassLoader());
+            factory = (JsonFactory) BeanUtils.instantiateClass(factoryClass);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Codec " + format.name().toLowerCase()
+                    + " requires " + format.factoryClassName + " on the classpath", e);
+        }
+        ObjectMapper mapper = new ObjectMapper(factory);
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        mapper.setVisibility(PropertyAccessor.CREATOR, JsonAutoDetect.Visibility.ANY);
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, true);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        TypeResolverBuilder<?> typer = new ClassTypeResolverBuilder()
+                .init(JsonTypeInfo.Id.CLASS, null).inclusion(JsonTypeInfo.As.PROPERTY);
+        mapper.setDefaultTyping(typer);
+        return mapper;
+    }
+
+    /**
+     * 除JSON原生类型外均写入类名
+     */
+    private static class ClassTypeResolverBuilder extends ObjectMapper.DefaultTypeResolverBuilder {
+
+        private static final long serialVersionUID = 1L;
+
+        ClassTypeResolverBuilder() {
+            super(ObjectMapper.DefaultTyping.NON_FINAL);
+        }
+
+        @Override
+        public boolean useForType(JavaType type) {
+            // final类型（如VersionedValue、Long）同样写入类名， 只有JSON原生类型不写入
+            return !type.isPrimitive() && !NATURAL_TYPES.contains(type.getRawClass());
+        }
+    }
+}
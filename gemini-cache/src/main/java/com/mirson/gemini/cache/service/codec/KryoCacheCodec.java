@@ -0,0 +1,129 @@
+package com.mirson.gemini.cache.service.codec;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.mirson.gemini.cache.service.bloom.BloomFilterMessage;
+import com.mirson.gemini.cache.service.cache.NullValue;
+import com.mirson.gemini.cache.service.listener.CacheBatchMessage;
+import com.mirson.gemini.cache.service.listener.CacheMessage;
+import com.mirson.gemini.cache.service.version.VersionedValue;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Kryo编码（需引入 com.esotericsoftware:kryo）， 每个线程独立的Kryo实例与输入输出缓冲区
+ * 注册的类只写入编号不写入类名， 编码更小更快； 编号按注册顺序分配， 所有节点的注册列表必须一致，
+ * 调整注册列表后需清理已有缓存。 没有无参构造方法的类通过Objenesis实例化。
+ */
+public class KryoCacheCodec implements CacheCodec {
+
+    /**
+     * 默认注册的类（编号在用户注册的类之前）， 包含集群同步消息（全局编码同时用于消息通道）
+     */
+    private static final List<Class<?>> DEFAULT_REGISTRATIONS = Collections.unmodifiableList(Arrays.<Class<?>>asList(
+            VersionedValue.class, ArrayList.class, LinkedList.class, HashMap.class, LinkedHashMap.class,
+            TreeMap.class, HashSet.class, LinkedHashSet.class, TreeSet.class, Date.class, Object[].class,
+            String[].class, byte[].class, CacheMessage.class, CacheBatchMessage.class, BloomFilterMessage.class,
+            CacheBatchMessage.Entry.class));
+
+    /**
+     * 用户注册的类
+     */
+    private final List<Class<?>> registrations;
+
+    /**
+     * 是否只允许编码已注册的类
+     */
+    private final boolean registrationRequired;
+
+    private final ThreadLocal<Kryo> kryos = ThreadLocal.withInitial(this::createKryo);
+
+    private final ThreadLocal<Output> outputs =
+            ThreadLocal.withInitial(() -> new Output(CodecBuffers.INITIAL_SIZE, -1));
+
+    private final ThreadLocal<Input> inputs = ThreadLocal.withInitial(Input::new);
+
+    public KryoCacheCodec() {
+        this(Collections.<Class<?>>emptyList(), false);
+    }
+
+    /**
+     * @param registrations 注册的类， 所有节点须一致
+     * @param registrationRequired 是否只允许编码已注册的类
+     */
+    public KryoCacheCodec(List<Class<?>> registrations, boolean registrationRequired) {
+        this.registrations = new ArrayList<>(registrations);
+        this.registrationRequired = registrationRequired;
+    }
+
+    /**
+     * 创建Kryo实例， 子类可扩展注册自定义Serializer
+     * @return
+     */
+    protected Kryo createKryo() {
+        Kryo kryo = new Kryo();
+        kryo.setReferences(true);
+        kryo.setRegistrationRequired(registrationRequired);
+        kryo.setClassLoader(getClass().getClassLoader());
+        Kryo.DefaultInstantiatorStrategy instantiatorStrategy = new Kryo.DefaultInstantiatorStrategy();
+        instantiatorStrategy.setFallbackInstantiatorStrategy(new StdInstantiatorStrategy());
+        kryo.setInstantiatorStrategy(instantiatorStrategy);
+        kryo.register(NullValue.class, new NullValueSerializer());
+        for (Class<?> type : DEFAULT_REGISTRATIONS) {
+            kryo.register(type);
+        }
+        for (Class<?> type : registrations) {
+            kryo.register(type);
+        }
+        return kryo;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        Output output = outputs.get();
+        output.clear();
+        kryos.get().writeClassAndObject(output, value);
+        byte[] bytes = output.toBytes();
+        if (output.getBuffer().length > CodecBuffers.MAX_RETAINED_SIZE) {
+            outputs.remove();
+        }
+        return bytes;
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) throws IOException {
+        Input input = inputs.get();
+        input.setBuffer(bytes, offset, length);
+        return kryos.get().readClassAndObject(input);
+    }
+
+    /**
+     * 空值标记解码为单例
+     */
+    private static final class NullValueSerializer extends Serializer<NullValue> {
+
+        @Override
+        public void write(Kryo kryo, Output output, NullValue object) {
+        }
+
+        @Override
+        public NullValue read(Kryo kryo, Input input, Class<NullValue> type) {
+            return NullValue.INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.mirson.gemini.cache.service.codec;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.IOException;
+
+/**
+ * LZ4块压缩， 原始长度由帧头保存， 解压时按原始长度分配
+ */
+public class Lz4CacheCompressor implements CacheCompressor {
+
+    private final LZ4Compressor compressor;
+
+    private final LZ4FastDecompressor decompressor;
+
+    public Lz4CacheCompressor() {
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public CompressionType getType() {
+        return CompressionType.LZ4;
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+        return compressor.maxCompressedLength(length);
+    }
+
+    @Override
+    public int compress(byte[] src, int srcOffset, int srcLength, byte[] dest, int destOffset) {
+        return compressor.compress(src, srcOffset, srcLength, dest, destOffset, dest.length - destOffset);
+    }
+
+    @Override
+    public void decompress(byte[] src, int srcOffset, int srcLength, byte[] dest, int destOffset, int originalLength)
+            throws IOException {
+        int read = decompressor.decompress(src, srcOffset, dest, destOffset, originalLength);
+        if (read != srcLength) {
+            throw new IOException("Corrupted LZ4 block: read " + read + " of " + srcLength + " bytes");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mirson.gemini.cache.service.codec;
+
+import io.netty.buffer.ByteBuf;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+
+import java.io.IOException;
+
+/**
+ * 将 {@link CacheCodec} 适配为Redisson编码， KEY与值采用同一编码
+ * 解码时堆内缓冲区直接读取， 直接内存缓冲区复制到线程本地数组后读取。
+ */
+public class RedissonCodecAdapter implements Codec {
+
+    private final CacheCodec cacheCodec;
+
+    private final Encoder encoder = new Encoder() {
+        @Override
+        public byte[] encode(Object in) throws IOException {
+            return cacheCodec.encode(in);
+        }
+    };
+
+    private final Decoder<Object> decoder = new Decoder<Object>() {
+        @Override
+        public Object decode(ByteBuf buf, State state) throws IOException {
+            int length = buf.readableBytes();
+            if (buf.hasArray()) {
+                Object value = cacheCodec.decode(buf.array(), buf.arrayOffset() + buf.readerIndex(), length);
+                buf.skipBytes(length);
+                return value;
+            }
+            byte[] bytes = CodecBuffers.scratch(length);
+            buf.readBytes(bytes, 0, length);
+            return cacheCodec.decode(bytes, 0, length);
+        }
+    };
+
+    public RedissonCodecAdapter(CacheCodec cacheCodec) {
+        this.cacheCodec = cacheCodec;
+    }
+
+    public CacheCodec getCacheCodec() {
+        return cacheCodec;
+    }
+
+    @Override
+    public Decoder<Object> getMapValueDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public Encoder getMapValueEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public Decoder<Object> getMapKeyDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public Encoder getMapKeyEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public String toString() {
+        return cacheCodec.getClass().getSimpleName();
+    }
+}
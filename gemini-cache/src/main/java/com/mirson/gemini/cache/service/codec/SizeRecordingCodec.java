@@ -0,0 +1,87 @@
+package com.mirson.gemini.cache.service.codec;
+
+import com.mirson.gemini.cache.service.version.VersionedValue;
+import io.netty.buffer.ByteBuf;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+
+import java.io.IOException;
+
+/**
+ * 记录缓存值序列化长度的编码包装
+ * 编码与解码缓存值时， 将序列化后的字节数记录到 {@link VersionedValue}， 本地缓存按此计算权重， 无需再反射估算对象大小。
+ */
+public class SizeRecordingCodec implements Codec {
+
+    private final Codec delegate;
+
+    private final Encoder mapValueEncoder;
+
+    private final Decoder<Object> mapValueDecoder;
+
+    public SizeRecordingCodec(Codec delegate) {
+        this.delegate = delegate;
+        Encoder encoder = delegate.getMapValueEncoder();
+        Decoder<Object> decoder = delegate.getMapValueDecoder();
+        this.mapValueEncoder = new Encoder() {
+            @Override
+            public byte[] encode(Object in) throws IOException {
+                byte[] bytes = encoder.encode(in);
+                record(in, bytes.length);
+                return bytes;
+            }
+        };
+        this.mapValueDecoder = new Decoder<Object>() {
+            @Override
+            public Object decode(ByteBuf buf, State state) throws IOException {
+                int length = buf.readableBytes();
+                Object value = decoder.decode(buf, state);
+                record(value, length);
+                return value;
+            }
+        };
+    }
+
+    private static void record(Object value, int serializedSize) {
+        if (value instanceof VersionedValue) {
+            ((VersionedValue) value).setSerializedSize(serializedSize);
+        }
+    }
+
+    @Override
+    public Decoder<Object> getMapValueDecoder() {
+        return mapValueDecoder;
+    }
+
+    @Override
+    public Encoder getMapValueEncoder() {
+        return mapValueEncoder;
+    }
+
+    @Override
+    public Decoder<Object> getMapKeyDecoder() {
+        return delegate.getMapKeyDecoder();
+    }
+
+    @Override
+    public Encoder getMapKeyEncoder() {
+        return delegate.getMapKeyEncoder();
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return delegate.getValueDecoder();
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return delegate.getValueEncoder();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
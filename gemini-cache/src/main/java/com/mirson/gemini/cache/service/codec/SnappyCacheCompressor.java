@@ -0,0 +1,35 @@
+package com.mirson.gemini.cache.service.codec;
+
+import org.xerial.snappy.Snappy;
+
+import java.io.IOException;
+
+/**
+ * Snappy压缩（需引入 org.xerial.snappy:snappy-java）
+ */
+public class SnappyCacheCompressor implements CacheCompressor {
+
+    @Override
+    public CompressionType getType() {
+        return CompressionType.SNAPPY;
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+        return Snappy.maxCompressedLength(length);
+    }
+
+    @Override
+    public int compress(byte[] src, int srcOffset, int srcLength, byte[] dest, int destOffset) throws IOException {
+        return Snappy.compress(src, srcOffset, srcLength, dest, destOffset);
+    }
+
+    @Override
+    public void decompress(byte[] src, int srcOffset, int srcLength, byte[] dest, int destOffset, int originalLength)
+            throws IOException {
+        int length = Snappy.uncompress(src, srcOffset, srcLength, dest, destOffset);
+        if (length != originalLength) {
+            throw new IOException("Corrupted Snappy block: " + length + " of " + originalLength + " bytes");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.mirson.gemini.cache.service.codec;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+
+import java.io.IOException;
+
+/**
+ * Zstandard压缩（需引入 com.github.luben:zstd-jni）
+ * 大量结构相似的小对象单独压缩效果较差， 可按缓存配置训练好的字典（{@link #trainDictionary}）， 字典ID写入压缩结果，
+ * 字典不一致时解压失败（按未命中处理）。
+ */
+public class ZstdCacheCompressor implements CacheCompressor {
+
+    /**
+     * 默认压缩级别
+     */
+    public static final int DEFAULT_LEVEL = 3;
+
+    private final int level;
+
+    private final ZstdDictCompress dictCompress;
+
+    private final ZstdDictDecompress dictDecompress;
+
+    public ZstdCacheCompressor() {
+        this(DEFAULT_LEVEL, null);
+    }
+
+    /**
+     * @param level 压缩级别
+     * @param dictionary 训练好的字典， 为空时不使用字典
+     */
+    public ZstdCacheCompressor(int level, byte[] dictionary) {
+        this.level = level;
+        if (dictionary != null && dictionary.length > 0) {
+            this.dictCompress = new ZstdDictCompress(dictionary, level);
+            this.dictDecompress = new ZstdDictDecompress(dictionary);
+        } else {
+            this.dictCompress = null;
+            this.dictDecompress = null;
+        }
+    }
+
+    @Override
+    public CompressionType getType() {
+        return CompressionType.ZSTD;
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+        return (int) Zstd.compressBound(length);
+    }
+
+    @Override
+    public int compress(byte[] src, int srcOffset, int srcLength, byte[] dest, int destOffset) throws IOException {
+        long size;
+        if (dictCompress != null) {
+            size = Zstd.compressFastDict(dest, destOffset, src, srcOffset, srcLength, dictCompress);
+        } else {
+            size = Zstd.compressByteArray(dest, destOffset, dest.length - destOffset, src, srcOffset, srcLength, level);
+        }
+        return (int) check(size);
+    }
+
+    @Override
+    public void decompress(byte[] src, int srcOffset, int srcLength, byte[] dest, int destOffset, int originalLength)
+            throws IOException {
+        long size;
+        if (dictDecompress != null) {
+            size = Zstd.decompressFastDict(dest, destOffset, src, srcOffset, srcLength, dictDecompress);
+        } else {
+            size = Zstd.decompressByteArray(dest, destOffset, originalLength, src, srcOffset, srcLength);
+        }
+        if (check(size) != originalLength) {
+            throw new IOException("Corrupted Zstd frame: " + size + " of " + originalLength + " bytes");
+        }
+    }
+
+    private static long check(long size) throws IOException {
+        if (Zstd.isError(size)) {
+            throw new IOException("Zstd error: " + Zstd.getErrorName(size));
+        }
+        return size;
+    }
+
+    /**
+     * 训练字典， 样本应为同一缓存的编码结果（未压缩）
+     * @param samples 样本
+     * @param dictionarySize 字典大小（单位：字节， 一般为16K-112K）
+     * @return
+     */
+    public static byte[] trainDictionary(Iterable<byte[]> samples, int dictionarySize) {
+        long sampleSize = 0;
+        for (byte[] sample : samples) {
+            sampleSize += sample.length;
+        }
+        ZstdDictTrainer trainer = new ZstdDictTrainer((int) Math.min(sampleSize, Integer.MAX_VALUE), dictionarySize);
+        for (byte[] sample : samples) {
+            if (!trainer.addSample(sample)) {
+                break;
+            }
+        }
+        return trainer.trainSamples();
+    }
+}
@@ -0,0 +1,92 @@
+package com.mirson.gemini.cache.service.executor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存线程池统计
+ */
+public final class ExecutorMetrics {
+
+    /**
+     * 提交的任务数量
+     */
+    final AtomicLong submitted = new AtomicLong();
+
+    /**
+     * 执行完成的任务数量
+     */
+    final AtomicLong completed = new AtomicLong();
+
+    /**
+     * 抛出RejectedExecutionException的任务数量
+     */
+    final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * 由提交线程直接执行的任务数量
+     */
+    final AtomicLong callerRuns = new AtomicLong();
+
+    /**
+     * 被丢弃的最早等待任务数量
+     */
+    final AtomicLong droppedOldest = new AtomicLong();
+
+    /**
+     * 阻塞等待的提交次数
+     */
+    final AtomicLong blocked = new AtomicLong();
+
+    /**
+     * 阻塞等待超时的提交次数
+     */
+    final AtomicLong blockTimeouts = new AtomicLong();
+
+    /**
+     * 阻塞等待的总时间（单位：纳秒）
+     */
+    final AtomicLong blockedNanos = new AtomicLong();
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getCallerRuns() {
+        return callerRuns.get();
+    }
+
+    public long getDroppedOldest() {
+        return droppedOldest.get();
+    }
+
+    public long getBlocked() {
+        return blocked.get();
+    }
+
+    public long getBlockTimeouts() {
+        return blockTimeouts.get();
+    }
+
+    /**
+     * 阻塞等待的总时间（单位：毫秒）
+     * @return
+     */
+    public long getBlockedMillis() {
+        return blockedNanos.get() / 1000000L;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutorMetrics{submitted=" + submitted + ", completed=" + completed + ", rejected=" + rejected
+                + ", callerRuns=" + callerRuns + ", droppedOldest=" + droppedOldest + ", blocked=" + blocked
+                + ", blockTimeouts=" + blockTimeouts + ", blockedMillis=" + getBlockedMillis() + "}";
+    }
+}
@@ -0,0 +1,26 @@
+package com.mirson.gemini.cache.service.executor;
+
+/**
+ * 缓存线程池运行模式
+ */
+public enum ExecutorMode {
+
+    /**
+     * 固定大小的平台线程池 + 有界队列
+     */
+    PLATFORM,
+
+    /**
+     * 每个任务一个虚拟线程， 通过信号量限制并发数（需JDK 21及以上， 否则降级为PLATFORM）
+     */
+    VIRTUAL;
+
+    /**
+     * 解析配置值（不区分大小写）
+     * @param value
+     * @return
+     */
+    public static ExecutorMode from(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,39 @@
+package com.mirson.gemini.cache.service.executor;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 带统计信息的缓存线程池
+ */
+public interface MeteredExecutor extends ExecutorService {
+
+    /**
+     * 运行模式
+     * @return
+     */
+    ExecutorMode getMode();
+
+    /**
+     * 饱和处理策略
+     * @return
+     */
+    RejectionPolicy getRejectionPolicy();
+
+    /**
+     * 正在执行的任务数量
+     * @return
+     */
+    int getActiveCount();
+
+    /**
+     * 等待执行的任务数量
+     * @return
+     */
+    int getQueueSize();
+
+    /**
+     * 统计信息
+     * @return
+     */
+    ExecutorMetrics getMetrics();
+}
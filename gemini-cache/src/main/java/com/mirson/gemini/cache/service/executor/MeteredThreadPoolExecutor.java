@@ -0,0 +1,123 @@
+package com.mirson.gemini.cache.service.executor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 平台线程池实现（有界队列）， 队列满时按饱和策略处理并记录统计
+ */
+public class MeteredThreadPoolExecutor extends ThreadPoolExecutor implements MeteredExecutor {
+
+    private final RejectionPolicy rejectionPolicy;
+
+    private final ExecutorMetrics metrics = new ExecutorMetrics();
+
+    /**
+     * @param corePoolSize 核心线程数
+     * @param maximumPoolSize 最大线程数
+     * @param keepAliveSeconds 线程空闲存活时间（单位：秒）
+     * @param queueCapacity 队列大小
+     * @param threadFactory 线程工厂
+     * @param rejectionPolicy 饱和处理策略
+     * @param blockTimeoutMillis BLOCK策略的最长等待时间（单位：毫秒）
+     */
+    public MeteredThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveSeconds, int queueCapacity,
+                                     ThreadFactory threadFactory, RejectionPolicy rejectionPolicy, long blockTimeoutMillis) {
+        super(corePoolSize, maximumPoolSize, keepAliveSeconds, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        this.rejectionPolicy = rejectionPolicy;
+        setRejectedExecutionHandler(new PolicyHandler(blockTimeoutMillis));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        metrics.submitted.incrementAndGet();
+        super.execute(command);
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        metrics.completed.incrementAndGet();
+    }
+
+    @Override
+    public ExecutorMode getMode() {
+        return ExecutorMode.PLATFORM;
+    }
+
+    @Override
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    @Override
+    public int getQueueSize() {
+        return getQueue().size();
+    }
+
+    @Override
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 按饱和策略处理无法入队的任务
+     */
+    private class PolicyHandler implements RejectedExecutionHandler {
+
+        private final long blockTimeoutMillis;
+
+        PolicyHandler(long blockTimeoutMillis) {
+            this.blockTimeoutMillis = blockTimeoutMillis;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw reject(r);
+            }
+            switch (rejectionPolicy) {
+                case CALLER_RUNS:
+                    metrics.callerRuns.incrementAndGet();
+                    r.run();
+                    metrics.completed.incrementAndGet();
+                    break;
+                case DROP_OLDEST:
+                    if (null != executor.getQueue().poll()) {
+                        metrics.droppedOldest.incrementAndGet();
+                    }
+                    MeteredThreadPoolExecutor.super.execute(r);
+                    break;
+                case BLOCK:
+                    metrics.blocked.incrementAndGet();
+                    long start = System.nanoTime();
+                    boolean queued;
+                    try {
+                        queued = executor.getQueue().offer(r, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw reject(r);
+                    } finally {
+                        metrics.blockedNanos.addAndGet(System.nanoTime() - start);
+                    }
+                    if (!queued) {
+                        metrics.blockTimeouts.incrementAndGet();
+                        throw reject(r);
+                    }
+                    break;
+                default:
+                    throw reject(r);
+            }
+        }
+
+        private RejectedExecutionException reject(Runnable r) {
+            metrics.rejected.incrementAndGet();
+            return new RejectedExecutionException("Task " + r + " rejected from " + MeteredThreadPoolExecutor.this);
+        }
+    }
+}
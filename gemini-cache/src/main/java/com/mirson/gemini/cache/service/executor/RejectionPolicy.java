@@ -0,0 +1,36 @@
+package com.mirson.gemini.cache.service.executor;
+
+/**
+ * 缓存线程池饱和时的处理策略
+ */
+public enum RejectionPolicy {
+
+    /**
+     * 抛出 RejectedExecutionException
+     */
+    ABORT,
+
+    /**
+     * 由提交任务的线程直接执行
+     */
+    CALLER_RUNS,
+
+    /**
+     * 丢弃最早等待的任务， 再提交当前任务
+     */
+    DROP_OLDEST,
+
+    /**
+     * 阻塞提交线程等待空闲， 超时后抛出 RejectedExecutionException
+     */
+    BLOCK;
+
+    /**
+     * 解析配置值（不区分大小写， 支持caller-runs形式）
+     * @param value
+     * @return
+     */
+    public static RejectionPolicy from(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase());
+    }
+}
@@ -0,0 +1,253 @@
+package com.mirson.gemini.cache.service.executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 虚拟线程实现： 每个任务一个虚拟线程， 通过信号量限制同时执行的任务数量。
+ * 项目按JDK 8编译， 虚拟线程相关API通过反射调用， 运行环境低于JDK 21时由 {@link #isSupported()} 返回false。
+ */
+public class VirtualThreadExecutor extends AbstractExecutorService implements MeteredExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadExecutor.class);
+
+    /**
+     * 底层的 thread-per-task 线程池
+     */
+    private final ExecutorService delegate;
+
+    /**
+     * 并发许可
+     */
+    private final Semaphore permits;
+
+    private final int maxConcurrency;
+
+    private final RejectionPolicy rejectionPolicy;
+
+    private final long blockTimeoutMillis;
+
+    /**
+     * DROP_OLDEST策略下等待许可的任务
+     */
+    private final LinkedBlockingDeque<Runnable> pending;
+
+    private final ExecutorMetrics metrics = new ExecutorMetrics();
+
+    /**
+     * @param namePrefix 线程名前缀
+     * @param maxConcurrency 最大并发任务数
+     * @param queueCapacity DROP_OLDEST策略下等待队列大小
+     * @param rejectionPolicy 饱和处理策略
+     * @param blockTimeoutMillis BLOCK策略的最长等待时间（单位：毫秒）
+     */
+    public VirtualThreadExecutor(String namePrefix, int maxConcurrency, int queueCapacity,
+                                 RejectionPolicy rejectionPolicy, long blockTimeoutMillis) {
+        this.delegate = newThreadPerTaskExecutor(namePrefix);
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+        this.rejectionPolicy = rejectionPolicy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        this.pending = new LinkedBlockingDeque<>(Math.max(1, queueCapacity));
+    }
+
+    /**
+     * 当前运行环境是否支持虚拟线程
+     * @return
+     */
+    public static boolean isSupported() {
+        try {
+            newThreadFactory("probe");
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static ThreadFactory newThreadFactory(String namePrefix) throws ReflectiveOperationException {
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix + "-", 1L);
+        return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        try {
+            ThreadFactory factory = newThreadFactory(namePrefix);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads are not available on this JVM", e);
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (null == command) {
+            throw new NullPointerException();
+        }
+        metrics.submitted.incrementAndGet();
+        if (delegate.isShutdown()) {
+            throw reject(command);
+        }
+        if (permits.tryAcquire()) {
+            start(command);
+            return;
+        }
+        switch (rejectionPolicy) {
+            case CALLER_RUNS:
+                metrics.callerRuns.incrementAndGet();
+                runTask(command);
+                break;
+            case DROP_OLDEST:
+                while (!pending.offerLast(command)) {
+                    if (null != pending.pollFirst()) {
+                        metrics.droppedOldest.incrementAndGet();
+                    }
+                }
+                // 入队期间可能已有任务结束并释放许可
+                drainPending();
+                break;
+            case BLOCK:
+                metrics.blocked.incrementAndGet();
+                long start = System.nanoTime();
+                boolean acquired;
+                try {
+                    acquired = permits.tryAcquire(blockTimeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw reject(command);
+                } finally {
+                    metrics.blockedNanos.addAndGet(System.nanoTime() - start);
+                }
+                if (!acquired) {
+                    metrics.blockTimeouts.incrementAndGet();
+                    throw reject(command);
+                }
+                start(command);
+                break;
+            default:
+                throw reject(command);
+        }
+    }
+
+    /**
+     * 已持有许可， 在新的虚拟线程中执行任务及其后等待的任务
+     * @param first
+     */
+    private void start(Runnable first) {
+        try {
+            delegate.execute(() -> {
+                Runnable task = first;
+                while (null != task) {
+                    runTask(task);
+                    task = pending.pollFirst();
+                }
+                permits.release();
+                drainPending();
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw reject(first);
+        }
+    }
+
+    /**
+     * 有空闲许可时启动等待中的任务
+     */
+    private void drainPending() {
+        while (!pending.isEmpty() && permits.tryAcquire()) {
+            Runnable next = pending.pollFirst();
+            if (null == next) {
+                permits.release();
+                return;
+            }
+            start(next);
+        }
+    }
+
+    private void runTask(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable e) {
+            logger.error("runTask # task failed ## " + e.getMessage(), e);
+        } finally {
+            metrics.completed.incrementAndGet();
+        }
+    }
+
+    private RejectedExecutionException reject(Runnable command) {
+        metrics.rejected.incrementAndGet();
+        return new RejectedExecutionException("Task " + command + " rejected from " + this);
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> dropped = new ArrayList<>();
+        pending.drainTo(dropped);
+        dropped.addAll(delegate.shutdownNow());
+        return dropped;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public ExecutorMode getMode() {
+        return ExecutorMode.VIRTUAL;
+    }
+
+    @Override
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return pending.size();
+    }
+
+    @Override
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return "VirtualThreadExecutor{maxConcurrency=" + maxConcurrency + ", rejectionPolicy=" + rejectionPolicy
+                + ", active=" + getActiveCount() + ", pending=" + getQueueSize() + "}";
+    }
+}
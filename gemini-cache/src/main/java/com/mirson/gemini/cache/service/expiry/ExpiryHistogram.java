@@ -0,0 +1,124 @@
+package com.mirson.gemini.cache.service.expiry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 缓存过期时间分布
+ * 写入时按预计过期时间（精确到秒）计数， 用于观察过期时间是否集中在同一时刻；
+ * 按秒环形存储， 只统计观察范围内的过期时间， 删除与淘汰不会扣减计数， 并发重置时存在少量误差。
+ */
+public class ExpiryHistogram {
+
+    /**
+     * 默认观察范围（单位：秒）
+     */
+    public static final int DEFAULT_HORIZON_SECONDS = 3600;
+
+    /**
+     * 观察范围（单位：秒）
+     */
+    private final int horizonSeconds;
+
+    /**
+     * 每个位置当前对应的过期时间（单位：秒）
+     */
+    private final AtomicLongArray slotSeconds;
+
+    /**
+     * 每个位置的过期条目数量
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * 过期时间超出观察范围的条目数量
+     */
+    private final AtomicLong beyondHorizon = new AtomicLong();
+
+    /**
+     * 不过期的条目数量
+     */
+    private final AtomicLong eternal = new AtomicLong();
+
+    public ExpiryHistogram() {
+        this(DEFAULT_HORIZON_SECONDS);
+    }
+
+    public ExpiryHistogram(int horizonSeconds) {
+        this.horizonSeconds = horizonSeconds;
+        this.slotSeconds = new AtomicLongArray(horizonSeconds);
+        this.counts = new AtomicLongArray(horizonSeconds);
+    }
+
+    /**
+     * 记录条目的过期时间
+     * @param ttlMillis 过期时间（单位：毫秒）， 不大于0表示不过期
+     */
+    public void record(long ttlMillis) {
+        if (ttlMillis <= 0) {
+            eternal.incrementAndGet();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expireSecond = (now + ttlMillis) / 1000L;
+        if (expireSecond - now / 1000L >= horizonSeconds) {
+            beyondHorizon.incrementAndGet();
+            return;
+        }
+        int slot = (int) (expireSecond % horizonSeconds);
+        for (;;) {
+            long current = slotSeconds.get(slot);
+            if (current == expireSecond) {
+                counts.incrementAndGet(slot);
+                return;
+            }
+            if (current > expireSecond) {
+                // 已被更晚的时间占用（记录线程时钟差异）， 忽略
+                return;
+            }
+            if (slotSeconds.compareAndSet(slot, current, expireSecond)) {
+                // 位置上的旧数据已过期
+                counts.set(slot, 0L);
+            }
+        }
+    }
+
+    /**
+     * 获取从当前时间起的过期数量分布
+     * @param bucketSeconds 每个区间的长度（单位：秒）
+     * @return 区间起始时间（距当前时间的秒数） -> 过期条目数量， 只包括有数据的区间
+     */
+    public Map<Long, Long> snapshot(int bucketSeconds) {
+        int bucket = Math.max(1, bucketSeconds);
+        long nowSecond = System.currentTimeMillis() / 1000L;
+        Map<Long, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < horizonSeconds; i++) {
+            long second = nowSecond + i;
+            int slot = (int) (second % horizonSeconds);
+            if (slotSeconds.get(slot) != second) {
+                continue;
+            }
+            long count = counts.get(slot);
+            if (count > 0) {
+                long start = (long) (i / bucket) * bucket;
+                Long total = result.get(start);
+                result.put(start, total == null ? count : total + count);
+            }
+        }
+        return result;
+    }
+
+    public int getHorizonSeconds() {
+        return horizonSeconds;
+    }
+
+    public long getBeyondHorizon() {
+        return beyondHorizon.get();
+    }
+
+    public long getEternal() {
+        return eternal.get();
+    }
+}
@@ -0,0 +1,61 @@
+package com.mirson.gemini.cache.service.expiry;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caffeine按条目计算的写入后过期策略， 每次写入时对expireAfterWrite随机抖动， 读取不改变过期时间
+ */
+public class JitteredExpiry implements Expiry<Object, Object> {
+
+    /**
+     * 写入后过期时间（单位：毫秒）
+     */
+    private volatile long expireAfterWriteMillis;
+
+    private final TtlJitter jitter;
+
+    private final ExpiryHistogram histogram;
+
+    public JitteredExpiry(long expireAfterWriteMillis, TtlJitter jitter, ExpiryHistogram histogram) {
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+        this.jitter = jitter;
+        this.histogram = histogram;
+    }
+
+    public long getExpireAfterWrite() {
+        return expireAfterWriteMillis;
+    }
+
+    /**
+     * 调整写入后过期时间， 只作用于之后写入的条目
+     * @param expireAfterWriteMillis
+     */
+    public void setExpireAfterWrite(long expireAfterWriteMillis) {
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return nextDuration();
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return nextDuration();
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    private long nextDuration() {
+        long millis = jitter.apply(expireAfterWriteMillis);
+        if (histogram != null) {
+            histogram.record(millis);
+        }
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
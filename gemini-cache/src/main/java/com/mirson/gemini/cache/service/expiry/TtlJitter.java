@@ -0,0 +1,124 @@
+package com.mirson.gemini.cache.service.expiry;
+
+import org.springframework.util.StringUtils;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 缓存过期时间随机抖动， 避免同时写入的缓存在同一时刻集中过期
+ * 支持两种配置方式：
+ * 百分比， 如 10% ， 过期时间在 TTL * (1 ± 10%) 范围内均匀分布；
+ * 范围（单位：秒）， 如 0-5 ， 过期时间在 TTL + 0 ~ TTL + 5秒 范围内均匀分布。
+ */
+public final class TtlJitter {
+
+    /**
+     * 不抖动
+     */
+    public static final TtlJitter NONE = new TtlJitter(0d, 0L, 0L);
+
+    /**
+     * 抖动比例（0 ~ 1）
+     */
+    private final double ratio;
+
+    /**
+     * 范围方式的最小增加时间（单位：毫秒）
+     */
+    private final long minMillis;
+
+    /**
+     * 范围方式的最大增加时间（单位：毫秒）
+     */
+    private final long maxMillis;
+
+    private TtlJitter(double ratio, long minMillis, long maxMillis) {
+        this.ratio = ratio;
+        this.minMillis = minMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * 解析配置值， 为空时不抖动
+     * @param value 如 10% 或 0-5
+     * @return
+     */
+    public static TtlJitter parse(String value) {
+        if (StringUtils.isEmpty(value) || value.trim().isEmpty()) {
+            return NONE;
+        }
+        String spec = value.trim();
+        try {
+            if (spec.endsWith("%")) {
+                double percent = Double.parseDouble(spec.substring(0, spec.length() - 1).trim());
+                if (percent < 0 || percent >= 100) {
+                    throw new IllegalArgumentException("TTL jitter percent must be in [0, 100): " + value);
+                }
+                return percent == 0 ? NONE : new TtlJitter(percent / 100d, 0L, 0L);
+            }
+            int separator = spec.indexOf('-');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid TTL jitter, expected '10%' or '0-5': " + value);
+            }
+            long min = (long) (Double.parseDouble(spec.substring(0, separator).trim()) * 1000d);
+            long max = (long) (Double.parseDouble(spec.substring(separator + 1).trim()) * 1000d);
+            if (min > max) {
+                throw new IllegalArgumentException("Invalid TTL jitter range: " + value);
+            }
+            return max == 0 ? NONE : new TtlJitter(0d, min, max);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid TTL jitter, expected '10%' or '0-5': " + value, e);
+        }
+    }
+
+    /**
+     * 计算抖动后的过期时间
+     * @param ttlMillis 过期时间（单位：毫秒）， 不大于0时表示不过期， 直接返回
+     * @return 抖动后的过期时间（单位：毫秒）， 至少为1毫秒
+     */
+    public long apply(long ttlMillis) {
+        if (ttlMillis <= 0 || this == NONE) {
+            return ttlMillis;
+        }
+        return apply(ttlMillis, ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * 按种子计算抖动后的过期时间， 相同种子的结果相同（如以版本号为种子， 读取时可还原写入时的过期时间）
+     * @param ttlMillis 过期时间（单位：毫秒）， 不大于0时表示不过期， 直接返回
+     * @param seed 种子
+     * @return 抖动后的过期时间（单位：毫秒）， 至少为1毫秒
+     */
+    public long apply(long ttlMillis, long seed) {
+        if (ttlMillis <= 0 || this == NONE) {
+            return ttlMillis;
+        }
+        return apply(ttlMillis, new SplittableRandom(seed).nextDouble());
+    }
+
+    /**
+     * @param random 0 ~ 1 均匀分布的随机数
+     */
+    private long apply(long ttlMillis, double random) {
+        long jittered;
+        if (ratio > 0) {
+            jittered = (long) (ttlMillis * (1d + ratio * (2d * random - 1d)));
+        } else {
+            jittered = ttlMillis + minMillis + (long) (random * (maxMillis - minMillis + 1));
+        }
+        return Math.max(1L, jittered);
+    }
+
+    public boolean isNone() {
+        return this == NONE;
+    }
+
+    @Override
+    public String toString() {
+        if (this == NONE) {
+            return "none";
+        }
+        return ratio > 0 ? (ratio * 100d) + "%" : (minMillis / 1000d) + "-" + (maxMillis / 1000d) + "s";
+    }
+}
@@ -0,0 +1,60 @@
+package com.mirson.gemini.cache.service.hotkey;
+
+import net.openhft.hashing.LongHashFunction;
+
+/**
+ * 热点KEY（缓存名称 + 缓存KEY）
+ */
+public final class HotKey {
+
+    private static final LongHashFunction HASH = LongHashFunction.xx();
+
+    private final String cacheName;
+
+    private final Object cacheKey;
+
+    /**
+     * 计数使用的64位哈希值
+     */
+    private final long hash;
+
+    public HotKey(String cacheName, Object cacheKey) {
+        this.cacheName = cacheName;
+        this.cacheKey = cacheKey;
+        this.hash = HASH.hashLong(((long) cacheName.hashCode() << 32) ^ (cacheKey.hashCode() & 0xFFFFFFFFL));
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public Object getCacheKey() {
+        return cacheKey;
+    }
+
+    long hash() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HotKey)) {
+            return false;
+        }
+        HotKey other = (HotKey) o;
+        return cacheName.equals(other.cacheName) && cacheKey.equals(other.cacheKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return cacheName + ":" + cacheKey;
+    }
+}
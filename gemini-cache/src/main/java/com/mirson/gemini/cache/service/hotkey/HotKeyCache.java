@@ -0,0 +1,255 @@
+package com.mirson.gemini.cache.service.hotkey;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 热点KEY本地缓存（只开启Redis缓存时使用）
+ * 按采样率通过滑动窗口Count-Min Sketch统计缓存KEY的访问次数， 窗口内估算次数达到阈值的KEY（最多topN个）
+ * 从Redis读取后在本地保存较短时间， 避免单个热点KEY的访问集中在同一Redis分片；
+ * 本节点的保存与清理会同时清除本地数据， 其他节点的更新在本地过期后生效。
+ */
+public class HotKeyCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotKeyCache.class);
+
+    /**
+     * Count-Min Sketch每行计数器个数
+     */
+    private static final int SKETCH_WIDTH = 2048;
+
+    /**
+     * 窗口分段数量
+     */
+    private static final int SKETCH_SEGMENTS = 10;
+
+    /**
+     * 最多保存的热点KEY数量
+     */
+    private final int topN;
+
+    /**
+     * 窗口内访问次数阈值
+     */
+    private final long threshold;
+
+    /**
+     * 采样率（0 ~ 1）
+     */
+    private final double sampleRate;
+
+    private final SlidingCountMinSketch sketch;
+
+    /**
+     * 当前热点KEY -> 最近一次估算的访问次数
+     */
+    private final Map<HotKey, AtomicLong> hotKeys = new ConcurrentHashMap<>();
+
+    /**
+     * 热点KEY的本地数据
+     */
+    private final Cache<HotKey, Object> localCache;
+
+    /**
+     * 上次检查热点KEY的时间
+     */
+    private final AtomicLong lastSweep = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * 本地命中次数
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * 成为热点的次数
+     */
+    private final AtomicLong promotions = new AtomicLong();
+
+    /**
+     * 移出热点的次数
+     */
+    private final AtomicLong demotions = new AtomicLong();
+
+    /**
+     * @param topN 最多保存的热点KEY数量
+     * @param threshold 窗口内访问次数阈值
+     * @param windowMillis 统计窗口（单位：毫秒）
+     * @param localTtlMillis 本地数据保存时间（单位：毫秒）
+     * @param sampleRate 采样率（0 ~ 1）
+     */
+    public HotKeyCache(int topN, long threshold, long windowMillis, long localTtlMillis, double sampleRate) {
+        this.topN = Math.max(topN, 1);
+        this.threshold = Math.max(threshold, 1);
+        this.sampleRate = sampleRate > 0 && sampleRate < 1 ? sampleRate : 1;
+        this.sketch = new SlidingCountMinSketch(SKETCH_WIDTH, SKETCH_SEGMENTS, windowMillis);
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(this.topN)
+                .expireAfterWrite(localTtlMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * 获取热点KEY的本地数据
+     * @param cacheName
+     * @param cacheKey
+     * @return 非热点KEY或本地数据已过期时返回空
+     */
+    public Object get(String cacheName, Object cacheKey) {
+        HotKey hotKey = new HotKey(cacheName, cacheKey);
+        Object value = localCache.getIfPresent(hotKey);
+        if (value != null) {
+            hits.incrementAndGet();
+            // 本地命中同样计数， 避免热点KEY因不再访问Redis而移出
+            track(hotKey);
+        }
+        return value;
+    }
+
+    /**
+     * 记录一次Redis读取， 热点KEY的数据保存在本地
+     * @param cacheName
+     * @param cacheKey
+     * @param value 从Redis读取的数据
+     */
+    public void record(String cacheName, Object cacheKey, Object value) {
+        HotKey hotKey = new HotKey(cacheName, cacheKey);
+        if (track(hotKey) && value != null) {
+            localCache.put(hotKey, value);
+        }
+    }
+
+    /**
+     * 清除本地数据
+     * @param cacheName
+     * @param cacheKey
+     */
+    public void invalidate(String cacheName, Object cacheKey) {
+        if (cacheKey != null) {
+            localCache.invalidate(new HotKey(cacheName, cacheKey));
+        }
+    }
+
+    /**
+     * 清除缓存名称下的所有本地数据
+     * @param cacheName
+     */
+    public void invalidateAll(String cacheName) {
+        localCache.asMap().keySet().removeIf(hotKey -> hotKey.getCacheName().equals(cacheName));
+    }
+
+    /**
+     * 计数并判断是否为热点KEY
+     */
+    private boolean track(HotKey hotKey) {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return hotKeys.containsKey(hotKey);
+        }
+        long now = System.currentTimeMillis();
+        long estimate = (long) (sketch.increment(hotKey.hash(), now) / sampleRate);
+        sweepIfNeeded(now);
+        AtomicLong current = hotKeys.get(hotKey);
+        if (current != null) {
+            current.set(estimate);
+            return true;
+        }
+        return estimate >= threshold && promote(hotKey, estimate);
+    }
+
+    /**
+     * 加入热点KEY， 数量已满时替换访问次数最少的KEY
+     */
+    private synchronized boolean promote(HotKey hotKey, long estimate) {
+        if (hotKeys.containsKey(hotKey)) {
+            return true;
+        }
+        if (hotKeys.size() >= topN) {
+            HotKey coldest = null;
+            long coldestEstimate = Long.MAX_VALUE;
+            for (Map.Entry<HotKey, AtomicLong> entry : hotKeys.entrySet()) {
+                long value = entry.getValue().get();
+                if (value < coldestEstimate) {
+                    coldest = entry.getKey();
+                    coldestEstimate = value;
+                }
+            }
+            if (coldest == null || coldestEstimate >= estimate) {
+                return false;
+            }
+            demote(coldest);
+        }
+        hotKeys.put(hotKey, new AtomicLong(estimate));
+        promotions.incrementAndGet();
+        logger.info("promote # hot key detected, key: " + hotKey + ", estimate: " + estimate
+                + " in " + sketch.getWindowMillis() + "ms");
+        return true;
+    }
+
+    private void demote(HotKey hotKey) {
+        if (hotKeys.remove(hotKey) != null) {
+            localCache.invalidate(hotKey);
+            demotions.incrementAndGet();
+        }
+    }
+
+    /**
+     * 每个窗口分段检查一次， 移出访问次数低于阈值的KEY
+     */
+    private void sweepIfNeeded(long now) {
+        long last = lastSweep.get();
+        long interval = sketch.getWindowMillis() / SKETCH_SEGMENTS;
+        if (now - last < interval || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        for (Map.Entry<HotKey, AtomicLong> entry : hotKeys.entrySet()) {
+            long estimate = (long) (sketch.estimate(entry.getKey().hash(), now) / sampleRate);
+            if (estimate < threshold) {
+                synchronized (this) {
+                    demote(entry.getKey());
+                }
+            } else {
+                entry.getValue().set(estimate);
+            }
+        }
+    }
+
+    /**
+     * 当前热点KEY及窗口内估算的访问次数（按次数从大到小）
+     * @return
+     */
+    public Map<HotKey, Long> getHotKeys() {
+        List<Map.Entry<HotKey, AtomicLong>> entries = new ArrayList<>(hotKeys.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().get(), a.getValue().get()));
+        Map<HotKey, Long> result = new LinkedHashMap<>(entries.size() * 2);
+        for (Map.Entry<HotKey, AtomicLong> entry : entries) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return result;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getPromotions() {
+        return promotions.get();
+    }
+
+    public long getDemotions() {
+        return demotions.get();
+    }
+
+    public long getLocalSize() {
+        return localCache.estimatedSize();
+    }
+}
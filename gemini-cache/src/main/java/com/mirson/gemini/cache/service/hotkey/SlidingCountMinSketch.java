@@ -0,0 +1,128 @@
+package com.mirson.gemini.cache.service.hotkey;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 滑动窗口的Count-Min Sketch
+ * 窗口按时间分为多个分段环形存储， 每个分段一组计数器， 估算值为窗口内各分段计数之和（各行取最小值）；
+ * 估算值只会偏大不会偏小， 分段过期时由访问线程清零， 并发清零时存在少量误差。
+ */
+public class SlidingCountMinSketch {
+
+    /**
+     * 行数（哈希函数个数）
+     */
+    private static final int DEPTH = 4;
+
+    /**
+     * 每行计数器个数（2的幂）
+     */
+    private final int width;
+
+    /**
+     * 窗口分段数量
+     */
+    private final int segments;
+
+    /**
+     * 每个分段的时长（单位：毫秒）
+     */
+    private final long segmentMillis;
+
+    /**
+     * 每个分段当前对应的时间序号
+     */
+    private final AtomicLongArray segmentEpochs;
+
+    /**
+     * 计数器， 按 分段 -> 行 -> 列 排列
+     */
+    private final AtomicIntegerArray counters;
+
+    /**
+     * @param width 每行计数器个数， 向上取整为2的幂
+     * @param segments 窗口分段数量
+     * @param windowMillis 窗口时长（单位：毫秒）
+     */
+    public SlidingCountMinSketch(int width, int segments, long windowMillis) {
+        this.width = Integer.highestOneBit(Math.max(width, 16) - 1) << 1;
+        this.segments = Math.max(segments, 1);
+        this.segmentMillis = Math.max(windowMillis / this.segments, 1);
+        this.segmentEpochs = new AtomicLongArray(this.segments);
+        this.counters = new AtomicIntegerArray(this.segments * DEPTH * this.width);
+        for (int i = 0; i < this.segments; i++) {
+            segmentEpochs.set(i, -1);
+        }
+    }
+
+    /**
+     * 计数加一
+     * @param hash 元素的64位哈希值
+     * @param now 当前时间（单位：毫秒）
+     * @return 窗口内的估算次数（包括本次）
+     */
+    public long increment(long hash, long now) {
+        long epoch = now / segmentMillis;
+        int slot = (int) (epoch % segments);
+        advance(slot, epoch);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int base = slot * DEPTH * width;
+        for (int row = 0; row < DEPTH; row++) {
+            counters.incrementAndGet(base + row * width + index(h1, h2, row));
+        }
+        return estimate(h1, h2, epoch);
+    }
+
+    /**
+     * 窗口内的估算次数
+     * @param hash 元素的64位哈希值
+     * @param now 当前时间（单位：毫秒）
+     * @return
+     */
+    public long estimate(long hash, long now) {
+        return estimate((int) hash, (int) (hash >>> 32), now / segmentMillis);
+    }
+
+    private long estimate(int h1, int h2, long epoch) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int column = index(h1, h2, row);
+            long sum = 0;
+            for (int slot = 0; slot < segments; slot++) {
+                long slotEpoch = segmentEpochs.get(slot);
+                if (slotEpoch <= epoch && slotEpoch > epoch - segments) {
+                    sum += counters.get((slot * DEPTH + row) * width + column);
+                }
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    /**
+     * 分段进入新的时间序号时清零
+     */
+    private void advance(int slot, long epoch) {
+        long current = segmentEpochs.get(slot);
+        if (current < epoch && segmentEpochs.compareAndSet(slot, current, epoch)) {
+            int base = slot * DEPTH * width;
+            for (int i = 0; i < DEPTH * width; i++) {
+                counters.set(base + i, 0);
+            }
+        }
+    }
+
+    private int index(int h1, int h2, int row) {
+        return (h1 + row * (h2 | 1)) & (width - 1);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public long getWindowMillis() {
+        return segmentMillis * segments;
+    }
+}
@@ -0,0 +1,108 @@
+package com.mirson.gemini.cache.service.listener;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 批量缓存变更消息
+ * 一个时间窗口内的缓存变更合并为一条消息发送， 同一缓存KEY只保留最大的版本号（及该版本推送的缓存值）；
+ * 父类cacheNames为批次中涉及的全部缓存名称、key为空， 未识别批量消息的旧版本节点会整体清理这些缓存。
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class CacheBatchMessage extends CacheMessage {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 缓存名称 -> 变更的KEY条目
+     * 采用条目列表而非以KEY为键的Map， JSON编码时Map的键会转为字符串， 丢失KEY的实际类型
+     */
+    private LinkedHashMap<String, List<Entry>> entries;
+
+    /**
+     * 整体清理的缓存名称 -> 版本号
+     */
+    private LinkedHashMap<String, Long> clears;
+
+    public CacheBatchMessage() {
+    }
+
+    /**
+     * @param keys 缓存名称 -> （变更的KEY -> 版本号）
+     * @param clears 整体清理的缓存名称 -> 版本号
+     * @param values 推送的缓存值： 缓存名称 -> （KEY -> 序列化后的缓存值）
+     */
+    public CacheBatchMessage(Map<String, Map<Object, Long>> keys, LinkedHashMap<String, Long> clears,
+                             Map<String, Map<Object, byte[]>> values) {
+        this.entries = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<Object, Long>> cacheKeys : keys.entrySet()) {
+            Map<Object, byte[]> cacheValues = values.get(cacheKeys.getKey());
+            List<Entry> cacheEntries = new ArrayList<>(cacheKeys.getValue().size());
+            for (Map.Entry<Object, Long> keyVersion : cacheKeys.getValue().entrySet()) {
+                byte[] value = cacheValues != null ? cacheValues.get(keyVersion.getKey()) : null;
+                cacheEntries.add(new Entry(keyVersion.getKey(), keyVersion.getValue(), value));
+            }
+            this.entries.put(cacheKeys.getKey(), cacheEntries);
+        }
+        this.clears = clears;
+        Set<String> cacheNames = new LinkedHashSet<>(clears.keySet());
+        cacheNames.addAll(entries.keySet());
+        setCacheNames(cacheNames.toArray(new String[cacheNames.size()]));
+    }
+
+    /**
+     * 批次中的变更条目数量
+     * @return
+     */
+    public int size() {
+        int size = clears.size();
+        for (List<Entry> cacheEntries : entries.values()) {
+            size += cacheEntries.size();
+        }
+        return size;
+    }
+
+    /**
+     * 单个KEY的变更条目
+     */
+    @Data
+    public static class Entry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 缓存KEY键值
+         */
+        private Object key;
+
+        /**
+         * 变更版本号
+         */
+        private long version;
+
+        /**
+         * 推送的缓存值（序列化后）， 为空代表清理
+         */
+        private byte[] value;
+
+        public Entry() {
+        }
+
+        public Entry(Object key, long version, byte[] value) {
+            this.key = key;
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
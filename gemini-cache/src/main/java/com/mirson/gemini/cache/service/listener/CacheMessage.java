@@ -10,6 +10,12 @@ import java.io.Serializable;
  */
 @Data
 public class CacheMessage implements Serializable {
+
+    /**
+     * 取原有版本未声明时的计算值， 新增version、value字段后仍可与原有版本节点互相反序列化
+     */
+    private static final long serialVersionUID = -3990634887013384931L;
+
     /**
      * 系统唯一标识
      */
@@ -25,9 +31,30 @@ public class CacheMessage implements Serializable {
      */
 	private Object key;
 
+    /**
+     * 变更版本号（0代表无版本号， 无条件清理）
+     */
+    private long version;
+
+    /**
+     * 推送的缓存值（序列化后， PUSH模式）， 为空代表清理
+     */
+    private byte[] value;
+
 	public CacheMessage() {
     }
 
+    public CacheMessage(String[] cacheNames, Object key, long version) {
+        this.cacheNames = cacheNames;
+        this.key = key;
+        this.version = version;
+    }
+
+    public CacheMessage(String[] cacheNames, Object key, long version, byte[] value) {
+        this(cacheNames, key, version);
+        this.value = value;
+    }
+
     public CacheMessage(String[] cacheName, Object key) {
 	    this.cacheNames = cacheName;
 	    this.key = key;
@@ -2,9 +2,17 @@ package com.mirson.gemini.cache.service.listener;
 
 import com.mirson.gemini.cache.config.CacheConfigProperties;
 import com.mirson.gemini.cache.service.cache.CaffeineCacheServiceImpl;
+import com.mirson.gemini.cache.service.codec.CacheCodecRegistry;
+import com.mirson.gemini.cache.service.metrics.CacheMetrics;
+import com.mirson.gemini.cache.service.version.VersionedValue;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.listener.MessageListener;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * 缓存消息发布/订阅监听器
  */
@@ -16,8 +24,21 @@ public class CacheMessageListener implements MessageListener<CacheMessage> {
      */
 	private CaffeineCacheServiceImpl caffeineCacheService;
 
-	public CacheMessageListener(CaffeineCacheServiceImpl caffeineCacheService) {
+    /**
+     * 缓存编码注册表（用于解码推送的缓存值）
+     */
+	private CacheCodecRegistry codecRegistry;
+
+    /**
+     * 缓存监控指标（接收数量与延迟）
+     */
+	private CacheMetrics cacheMetrics;
+
+	public CacheMessageListener(CaffeineCacheServiceImpl caffeineCacheService, CacheCodecRegistry codecRegistry,
+                                CacheMetrics cacheMetrics) {
 	    this.caffeineCacheService = caffeineCacheService;
+	    this.codecRegistry = codecRegistry;
+	    this.cacheMetrics = cacheMetrics;
     }
 
     /**
@@ -27,13 +48,32 @@ public class CacheMessageListener implements MessageListener<CacheMessage> {
      */
 	@Override
 	public void onMessage(String channel , CacheMessage cacheMessage) {
-        log.info("onMessage # receive a redis message, channel: " + channel);
         try {
             // 如果是本机消息， 不做清除
-            if (!CacheConfigProperties.SYSTEM_ID.equals(cacheMessage.getSystemId())) {
+            if (CacheConfigProperties.SYSTEM_ID.equals(cacheMessage.getSystemId())) {
+                return;
+            }
+            if (cacheMetrics.isEnabled()) {
+                recordReceive(cacheMessage);
+            }
+            if (cacheMessage instanceof CacheBatchMessage) {
+                // 批量消息一次性处理
+                CacheBatchMessage batchMessage = (CacheBatchMessage) cacheMessage;
+                onBatchMessage(batchMessage);
+                log.debug("onMessage # apply batch message, caches: {}, size: {}",
+                        batchMessage.getCacheNames(), batchMessage.size());
+            } else if (cacheMessage.getValue() != null && cacheMessage.getKey() != null) {
+                // 写入推送的缓存值
+                for (String cacheName : cacheMessage.getCacheNames()) {
+                    apply(cacheName, cacheMessage.getKey(), cacheMessage.getVersion(), cacheMessage.getValue());
+                }
+                log.debug("onMessage # put pushed value into local cache {}, the key is {}",
+                        cacheMessage.getCacheNames(), cacheMessage.getKey());
+            } else {
                 // 清理本地缓存信息
-                caffeineCacheService.clearNotSend(cacheMessage.getCacheNames(), cacheMessage.getKey());
-                log.info("onMessage # clear local cache {}, the key is {}",
+                caffeineCacheService.clearNotSend(cacheMessage.getCacheNames(), cacheMessage.getKey(),
+                        cacheMessage.getVersion());
+                log.debug("onMessage # clear local cache {}, the key is {}",
                         cacheMessage.getCacheNames(), cacheMessage.getKey());
             }
         }catch(Exception e) {
@@ -41,4 +81,71 @@ public class CacheMessageListener implements MessageListener<CacheMessage> {
         }
 	}
 
+    /**
+     * 按缓存名称记录接收数量与延迟， 批量消息按缓存中最早的变更版本计算延迟
+     * @param cacheMessage
+     */
+	private void recordReceive(CacheMessage cacheMessage) {
+	    if (!(cacheMessage instanceof CacheBatchMessage)) {
+            for (String cacheName : cacheMessage.getCacheNames()) {
+                cacheMetrics.recordReceive(cacheName, 1, cacheMessage.getVersion());
+            }
+            return;
+        }
+        CacheBatchMessage batchMessage = (CacheBatchMessage) cacheMessage;
+        for (Map.Entry<String, Long> clear : batchMessage.getClears().entrySet()) {
+            cacheMetrics.recordReceive(clear.getKey(), 1, clear.getValue());
+        }
+        for (Map.Entry<String, List<CacheBatchMessage.Entry>> entry : batchMessage.getEntries().entrySet()) {
+            long earliest = Long.MAX_VALUE;
+            for (CacheBatchMessage.Entry keyEntry : entry.getValue()) {
+                earliest = Math.min(earliest, keyEntry.getVersion());
+            }
+            cacheMetrics.recordReceive(entry.getKey(), entry.getValue().size(),
+                    earliest == Long.MAX_VALUE ? VersionedValue.NO_VERSION : earliest);
+        }
+    }
+
+    /**
+     * 处理批量消息： 先整体清理， 再逐个KEY写入推送值或清理
+     * @param batchMessage
+     */
+	private void onBatchMessage(CacheBatchMessage batchMessage) {
+        for (Map.Entry<String, Long> clear : batchMessage.getClears().entrySet()) {
+            caffeineCacheService.clearNotSend(clear.getKey(), null, clear.getValue());
+        }
+        for (Map.Entry<String, List<CacheBatchMessage.Entry>> entry : batchMessage.getEntries().entrySet()) {
+            for (CacheBatchMessage.Entry keyEntry : entry.getValue()) {
+                apply(entry.getKey(), keyEntry.getKey(), keyEntry.getVersion(), keyEntry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 写入推送值， 无推送值或解码失败时按版本清理
+     */
+	private void apply(String cacheName, Object key, long version, byte[] value) {
+	    Object decoded = value != null ? decode(cacheName, value) : null;
+	    if (decoded != null) {
+	        caffeineCacheService.putNotSend(cacheName, key, new VersionedValue(decoded, version));
+        } else {
+	        caffeineCacheService.clearNotSend(cacheName, key, version);
+        }
+    }
+
+    /**
+     * 采用缓存配置的编码反序列化推送值
+     */
+	private Object decode(String cacheName, byte[] value) {
+        ByteBuf buf = Unpooled.wrappedBuffer(value);
+        try {
+            return codecRegistry.getCodec(cacheName).getMapValueDecoder().decode(buf, null);
+        } catch (Exception e) {
+            log.error("decode # pushed value decode failed, fall back to invalidation ## " + e.getMessage(), e);
+            return null;
+        } finally {
+            buf.release();
+        }
+    }
+
 }
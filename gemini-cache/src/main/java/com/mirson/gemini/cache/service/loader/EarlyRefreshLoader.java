@@ -0,0 +1,249 @@
+package com.mirson.gemini.cache.service.loader;
+
+import com.mirson.gemini.cache.config.CacheConfigProperties;
+import com.mirson.gemini.cache.config.NamedThreadFactory;
+import com.mirson.gemini.cache.service.executor.MeteredThreadPoolExecutor;
+import com.mirson.gemini.cache.service.executor.RejectionPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 缓存提前刷新（stale-while-revalidate）
+ * 按XFetch算法判断是否提前刷新： now - delta * beta * ln(random) >= expiry，
+ * delta为最近的加载耗时， 越接近过期时间、加载越慢， 提前刷新的概率越大；
+ * 同一缓存KEY同时只有一个后台刷新任务， 刷新期间其余调用继续返回原有数据。
+ */
+public class EarlyRefreshLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(EarlyRefreshLoader.class);
+
+    /**
+     * 加载耗时的指数加权平均系数
+     */
+    private static final double LOAD_TIME_WEIGHT = 0.2;
+
+    /**
+     * 缓存名称 -> 加载耗时（单位：纳秒， 指数加权平均）
+     */
+    private final ConcurrentMap<String, AtomicLong> loadNanos = new ConcurrentHashMap<>();
+
+    /**
+     * 正在刷新中的KEY -> 提交时间（单位：毫秒）
+     */
+    private final ConcurrentMap<RefreshKey, Long> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 后台刷新线程池， 队列满时放弃本次刷新， 不在调用线程执行
+     */
+    private final ExecutorService refreshExecutor;
+
+    /**
+     * 刷新超过该时间（单位：毫秒）仍未完成时允许再次触发， 避免阻塞的加载一直占用KEY
+     */
+    private final long refreshTimeout;
+
+    /**
+     * 提交的后台刷新次数
+     */
+    private final AtomicLong refreshes = new AtomicLong();
+
+    /**
+     * 后台刷新失败次数
+     */
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    /**
+     * 线程池已满而放弃的刷新次数
+     */
+    private final AtomicLong refreshRejections = new AtomicLong();
+
+    /**
+     * 返回已过期数据的次数
+     */
+    private final AtomicLong staleHits = new AtomicLong();
+
+    public EarlyRefreshLoader(CacheConfigProperties cacheConfigProperties) {
+        this.refreshExecutor = new MeteredThreadPoolExecutor(
+                cacheConfigProperties.getRefreshThreads(),
+                cacheConfigProperties.getRefreshThreads(),
+                cacheConfigProperties.getExecutorAliveTime(),
+                cacheConfigProperties.getRefreshQueueCapacity(),
+                new NamedThreadFactory("Cache-Refresh"),
+                RejectionPolicy.ABORT,
+                0L);
+        this.refreshTimeout = cacheConfigProperties.getRefreshTimeout();
+    }
+
+    /**
+     * 判断缓存数据是否需要提前刷新
+     * @param cacheName 缓存名称
+     * @param writeTime 写入时间（单位：毫秒）
+     * @param ttlMillis 生命周期（单位：毫秒）
+     * @param beta XFetch参数， 大于1时更早刷新
+     * @param now 当前时间（单位：毫秒）
+     * @return
+     */
+    public boolean shouldRefresh(String cacheName, long writeTime, long ttlMillis, double beta, long now) {
+        long expiry = writeTime + ttlMillis;
+        if (now >= expiry) {
+            staleHits.incrementAndGet();
+            return true;
+        }
+        AtomicLong delta = loadNanos.get(cacheName);
+        if (delta == null || beta <= 0) {
+            return false;
+        }
+        double deltaMillis = delta.get() / 1000000d;
+        double random = ThreadLocalRandom.current().nextDouble();
+        return now - deltaMillis * beta * Math.log(random) >= expiry;
+    }
+
+    /**
+     * 后台刷新缓存， 同一KEY已在刷新时忽略
+     * @param cacheName 缓存名称
+     * @param cacheKey 缓存KEY
+     * @param reloader 数据加载（加载并保存缓存）
+     */
+    public void refresh(String cacheName, Object cacheKey, Supplier<? extends CompletionStage<?>> reloader) {
+        RefreshKey refreshKey = new RefreshKey(cacheName, cacheKey);
+        long now = System.currentTimeMillis();
+        Long submitted = inFlight.putIfAbsent(refreshKey, now);
+        if (submitted != null && (refreshTimeout <= 0 || now - submitted < refreshTimeout
+                || !inFlight.replace(refreshKey, submitted, now))) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                CompletionStage<?> stage;
+                try {
+                    stage = reloader.get();
+                } catch (Throwable e) {
+                    refreshFailed(refreshKey, now, e);
+                    return;
+                }
+                stage.whenComplete((result, e) -> {
+                    if (e != null) {
+                        refreshFailed(refreshKey, now, e);
+                    } else {
+                        inFlight.remove(refreshKey, now);
+                    }
+                });
+            });
+            refreshes.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            // 刷新线程池已满， 由后续调用再次触发
+            inFlight.remove(refreshKey, now);
+            refreshRejections.incrementAndGet();
+        }
+    }
+
+    private void refreshFailed(RefreshKey refreshKey, long submitted, Throwable e) {
+        inFlight.remove(refreshKey, submitted);
+        refreshFailures.incrementAndGet();
+        logger.error("refresh # Exception occurred while refreshing cache " + refreshKey.cacheName + " ## "
+                + e.getMessage(), e);
+    }
+
+    /**
+     * 记录缓存数据的加载耗时
+     * @param cacheName 缓存名称
+     * @param elapsedNanos 加载耗时（单位：纳秒）
+     */
+    public void recordLoadTime(String cacheName, long elapsedNanos) {
+        AtomicLong delta = loadNanos.get(cacheName);
+        if (delta == null) {
+            delta = loadNanos.computeIfAbsent(cacheName, name -> new AtomicLong(elapsedNanos));
+        }
+        for (;;) {
+            long current = delta.get();
+            long next = (long) (current + LOAD_TIME_WEIGHT * (elapsedNanos - current));
+            if (delta.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 缓存数据的平均加载耗时（单位：毫秒）
+     * @param cacheName
+     * @return
+     */
+    public long getLoadTimeMillis(String cacheName) {
+        AtomicLong delta = loadNanos.get(cacheName);
+        return delta == null ? 0L : TimeUnit.NANOSECONDS.toMillis(delta.get());
+    }
+
+    /**
+     * 停止后台刷新
+     */
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    public long getRefreshes() {
+        return refreshes.get();
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.get();
+    }
+
+    public long getRefreshRejections() {
+        return refreshRejections.get();
+    }
+
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    /**
+     * 当前正在刷新的KEY数量
+     * @return
+     */
+    public int getInFlightRefreshes() {
+        return inFlight.size();
+    }
+
+    /**
+     * 刷新请求标识（缓存名称 + 缓存KEY）
+     */
+    private static final class RefreshKey {
+
+        private final String cacheName;
+
+        private final Object cacheKey;
+
+        private RefreshKey(String cacheName, Object cacheKey) {
+            this.cacheName = cacheName;
+            this.cacheKey = cacheKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RefreshKey)) {
+                return false;
+            }
+            RefreshKey other = (RefreshKey) o;
+            return Objects.equals(cacheName, other.cacheName) && Objects.equals(cacheKey, other.cacheKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(cacheName) + Objects.hashCode(cacheKey);
+        }
+    }
+}
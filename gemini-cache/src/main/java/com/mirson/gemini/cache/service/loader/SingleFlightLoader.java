@@ -0,0 +1,284 @@
+package com.mirson.gemini.cache.service.loader;
+
+import com.mirson.gemini.cache.config.CacheConfigProperties;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 缓存加载合并处理（Single-Flight）
+ * 同一缓存KEY的并发未命中请求， 只由一个调用执行加载， 其余调用等待同一加载结果；
+ * 开启分布式锁后， 集群内多个节点也只会有一个节点执行加载。
+ * 以下情况不再合并， 由当前调用直接加载（分别计入lockTimeouts与waitTimeouts）：
+ * 分布式锁等待超时（其他节点加载过慢）， 以及本节点等待加载结果超过app.cache.loader.waitTimeout（加载方法阻塞）。
+ */
+public class SingleFlightLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlightLoader.class);
+
+    /**
+     * 分布式加载锁名称后缀
+     */
+    private static final String LOCK_SUFFIX = ":load-lock:";
+
+    /**
+     * 正在加载中的请求
+     */
+    private final ConcurrentMap<LoadKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 合并等待的调用次数
+     */
+    private final AtomicLong coalescedWaiters = new AtomicLong();
+
+    /**
+     * 实际执行加载的次数
+     */
+    private final AtomicLong leaderLoads = new AtomicLong();
+
+    /**
+     * 分布式锁等待超时次数
+     */
+    private final AtomicLong lockTimeouts = new AtomicLong();
+
+    /**
+     * 等待加载结果超时次数
+     */
+    private final AtomicLong waitTimeouts = new AtomicLong();
+
+    private RedissonClient redissonClient;
+
+    private CacheConfigProperties cacheConfigProperties;
+
+    public SingleFlightLoader(RedissonClient redissonClient, CacheConfigProperties cacheConfigProperties) {
+        this.redissonClient = redissonClient;
+        this.cacheConfigProperties = cacheConfigProperties;
+    }
+
+    /**
+     * 合并加载
+     * @param cacheName 缓存名称
+     * @param cacheKey 缓存KEY
+     * @param distributed 是否采用分布式锁
+     * @param cacheLookup 缓存查询（获取分布式锁后再次检查缓存）
+     * @param valueLoader 实际数据加载（加载并保存缓存）
+     * @return
+     * @throws Throwable
+     */
+    public Object load(String cacheName, Object cacheKey, boolean distributed,
+                       ValueLoader cacheLookup, ValueLoader valueLoader) throws Throwable {
+        LoadKey loadKey = new LoadKey(cacheName, cacheKey);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(loadKey, future);
+        if (existing != null) {
+            // 已有调用正在加载， 等待其结果
+            coalescedWaiters.incrementAndGet();
+            return await(loadKey, existing, cacheLookup, valueLoader);
+        }
+
+        try {
+            leaderLoads.incrementAndGet();
+            Object result = distributed ? loadWithLock(cacheName, cacheKey, cacheLookup, valueLoader)
+                    : valueLoader.load();
+            future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(loadKey, future);
+        }
+    }
+
+    /**
+     * 非阻塞合并加载（只合并本节点内的加载）
+     * @param cacheName 缓存名称
+     * @param cacheKey 缓存KEY
+     * @param valueLoader 实际数据加载（加载并保存缓存）
+     * @return
+     */
+    public CompletableFuture<Object> loadAsync(String cacheName, Object cacheKey,
+                                              Supplier<? extends CompletionStage<Object>> valueLoader) {
+        LoadKey loadKey = new LoadKey(cacheName, cacheKey);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(loadKey, future);
+        if (existing != null) {
+            // 已有调用正在加载， 共享其结果
+            coalescedWaiters.incrementAndGet();
+            return existing;
+        }
+
+        leaderLoads.incrementAndGet();
+        CompletionStage<Object> stage;
+        try {
+            stage = valueLoader.get();
+        } catch (Throwable e) {
+            inFlight.remove(loadKey, future);
+            future.completeExceptionally(e);
+            return future;
+        }
+        stage.whenComplete((result, e) -> {
+            inFlight.remove(loadKey, future);
+            if (e != null) {
+                future.completeExceptionally(e);
+            } else {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 在分布式锁保护下加载数据
+     */
+    private Object loadWithLock(String cacheName, Object cacheKey,
+                                ValueLoader cacheLookup, ValueLoader valueLoader) throws Throwable {
+        RLock lock;
+        boolean locked;
+        try {
+            lock = redissonClient.getLock(cacheName + LOCK_SUFFIX + cacheKey);
+            locked = lock.tryLock(cacheConfigProperties.getLoadLockWaitTime(),
+                    cacheConfigProperties.getLoadLockLeaseTime(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (Exception e) {
+            // 分布式锁不可用时， 降级为本地合并加载
+            logger.error("loadWithLock # acquire load lock failed ## " + e.getMessage(), e);
+            return valueLoader.load();
+        }
+
+        try {
+            // 其他节点可能已完成加载， 再次检查缓存
+            Object cached = lookupQuietly(cacheLookup);
+            if (cached != null) {
+                return cached;
+            }
+            if (!locked) {
+                // 锁等待超时且缓存仍未写入， 不再等待其他节点， 本节点直接加载（集群内可能重复加载）
+                lockTimeouts.incrementAndGet();
+                logger.debug("loadWithLock # load lock timeout, load without lock, cacheName: " + cacheName);
+            }
+            return valueLoader.load();
+        } finally {
+            if (locked) {
+                try {
+                    lock.unlock();
+                } catch (Exception e) {
+                    logger.error("loadWithLock # release load lock failed ## " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private Object lookupQuietly(ValueLoader cacheLookup) {
+        try {
+            return cacheLookup.load();
+        } catch (Throwable e) {
+            logger.error("lookupQuietly # cache lookup failed ## " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 等待其他调用的加载结果， 超过app.cache.loader.waitTimeout时由当前调用自行加载
+     */
+    private Object await(LoadKey loadKey, CompletableFuture<Object> future,
+                         ValueLoader cacheLookup, ValueLoader valueLoader) throws Throwable {
+        long waitTimeout = cacheConfigProperties.getLoadWaitTimeout();
+        try {
+            return waitTimeout > 0 ? future.get(waitTimeout, TimeUnit.MILLISECONDS) : future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            waitTimeouts.incrementAndGet();
+            logger.warn("await # wait for load timeout, load without coalescing, cacheName: " + loadKey.cacheName);
+            Object cached = lookupQuietly(cacheLookup);
+            return cached != null ? cached : valueLoader.load();
+        }
+    }
+
+    /**
+     * 合并等待的调用次数
+     * @return
+     */
+    public long getCoalescedWaiters() {
+        return coalescedWaiters.get();
+    }
+
+    /**
+     * 实际执行加载的次数
+     * @return
+     */
+    public long getLeaderLoads() {
+        return leaderLoads.get();
+    }
+
+    /**
+     * 分布式锁等待超时次数
+     * @return
+     */
+    public long getLockTimeouts() {
+        return lockTimeouts.get();
+    }
+
+    /**
+     * 等待加载结果超时次数
+     * @return
+     */
+    public long getWaitTimeouts() {
+        return waitTimeouts.get();
+    }
+
+    /**
+     * 当前正在加载的KEY数量
+     * @return
+     */
+    public int getInFlightLoads() {
+        return inFlight.size();
+    }
+
+    /**
+     * 加载请求标识（缓存名称 + 缓存KEY）
+     */
+    private static final class LoadKey {
+
+        private final String cacheName;
+
+        private final Object cacheKey;
+
+        private LoadKey(String cacheName, Object cacheKey) {
+            this.cacheName = cacheName;
+            this.cacheKey = cacheKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LoadKey)) {
+                return false;
+            }
+            LoadKey other = (LoadKey) o;
+            return Objects.equals(cacheName, other.cacheName) && Objects.equals(cacheKey, other.cacheKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(cacheName) + Objects.hashCode(cacheKey);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.mirson.gemini.cache.service.loader;
+
+/**
+ * 缓存数据加载回调
+ */
+@FunctionalInterface
+public interface ValueLoader {
+
+    /**
+     * 加载数据
+     * @return
+     * @throws Throwable
+     */
+    Object load() throws Throwable;
+}
@@ -0,0 +1,101 @@
+package com.mirson.gemini.cache.service.metrics;
+
+import com.mirson.gemini.cache.service.cache.CacheRegion;
+import com.mirson.gemini.cache.service.cache.CacheService;
+import com.mirson.gemini.cache.service.cache.CaffeineCacheServiceImpl;
+import com.mirson.gemini.cache.service.cache.RedisSendService;
+import com.mirson.gemini.cache.service.executor.MeteredExecutor;
+import com.mirson.gemini.cache.service.loader.SingleFlightLoader;
+
+/**
+ * 缓存监控指标接口， 不依赖具体的指标库， 未开启时采用 {@link #NONE}（所有方法为空实现）
+ * 本地缓存的命中、写入与淘汰由 {@link #bindRegion(CacheRegion)} 从已有统计中读取， 只有Redis访问、加载与消息接收
+ * 需要在调用时记录。
+ */
+public interface CacheMetrics {
+
+    /**
+     * 未开启监控指标
+     */
+    CacheMetrics NONE = new CacheMetrics() {
+    };
+
+    /**
+     * 是否开启， 开启时本地缓存记录命中统计
+     * @return
+     */
+    default boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * 注册缓存区域的本地缓存指标（条目数、权重、命中、写入、淘汰）
+     * @param region
+     */
+    default void bindRegion(CacheRegion region) {
+    }
+
+    /**
+     * 注册二级缓存服务的版本统计（丢弃的消息、过旧的读取、推送值）
+     * @param cacheService
+     */
+    default void bindLocalService(CaffeineCacheServiceImpl cacheService) {
+    }
+
+    /**
+     * 注册消息发送统计
+     * @param redisSendService
+     */
+    default void bindSendService(RedisSendService redisSendService) {
+    }
+
+    /**
+     * 注册线程池统计（队列长度、拒绝次数等）
+     * @param name 线程池名称
+     * @param executor
+     */
+    default void bindExecutor(String name, MeteredExecutor executor) {
+    }
+
+    /**
+     * 注册合并加载统计（合并等待、实际加载、锁等待超时与等待结果超时次数）
+     * @param singleFlightLoader
+     */
+    default void bindLoader(SingleFlightLoader singleFlightLoader) {
+    }
+
+    /**
+     * 为Redis缓存服务增加访问耗时与命中统计
+     * @param redisCacheService
+     * @return 未开启时返回原服务
+     */
+    default CacheService instrumentRemote(CacheService redisCacheService) {
+        return redisCacheService;
+    }
+
+    /**
+     * 记录原有方法的加载耗时
+     * @param cacheName
+     * @param nanos 耗时（单位：纳秒）
+     * @param success 是否加载成功
+     */
+    default void recordLoad(String cacheName, long nanos, boolean success) {
+    }
+
+    /**
+     * 记录空值缓存（@Cacheable(cacheNulls = true)）的访问
+     * @param cacheName
+     * @param hit true为命中空值缓存， false为原有方法返回空并写入空值缓存
+     */
+    default void recordNegative(String cacheName, boolean hit) {
+    }
+
+    /**
+     * 记录收到的缓存变更消息
+     * @param cacheName
+     * @param count 变更条目数量
+     * @param version 变更版本号， 用于计算发送至接收的延迟， 无版本号时不计算
+     */
+    default void recordReceive(String cacheName, int count, long version) {
+    }
+}
@@ -0,0 +1,236 @@
+package com.mirson.gemini.cache.service.metrics;
+
+import com.mirson.gemini.cache.service.cache.CacheService;
+import com.mirson.gemini.cache.service.cache.SecondCacheService;
+import com.mirson.gemini.cache.service.version.VersionedValue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 记录Redis访问耗时、命中与写入清除次数的缓存服务（包装 {@link com.mirson.gemini.cache.service.cache.RedisCacheServiceImpl}）
+ * 同时操作多个缓存名称时， 同一次耗时计入每个缓存； 只开启Redis缓存并保存热点KEY时， 本地命中的热点KEY同样计为Redis命中。
+ */
+public class MeteredCacheService extends SecondCacheService {
+
+    private final MicrometerCacheMetrics metrics;
+
+    public MeteredCacheService(CacheService cacheService, MicrometerCacheMetrics metrics) {
+        super(cacheService);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object getFromCache(String cacheName, Object cacheKey) {
+        MicrometerCacheMetrics.RemoteMeters meters = metrics.remote(cacheName);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = cacheService.getFromCache(cacheName, cacheKey);
+        } finally {
+            meters.get.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        (result != null ? meters.hits : meters.misses).increment();
+        return result;
+    }
+
+    @Override
+    public Map<Object, Object> getAll(String cacheName, Collection<?> cacheKeys) {
+        MicrometerCacheMetrics.RemoteMeters meters = metrics.remote(cacheName);
+        long start = System.nanoTime();
+        Map<Object, Object> result;
+        try {
+            result = cacheService.getAll(cacheName, cacheKeys);
+        } finally {
+            meters.getAll.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        recordGetAll(meters, cacheKeys.size(), result.size());
+        return result;
+    }
+
+    @Override
+    public VersionedValue getVersionedFromCache(String cacheName, Object cacheKey) {
+        MicrometerCacheMetrics.RemoteMeters meters = metrics.remote(cacheName);
+        long start = System.nanoTime();
+        VersionedValue result;
+        try {
+            result = cacheService.getVersionedFromCache(cacheName, cacheKey);
+        } finally {
+            meters.get.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        (result != null ? meters.hits : meters.misses).increment();
+        return result;
+    }
+
+    @Override
+    public Map<Object, VersionedValue> getAllVersioned(String cacheName, Collection<?> cacheKeys) {
+        MicrometerCacheMetrics.RemoteMeters meters = metrics.remote(cacheName);
+        long start = System.nanoTime();
+        Map<Object, VersionedValue> result;
+        try {
+            result = cacheService.getAllVersioned(cacheName, cacheKeys);
+        } finally {
+            meters.getAll.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        recordGetAll(meters, cacheKeys.size(), result.size());
+        return result;
+    }
+
+    @Override
+    public boolean save(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl, TimeUnit unit) {
+        long start = System.nanoTime();
+        try {
+            return cacheService.save(cacheNames, cacheKey, cacheValue, ttl, unit);
+        } finally {
+            record(cacheNames, start, meters -> meters.put, meters -> meters.puts);
+        }
+    }
+
+    @Override
+    public boolean saveAll(String[] cacheNames, Map<Object, ?> values, LongUnaryOperator ttlMillis) {
+        long start = System.nanoTime();
+        try {
+            return cacheService.saveAll(cacheNames, values, ttlMillis);
+        } finally {
+            record(cacheNames, start, meters -> meters.put, meters -> meters.puts, values.size());
+        }
+    }
+
+    @Override
+    public boolean invalidateCache(String[] cacheNames, Object cacheKey) {
+        long start = System.nanoTime();
+        try {
+            return cacheService.invalidateCache(cacheNames, cacheKey);
+        } finally {
+            record(cacheNames, start, meters -> meters.evict, meters -> meters.evictions);
+        }
+    }
+
+    @Override
+    public boolean invalidateCache(String[] cacheNames) {
+        long start = System.nanoTime();
+        try {
+            return cacheService.invalidateCache(cacheNames);
+        } finally {
+            record(cacheNames, start, meters -> meters.clear, meters -> meters.evictions);
+        }
+    }
+
+    /**
+     * 异步写入只记录次数， 提交耗时不代表Redis耗时
+     */
+    @Override
+    public boolean saveInRedisAsync(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl, TimeUnit unit) {
+        boolean result = cacheService.saveInRedisAsync(cacheNames, cacheKey, cacheValue, ttl, unit);
+        increment(cacheNames, meters -> meters.puts);
+        return result;
+    }
+
+    @Override
+    public boolean invalidateCacheAsync(String[] cacheNames, Object cacheKey) {
+        boolean result = cacheService.invalidateCacheAsync(cacheNames, cacheKey);
+        increment(cacheNames, meters -> meters.evictions);
+        return result;
+    }
+
+    @Override
+    public boolean invalidateCacheAsync(String[] cacheNames) {
+        boolean result = cacheService.invalidateCacheAsync(cacheNames);
+        increment(cacheNames, meters -> meters.evictions);
+        return result;
+    }
+
+    @Override
+    public CompletionStage<Object> getFromCacheAsync(String cacheName, Object cacheKey) {
+        MicrometerCacheMetrics.RemoteMeters meters = metrics.remote(cacheName);
+        long start = System.nanoTime();
+        return cacheService.getFromCacheAsync(cacheName, cacheKey).whenComplete((result, e) -> {
+            meters.get.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (e == null) {
+                (result != null ? meters.hits : meters.misses).increment();
+            }
+        });
+    }
+
+    @Override
+    public CompletionStage<VersionedValue> getVersionedFromCacheAsync(String cacheName, Object cacheKey) {
+        MicrometerCacheMetrics.RemoteMeters meters = metrics.remote(cacheName);
+        long start = System.nanoTime();
+        return cacheService.getVersionedFromCacheAsync(cacheName, cacheKey).whenComplete((result, e) -> {
+            meters.get.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (e == null) {
+                (result != null ? meters.hits : meters.misses).increment();
+            }
+        });
+    }
+
+    @Override
+    public CompletionStage<Boolean> saveAsync(String[] cacheNames, Object cacheKey, Object cacheValue, long ttl,
+                                              TimeUnit unit) {
+        long start = System.nanoTime();
+        return cacheService.saveAsync(cacheNames, cacheKey, cacheValue, ttl, unit).whenComplete((result, e) ->
+                record(cacheNames, start, meters -> meters.put, meters -> meters.puts));
+    }
+
+    @Override
+    public CompletionStage<Boolean> saveAllAsync(String[] cacheNames, Map<Object, ?> values,
+                                                 LongUnaryOperator ttlMillis) {
+        long start = System.nanoTime();
+        return cacheService.saveAllAsync(cacheNames, values, ttlMillis).whenComplete((result, e) ->
+                record(cacheNames, start, meters -> meters.put, meters -> meters.puts, values.size()));
+    }
+
+    @Override
+    public CompletionStage<Boolean> invalidateAsync(String[] cacheNames, Object cacheKey) {
+        long start = System.nanoTime();
+        return cacheService.invalidateAsync(cacheNames, cacheKey).whenComplete((result, e) ->
+                record(cacheNames, start, meters -> meters.evict, meters -> meters.evictions));
+    }
+
+    @Override
+    public CompletionStage<Boolean> invalidateAllAsync(String[] cacheNames) {
+        long start = System.nanoTime();
+        return cacheService.invalidateAllAsync(cacheNames).whenComplete((result, e) ->
+                record(cacheNames, start, meters -> meters.clear, meters -> meters.evictions));
+    }
+
+    private static void recordGetAll(MicrometerCacheMetrics.RemoteMeters meters, int requested, int found) {
+        meters.hits.increment(found);
+        if (requested > found) {
+            meters.misses.increment(requested - found);
+        }
+    }
+
+    /**
+     * 按缓存名称记录耗时与次数
+     */
+    private void record(String[] cacheNames, long start, Function<MicrometerCacheMetrics.RemoteMeters, Timer> timer,
+                        Function<MicrometerCacheMetrics.RemoteMeters, Counter> counter) {
+        record(cacheNames, start, timer, counter, 1);
+    }
+
+    /**
+     * 按缓存名称记录耗时与次数（批量操作一次耗时， 按条目数计数）
+     */
+    private void record(String[] cacheNames, long start, Function<MicrometerCacheMetrics.RemoteMeters, Timer> timer,
+                        Function<MicrometerCacheMetrics.RemoteMeters, Counter> counter, int count) {
+        long elapsed = System.nanoTime() - start;
+        for (String cacheName : cacheNames) {
+            MicrometerCacheMetrics.RemoteMeters meters = metrics.remote(cacheName);
+            timer.apply(meters).record(elapsed, TimeUnit.NANOSECONDS);
+            counter.apply(meters).increment(count);
+        }
+    }
+
+    private void increment(String[] cacheNames, Function<MicrometerCacheMetrics.RemoteMeters, Counter> counter) {
+        for (String cacheName : cacheNames) {
+            counter.apply(metrics.remote(cacheName)).increment();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.mirson.gemini.cache.service.metrics;
+
+import com.mirson.gemini.cache.config.CacheConfigProperties;
+import com.mirson.gemini.cache.service.cache.BatchRedisSendServiceImpl;
+import com.mirson.gemini.cache.service.cache.CacheRegion;
+import com.mirson.gemini.cache.service.cache.CacheService;
+import com.mirson.gemini.cache.service.cache.CaffeineCacheServiceImpl;
+import com.mirson.gemini.cache.service.cache.RedisSendService;
+import com.mirson.gemini.cache.service.cache.RedisSendServiceImpl;
+import com.mirson.gemini.cache.service.executor.ExecutorMetrics;
+import com.mirson.gemini.cache.service.executor.MeteredExecutor;
+import com.mirson.gemini.cache.service.loader.SingleFlightLoader;
+import com.mirson.gemini.cache.service.version.HybridLogicalClock;
+import com.mirson.gemini.cache.service.version.VersionedValue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 基于Micrometer的缓存监控指标
+ * 指标按缓存名称（cache）与存储层级（tier： local、redis）区分：
+ * 本地缓存的命中、淘汰来自Caffeine recordStats（堆外缓存来自自身计数）， 写入与清除来自 {@link CacheRegion} 计数，
+ * 均在采集时读取， 访问路径上没有额外开销； Redis访问、加载与消息接收的计量器按缓存名称创建一次后复用。
+ */
+public class MicrometerCacheMetrics implements CacheMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(MicrometerCacheMetrics.class);
+
+    public static final String PREFIX = "gemini.cache";
+
+    static final String TAG_CACHE = "cache";
+
+    static final String TAG_TIER = "tier";
+
+    static final String TIER_LOCAL = "local";
+
+    static final String TIER_REDIS = "redis";
+
+    private final MeterRegistry registry;
+
+    /**
+     * 耗时是否发布百分位直方图
+     */
+    private final boolean histogram;
+
+    /**
+     * 缓存名称 -> Redis访问计量器
+     */
+    private final Map<String, RemoteMeters> remoteMeters = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存名称 -> 加载耗时计量器
+     */
+    private final Map<String, LoadMeters> loadMeters = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存名称 -> 消息接收计量器
+     */
+    private final Map<String, ReceiveMeters> receiveMeters = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存名称 -> 空值缓存计量器
+     */
+    private final Map<String, NegativeMeters> negativeMeters = new ConcurrentHashMap<>();
+
+    public MicrometerCacheMetrics(MeterRegistry registry, boolean histogram) {
+        this.registry = registry;
+        this.histogram = histogram;
+    }
+
+    /**
+     * 采用应用的MeterRegistry创建监控指标
+     * @param beanFactory
+     * @param cacheConfigProperties
+     * @return 不存在唯一的MeterRegistry Bean时返回 {@link CacheMetrics#NONE}
+     */
+    public static CacheMetrics create(BeanFactory beanFactory, CacheConfigProperties cacheConfigProperties) {
+        MeterRegistry registry;
+        try {
+            registry = beanFactory.getBean(MeterRegistry.class);
+        } catch (NoSuchBeanDefinitionException e) {
+            logger.warn("create # no unique MeterRegistry bean, cache metrics disabled ## " + e.getMessage());
+            return NONE;
+        }
+        return new MicrometerCacheMetrics(registry, cacheConfigProperties.isMetricsHistogram());
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void bindRegion(CacheRegion region) {
+        if (!region.isLocal()) {
+            return;
+        }
+        Tags tags = Tags.of(TAG_CACHE, region.getName(), TAG_TIER, TIER_LOCAL);
+        functionCounter("gets", tags.and("result", "hit"), region, r -> r.getStore().stats().hitCount());
+        functionCounter("gets", tags.and("result", "miss"), region, r -> r.getStore().stats().missCount());
+        functionCounter("puts", tags, region, CacheRegion::getPuts);
+        functionCounter("evictions", tags.and("cause", "size"), region, r -> r.getStore().stats().evictionCount());
+        functionCounter("evictions", tags.and("cause", "explicit"), region, CacheRegion::getInvalidations);
+        gauge("size", tags, region, CacheRegion::getEstimatedSize);
+        if (region.getWeightedSize() >= 0) {
+            gauge("weight", tags, region, CacheRegion::getWeightedSize);
+        }
+    }
+
+    @Override
+    public void bindLocalService(CaffeineCacheServiceImpl cacheService) {
+        functionCounter("stale.messages", Tags.empty(), cacheService, CaffeineCacheServiceImpl::getStaleMessages);
+        functionCounter("stale.loads", Tags.empty(), cacheService, CaffeineCacheServiceImpl::getStaleLoads);
+        functionCounter("pushed.values", Tags.empty(), cacheService, CaffeineCacheServiceImpl::getPushedValues);
+    }
+
+    @Override
+    public void bindSendService(RedisSendService redisSendService) {
+        if (redisSendService instanceof RedisSendServiceImpl) {
+            functionCounter("pubsub.published", Tags.empty(), (RedisSendServiceImpl) redisSendService,
+                    RedisSendServiceImpl::getPublishedMessages);
+        } else if (redisSendService instanceof BatchRedisSendServiceImpl) {
+            BatchRedisSendServiceImpl batch = (BatchRedisSendServiceImpl) redisSendService;
+            functionCounter("pubsub.enqueued", Tags.empty(), batch, BatchRedisSendServiceImpl::getEnqueuedMessages);
+            functionCounter("pubsub.coalesced", Tags.empty(), batch, BatchRedisSendServiceImpl::getCoalescedMessages);
+            functionCounter("pubsub.batches", Tags.empty(), batch, BatchRedisSendServiceImpl::getPublishedBatches);
+            functionCounter("pubsub.batches.failed", Tags.empty(), batch, BatchRedisSendServiceImpl::getFailedBatches);
+            gauge("pubsub.pending", Tags.empty(), batch, BatchRedisSendServiceImpl::getPendingSize);
+        }
+    }
+
+    @Override
+    public void bindExecutor(String name, MeteredExecutor executor) {
+        Tags tags = Tags.of("name", name);
+        gauge("executor.queued", tags, executor, MeteredExecutor::getQueueSize);
+        gauge("executor.active", tags, executor, MeteredExecutor::getActiveCount);
+        ExecutorMetrics metrics = executor.getMetrics();
+        functionCounter("executor.submitted", tags, metrics, ExecutorMetrics::getSubmitted);
+        functionCounter("executor.completed", tags, metrics, ExecutorMetrics::getCompleted);
+        functionCounter("executor.rejected", tags, metrics, ExecutorMetrics::getRejected);
+        functionCounter("executor.caller.runs", tags, metrics, ExecutorMetrics::getCallerRuns);
+        functionCounter("executor.dropped", tags, metrics, ExecutorMetrics::getDroppedOldest);
+        functionCounter("executor.block.timeouts", tags, metrics, ExecutorMetrics::getBlockTimeouts);
+    }
+
+    @Override
+    public void bindLoader(SingleFlightLoader singleFlightLoader) {
+        functionCounter("loader.coalesced", Tags.empty(), singleFlightLoader, SingleFlightLoader::getCoalescedWaiters);
+        functionCounter("loader.loads", Tags.empty(), singleFlightLoader, SingleFlightLoader::getLeaderLoads);
+        functionCounter("loader.lock.timeouts", Tags.empty(), singleFlightLoader, SingleFlightLoader::getLockTimeouts);
+        functionCounter("loader.wait.timeouts", Tags.empty(), singleFlightLoader, SingleFlightLoader::getWaitTimeouts);
+        gauge("loader.inflight", Tags.empty(), singleFlightLoader, SingleFlightLoader::getInFlightLoads);
+    }
+
+    @Override
+    public CacheService instrumentRemote(CacheService redisCacheService) {
+        return new MeteredCacheService(redisCacheService, this);
+    }
+
+    @Override
+    public void recordLoad(String cacheName, long nanos, boolean success) {
+        LoadMeters meters = loadMeters.get(cacheName);
+        if (meters == null) {
+            meters = loadMeters.computeIfAbsent(cacheName, LoadMeters::new);
+        }
+        (success ? meters.success : meters.failure).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordNegative(String cacheName, boolean hit) {
+        NegativeMeters meters = negativeMeters.get(cacheName);
+        if (meters == null) {
+            meters = negativeMeters.computeIfAbsent(cacheName, NegativeMeters::new);
+        }
+        (hit ? meters.hits : meters.stores).increment();
+    }
+
+    @Override
+    public void recordReceive(String cacheName, int count, long version) {
+        ReceiveMeters meters = receiveMeters.get(cacheName);
+        if (meters == null) {
+            meters = receiveMeters.computeIfAbsent(cacheName, ReceiveMeters::new);
+        }
+        meters.received.increment(count);
+        if (version != VersionedValue.NO_VERSION) {
+            // 各节点时钟存在偏差， 负值按0记录
+            long lag = System.currentTimeMillis() - HybridLogicalClock.physicalTime(version);
+            meters.lag.record(Math.max(0, lag), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 获取缓存的Redis访问计量器
+     * @param cacheName
+     * @return
+     */
+    RemoteMeters remote(String cacheName) {
+        RemoteMeters meters = remoteMeters.get(cacheName);
+        if (meters == null) {
+            meters = remoteMeters.computeIfAbsent(cacheName, RemoteMeters::new);
+        }
+        return meters;
+    }
+
+    private <T> void functionCounter(String name, Tags tags, T obj, ToDoubleFunction<T> f) {
+        FunctionCounter.builder(PREFIX + "." + name, obj, f).tags(tags).register(registry);
+    }
+
+    private <T> void gauge(String name, Tags tags, T obj, ToDoubleFunction<T> f) {
+        Gauge.builder(PREFIX + "." + name, obj, f).tags(tags).register(registry);
+    }
+
+    private Timer timer(String name, Tags tags) {
+        return Timer.builder(PREFIX + "." + name).tags(tags).publishPercentileHistogram(histogram).register(registry);
+    }
+
+    private Counter counter(String name, Tags tags) {
+        return Counter.builder(PREFIX + "." + name).tags(tags).register(registry);
+    }
+
+    /**
+     * Redis访问计量器（单个缓存名称）
+     */
+    final class RemoteMeters {
+
+        final Timer get;
+
+        final Timer getAll;
+
+        final Timer put;
+
+        final Timer evict;
+
+        final Timer clear;
+
+        final Counter hits;
+
+        final Counter misses;
+
+        final Counter puts;
+
+        final Counter evictions;
+
+        private RemoteMeters(String cacheName) {
+            Tags tags = Tags.of(TAG_CACHE, cacheName);
+            this.get = timer("redis.latency", tags.and("operation", "get"));
+            this.getAll = timer("redis.latency", tags.and("operation", "getAll"));
+            this.put = timer("redis.latency", tags.and("operation", "put"));
+            this.evict = timer("redis.latency", tags.and("operation", "evict"));
+            this.clear = timer("redis.latency", tags.and("operation", "clear"));
+            Tags tierTags = tags.and(TAG_TIER, TIER_REDIS);
+            this.hits = counter("gets", tierTags.and("result", "hit"));
+            this.misses = counter("gets", tierTags.and("result", "miss"));
+            this.puts = counter("puts", tierTags);
+            this.evictions = counter("evictions", tierTags.and("cause", "explicit"));
+        }
+    }
+
+    /**
+     * 加载耗时计量器（单个缓存名称）
+     */
+    private final class LoadMeters {
+
+        private final Timer success;
+
+        private final Timer failure;
+
+        private LoadMeters(String cacheName) {
+            Tags tags = Tags.of(TAG_CACHE, cacheName);
+            this.success = timer("load", tags.and("result", "success"));
+            this.failure = timer("load", tags.and("result", "failure"));
+        }
+    }
+
+    /**
+     * 消息接收计量器（单个缓存名称）
+     */
+    private final class ReceiveMeters {
+
+        private final Counter received;
+
+        private final Timer lag;
+
+        private ReceiveMeters(String cacheName) {
+            Tags tags = Tags.of(TAG_CACHE, cacheName);
+            this.received = counter("pubsub.received", tags);
+            this.lag = timer("pubsub.lag", tags);
+        }
+    }
+
+    /**
+     * 空值缓存计量器（单个缓存名称）
+     */
+    private final class NegativeMeters {
+
+        private final Counter hits;
+
+        private final Counter stores;
+
+        private NegativeMeters(String cacheName) {
+            Tags tags = Tags.of(TAG_CACHE, cacheName);
+            this.hits = counter("negative", tags.and("result", "hit"));
+            this.stores = counter("negative", tags.and("result", "store"));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.mirson.gemini.cache.service.operation;
+
+import com.mirson.gemini.cache.utils.MonoSupport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 缓存方法的异步返回类型
+ */
+public enum AsyncReturnType {
+
+    /**
+     * 同步返回
+     */
+    NONE,
+
+    /**
+     * 返回 CompletableFuture 或 CompletionStage
+     */
+    COMPLETION_STAGE,
+
+    /**
+     * 返回 Reactor Mono
+     */
+    MONO;
+
+    /**
+     * 根据方法返回类型判断
+     * 缓存命中时返回 CompletableFuture， 只支持声明为 CompletionStage 或 CompletableFuture 的方法
+     * @param returnType
+     * @return
+     */
+    public static AsyncReturnType of(Class<?> returnType) {
+        if (CompletionStage.class.isAssignableFrom(returnType)) {
+            if (!returnType.isAssignableFrom(CompletableFuture.class)) {
+                throw new IllegalStateException("Cached async method must return CompletionStage or CompletableFuture, but got: "
+                        + returnType.getName());
+            }
+            return COMPLETION_STAGE;
+        }
+        if (MonoSupport.isMono(returnType)) {
+            return MONO;
+        }
+        return NONE;
+    }
+}
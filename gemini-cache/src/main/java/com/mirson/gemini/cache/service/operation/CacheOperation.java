@@ -0,0 +1,159 @@
+package com.mirson.gemini.cache.service.operation;
+
+import com.mirson.gemini.cache.service.expiry.TtlJitter;
+import com.mirson.gemini.cache.utils.CacheKeyPlan;
+import com.mirson.gemini.cache.utils.CacheUtil;
+import com.mirson.gemini.cache.utils.KeyGenerators;
+
+import java.lang.annotation.Annotation;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个缓存注解解析后的操作信息
+ */
+public final class CacheOperation<A extends Annotation> {
+
+    /**
+     * 缓存注解
+     */
+    private final A annotation;
+
+    /**
+     * 缓存名称
+     */
+    private final String[] cacheNames;
+
+    /**
+     * KEY执行计划（为空时采用全部方法参数， 按KEY生成器生成KEY；
+     * 批量缓存时为获取元素ID的执行计划）
+     */
+    private final CacheKeyPlan keyPlan;
+
+    /**
+     * KEY生成器
+     */
+    private final KeyGenerators keyGenerator;
+
+    /**
+     * 缓存生命周期（单位：秒）
+     */
+    private final long ttl;
+
+    /**
+     * 缓存生命周期随机抖动
+     */
+    private final TtlJitter ttlJitter;
+
+    /**
+     * 是否异步
+     */
+    private final boolean async;
+
+    CacheOperation(A annotation, String[] cacheNames, CacheKeyPlan keyPlan,
+                   KeyGenerators keyGenerator, long ttl, TtlJitter ttlJitter, boolean async) {
+        this.annotation = annotation;
+        this.cacheNames = cacheNames;
+        this.keyPlan = keyPlan;
+        this.keyGenerator = keyGenerator;
+        this.ttl = ttl;
+        this.ttlJitter = ttlJitter;
+        this.async = async;
+    }
+
+    /**
+     * 生成缓存KEY
+     * @param args 方法参数
+     * @param returnedObject 方法返回结果
+     * @return
+     */
+    public Object buildCacheKey(Object[] args, Object returnedObject) {
+        if (keyPlan == null) {
+            return CacheUtil.buildCacheKey(keyGenerator, args);
+        }
+        return keyPlan.buildCacheKey(args, returnedObject, keyGenerator);
+    }
+
+    /**
+     * 缓存KEY表达式的取值， 未配置KEY表达式时为方法参数
+     * @param args 方法参数
+     * @param returnedObject 方法返回结果
+     * @return
+     */
+    public Object[] keyValues(Object[] args, Object returnedObject) {
+        if (keyPlan == null) {
+            return args;
+        }
+        return keyPlan.evaluate(args, returnedObject);
+    }
+
+    /**
+     * 生成批量缓存中单个元素的缓存KEY
+     * @param id 元素ID
+     * @return
+     */
+    public Object buildElementKey(Object id) {
+        return CacheUtil.buildCacheKey(keyGenerator, id);
+    }
+
+    /**
+     * 获取批量缓存返回元素的ID
+     * @param element
+     * @return
+     */
+    public Object getElementId(Object element) {
+        return keyPlan.evaluate(null, element)[0];
+    }
+
+    public A getAnnotation() {
+        return annotation;
+    }
+
+    public String[] getCacheNames() {
+        return cacheNames;
+    }
+
+    /**
+     * 第一个缓存名称（Cacheable只有一个缓存名称）
+     * @return
+     */
+    public String getCacheName() {
+        return cacheNames.length > 0 ? cacheNames[0] : null;
+    }
+
+    public CacheKeyPlan getKeyPlan() {
+        return keyPlan;
+    }
+
+    public KeyGenerators getKeyGenerator() {
+        return keyGenerator;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public TtlJitter getTtlJitter() {
+        return ttlJitter;
+    }
+
+    /**
+     * 本次写入的缓存生命周期（单位：毫秒）， 按抖动配置随机计算， 0代表无限周期
+     * @return
+     */
+    public long nextTtlMillis() {
+        return ttlJitter.apply(TimeUnit.SECONDS.toMillis(ttl));
+    }
+
+    /**
+     * 按版本号计算的缓存生命周期（单位：毫秒）， 写入与读取时结果一致， 0代表无限周期
+     * @param version 缓存数据的版本号
+     * @return
+     */
+    public long ttlMillis(long version) {
+        return ttlJitter.apply(TimeUnit.SECONDS.toMillis(ttl), version);
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+}
@@ -0,0 +1,77 @@
+package com.mirson.gemini.cache.service.operation;
+
+import com.mirson.gemini.cache.annotation.CacheDelete;
+import com.mirson.gemini.cache.annotation.CachePut;
+import com.mirson.gemini.cache.annotation.Cacheable;
+import com.mirson.gemini.cache.annotation.CacheableBatch;
+
+import java.lang.reflect.Method;
+
+/**
+ * 方法缓存元数据， 每个方法只解析一次
+ */
+public final class CacheOperationMetadata {
+
+    /**
+     * 实际声明注解的目标方法（已处理代理与桥接方法）
+     */
+    private final Method targetMethod;
+
+    private final CacheOperation<Cacheable> cacheable;
+
+    private final CacheOperation<CachePut> cachePut;
+
+    private final CacheOperation<CacheDelete> cacheDelete;
+
+    private final CacheOperation<CacheableBatch> cacheableBatch;
+
+    /**
+     * 异步返回类型
+     */
+    private final AsyncReturnType asyncReturnType;
+
+    CacheOperationMetadata(Method targetMethod,
+                           CacheOperation<Cacheable> cacheable,
+                           CacheOperation<CachePut> cachePut,
+                           CacheOperation<CacheDelete> cacheDelete,
+                           CacheOperation<CacheableBatch> cacheableBatch) {
+        this.targetMethod = targetMethod;
+        this.cacheable = cacheable;
+        this.cachePut = cachePut;
+        this.cacheDelete = cacheDelete;
+        this.cacheableBatch = cacheableBatch;
+        this.asyncReturnType = AsyncReturnType.of(targetMethod.getReturnType());
+    }
+
+    public Method getTargetMethod() {
+        return targetMethod;
+    }
+
+    public CacheOperation<Cacheable> getCacheable() {
+        return cacheable;
+    }
+
+    public CacheOperation<CachePut> getCachePut() {
+        return cachePut;
+    }
+
+    public CacheOperation<CacheDelete> getCacheDelete() {
+        return cacheDelete;
+    }
+
+    public CacheOperation<CacheableBatch> getCacheableBatch() {
+        return cacheableBatch;
+    }
+
+    public AsyncReturnType getAsyncReturnType() {
+        return asyncReturnType;
+    }
+
+    /**
+     * 是否包含缓存注解
+     * @return
+     */
+    public boolean hasOperations() {
+        return cacheable != null || cachePut != null || cacheDelete != null || cacheableBatch != null;
+    }
+}
@@ -0,0 +1,253 @@
+package com.mirson.gemini.cache.service.operation;
+
+import com.mirson.gemini.cache.annotation.CacheDelete;
+import com.mirson.gemini.cache.annotation.CachePut;
+import com.mirson.gemini.cache.annotation.Cacheable;
+import com.mirson.gemini.cache.annotation.CacheableBatch;
+import com.mirson.gemini.cache.config.CacheConfigProperties;
+import com.mirson.gemini.cache.config.CacheRegionProperties;
+import com.mirson.gemini.cache.service.expiry.TtlJitter;
+import com.mirson.gemini.cache.utils.CacheKeyPlan;
+import com.mirson.gemini.cache.utils.SpringExpressionParserUtil;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.MethodClassKey;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 方法缓存元数据管理
+ * 缓存注解、KEY执行计划等信息按（调用方法， 目标类）解析一次后缓存， 切面每次调用只做一次Map查找；
+ * 启动完成后可扫描容器中的Bean进行预热。
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.enable", havingValue = "true")
+public class CacheOperationSource implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheOperationSource.class);
+
+    @Autowired
+    private SpringExpressionParserUtil springExpressionParserUtil;
+
+    @Autowired
+    private CacheConfigProperties cacheConfigProperties;
+
+    @Autowired
+    private CacheRegionProperties cacheRegionProperties;
+
+    /**
+     * 方法缓存元数据
+     */
+    private final ConcurrentMap<MethodClassKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(256);
+
+    /**
+     * 获取切点对应的缓存元数据
+     * @param joinPoint
+     * @return
+     */
+    public CacheOperationMetadata getMetadata(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object target = joinPoint.getTarget();
+        return getMetadata(method, target != null ? target.getClass() : method.getDeclaringClass());
+    }
+
+    /**
+     * 获取方法对应的缓存元数据
+     * @param method 调用方法（可能为接口方法）
+     * @param targetClass 目标类
+     * @return
+     */
+    public CacheOperationMetadata getMetadata(Method method, Class<?> targetClass) {
+        MethodClassKey cacheKey = new MethodClassKey(method, targetClass);
+        CacheOperationMetadata metadata = metadataCache.get(cacheKey);
+        if (metadata == null) {
+            metadata = buildMetadata(method, targetClass);
+            CacheOperationMetadata existing = metadataCache.putIfAbsent(cacheKey, metadata);
+            if (existing != null) {
+                metadata = existing;
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * 当前已缓存的元数据数量
+     * @return
+     */
+    public int size() {
+        return metadataCache.size();
+    }
+
+    /**
+     * 解析方法缓存元数据
+     */
+    private CacheOperationMetadata buildMetadata(Method method, Class<?> targetClass) {
+        Class<?> userClass = ClassUtils.getUserClass(targetClass);
+        Method specificMethod = ClassUtils.getMostSpecificMethod(method, userClass);
+        specificMethod = BridgeMethodResolver.findBridgedMethod(specificMethod);
+
+        Cacheable cacheable = findAnnotation(specificMethod, method, Cacheable.class);
+        CachePut cachePut = findAnnotation(specificMethod, method, CachePut.class);
+        CacheDelete cacheDelete = findAnnotation(specificMethod, method, CacheDelete.class);
+        CacheableBatch cacheableBatch = findAnnotation(specificMethod, method, CacheableBatch.class);
+
+        CacheOperation<Cacheable> cacheableOperation = null;
+        if (cacheable != null) {
+            cacheableOperation = new CacheOperation<>(cacheable, new String[]{cacheable.cacheName()},
+                    keyPlan(specificMethod, cacheable.keyExpression()), cacheable.keyGenerator(),
+                    cacheable.TTL(), ttlJitter(cacheable.ttlJitter(), cacheable.cacheName()), cacheable.isAsync());
+        }
+        CacheOperation<CachePut> cachePutOperation = null;
+        if (cachePut != null) {
+            cachePutOperation = new CacheOperation<>(cachePut, cachePut.cacheNames(),
+                    keyPlan(specificMethod, cachePut.keyExpression()), cachePut.keyGenerator(),
+                    cachePut.TTL(), ttlJitter(cachePut.ttlJitter(), cachePut.cacheNames()), cachePut.isAsync());
+        }
+        CacheOperation<CacheDelete> cacheDeleteOperation = null;
+        if (cacheDelete != null) {
+            cacheDeleteOperation = new CacheOperation<>(cacheDelete, cacheDelete.cacheNames(),
+                    cacheDelete.removeAll() ? null : keyPlan(specificMethod, cacheDelete.keyExpression()),
+                    cacheDelete.keyGenerator(), 0, TtlJitter.NONE, cacheDelete.isAsync());
+        }
+        CacheOperation<CacheableBatch> cacheableBatchOperation = null;
+        if (cacheableBatch != null) {
+            validateBatch(specificMethod, cacheableBatch);
+            cacheableBatchOperation = new CacheOperation<>(cacheableBatch, new String[]{cacheableBatch.cacheName()},
+                    keyPlan(specificMethod, cacheableBatch.resultKeyExpression()), cacheableBatch.keyGenerator(),
+                    cacheableBatch.TTL(), ttlJitter(cacheableBatch.ttlJitter(), cacheableBatch.cacheName()),
+                    cacheableBatch.isAsync());
+        }
+        return new CacheOperationMetadata(specificMethod, cacheableOperation, cachePutOperation,
+                cacheDeleteOperation, cacheableBatchOperation);
+    }
+
+    /**
+     * 检查批量缓存的方法定义， 配置错误时在解析元数据（启动预热）时失败， 而不是在调用原有方法之后
+     */
+    private void validateBatch(Method method, CacheableBatch cacheableBatch) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        int keyParam = cacheableBatch.keyParam();
+        // 未命中的ID以ArrayList或LinkedHashSet传入原有方法
+        if (keyParam < 1 || keyParam > parameterTypes.length || !isBatchKeyType(parameterTypes[keyParam - 1])) {
+            throw new IllegalStateException(
+                    "@CacheableBatch keyParam must point to a Collection, List or Set parameter: " + method);
+        }
+        // 结果以LinkedHashMap或ArrayList返回
+        Class<?> returnType = method.getReturnType();
+        if (Map.class.isAssignableFrom(returnType) && returnType.isAssignableFrom(LinkedHashMap.class)) {
+            return;
+        }
+        if (!Collection.class.isAssignableFrom(returnType) || !returnType.isAssignableFrom(ArrayList.class)) {
+            throw new IllegalStateException("@CacheableBatch method must return a Map or a List: " + method);
+        }
+        if (StringUtils.isEmpty(cacheableBatch.resultKeyExpression())) {
+            throw new IllegalStateException("resultKeyExpression is required when @CacheableBatch method returns a collection: "
+                    + method);
+        }
+    }
+
+    private static boolean isBatchKeyType(Class<?> parameterType) {
+        return Collection.class.isAssignableFrom(parameterType) && (parameterType.isAssignableFrom(ArrayList.class)
+                || parameterType.isAssignableFrom(LinkedHashSet.class));
+    }
+
+    /**
+     * 缓存生命周期抖动配置， 优先取注解配置， 其次取第一个缓存名称的配置与全局配置
+     */
+    private TtlJitter ttlJitter(String annotationJitter, String... cacheNames) {
+        if (!StringUtils.isEmpty(annotationJitter)) {
+            return TtlJitter.parse(annotationJitter);
+        }
+        String cacheName = cacheNames.length > 0 ? cacheNames[0] : null;
+        return TtlJitter.parse(cacheRegionProperties.resolve(cacheName, cacheConfigProperties).getTtlJitter());
+    }
+
+    private CacheKeyPlan keyPlan(Method method, String keyExpression) {
+        if (StringUtils.isEmpty(keyExpression)) {
+            return null;
+        }
+        return springExpressionParserUtil.getKeyPlan(method, keyExpression);
+    }
+
+    /**
+     * 优先取目标类方法上的注解， 其次取接口方法上的注解
+     */
+    private <T extends Annotation> T findAnnotation(Method specificMethod, Method method, Class<T> annotationClass) {
+        T annotation = specificMethod.getAnnotation(annotationClass);
+        if (annotation == null && specificMethod != method) {
+            annotation = method.getAnnotation(annotationClass);
+        }
+        return annotation;
+    }
+
+    /**
+     * 容器启动完成后， 扫描Bean预热缓存元数据
+     * @param event
+     */
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (!cacheConfigProperties.isPrewarmMetadata()) {
+            return;
+        }
+        ApplicationContext applicationContext = event.getApplicationContext();
+        int before = metadataCache.size();
+        for (String beanName : applicationContext.getBeanDefinitionNames()) {
+            Class<?> beanType;
+            try {
+                beanType = applicationContext.getType(beanName);
+            } catch (Exception e) {
+                continue;
+            }
+            if (beanType != null) {
+                prewarm(ClassUtils.getUserClass(beanType));
+            }
+        }
+        logger.info("onApplicationEvent # cache operation metadata prewarmed, methods: " + (metadataCache.size() - before));
+    }
+
+    /**
+     * 预热指定类的缓存元数据（包括类方法与其实现的接口方法）
+     * @param userClass
+     */
+    private void prewarm(final Class<?> userClass) {
+        ReflectionUtils.doWithMethods(userClass, method -> {
+            try {
+                getMetadata(method, userClass);
+                for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(userClass)) {
+                    Method ifcMethod = ClassUtils.getMethodIfAvailable(ifc, method.getName(), method.getParameterTypes());
+                    if (ifcMethod != null) {
+                        getMetadata(ifcMethod, userClass);
+                    }
+                }
+            } catch (IllegalStateException e) {
+                // 缓存注解配置错误， 启动失败
+                throw e;
+            } catch (Exception e) {
+                logger.error("prewarm # resolve cache metadata failed, method: " + method + " ## " + e.getMessage(), e);
+            }
+        }, method -> !method.isBridge() && (method.isAnnotationPresent(Cacheable.class)
+                || method.isAnnotationPresent(CachePut.class)
+                || method.isAnnotationPresent(CacheDelete.class)
+                || method.isAnnotationPresent(CacheableBatch.class)));
+    }
+}
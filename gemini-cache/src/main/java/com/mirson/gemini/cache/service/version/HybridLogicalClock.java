@@ -0,0 +1,65 @@
+package com.mirson.gemini.cache.service.version;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 混合逻辑时钟（HLC）
+ * 版本号高48位为物理时间（毫秒）， 低16位为逻辑计数， 本机单调递增；
+ * 收到其他节点的版本号时合并推进， 保证因果顺序上后发生的写入版本号更大。
+ */
+public class HybridLogicalClock {
+
+    /**
+     * 逻辑计数位数
+     */
+    private static final int LOGICAL_BITS = 16;
+
+    /**
+     * 最近一次生成或合并的版本号
+     */
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * 生成新的版本号
+     * @return
+     */
+    public long next() {
+        for (;;) {
+            long current = last.get();
+            long physical = physicalNow();
+            long next = physical > current ? physical : current + 1;
+            if (last.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 合并其他节点的版本号
+     * @param remoteVersion
+     */
+    public void update(long remoteVersion) {
+        for (;;) {
+            long current = last.get();
+            if (remoteVersion <= current) {
+                return;
+            }
+            if (last.compareAndSet(current, remoteVersion)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 版本号对应的物理时间（毫秒）
+     * @param version
+     * @return
+     */
+    public static long physicalTime(long version) {
+        return version >>> LOGICAL_BITS;
+    }
+
+    private static long physicalNow() {
+        return System.currentTimeMillis() << LOGICAL_BITS;
+    }
+}
@@ -0,0 +1,93 @@
+package com.mirson.gemini.cache.service.version;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.io.Serializable;
+
+/**
+ * 带版本号的缓存对象
+ * Redis与本地缓存均以此对象存储， 版本号用于丢弃过期的变更消息， 防止旧值覆盖新值。
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY)
+public final class VersionedValue implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 无版本号（旧格式数据）
+     */
+    public static final long NO_VERSION = 0L;
+
+    /**
+     * 缓存对象
+     */
+    private Object value;
+
+    /**
+     * 版本号
+     */
+    private long version;
+
+    /**
+     * 序列化后的字节数， 由缓存编码在读写Redis时记录， 不参与序列化， 未记录时为0
+     */
+    @JsonIgnore
+    private transient int serializedSize;
+
+    public VersionedValue() {
+    }
+
+    public VersionedValue(Object value, long version) {
+        this.value = value;
+        this.version = version;
+    }
+
+    /**
+     * 包装存储的缓存对象， 旧格式数据版本号为0
+     * @param stored
+     * @return
+     */
+    public static VersionedValue of(Object stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored instanceof VersionedValue) {
+            return (VersionedValue) stored;
+        }
+        return new VersionedValue(stored, NO_VERSION);
+    }
+
+    /**
+     * 获取存储对象中的缓存值
+     * @param stored
+     * @return
+     */
+    public static Object unwrap(Object stored) {
+        if (stored instanceof VersionedValue) {
+            return ((VersionedValue) stored).value;
+        }
+        return stored;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getSerializedSize() {
+        return serializedSize;
+    }
+
+    public void setSerializedSize(int serializedSize) {
+        this.serializedSize = serializedSize;
+    }
+
+    @Override
+    public String toString() {
+        return "VersionedValue(version=" + version + ", value=" + value + ")";
+    }
+}
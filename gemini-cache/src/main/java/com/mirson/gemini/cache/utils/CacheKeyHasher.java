@@ -0,0 +1,125 @@
+package com.mirson.gemini.cache.utils;
+
+import net.openhft.hashing.LongHashFunction;
+
+import java.util.Map;
+
+/**
+ * 缓存KEY流式哈希计算
+ * 直接对参数取值（字符串字符、数值位等）计算xxHash， 不拼接中间字符串；
+ * 每个参数带类型标记与位置参与计算， 避免 "1" 与 1L、("ab","c") 与 ("a","bc") 产生相同KEY。
+ */
+final class CacheKeyHasher {
+
+    private static final long PRIME = 0x9E3779B97F4A7C15L;
+
+    private static final long NULL_HASH = 0x5DEECE66DL;
+
+    private static final int TAG_STRING = 1;
+    private static final int TAG_LONG = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_DOUBLE = 4;
+    private static final int TAG_BOOLEAN = 5;
+    private static final int TAG_CHAR = 6;
+    private static final int TAG_BYTES = 7;
+    private static final int TAG_ENUM = 8;
+    private static final int TAG_ARRAY = 9;
+    private static final int TAG_ITERABLE = 10;
+    private static final int TAG_MAP = 11;
+    private static final int TAG_OBJECT = 12;
+
+    private final LongHashFunction hashFunction;
+
+    private final long seed;
+
+    CacheKeyHasher(long seed) {
+        this.seed = seed;
+        this.hashFunction = LongHashFunction.xx(seed);
+    }
+
+    /**
+     * 计算参数列表的哈希值
+     * @param args
+     * @return
+     */
+    long hash(Object[] args) {
+        long h = seed ^ args.length;
+        for (Object arg : args) {
+            h = combine(h, hashValue(arg));
+        }
+        return finish(h);
+    }
+
+    private long hashValue(Object value) {
+        if (value == null) {
+            return NULL_HASH;
+        }
+        if (value instanceof String) {
+            return tagged(TAG_STRING, hashFunction.hashChars((String) value));
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            long v = ((Number) value).longValue();
+            return tagged(value instanceof Long ? TAG_LONG : TAG_INT, hashFunction.hashLong(v));
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return tagged(TAG_DOUBLE, hashFunction.hashLong(Double.doubleToLongBits(((Number) value).doubleValue())));
+        }
+        if (value instanceof Boolean) {
+            return tagged(TAG_BOOLEAN, hashFunction.hashInt((Boolean) value ? 1 : 0));
+        }
+        if (value instanceof Character) {
+            return tagged(TAG_CHAR, hashFunction.hashInt((Character) value));
+        }
+        if (value instanceof Enum) {
+            return tagged(TAG_ENUM, hashFunction.hashChars(((Enum<?>) value).name()));
+        }
+        if (value instanceof byte[]) {
+            return tagged(TAG_BYTES, hashFunction.hashBytes((byte[]) value));
+        }
+        if (value instanceof char[]) {
+            return tagged(TAG_STRING, hashFunction.hashChars((char[]) value));
+        }
+        if (value instanceof Object[]) {
+            return tagged(TAG_ARRAY, hash((Object[]) value));
+        }
+        if (value instanceof Map) {
+            long h = seed;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                h = combine(combine(h, hashValue(entry.getKey())), hashValue(entry.getValue()));
+            }
+            return tagged(TAG_MAP, finish(h));
+        }
+        if (value instanceof Iterable) {
+            long h = seed;
+            for (Object element : (Iterable<?>) value) {
+                h = combine(h, hashValue(element));
+            }
+            return tagged(TAG_ITERABLE, finish(h));
+        }
+        if (value instanceof CharSequence) {
+            return tagged(TAG_STRING, hashFunction.hashChars(new StringBuilder((CharSequence) value)));
+        }
+        // 其他对象按toString计算， 与SHA/CONCAT保持一致的取值语义
+        return tagged(TAG_OBJECT, hashFunction.hashChars(value.toString()));
+    }
+
+    private static long tagged(int tag, long hash) {
+        return hash ^ (tag * PRIME);
+    }
+
+    private static long combine(long h, long valueHash) {
+        return (Long.rotateLeft(h, 31) ^ valueHash) * PRIME;
+    }
+
+    /**
+     * 最终混淆（murmur3 fmix64）
+     */
+    private static long finish(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
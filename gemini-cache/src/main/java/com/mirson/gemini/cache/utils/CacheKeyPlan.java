@@ -0,0 +1,167 @@
+package com.mirson.gemini.cache.utils;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.expression.Expression;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 缓存KEY表达式执行计划
+ * 表达式只在首次使用时解析一次，#paramN 与 #paramN.属性 形式直接通过参数下标与getter获取，
+ * 其余形式采用预编译的Spring EL表达式。
+ */
+public final class CacheKeyPlan {
+
+    /**
+     * KEY组成部分
+     */
+    private final KeyPart[] parts;
+
+    CacheKeyPlan(KeyPart[] parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * 根据方法参数与返回结果生成缓存KEY
+     * @param args
+     * @param returnedObject
+     * @param keyGenerator
+     * @return
+     */
+    public Object buildCacheKey(Object[] args, Object returnedObject, KeyGenerators keyGenerator) {
+        return CacheUtil.buildCacheKey(keyGenerator, evaluate(args, returnedObject));
+    }
+
+    /**
+     * 计算表达式各组成部分的取值
+     * @param args
+     * @param returnedObject
+     * @return
+     */
+    public Object[] evaluate(Object[] args, Object returnedObject) {
+        Object[] params = new Object[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            params[i] = parts[i].getValue(args, returnedObject);
+        }
+        return params;
+    }
+
+    /**
+     * KEY组成部分取值接口
+     */
+    interface KeyPart {
+
+        Object getValue(Object[] args, Object returnedObject);
+    }
+
+    /**
+     * 直接获取方法参数， 对应 #paramN
+     */
+    static final class ArgumentPart implements KeyPart {
+
+        private final int index;
+
+        ArgumentPart(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public Object getValue(Object[] args, Object returnedObject) {
+            return args[index];
+        }
+    }
+
+    /**
+     * 直接获取返回结果， 对应 #result
+     */
+    static final class ResultPart implements KeyPart {
+
+        static final ResultPart INSTANCE = new ResultPart();
+
+        @Override
+        public Object getValue(Object[] args, Object returnedObject) {
+            return returnedObject;
+        }
+    }
+
+    /**
+     * 通过getter获取参数或返回结果的属性， 对应 #paramN.属性 与 #result.属性
+     * getter按运行时类型缓存， 无getter时降级为Spring EL表达式
+     */
+    static final class PropertyPart implements KeyPart {
+
+        private final KeyPart source;
+
+        private final String propertyName;
+
+        private final KeyPart fallback;
+
+        private final ConcurrentMap<Class<?>, Method> getters = new ConcurrentHashMap<>(4);
+
+        PropertyPart(KeyPart source, String propertyName, KeyPart fallback) {
+            this.source = source;
+            this.propertyName = propertyName;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Object getValue(Object[] args, Object returnedObject) {
+            Object target = source.getValue(args, returnedObject);
+            if (target == null) {
+                return fallback.getValue(args, returnedObject);
+            }
+            Method getter = getters.get(target.getClass());
+            if (getter == null) {
+                PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(target.getClass(), propertyName);
+                if (descriptor == null || descriptor.getReadMethod() == null) {
+                    return fallback.getValue(args, returnedObject);
+                }
+                getter = descriptor.getReadMethod();
+                getter.setAccessible(true);
+                getters.putIfAbsent(target.getClass(), getter);
+            }
+            try {
+                return getter.invoke(target);
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not read key property '" + propertyName + "' from "
+                        + target.getClass().getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Spring EL 表达式取值， 优先使用编译后的表达式， 编译执行失败时切换为解释执行
+     */
+    static final class ExpressionPart implements KeyPart {
+
+        private final boolean resultRoot;
+
+        private final Expression interpreted;
+
+        private volatile Expression compiled;
+
+        ExpressionPart(Expression compiled, Expression interpreted, boolean resultRoot) {
+            this.compiled = compiled;
+            this.interpreted = interpreted;
+            this.resultRoot = resultRoot;
+        }
+
+        @Override
+        public Object getValue(Object[] args, Object returnedObject) {
+            Object root = resultRoot ? returnedObject : args;
+            Expression expression = compiled;
+            if (expression != null) {
+                try {
+                    return expression.getValue(root);
+                } catch (RuntimeException e) {
+                    // 编译后的表达式因类型变化等原因失败， 不再使用编译模式
+                    compiled = null;
+                }
+            }
+            return interpreted.getValue(root);
+        }
+    }
+}
@@ -8,9 +8,68 @@ import org.apache.commons.codec.digest.DigestUtils;
  */
 public final class CacheUtil {
 
+  /**
+   * 64位哈希计算（同时作为128位哈希的低64位）
+   */
+  private static final CacheKeyHasher HASHER = new CacheKeyHasher(0L);
+
+  /**
+   * 128位哈希的高64位
+   */
+  private static final CacheKeyHasher HIGH_HASHER = new CacheKeyHasher(0x2545F4914F6CDD1DL);
+
   private CacheUtil() {
   }
 
+  /**
+   * 根据KEY生成器创建缓存KEY
+   * @param keyGenerator
+   * @param args
+   * @return
+   */
+  public static Object buildCacheKey(KeyGenerators keyGenerator, Object... args) {
+    switch (keyGenerator) {
+      case CONCAT:
+        return buildStringCacheKey(args);
+      case XXHASH:
+        return buildHashCacheKey(args);
+      case XXHASH128:
+        return buildHash128CacheKey(args);
+      case COMPOSITE:
+        return buildCompositeCacheKey(args);
+      case SHA:
+      default:
+        return buildCacheKey(args);
+    }
+  }
+
+  /**
+   * 创建64位xxHash缓存KEY（直接对参数取值计算， 不生成中间字符串）
+   * @param args
+   * @return
+   */
+  public static long buildHashCacheKey(Object... args) {
+    return HASHER.hash(args);
+  }
+
+  /**
+   * 创建128位xxHash缓存KEY
+   * @param args
+   * @return
+   */
+  public static Hash128CacheKey buildHash128CacheKey(Object... args) {
+    return new Hash128CacheKey(HIGH_HASHER.hash(args), HASHER.hash(args));
+  }
+
+  /**
+   * 创建复合缓存KEY
+   * @param args
+   * @return
+   */
+  public static CompositeCacheKey buildCompositeCacheKey(Object... args) {
+    return new CompositeCacheKey(args.clone());
+  }
+
   /**
    * Takes a list of arguments and returns a cache key for given objects.
    */
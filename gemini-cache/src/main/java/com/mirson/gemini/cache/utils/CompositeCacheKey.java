@@ -0,0 +1,56 @@
+package com.mirson.gemini.cache.utils;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * 由参数组成的复合缓存KEY， 按参数值比较， 不存在哈希碰撞
+ * 参数需实现equals/hashCode， 写入Redis时需可序列化， 且放入缓存后不可再修改。
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY)
+public final class CompositeCacheKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Object[] elements;
+
+    @JsonIgnore
+    private final int hashCode;
+
+    @JsonCreator
+    public CompositeCacheKey(@JsonProperty("elements") Object... elements) {
+        this.elements = elements;
+        this.hashCode = Arrays.deepHashCode(elements);
+    }
+
+    public Object[] getElements() {
+        return elements.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompositeCacheKey)) {
+            return false;
+        }
+        CompositeCacheKey other = (CompositeCacheKey) o;
+        return hashCode == other.hashCode && Arrays.deepEquals(elements, other.elements);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.deepToString(elements);
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InvalidClassException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.zip.GZIPInputStream;
@@ -14,45 +15,39 @@ import java.util.zip.GZIPOutputStream;
 
 /**
  * Gzip压缩
+ * @deprecated 每次调用创建新的Deflater/Inflater并采用Java序列化， 请使用 {@link PooledGzipRedisSerializer}
  */
+@Deprecated
 public class GenericGZIPRedisSerializer
         implements RedisSerializer<Object> {
 
     private static final Logger logger = LoggerFactory.getLogger(GenericGZIPRedisSerializer.class);
 
     public byte[] serialize(Object object) {
-        ByteArrayOutputStream baos;
-        GZIPOutputStream gzipOut;
-        ObjectOutputStream objectOutputStream;
-        try {
-            if(null != object ) {
-                baos = new ByteArrayOutputStream();
-                gzipOut = new GZIPOutputStream(baos);
-                objectOutputStream = new ObjectOutputStream(gzipOut);
-                objectOutputStream.writeObject(object);
-                objectOutputStream.flush();
-                gzipOut.finish();
-                objectOutputStream.close();
-                return baos.toByteArray();
-            }
+        if (null == object) {
             return null;
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        // 关闭时释放Deflater的原生内存
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(new GZIPOutputStream(baos))) {
+            objectOutputStream.writeObject(object);
+            objectOutputStream.flush();
         } catch (Exception e) {
             throw new RedisSystemException(
                     "Could not serialize. ", e);
         }
+        return baos.toByteArray();
     }
 
     public Object deserialize(byte[] bytes) {
-        try {
-            if(null != bytes) {
-                ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
-                GZIPInputStream gin = new GZIPInputStream(bais);
-                ObjectInputStream ois = new ObjectInputStream(gin);
-                return ois.readObject();
-            }
+        if (null == bytes) {
             return null;
+        }
+        // 关闭时释放Inflater的原生内存
+        try (ObjectInputStream ois = new ObjectInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes)))) {
+            return ois.readObject();
         } catch (Exception e) {
-            if (e.getMessage().contains("InvalidClassException")) {
+            if (e instanceof InvalidClassException) {
                 throw new RedisSystemException(
                         "Could not deserialize. Invalid version of class found: ", e);
             } else {
@@ -0,0 +1,56 @@
+package com.mirson.gemini.cache.utils;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.io.Serializable;
+
+/**
+ * 128位哈希缓存KEY
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY)
+public final class Hash128CacheKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long high;
+
+    private final long low;
+
+    @JsonCreator
+    public Hash128CacheKey(@JsonProperty("high") long high, @JsonProperty("low") long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Hash128CacheKey)) {
+            return false;
+        }
+        Hash128CacheKey other = (Hash128CacheKey) o;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (low ^ (low >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
@@ -5,5 +5,28 @@ package com.mirson.gemini.cache.utils;
  */
 public enum KeyGenerators
 {
-    SHA, CONCAT
+    /**
+     * 参数拼接后取SHA1摘要， 再转为32位hashCode（兼容原有KEY）
+     */
+    SHA,
+
+    /**
+     * 参数toString拼接的字符串
+     */
+    CONCAT,
+
+    /**
+     * 基于xxHash直接对参数取值计算的64位哈希（不生成中间字符串）
+     */
+    XXHASH,
+
+    /**
+     * 基于xxHash计算的128位哈希， 适用于KEY数量极大的场景
+     */
+    XXHASH128,
+
+    /**
+     * 由参数组成的复合KEY对象（不做哈希， 无碰撞， 适用于本地Caffeine缓存， 参数需可序列化且不可变）
+     */
+    COMPOSITE
 }
@@ -0,0 +1,78 @@
+package com.mirson.gemini.cache.utils;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Reactor Mono 适配（反射调用）
+ * 缓存组件不直接依赖Reactor 3， 运行时存在 reactor.core.publisher.Mono 时才支持返回Mono的缓存方法。
+ */
+public final class MonoSupport {
+
+    private static final String MONO_CLASS_NAME = "reactor.core.publisher.Mono";
+
+    private static final Class<?> MONO_CLASS;
+
+    private static final Method FROM_FUTURE;
+
+    private static final Method DEFER;
+
+    private static final Method TO_FUTURE;
+
+    static {
+        Class<?> monoClass = null;
+        Method fromFuture = null;
+        Method defer = null;
+        Method toFuture = null;
+        ClassLoader classLoader = MonoSupport.class.getClassLoader();
+        if (ClassUtils.isPresent(MONO_CLASS_NAME, classLoader)) {
+            monoClass = ClassUtils.resolveClassName(MONO_CLASS_NAME, classLoader);
+            fromFuture = ClassUtils.getStaticMethod(monoClass, "fromFuture", CompletableFuture.class);
+            defer = ClassUtils.getStaticMethod(monoClass, "defer", Supplier.class);
+            toFuture = ClassUtils.getMethodIfAvailable(monoClass, "toFuture");
+        }
+        if (fromFuture == null || defer == null || toFuture == null) {
+            monoClass = null;
+        }
+        MONO_CLASS = monoClass;
+        FROM_FUTURE = fromFuture;
+        DEFER = defer;
+        TO_FUTURE = toFuture;
+    }
+
+    private MonoSupport() {
+    }
+
+    /**
+     * 是否为Mono类型
+     * @param type
+     * @return
+     */
+    public static boolean isMono(Class<?> type) {
+        return MONO_CLASS != null && MONO_CLASS.isAssignableFrom(type);
+    }
+
+    /**
+     * 创建延迟执行的Mono， 订阅时才调用supplier， 结果为空时Mono为空
+     * @param supplier
+     * @return
+     */
+    public static Object defer(Supplier<CompletableFuture<Object>> supplier) {
+        Supplier<Object> monoSupplier = () -> ReflectionUtils.invokeMethod(FROM_FUTURE, null, supplier.get());
+        return ReflectionUtils.invokeMethod(DEFER, null, monoSupplier);
+    }
+
+    /**
+     * 订阅Mono并转换为CompletableFuture， Mono为空时结果为空
+     * @param mono
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static CompletableFuture<Object> toFuture(Object mono) {
+        return (CompletableFuture<Object>) ReflectionUtils.invokeMethod(TO_FUTURE, mono);
+    }
+}
@@ -0,0 +1,216 @@
+package com.mirson.gemini.cache.utils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 对象占用堆内存估算工具（按64位JVM、开启压缩指针估算）
+ * 字符串、数组、集合按固定公式计算， 普通对象按字段布局递归计算， 字段布局按类缓存；
+ * 大集合只抽样部分元素， 单次估算访问的对象数量有上限， 保证估算开销可控。
+ */
+public final class ObjectSizeEstimator {
+
+    private static final int OBJECT_HEADER = 12;
+
+    private static final int ARRAY_HEADER = 16;
+
+    private static final int REFERENCE = 4;
+
+    /**
+     * 集合每个元素的节点开销（HashMap.Node / LinkedList.Node 等）
+     */
+    private static final int COLLECTION_NODE = 32;
+
+    /**
+     * 集合抽样元素数量
+     */
+    private static final int SAMPLE_SIZE = 64;
+
+    /**
+     * 单次估算访问的最大对象数量
+     */
+    private static final int MAX_VISITED = 4096;
+
+    /**
+     * 类字段布局缓存
+     */
+    private static final ConcurrentMap<Class<?>, ClassLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+    private ObjectSizeEstimator() {
+    }
+
+    /**
+     * 估算对象及其引用对象占用的内存字节数
+     * @param object
+     * @return
+     */
+    public static long estimate(Object object) {
+        if (object == null) {
+            return 0;
+        }
+        return new Walker().size(object);
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    /**
+     * 单次估算过程， 记录已访问对象， 避免循环引用与重复计算
+     */
+    private static final class Walker {
+
+        private final IdentityHashMap<Object, Boolean> visited = new IdentityHashMap<>();
+
+        private long size(Object object) {
+            if (object == null || visited.size() >= MAX_VISITED || visited.put(object, Boolean.TRUE) != null) {
+                return 0;
+            }
+            Class<?> type = object.getClass();
+            if (object instanceof String) {
+                return align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + 2L * ((String) object).length());
+            }
+            if (type.isEnum() || object instanceof Class) {
+                return 0;
+            }
+            if (type.isArray()) {
+                return arraySize(object, type.getComponentType());
+            }
+            if (object instanceof Collection) {
+                Collection<?> collection = (Collection<?>) object;
+                return align(OBJECT_HEADER + 28) + align(ARRAY_HEADER + (long) REFERENCE * collection.size())
+                        + sampled(collection.iterator(), collection.size());
+            }
+            if (object instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) object;
+                long size = align(OBJECT_HEADER + 36) + align(ARRAY_HEADER + (long) REFERENCE * map.size());
+                return size + sampledEntries(map);
+            }
+            ClassLayout layout = layout(type);
+            long size = layout.shallowSize;
+            for (Field field : layout.referenceFields) {
+                try {
+                    size += size(field.get(object));
+                } catch (Exception e) {
+                    // 无法访问的字段只计算引用本身
+                }
+            }
+            return size;
+        }
+
+        private long arraySize(Object array, Class<?> componentType) {
+            int length = Array.getLength(array);
+            if (componentType.isPrimitive()) {
+                return align(ARRAY_HEADER + (long) primitiveSize(componentType) * length);
+            }
+            Object[] elements = (Object[]) array;
+            long size = align(ARRAY_HEADER + (long) REFERENCE * length);
+            int sampled = Math.min(length, SAMPLE_SIZE);
+            long elementsSize = 0;
+            for (int i = 0; i < sampled; i++) {
+                elementsSize += size(elements[i]);
+            }
+            return size + scale(elementsSize, sampled, length);
+        }
+
+        private long sampled(Iterator<?> iterator, int total) {
+            int sampled = 0;
+            long elementsSize = 0;
+            while (sampled < SAMPLE_SIZE && iterator.hasNext()) {
+                elementsSize += COLLECTION_NODE + size(iterator.next());
+                sampled++;
+            }
+            return scale(elementsSize, sampled, total);
+        }
+
+        private long sampledEntries(Map<?, ?> map) {
+            int sampled = 0;
+            long entriesSize = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (sampled >= SAMPLE_SIZE) {
+                    break;
+                }
+                entriesSize += COLLECTION_NODE + size(entry.getKey()) + size(entry.getValue());
+                sampled++;
+            }
+            return scale(entriesSize, sampled, map.size());
+        }
+
+        private long scale(long sampledSize, int sampled, int total) {
+            if (sampled == 0 || sampled == total) {
+                return sampledSize;
+            }
+            return sampledSize * total / sampled;
+        }
+    }
+
+    private static ClassLayout layout(Class<?> type) {
+        ClassLayout layout = LAYOUTS.get(type);
+        if (layout == null) {
+            layout = new ClassLayout(type);
+            LAYOUTS.putIfAbsent(type, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * 类字段布局： 对象自身大小与需要递归计算的引用字段
+     */
+    private static final class ClassLayout {
+
+        private final long shallowSize;
+
+        private final Field[] referenceFields;
+
+        private ClassLayout(Class<?> type) {
+            long size = OBJECT_HEADER;
+            List<Field> references = new ArrayList<>();
+            // JDK内部类型只计算自身大小， 不反射访问其字段
+            boolean walkFields = !type.getName().startsWith("java.") && !type.getName().startsWith("javax.");
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType().isPrimitive()) {
+                        size += primitiveSize(field.getType());
+                        continue;
+                    }
+                    size += REFERENCE;
+                    if (walkFields) {
+                        try {
+                            field.setAccessible(true);
+                            references.add(field);
+                        } catch (RuntimeException e) {
+                            // 模块限制等原因无法访问的字段只计算引用本身
+                        }
+                    }
+                }
+            }
+            this.shallowSize = align(size);
+            this.referenceFields = references.toArray(new Field[references.size()]);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.mirson.gemini.cache.utils;
+
+import com.mirson.gemini.cache.service.codec.CacheCodec;
+import com.mirson.gemini.cache.service.codec.JacksonCacheCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Gzip压缩（替代 {@link GenericGZIPRedisSerializer}）
+ * 对象采用 {@link CacheCodec} 编码（默认JSON， 不使用Java序列化）， 按标准GZIP格式压缩；
+ * Deflater/Inflater在有界池中复用， 压缩与解压直接读写Netty池化缓冲区， 只在返回结果时复制一次；
+ * 解压时按实际解压的数据量扩容， GZIP尾中的原始长度只用于校验， 超过解压上限的数据视为损坏。
+ * 归还时池已满或调用 {@link #destroy()} 后立即释放原生内存， 不依赖finalize。
+ */
+public class PooledGzipRedisSerializer implements RedisSerializer<Object>, DisposableBean {
+
+    /**
+     * GZIP头（与GZIPOutputStream一致： 无文件名、无时间戳）
+     */
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private static final int HEADER_LENGTH = HEADER.length;
+
+    /**
+     * GZIP尾（CRC32 + 原始长度）
+     */
+    private static final int TRAILER_LENGTH = 8;
+
+    private static final int FHCRC = 2;
+
+    private static final int FEXTRA = 4;
+
+    private static final int FNAME = 8;
+
+    private static final int FCOMMENT = 16;
+
+    /**
+     * 默认解压上限（64MB）
+     */
+    public static final int DEFAULT_MAX_LENGTH = 64 * 1024 * 1024;
+
+    /**
+     * 解压缓冲区的最小扩容大小
+     */
+    private static final int MIN_BUFFER = 256;
+
+    private final CacheCodec codec;
+
+    private final ZlibPool<Deflater> deflaters;
+
+    private final ZlibPool<Inflater> inflaters;
+
+    /**
+     * 解压后的最大长度
+     */
+    private final int maxLength;
+
+    private final ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+
+    public PooledGzipRedisSerializer() {
+        this(new JacksonCacheCodec(JacksonCacheCodec.Format.JSON));
+    }
+
+    public PooledGzipRedisSerializer(CacheCodec codec) {
+        this(codec, Deflater.DEFAULT_COMPRESSION, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public PooledGzipRedisSerializer(CacheCodec codec, int level, int poolSize) {
+        this(codec, level, poolSize, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param codec 对象编码
+     * @param level 压缩级别
+     * @param poolSize Deflater/Inflater最多保留的个数
+     * @param maxLength 解压后的最大长度（字节）
+     */
+    public PooledGzipRedisSerializer(CacheCodec codec, int level, int poolSize, int maxLength) {
+        this.codec = codec;
+        this.maxLength = maxLength;
+        this.deflaters = new ZlibPool<>(poolSize, () -> new Deflater(level, true), Deflater::reset, Deflater::end);
+        this.inflaters = new ZlibPool<>(poolSize, () -> new Inflater(true), Inflater::reset, Inflater::end);
+    }
+
+    @Override
+    public byte[] serialize(Object object) {
+        if (object == null) {
+            return null;
+        }
+        ByteBuf buf = null;
+        Deflater deflater = null;
+        try {
+            byte[] raw = codec.encode(object);
+            buf = allocator.heapBuffer(HEADER_LENGTH + raw.length / 2 + TRAILER_LENGTH + 64);
+            buf.writeBytes(HEADER);
+            deflater = deflaters.borrow();
+            deflater.setInput(raw);
+            deflater.finish();
+            while (!deflater.finished()) {
+                buf.ensureWritable(Math.max(256, raw.length / 4));
+                int length = deflater.deflate(buf.array(), buf.arrayOffset() + buf.writerIndex(), buf.writableBytes());
+                buf.writerIndex(buf.writerIndex() + length);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(raw, 0, raw.length);
+            buf.writeIntLE((int) crc.getValue());
+            buf.writeIntLE(raw.length);
+            return ByteBufUtil.getBytes(buf);
+        } catch (Exception e) {
+            throw new RedisSystemException("Could not serialize. ", e);
+        } finally {
+            if (deflater != null) {
+                deflaters.release(deflater);
+            }
+            if (buf != null) {
+                buf.release();
+            }
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        ByteBuf buf = null;
+        Inflater inflater = null;
+        try {
+            int offset = skipHeader(bytes);
+            int trailer = bytes.length - TRAILER_LENGTH;
+            int expectedCrc = readIntLE(bytes, trailer);
+            int length = readIntLE(bytes, trailer + 4);
+            if (trailer < offset || length < 0 || length > maxLength) {
+                throw new DataFormatException("Corrupt GZIP trailer");
+            }
+            int compressed = trailer - offset;
+            // 原始长度来自未校验的数据， 初始容量按压缩数据大小估算， 之后按实际解压的数据量扩容
+            buf = allocator.heapBuffer(Math.min(length, Math.max(MIN_BUFFER, compressed * 4)), maxLength);
+            inflater = inflaters.borrow();
+            inflater.setInput(bytes, offset, compressed);
+            while (!inflater.finished()) {
+                if (buf.writerIndex() > length) {
+                    throw new DataFormatException("Corrupt GZIP data");
+                }
+                if (!buf.isWritable()) {
+                    buf.ensureWritable(Math.max(1, Math.min(length - buf.writerIndex(), buf.writerIndex())));
+                }
+                int read = inflater.inflate(buf.array(), buf.arrayOffset() + buf.writerIndex(), buf.writableBytes());
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                buf.writerIndex(buf.writerIndex() + read);
+            }
+            int inflated = buf.writerIndex();
+            CRC32 crc = new CRC32();
+            crc.update(buf.array(), buf.arrayOffset(), inflated);
+            if (inflated != length || (int) crc.getValue() != expectedCrc) {
+                throw new DataFormatException("Corrupt GZIP data");
+            }
+            return codec.decode(buf.array(), buf.arrayOffset(), length);
+        } catch (Exception e) {
+            throw new RedisSystemException("Could not deserialize. ", e);
+        } finally {
+            if (inflater != null) {
+                inflaters.release(inflater);
+            }
+            if (buf != null) {
+                buf.release();
+            }
+        }
+    }
+
+    /**
+     * 释放池中的Deflater/Inflater， 之后归还的实例立即释放
+     */
+    @Override
+    public void destroy() {
+        deflaters.close();
+        inflaters.close();
+    }
+
+    /**
+     * 校验并跳过GZIP头
+     * @param bytes
+     * @return 压缩数据的起始位置
+     * @throws DataFormatException
+     */
+    private static int skipHeader(byte[] bytes) throws DataFormatException {
+        if (bytes.length < HEADER_LENGTH + TRAILER_LENGTH || bytes[0] != HEADER[0] || bytes[1] != HEADER[1]
+                || bytes[2] != Deflater.DEFLATED) {
+            throw new DataFormatException("Not in GZIP format");
+        }
+        int flags = bytes[3] & 0xFF;
+        int offset = HEADER_LENGTH;
+        if ((flags & FEXTRA) != 0) {
+            offset += 2 + ((bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8));
+        }
+        if ((flags & FNAME) != 0) {
+            offset = skipZeroTerminated(bytes, offset);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            offset = skipZeroTerminated(bytes, offset);
+        }
+        if ((flags & FHCRC) != 0) {
+            offset += 2;
+        }
+        return offset;
+    }
+
+    private static int skipZeroTerminated(byte[] bytes, int offset) throws DataFormatException {
+        while (offset < bytes.length && bytes[offset] != 0) {
+            offset++;
+        }
+        if (offset >= bytes.length) {
+            throw new DataFormatException("Corrupt GZIP header");
+        }
+        return offset + 1;
+    }
+
+    private static int readIntLE(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8)
+                | ((bytes[offset + 2] & 0xFF) << 16) | ((bytes[offset + 3] & 0xFF) << 24);
+    }
+
+    /**
+     * Deflater/Inflater有界池
+     */
+    private static final class ZlibPool<T> {
+
+        private final BlockingQueue<T> idle;
+
+        private final Supplier<T> factory;
+
+        private final Consumer<T> reset;
+
+        private final Consumer<T> end;
+
+        private volatile boolean closed;
+
+        private ZlibPool(int size, Supplier<T> factory, Consumer<T> reset, Consumer<T> end) {
+            this.idle = new ArrayBlockingQueue<>(Math.max(1, size));
+            this.factory = factory;
+            this.reset = reset;
+            this.end = end;
+        }
+
+        private T borrow() {
+            T instance = idle.poll();
+            return instance != null ? instance : factory.get();
+        }
+
+        private void release(T instance) {
+            reset.accept(instance);
+            if (closed || !idle.offer(instance)) {
+                end.accept(instance);
+            } else if (closed && idle.remove(instance)) {
+                // 归还与关闭并发时由归还方释放
+                end.accept(instance);
+            }
+        }
+
+        private void close() {
+            closed = true;
+            T instance;
+            while ((instance = idle.poll()) != null) {
+                end.accept(instance);
+            }
+        }
+    }
+}
@@ -2,81 +2,194 @@ package com.mirson.gemini.cache.utils;
 
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Component;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
 
 /**
  * Spring EL 表达式处理工具
+ * 缓存KEY表达式按注解方法预编译为执行计划（{@link CacheKeyPlan}）， 每次调用只做一次Map查找。
  */
 @Component
 public class SpringExpressionParserUtil {
 
-  protected static class RootObject {
+  private static final String RESULT_PREFIX = "#result";
 
-    private final Object[] args;
+  private static final String PARAM_PREFIX = "#param";
 
-    private RootObject(Object[] args) {
-      super();
-      this.args = args;
-    }
+  /**
+   * 简单属性名
+   */
+  private static final Pattern PROPERTY_NAME = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*");
 
-    public Object[] getArgs() {
-      return args;
-    }
+  /**
+   * 编译模式解析器（首次解释执行后即编译为字节码）
+   */
+  private final ExpressionParser compilingParser = new SpelExpressionParser(
+      new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, SpringExpressionParserUtil.class.getClassLoader()));
+
+  /**
+   * 解释模式解析器（编译失败时降级使用）
+   */
+  private final ExpressionParser interpretingParser = new SpelExpressionParser();
+
+  /**
+   * 按注解方法缓存的KEY执行计划
+   */
+  private final ConcurrentMap<PlanKey, CacheKeyPlan> methodPlans = new ConcurrentHashMap<>();
+
+  /**
+   * 按表达式缓存的KEY执行计划
+   */
+  private final ConcurrentMap<String, CacheKeyPlan> expressionPlans = new ConcurrentHashMap<>();
+
+  /**
+   * 根据注解方法的KEY表达式生成缓存KEY
+   * @param method 注解所在方法
+   * @param input KEY表达式
+   * @param returnedObject 方法返回结果
+   * @param args 方法参数
+   * @param keyGenerator KEY生成器
+   * @return
+   */
+  public Object parseAndGetCacheKey(Method method, String input, final Object returnedObject,
+      Object[] args, KeyGenerators keyGenerator) {
+    return getKeyPlan(method, input).buildCacheKey(args, returnedObject, keyGenerator);
   }
 
+  /**
+   * 根据KEY表达式生成缓存KEY
+   * @param input KEY表达式
+   * @param returnedObject 方法返回结果
+   * @param args 方法参数
+   * @param keyGenerator KEY生成器
+   * @return
+   */
   public Object parseAndGetCacheKeyFromExpression(String input,
       final Object returnedObject,
       Object[] args, KeyGenerators keyGenerator) {
+    CacheKeyPlan plan = expressionPlans.get(input);
+    if (plan == null) {
+      plan = compile(input);
+      expressionPlans.putIfAbsent(input, plan);
+    }
+    return plan.buildCacheKey(args, returnedObject, keyGenerator);
+  }
+
+  /**
+   * 获取注解方法的KEY执行计划（首次调用时编译）
+   * @param method
+   * @param input
+   * @return
+   */
+  public CacheKeyPlan getKeyPlan(Method method, String input) {
+    PlanKey planKey = new PlanKey(method, input);
+    CacheKeyPlan plan = methodPlans.get(planKey);
+    if (plan == null) {
+      plan = compile(input);
+      methodPlans.putIfAbsent(planKey, plan);
+    }
+    return plan;
+  }
 
-    ExpressionParser parser = new SpelExpressionParser();
-    StandardEvaluationContext standardEvaluationContext;
+  /**
+   * 编译KEY表达式
+   * @param input
+   * @return
+   */
+  public CacheKeyPlan compile(String input) {
     input = input.trim();
-    List<Object> params = new LinkedList<>();
-    if (input.startsWith("#result")) {
-      Expression exp = parser.parseExpression(input);
-      standardEvaluationContext = new StandardEvaluationContext();
-      standardEvaluationContext.setVariable("result", returnedObject);
-      params.add(exp.getValue(standardEvaluationContext, Object.class));
-    } else if (input.startsWith("#param")) {
+    if (input.startsWith(RESULT_PREFIX)) {
+      return new CacheKeyPlan(new CacheKeyPlan.KeyPart[]{compileResultPart(input)});
+    } else if (input.startsWith(PARAM_PREFIX)) {
       String[] paramsArr = input.split(",");
-      for (String param : paramsArr) {
-        standardEvaluationContext = new StandardEvaluationContext(new RootObject(args));
-        Expression expressionObj = parser
-            .parseExpression(convertAnnotationInputToSpringExpression(param));
-        params.add(expressionObj.getValue(standardEvaluationContext, Object.class));
+      CacheKeyPlan.KeyPart[] parts = new CacheKeyPlan.KeyPart[paramsArr.length];
+      for (int i = 0; i < paramsArr.length; i++) {
+        parts[i] = compileParamPart(paramsArr[i].trim());
       }
-    } else {
-      throw new IllegalArgumentException("Invalid key expression");
+      return new CacheKeyPlan(parts);
     }
-    return getCacheKey(params, keyGenerator);
+    throw new IllegalArgumentException("Invalid key expression");
   }
 
-  private Object getCacheKey(List<Object> params, KeyGenerators keyGenerator) {
-    switch (keyGenerator) {
-    case SHA:
-      return CacheUtil.buildCacheKey(params);
-    case CONCAT:
-      return CacheUtil.buildStringCacheKey(params.toArray());
-    default:
-      return CacheUtil.buildCacheKey(params);
+  /**
+   * #result 表达式， 以返回结果作为根对象
+   */
+  private CacheKeyPlan.KeyPart compileResultPart(String input) {
+    if (RESULT_PREFIX.equals(input)) {
+      return CacheKeyPlan.ResultPart.INSTANCE;
     }
+    String expression = input.replace(RESULT_PREFIX, "#root");
+    CacheKeyPlan.KeyPart spelPart = expressionPart(expression, true);
+    String property = input.substring(RESULT_PREFIX.length());
+    if (property.startsWith(".") && PROPERTY_NAME.matcher(property.substring(1)).matches()) {
+      return new CacheKeyPlan.PropertyPart(CacheKeyPlan.ResultPart.INSTANCE, property.substring(1), spelPart);
+    }
+    return spelPart;
   }
 
-  private String convertAnnotationInputToSpringExpression(String inputString) {
-    inputString = inputString.trim();
-    String[] inputStringArr = inputString.split("\\.");
-    String indexNumberStr = inputStringArr[0].replace("#param", "");
-    int indexNumber = Integer.valueOf(indexNumberStr);
-    indexNumber--;
-    if (inputStringArr.length > 1)
-      return "args[" + indexNumber + "]" + "." + inputStringArr[1];
-    else
-      return "args[" + indexNumber + "]";
+  /**
+   * #paramN 或 #paramN.属性 表达式， 以方法参数数组作为根对象
+   */
+  private CacheKeyPlan.KeyPart compileParamPart(String param) {
+    int dot = param.indexOf('.');
+    String indexNumberStr = (dot < 0 ? param : param.substring(0, dot)).replace(PARAM_PREFIX, "");
+    int index = Integer.valueOf(indexNumberStr) - 1;
+    CacheKeyPlan.ArgumentPart argumentPart = new CacheKeyPlan.ArgumentPart(index);
+    if (dot < 0) {
+      return argumentPart;
+    }
+    String property = param.substring(dot + 1);
+    CacheKeyPlan.KeyPart spelPart = expressionPart("#root[" + index + "]." + property, false);
+    if (PROPERTY_NAME.matcher(property).matches()) {
+      return new CacheKeyPlan.PropertyPart(argumentPart, property, spelPart);
+    }
+    return spelPart;
+  }
+
+  private CacheKeyPlan.KeyPart expressionPart(String expression, boolean resultRoot) {
+    Expression interpreted = interpretingParser.parseExpression(expression);
+    Expression compiled = compilingParser.parseExpression(expression);
+    return new CacheKeyPlan.ExpressionPart(compiled, interpreted, resultRoot);
+  }
+
+  /**
+   * 执行计划缓存KEY（注解方法 + 表达式）
+   */
+  private static final class PlanKey {
+
+    private final Method method;
+
+    private final String expression;
+
+    private PlanKey(Method method, String expression) {
+      this.method = method;
+      this.expression = expression;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof PlanKey)) {
+        return false;
+      }
+      PlanKey other = (PlanKey) o;
+      return method.equals(other.method) && Objects.equals(expression, other.expression);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * method.hashCode() + Objects.hashCode(expression);
+    }
   }
 
 }